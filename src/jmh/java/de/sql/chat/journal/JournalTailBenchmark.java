@@ -0,0 +1,74 @@
+package de.sql.chat.journal;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long a reconnecting client waits for the last 50 messages of its room
+ * from a journal holding 200,000 messages in several segments.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalTailBenchmark {
+
+  private static final int MESSAGES = 200_000;
+  private static final String[] ROOMS = {"lobby", "dev", "ops", "random"};
+
+  private Path directory;
+  private ChatJournal journal;
+
+  @Setup
+  public void setup() throws IOException, ChatAppException {
+    directory = Files.createTempDirectory("journal-benchmark");
+    journal = new ChatJournal(directory, 4 * 1024 * 1024);
+    CompletableFuture<Void> last = null;
+    for (int i = 0; i < MESSAGES; i++) {
+      last = journal.append(ROOMS[i % ROOMS.length], new ChatMessage(ChatSenderType.CLIENT, "Message number " + i + " of the benchmark"));
+    }
+    last.join();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException, ChatAppException {
+    journal.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  /**
+   * Reads the last 50 messages of one room backwards from the mapped segments.
+   */
+  @Benchmark
+  public List<JournalEntry> tailOfRoom() throws ChatAppException {
+    return journal.tail("dev", 50);
+  }
+}
@@ -0,0 +1,59 @@
+package de.sql.chat.localization;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookup of localized messages, which happens for every status line the application prints.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalizationBenchmark {
+
+  private LocalizedResourceManager resources;
+
+  @Setup
+  public void setup() {
+    resources = LocalizedResourceManager.getInstance();
+  }
+
+  /**
+   * Looks up a message without parameters.
+   */
+  @Benchmark
+  public String getMessage() {
+    return resources.getMessage(LocalizationBundle.MESSAGES, "server.connected");
+  }
+
+  /**
+   * Looks up a room reply and formats its text parameter, as the server does for every member that joins a room.
+   */
+  @Benchmark
+  public String getFormattedReply() {
+    return resources.getFormattedMessage(LocalizationBundle.MESSAGES, "room.joined", "lobby");
+  }
+
+  /**
+   * Looks up a message and formats its parameters.
+   */
+  @Benchmark
+  public String getFormattedMessage() {
+    return resources.getFormattedMessage(LocalizationBundle.MESSAGES, "server.started", "192.168.0.10", 4711);
+  }
+}
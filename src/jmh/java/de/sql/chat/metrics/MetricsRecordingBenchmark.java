@@ -0,0 +1,65 @@
+package de.sql.chat.metrics;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures what the metrics add to every sent message: a message and byte count, a queue depth change and a
+ * send-to-write latency. Run with {@code -prof gc} to check that recording does not allocate.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsRecordingBenchmark {
+
+  private ChatMetrics metrics;
+  private long latency;
+
+  @Setup
+  public void setup() {
+    metrics = ChatMetrics.getInstance();
+  }
+
+  /**
+   * Records the meters of one sent message on a single thread.
+   */
+  @Benchmark
+  public void recordSentMessage() {
+    record();
+  }
+
+  /**
+   * Records the meters of one sent message on four threads at once, as the sessions of a busy server do.
+   */
+  @Benchmark
+  @Threads(4)
+  public void recordSentMessageContended() {
+    record();
+  }
+
+  private void record() {
+    metrics.messageSent();
+    metrics.queueChanged(1, 64);
+    metrics.queueChanged(-1, -64);
+    metrics.bytesSent(64);
+    // Spreads the latencies over a few buckets like real traffic
+    latency = (latency + 7919) & 0xFFFFF;
+    metrics.getSendToWrite().record(latency);
+  }
+}
@@ -0,0 +1,88 @@
+package de.sql.chat.room;
+
+import de.sql.chat.protocol.LineCodec;
+import de.sql.chat.protocol.WireProtocol;
+import de.sql.chat.session.ChatMessage;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of fanning one message out to 1000 room members, in delivered messages per second.
+ * Run with {@code -prof gc} to get the allocation per delivered message ({@code gc.alloc.rate.norm}).
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomFanOutBenchmark {
+
+  private static final int RECIPIENTS = 1000;
+  private static final String LINE = "Client: The deployment finished, please check the dashboards before lunch";
+
+  private ChatRoom room;
+  private CountingMember[] members;
+
+  @Setup
+  public void setup() {
+    ChatRoomRegistry registry = new ChatRoomRegistry();
+    members = new CountingMember[RECIPIENTS];
+    for (int i = 0; i < RECIPIENTS; i++) {
+      members[i] = new CountingMember();
+      room = registry.join(members[i], "benchmark");
+    }
+  }
+
+  /**
+   * Hands the same message to every member, which writes a duplicate of its shared encoded buffer.
+   */
+  @Benchmark
+  @OperationsPerInvocation(RECIPIENTS)
+  public int sharedBuffer() {
+    return room.publish(null, LINE);
+  }
+
+  /**
+   * Baseline that builds and encodes the line again for every recipient.
+   */
+  @Benchmark
+  @OperationsPerInvocation(RECIPIENTS)
+  public int encodePerRecipient() {
+    for (CountingMember member : members) {
+      member.write(LineCodec.encode("Client" + ": " + LINE.substring(8)));
+    }
+    return members.length;
+  }
+
+  /**
+   * A member that consumes the delivered bytes like a socket write would, without any I/O.
+   */
+  private static class CountingMember implements RoomMember {
+    private long bytes;
+
+    @Override
+    public void deliver(ChatMessage message) {
+      write(message.encoded(WireProtocol.LINE).duplicate());
+    }
+
+    void write(ByteBuffer line) {
+      bytes += line.remaining();
+      line.position(line.limit());
+    }
+  }
+}
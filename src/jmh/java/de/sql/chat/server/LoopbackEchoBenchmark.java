@@ -0,0 +1,91 @@
+package de.sql.chat.server;
+
+import de.sql.chat.client.ChatClient;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.session.ChatSession;
+import de.sql.chat.session.EmptyUserInputSource;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the round trip of a message from a {@link ChatClient} to a {@link ChatServer} that echoes it back,
+ * over a real socket on the local host. Run with {@code -bm sample} to also get the latency percentiles.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoopbackEchoBenchmark {
+
+  private static final String TEXT = "The deployment finished, please check the dashboards before lunch";
+  private static final long CONNECT_TIMEOUT_MILLIS = 10_000;
+
+  private final BlockingQueue<String> echoes = new LinkedBlockingQueue<>();
+  private ChatServer server;
+  private ChatClient client;
+  private ChatSession clientSession;
+
+  @Setup
+  public void setup() throws ChatAppException, InterruptedException {
+    server = new ChatServer();
+    server.start(new EmptyUserInputSource());
+    long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+    while (server.getServerPort() == 0) {
+      waitUntil(deadline);
+    }
+
+    client = new ChatClient(server.getServerIP(), server.getServerPort());
+    client.start(new EmptyUserInputSource());
+    while (server.getServerSession() == null || client.getClientSession() == null) {
+      waitUntil(deadline);
+    }
+
+    ChatSession serverSession = server.getServerSession();
+    serverSession.setMessageListener(line -> serverSession.sendMessage(line.substring(line.indexOf(": ") + 2)));
+    clientSession = client.getClientSession();
+    clientSession.setMessageListener(echoes::add);
+  }
+
+  @TearDown
+  public void tearDown() throws ChatAppException {
+    client.close();
+    server.close();
+  }
+
+  /**
+   * Sends one message and waits until its echo has been received.
+   */
+  @Benchmark
+  public String echo() throws InterruptedException {
+    clientSession.sendMessage(TEXT);
+    String echo = echoes.poll(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    if (echo == null) {
+      throw new IllegalStateException("No echo received");
+    }
+    return echo;
+  }
+
+  private static void waitUntil(long deadline) throws InterruptedException {
+    if (System.currentTimeMillis() > deadline) {
+      throw new IllegalStateException("Chat client did not connect");
+    }
+    Thread.sleep(10);
+  }
+}
@@ -0,0 +1,92 @@
+package de.sql.chat.session;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.api.RootLoggerComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long a chat thread is held up by logging a sent message at debug level, as {@link ChatSession} does
+ * for every message. {@code sync-location} is the former configuration, a synchronous file appender with the caller
+ * location in the pattern. {@code sync} drops the location and {@code async} also hands the event to the ring buffer
+ * of an asynchronous root logger, like the shipped {@code config/log4j2.xml}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageLoggingBenchmark {
+
+  private static final String LOCATION_PATTERN = "%d{dd-MM-yyyy HH:mm:ss} %-5level (%logger{36}:%L) [%t_%tid] - %msg%n";
+  private static final String PATTERN = "%d{DEFAULT} %-5level (%logger{36}) [%t_%tid] - %msg%n";
+
+  @Param({"sync-location", "sync", "async"})
+  private String mode;
+
+  private Path directory;
+  private Logger logger;
+  private ChatMessage message;
+
+  @Setup
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("logging-benchmark");
+    ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+    builder.setConfigurationName("MessageLoggingBenchmark");
+    builder.add(builder.newAppender("File", "File")
+        .addAttribute("fileName", directory.resolve("app.log").toString())
+        .add(builder.newLayout("PatternLayout")
+            .addAttribute("pattern", mode.equals("sync-location") ? LOCATION_PATTERN : PATTERN)));
+    RootLoggerComponentBuilder root = mode.equals("async")
+        ? builder.newAsyncRootLogger(Level.DEBUG).addAttribute("includeLocation", false)
+        : builder.newRootLogger(Level.DEBUG);
+    builder.add(root.add(builder.newAppenderRef("File")));
+    Configurator.reconfigure(builder.build());
+
+    logger = LogManager.getLogger(ChatSession.class);
+    message = new ChatMessage(ChatSenderType.SERVER, "A chat message of typical length for the benchmark");
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    LogManager.shutdown();
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  /**
+   * Logs a sent message the way {@link ChatSession} does.
+   */
+  @Benchmark
+  public void logSentMessage() {
+    logger.debug("Message sent: {}", message);
+  }
+}
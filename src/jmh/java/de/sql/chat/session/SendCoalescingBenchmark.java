@@ -0,0 +1,116 @@
+package de.sql.chat.session;
+
+import de.sql.chat.protocol.WireProtocol;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many messages per second a session writes to a loopback socket during a burst of 256 messages,
+ * comparing one flushed write per message with the coalescing send queue.
+ * A background thread reads and discards everything the benchmark writes.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendCoalescingBenchmark {
+
+  private static final int BURST = 256;
+  private static final String TEXT = "The deployment finished, please check the dashboards before lunch";
+
+  /** The coalescing window of the send queue in microseconds, 0 to only combine messages queued during a write. */
+  @Param({"0", "50"})
+  public long windowMicros;
+
+  private ServerSocket serverSocket;
+  private Socket socket;
+  private Socket peer;
+  private Thread reader;
+  private PrintWriter printWriter;
+  private SendQueue sendQueue;
+  private ChatMessage message;
+
+  @Setup
+  public void setup() throws IOException {
+    serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    socket.setTcpNoDelay(true);
+    peer = serverSocket.accept();
+    reader = new Thread(() -> discard(peer));
+    reader.setDaemon(true);
+    reader.start();
+
+    OutputStream out = socket.getOutputStream();
+    printWriter = new PrintWriter(out, true);
+    sendQueue = new SendQueue(Channels.newChannel(out));
+    sendQueue.configure(TimeUnit.MICROSECONDS.toNanos(windowMicros), SendQueue.DEFAULT_MAX_BATCH_BYTES);
+    message = new ChatMessage(ChatSenderType.CLIENT, TEXT);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    socket.close();
+    peer.close();
+    serverSocket.close();
+  }
+
+  /**
+   * Baseline of the former send path: an auto-flushing writer that is flushed once more after every message.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public void flushPerMessage() {
+    for (int i = 0; i < BURST; i++) {
+      printWriter.println(ChatSession.formatMessage(ChatSenderType.CLIENT, TEXT));
+      printWriter.flush();
+    }
+  }
+
+  /**
+   * Queues the burst on the send queue and flushes what is still pending at the end of the burst.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public void sendQueue() throws IOException {
+    for (int i = 0; i < BURST; i++) {
+      sendQueue.send(message.encoded(WireProtocol.LINE).duplicate());
+    }
+    sendQueue.flush();
+  }
+
+  private static void discard(Socket peer) {
+    byte[] buffer = new byte[64 * 1024];
+    try (InputStream in = peer.getInputStream()) {
+      while (in.read(buffer) >= 0) {
+        // Only drain the socket
+      }
+    } catch (IOException e) {
+      // The benchmark closed the socket
+    }
+  }
+}
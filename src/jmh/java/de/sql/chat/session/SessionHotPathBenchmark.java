@@ -0,0 +1,98 @@
+package de.sql.chat.session;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import de.sql.chat.protocol.LineCodec;
+import de.sql.chat.protocol.WireProtocol;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the per-message CPU work of a chat session without any I/O: encoding an outgoing message the way
+ * {@link ChatSession#sendMessage(String)} does, decoding and parsing received lines and the exit command check
+ * applied to every message.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionHotPathBenchmark {
+
+  private static final int LINES = 64;
+  private static final String TEXT = "The deployment finished, please check the dashboards before lunch";
+
+  private final LineCodec lineCodec = new LineCodec();
+  private ByteBuffer received;
+
+  @Setup
+  public void setup() {
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < LINES; i++) {
+      lines.append(ChatSession.formatMessage(ChatSenderType.SERVER, TEXT + " " + i)).append('\n');
+    }
+    received = ByteBuffer.wrap(lines.toString().getBytes(UTF_8));
+  }
+
+  /**
+   * Encodes an outgoing message as a {@code Sender: text} line.
+   */
+  @Benchmark
+  public ByteBuffer encodeLine() {
+    return new ChatMessage(ChatSenderType.CLIENT, TEXT).encoded(WireProtocol.LINE);
+  }
+
+  /**
+   * Encodes an outgoing message as a binary frame.
+   */
+  @Benchmark
+  public ByteBuffer encodeFrame() {
+    return new ChatMessage(ChatSenderType.CLIENT, TEXT).encoded(WireProtocol.BINARY);
+  }
+
+  /**
+   * Splits a buffer of received bytes into lines and parses the sender of every line, per line.
+   */
+  @Benchmark
+  @OperationsPerInvocation(LINES)
+  public void decodeAndParseLines(Blackhole blackhole) throws ProtocolException {
+    ByteBuffer buffer = received.duplicate();
+    String line;
+    while ((line = lineCodec.decodeLine(buffer)) != null) {
+      blackhole.consume(ChatMessage.parse(line));
+    }
+  }
+
+  /**
+   * Checks an ordinary message for the exit command, which every sent message goes through.
+   */
+  @Benchmark
+  public boolean isExitCommand() {
+    return ChatSession.isExitCommand(TEXT);
+  }
+
+  /**
+   * Checks the exit command itself, padded and in a different case.
+   */
+  @Benchmark
+  public boolean isExitCommandMatch() {
+    return ChatSession.isExitCommand("  Exit ");
+  }
+}
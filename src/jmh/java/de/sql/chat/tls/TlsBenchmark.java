@@ -0,0 +1,201 @@
+package de.sql.chat.tls;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import de.sql.chat.client.ChatClient;
+import de.sql.chat.config.ChatConfiguration;
+import de.sql.chat.config.PerformanceSettings;
+import de.sql.chat.config.Tls;
+import de.sql.chat.config.TlsSettings;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.protocol.ProtocolNegotiation;
+import de.sql.chat.server.NioChatServer;
+import de.sql.chat.session.ChatSession;
+import de.sql.chat.session.EmptyUserInputSource;
+import de.sql.chat.session.MessageListener;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLSocket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares plaintext and TLS connections to a {@link NioChatServer} over the local host.
+ * <p>
+ * {@link #connect} measures opening a connection up to the protocol switch of the server, with a full TLS
+ * handshake, a resumed one or none at all. {@link #relay} measures the steady-state throughput of messages relayed
+ * from one client to another through the server, in messages per second.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TlsBenchmark {
+
+  private static final String TEXT = "The deployment finished, please check the dashboards before lunch";
+  private static final int BATCH = 100;
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  /**
+   * A server for new connections, which are plaintext, encrypted with a full handshake or encrypted with a
+   * resumed session.
+   */
+  @State(Scope.Benchmark)
+  public static class ConnectState {
+
+    @Param({"PLAIN", "FULL", "RESUMED"})
+    public String handshake;
+
+    private NioChatServer server;
+    private TlsContext tlsContext;
+    private InetSocketAddress address;
+
+    @Setup
+    public void setup() throws ChatAppException, URISyntaxException {
+      tlsContext = createTlsContext();
+      server = startServer("PLAIN".equals(handshake) ? null : tlsContext);
+      address = new InetSocketAddress("localhost", server.getServerPort());
+    }
+
+    @TearDown
+    public void tearDown() {
+      server.close();
+    }
+  }
+
+  /**
+   * A server with a sending and a receiving client, connected with or without TLS.
+   */
+  @State(Scope.Benchmark)
+  public static class RelayState {
+
+    @Param({"PLAIN", "TLS"})
+    public String transport;
+
+    private final Semaphore received = new Semaphore(0);
+    private NioChatServer server;
+    private ChatClient sender;
+    private ChatClient receiver;
+    private ChatSession senderSession;
+
+    @Setup(Level.Trial)
+    public void setup() throws ChatAppException, URISyntaxException, InterruptedException {
+      TlsContext tlsContext = "TLS".equals(transport) ? createTlsContext() : null;
+      server = startServer(tlsContext);
+      sender = startClient(tlsContext, line -> { });
+      receiver = startClient(tlsContext, line -> received.release());
+      long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+      while (sender.getClientSession() == null || receiver.getClientSession() == null) {
+        if (System.currentTimeMillis() > deadline) {
+          throw new IllegalStateException("Chat clients did not connect");
+        }
+        Thread.sleep(10);
+      }
+      senderSession = sender.getClientSession();
+    }
+
+    private ChatClient startClient(TlsContext tlsContext, MessageListener listener)
+        throws ChatAppException {
+      ChatClient client = new ChatClient("localhost", server.getServerPort());
+      client.setTlsContext(tlsContext);
+      client.setMessageListener(listener);
+      client.start(new EmptyUserInputSource());
+      return client;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws ChatAppException {
+      sender.close();
+      receiver.close();
+      server.close();
+    }
+  }
+
+  /**
+   * Opens a connection, announces binary frames and waits for the server to switch, then closes the connection.
+   * The switch is read so a TLS client also receives the session ticket of the server, like a chat client does.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public String connect(ConnectState state) throws IOException {
+    try (Socket socket = new Socket()) {
+      PerformanceSettings.current().configure(socket);
+      socket.connect(state.address, (int) TIMEOUT_MILLIS);
+      socket.setSoTimeout((int) TIMEOUT_MILLIS);
+      Socket connection = "PLAIN".equals(state.handshake)
+          ? socket
+          : state.tlsContext.wrapClient(socket, state.address.getHostString(), state.address.getPort());
+      try (connection) {
+        OutputStream out = connection.getOutputStream();
+        out.write((ProtocolNegotiation.HELLO + "\n").getBytes(UTF_8));
+        out.flush();
+        String line = new BufferedReader(new InputStreamReader(connection.getInputStream(), UTF_8)).readLine();
+        if ("FULL".equals(state.handshake)) {
+          // Without a cached session the next connection negotiates new keys
+          ((SSLSocket) connection).getSession().invalidate();
+        }
+        return line;
+      }
+    }
+  }
+
+  /**
+   * Sends a batch of messages and waits until the other client received all of them.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(BATCH)
+  public void relay(RelayState state) throws InterruptedException {
+    for (int i = 0; i < BATCH; i++) {
+      state.senderSession.sendMessage(TEXT);
+    }
+    if (!state.received.tryAcquire(BATCH, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+      throw new IllegalStateException("Relayed messages were not received");
+    }
+  }
+
+  private static NioChatServer startServer(TlsContext tlsContext) throws ChatAppException {
+    NioChatServer server = new NioChatServer(1);
+    server.setTlsContext(tlsContext);
+    server.setMessageListener(line -> { });
+    server.start(new EmptyUserInputSource());
+    return server;
+  }
+
+  private static TlsContext createTlsContext() throws ChatAppException, URISyntaxException {
+    String keyStore = Path.of(TlsBenchmark.class.getResource("/tls/test-keystore.p12").toURI()).toString();
+    Tls tls = new Tls();
+    tls.setEnabled(true);
+    tls.setKeyStore(keyStore);
+    tls.setKeyStorePassword("changeit");
+    tls.setTrustStore(keyStore);
+    tls.setTrustStorePassword("changeit");
+    ChatConfiguration configuration = new ChatConfiguration();
+    configuration.setTls(tls);
+    return TlsContext.create(TlsSettings.from(configuration));
+  }
+}
@@ -0,0 +1,76 @@
+package de.sql.chat.util;
+
+import de.sql.chat.config.ChatConfiguration;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing the chat configuration: cold with a new JAXB context for every parse, as before the context
+ * cache, and warm with the cached context and a pooled unmarshaller. For the very first parse in a fresh JVM,
+ * including class loading, run with {@code -bm ss -f 10 -wi 0 -i 1}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlParseBenchmark {
+
+  private static final String CONFIG_FILE_PATH = "config/configuration-chat.xml";
+
+  private String xmlBody;
+  private byte[] xmlBytes;
+
+  @Setup
+  public void setup() throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE_PATH)) {
+      xmlBytes = in.readAllBytes();
+    }
+    xmlBody = new String(xmlBytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates a new context and unmarshaller for every parse.
+   */
+  @Benchmark
+  public ChatConfiguration cold() throws JAXBException {
+    JAXBContext context = JAXBContext.newInstance(ChatConfiguration.class);
+    return (ChatConfiguration) context.createUnmarshaller().unmarshal(new StringReader(xmlBody));
+  }
+
+  /**
+   * Parses a string with the cached context.
+   */
+  @Benchmark
+  public ChatConfiguration warmString() throws JAXBException {
+    return new XmlToObjectUtil<>(xmlBody, ChatConfiguration.class).getTargetObject();
+  }
+
+  /**
+   * Parses a stream with the cached context, without decoding the XML into a string first.
+   */
+  @Benchmark
+  public ChatConfiguration warmStream() throws JAXBException {
+    return XmlToObjectUtil.unmarshal(new ByteArrayInputStream(xmlBytes), ChatConfiguration.class);
+  }
+}
@@ -1,10 +1,28 @@
 package de.sql.chat;
 
 import de.sql.chat.client.ChatClient;
+import de.sql.chat.config.ChatConfigurationAccess;
 import de.sql.chat.server.ChatServer;
+import de.sql.chat.server.NioChatServer;
+import de.sql.chat.server.ServerMode;
+import de.sql.chat.server.VirtualThreadChatServer;
 import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.exceptions.ErrorCode;
 import de.sql.chat.init.AppInitializer;
-import de.sql.chat.session.ScannerUserInputSource;
+import de.sql.chat.init.StartupTimeline;
+import de.sql.chat.journal.ChatJournal;
+import de.sql.chat.load.LoadGenerator;
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.metrics.MetricsEndpoint;
+import de.sql.chat.search.MessageIndex;
+import de.sql.chat.session.StreamUserInputSource;
+import de.sql.chat.session.UserInputSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 /**
@@ -15,7 +33,35 @@ import org.apache.logging.log4j.Logger;
  * @since 8-11-2023
  */
 public class PeerToPeerChat {
+  private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+  static {
+    // Starts the startup clock before log4j2 and the configuration are loaded
+    StartupTimeline.getInstance();
+    // log4j2 reads its configuration when the first logger is created. Pointing it to the configuration file
+    // before that saves parsing a default configuration that AppInitializer replaces right away.
+    Path log4j2Configuration = Paths.get(System.getProperty("user.dir"), AppInitializer.LOG4J2_CONFIGURATION_FILE);
+    if (System.getProperty(AppInitializer.LOG4J2_CONFIGURATION_PROPERTY) == null && Files.exists(log4j2Configuration)) {
+      System.setProperty(AppInitializer.LOG4J2_CONFIGURATION_PROPERTY, log4j2Configuration.toUri().toString());
+    }
+    preloadConfiguration();
+  }
+
   private static final Logger LOGGER = LogManager.getLogger(PeerToPeerChat.class);
+  private ServerMode serverMode = ServerMode.CLASSIC;
+  private int maxConnections = VirtualThreadChatServer.DEFAULT_MAX_CONNECTIONS;
+  private Path journalDirectory;
+  private ChatJournal journal;
+  private MessageIndex messageIndex;
+  private Duration sendWindow;
+  private boolean exitAfterStartup;
+  private int metricsPort = -1;
+  private Path inputFile;
+  private int loadClients;
+  private long loadMessages = LoadGenerator.DEFAULT_MESSAGES_PER_CLIENT;
+  private double loadRate;
+  private Path loadTranscript;
+
   public static void main(String[] args) throws ChatAppException {
     PeerToPeerChat chatApp = new PeerToPeerChat();
     chatApp.run(args);
@@ -35,20 +81,59 @@ public class PeerToPeerChat {
     String otherInstanceIP = null;
     int otherInstancePort = 0;
 
-    if (args.length == 2 && args[0].equals("--other_instance")) {
-      String[] parts = args[1].split(":");
-      if (parts.length == 2) {
-        otherInstanceIP = parts[0];
-        otherInstancePort = Integer.parseInt(parts[1]);
+    try {
+      for (int i = 0; i + 1 < args.length; i += 2) {
+        if (args[i].equals("--other_instance")) {
+          String[] parts = args[i + 1].split(":");
+          if (parts.length == 2) {
+            otherInstanceIP = parts[0];
+            otherInstancePort = Integer.parseInt(parts[1]);
+          }
+        } else if (args[i].equals("--server_mode")) {
+          serverMode = ServerMode.valueOfModeName(args[i + 1]);
+        } else if (args[i].equals("--max_connections")) {
+          maxConnections = Integer.parseInt(args[i + 1]);
+        } else if (args[i].equals("--journal_dir")) {
+          journalDirectory = Path.of(args[i + 1]);
+        } else if (args[i].equals("--search_memory_mb")) {
+          messageIndex = new MessageIndex(Long.parseLong(args[i + 1]) * 1024 * 1024);
+        } else if (args[i].equals("--send_window_us")) {
+          sendWindow = Duration.ofNanos(Long.parseLong(args[i + 1]) * 1000);
+        } else if (args[i].equals("--metrics_port")) {
+          metricsPort = Integer.parseInt(args[i + 1]);
+        } else if (args[i].equals("--input_file")) {
+          inputFile = Path.of(args[i + 1]);
+        } else if (args[i].equals("--load_clients")) {
+          loadClients = Integer.parseInt(args[i + 1]);
+        } else if (args[i].equals("--load_messages")) {
+          loadMessages = Long.parseLong(args[i + 1]);
+        } else if (args[i].equals("--load_rate")) {
+          loadRate = Double.parseDouble(args[i + 1]);
+        } else if (args[i].equals("--load_transcript")) {
+          loadTranscript = Path.of(args[i + 1]);
+        } else if (args[i].equals("--exit_after_startup")) {
+          exitAfterStartup = Boolean.parseBoolean(args[i + 1]);
+        }
       }
+    } catch (IllegalArgumentException e) {
+      LOGGER.error("Invalid command-line argument: {}", e.getMessage());
+      System.err.println("Invalid command-line argument: " + e.getMessage());
+      return;
     }
 
     try {
-      if (otherInstanceIP != null && otherInstancePort != 0) {
+      openJournal();
+      startMetricsEndpoint();
+      if (otherInstanceIP != null && otherInstancePort != 0 && loadClients > 0) {
+        generateLoad(otherInstanceIP, otherInstancePort);
+      } else if (otherInstanceIP != null && otherInstancePort != 0) {
         startClient(otherInstanceIP, otherInstancePort);
       } else {
         startServer();
       }
+      if (exitAfterStartup) {
+        exitAfterStartup();
+      }
     } catch (ChatAppException e) {
       LOGGER.error("Chat Application Error: {}", e.getMessage());
       System.err.println("Chat Application Error: " + e.getMessage());
@@ -64,16 +149,153 @@ public class PeerToPeerChat {
    */
   protected void startClient(String serverIP, int serverPort) throws ChatAppException {
     LOGGER.info("Starting chat client with server IP: {} and port: {}", serverIP, serverPort);
-    new ChatClient(serverIP, serverPort).start(new ScannerUserInputSource());
+    ChatClient chatClient = new ChatClient(serverIP, serverPort);
+    chatClient.setJournal(journal);
+    chatClient.setMessageIndex(messageIndex);
+    chatClient.setSendWindow(sendWindow);
+    chatClient.start(createUserInputSource());
+  }
+
+  /**
+   * Connects the configured number of load clients to the server, lets them send their messages and prints
+   * the throughput and latencies of the run.
+   *
+   * @param serverIP The IP address of the chat server.
+   * @param serverPort The port on which the server is listening.
+   * @throws ChatAppException If the transcript cannot be read or no client can connect.
+   */
+  protected void generateLoad(String serverIP, int serverPort) throws ChatAppException {
+    LoadGenerator loadGenerator = new LoadGenerator(serverIP, serverPort, loadClients);
+    loadGenerator.setMessagesPerClient(loadMessages);
+    loadGenerator.setRatePerClient(loadRate);
+    if (loadTranscript != null) {
+      try {
+        List<String> lines = Files.readAllLines(loadTranscript);
+        lines.removeIf(String::isBlank);
+        loadGenerator.setTexts(lines);
+      } catch (IOException e) {
+        LOGGER.error("Error reading load transcript: {}", e.getMessage());
+        throw new ChatAppException(ErrorCode.CLIENT_ERROR, "Error reading load transcript: " + e.getMessage());
+      }
+    }
+    System.out.print(loadGenerator.run().format());
   }
 
   /**
-   * Starts the chat server and waits for incoming connections.
+   * Starts the chat server in the selected server mode and waits for incoming connections.
    *
    * @throws ChatAppException If an error occurs during server setup.
    */
   protected void startServer() throws ChatAppException {
-    LOGGER.info("Starting chat server");
-    new ChatServer().start(new ScannerUserInputSource());
+    LOGGER.info("Starting chat server in {} mode", serverMode);
+    if (serverMode == ServerMode.NIO) {
+      NioChatServer chatServer = new NioChatServer();
+      chatServer.setJournal(journal);
+      chatServer.setMessageIndex(messageIndex);
+      chatServer.start(createUserInputSource());
+    } else if (serverMode == ServerMode.VIRTUAL) {
+      VirtualThreadChatServer chatServer = new VirtualThreadChatServer(maxConnections);
+      chatServer.setJournal(journal);
+      chatServer.setMessageIndex(messageIndex);
+      chatServer.setSendWindow(sendWindow);
+      chatServer.start(createUserInputSource());
+    } else {
+      ChatServer chatServer = new ChatServer();
+      chatServer.setJournal(journal);
+      chatServer.setMessageIndex(messageIndex);
+      chatServer.setSendWindow(sendWindow);
+      chatServer.start(createUserInputSource());
+    }
+  }
+
+  /**
+   * Returns the source of the messages typed by the user: the input file if one was given, the console otherwise.
+   * Both are read without polling, so a replayed file is sent as fast as the connection takes it.
+   *
+   * @return the user input source
+   * @throws ChatAppException If the input file cannot be opened.
+   */
+  protected UserInputSource createUserInputSource() throws ChatAppException {
+    if (inputFile == null) {
+      return StreamUserInputSource.stdin();
+    }
+    try {
+      return StreamUserInputSource.of(inputFile);
+    } catch (IOException e) {
+      LOGGER.error("Error opening input file: {}", e.getMessage());
+      throw new ChatAppException(ErrorCode.SESSION_ERROR, "Error opening input file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Waits until the server is started or the client is connected, prints the startup timeline and exits.
+   * Used to measure the startup time and to record the class data sharing archive of the distribution.
+   *
+   * @throws ChatAppException If the startup does not complete in time.
+   */
+  protected void exitAfterStartup() throws ChatAppException {
+    StartupTimeline timeline = StartupTimeline.getInstance();
+    try {
+      if (timeline.awaitCompletion(STARTUP_TIMEOUT) == null) {
+        throw new ChatAppException(ErrorCode.STARTUP_ERROR, "Startup did not complete within " + STARTUP_TIMEOUT);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ChatAppException(ErrorCode.STARTUP_ERROR, "Interrupted while waiting for the startup");
+    }
+    System.out.print(timeline.format());
+    System.exit(0);
+  }
+
+  /**
+   * Starts parsing the chat configuration in the background. Parsing is independent of logging and localization,
+   * so it overlaps with their initialization instead of following it. If it fails, the first caller on the
+   * startup path loads the configuration again and reports the error.
+   */
+  private static void preloadConfiguration() {
+    Thread preload = new Thread(() -> {
+      try {
+        ChatConfigurationAccess.getInstance().getChatConfiguration();
+        StartupTimeline.getInstance().mark("configuration");
+      } catch (ChatAppException e) {
+        // Reported by the startup path, which loads the configuration again
+      }
+    }, "configuration-preload");
+    preload.setDaemon(true);
+    preload.start();
+  }
+
+  /**
+   * Serves the metrics on the metrics port if one was given. The endpoint runs until the JVM exits.
+   *
+   * @throws ChatAppException If the metrics port cannot be bound.
+   */
+  protected void startMetricsEndpoint() throws ChatAppException {
+    if (metricsPort < 0) {
+      return;
+    }
+    new MetricsEndpoint(ChatMetrics.getInstance(), metricsPort);
+  }
+
+  /**
+   * Opens the chat journal if a journal directory was given. The journal is closed when the JVM shuts down,
+   * so messages queued at that point are still forced to disk.
+   *
+   * @throws ChatAppException If the journal cannot be opened.
+   */
+  protected void openJournal() throws ChatAppException {
+    if (journalDirectory == null) {
+      return;
+    }
+    journal = new ChatJournal(journalDirectory);
+    StartupTimeline.getInstance().mark("journal");
+    ChatJournal openedJournal = journal;
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        openedJournal.close();
+      } catch (ChatAppException e) {
+        LOGGER.error("Error closing chat journal: {}", e.getMessage());
+      }
+    }, "journal-shutdown"));
   }
 }
\ No newline at end of file
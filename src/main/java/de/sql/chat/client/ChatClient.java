@@ -1,19 +1,40 @@
 package de.sql.chat.client;
 
+import de.sql.chat.config.PerformanceSettings;
 import de.sql.chat.exceptions.ChatAppException;
 import de.sql.chat.exceptions.ErrorCode;
+import de.sql.chat.init.StartupTimeline;
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.session.ChatMessage;
 import de.sql.chat.session.ChatSenderType;
+import de.sql.chat.journal.ChatJournal;
+import de.sql.chat.search.MessageIndex;
 import de.sql.chat.session.ChatSession;
 import de.sql.chat.session.ChatSessionFactory;
+import de.sql.chat.session.EmptyUserInputSource;
+import de.sql.chat.session.MessageListener;
+import de.sql.chat.session.ResumeState;
 import de.sql.chat.session.UserInputSource;
+import de.sql.chat.session.UserInputSubscriber;
+import de.sql.chat.tls.TlsContext;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * The ChatClient class represents a client that connects to a chat server
  * and initiates a chat session.
+ * <p>
+ * When the connection drops, the client reconnects with the delays of a {@link ReconnectBackoff}, until a connection
+ * is established again or the reconnect attempts of the {@link PerformanceSettings} are used up. The client keeps a
+ * {@link ResumeState} across its connections, so a server that keeps sessions receives the messages it has not
+ * acknowledged once more and sends only the messages the client missed. Messages typed while the client is
+ * disconnected wait in the state until it is connected again.
  *
  * @since 8-11-2023
  * @author Abdallah Emad
@@ -23,8 +44,19 @@ public class ChatClient {
   private static final Logger LOGGER = LogManager.getLogger(ChatClient.class);
   private String serverIP;
   private int serverPort;
-  private ChatSession clientSession;
-  private Socket clientSocket;
+  private volatile ChatSession clientSession;
+  private ChatJournal journal;
+  private MessageIndex messageIndex;
+  private Duration sendWindow;
+  private MessageListener messageListener;
+  private volatile Socket clientSocket;
+  private TlsContext tlsContext;
+  private Integer reconnectAttempts;
+  // Guards switching to the session of a new connection against messages sent at the same time
+  private final Object sessionLock = new Object();
+  private final CountDownLatch closed = new CountDownLatch(1);
+  private ResumeState resumeState;
+  private UserInputSubscriber userInput;
 
   /**
    * Creates a new ChatClient instance with the specified server IP and port.
@@ -45,28 +77,129 @@ public class ChatClient {
    * @throws ChatAppException If an error occurs during client setup.
    */
   public void start(UserInputSource userInputSource) throws ChatAppException {
-    new Thread(() -> {
-      try {
-        setupClient();
+    PerformanceSettings settings = PerformanceSettings.current();
+    int resumeBufferMessages = settings.getResumeBufferMessages();
+    resumeState = resumeBufferMessages > 0 ? new ResumeState(resumeBufferMessages) : null;
+    TlsContext tls = tlsContext != null ? tlsContext : TlsContext.current();
+    new Thread(() -> run(userInputSource, tls, settings)).start();
+  }
+
+  /**
+   * Connects to the server and runs chat sessions until the client is closed, the session ends with an exit
+   * command or the reconnect attempts are used up. The user input is subscribed to once the first session has
+   * been created and stays subscribed across reconnects.
+   *
+   * @param userInputSource The source of user input for the chat sessions.
+   * @param tls             The TLS context to encrypt the connections with, or null for plaintext.
+   * @param settings        The reconnect settings.
+   */
+  private void run(UserInputSource userInputSource, TlsContext tls, PerformanceSettings settings) {
+    ReconnectBackoff backoff = new ReconnectBackoff(settings.getReconnectInitialDelay(), settings.getReconnectMaxDelay());
+    int maxAttempts = reconnectAttempts != null ? reconnectAttempts : settings.getReconnectAttempts();
+    int attempt = 0;
+    try {
+      while (!isClosed()) {
+        ChatSession session = null;
+        try {
+          setupClient(tls);
+          session = createSession();
+          attempt = 0;
+          if (userInput == null) {
+            userInput = new UserInputSubscriber(this::sendMessage);
+            userInputSource.subscribe(userInput);
+          }
+          System.out.println("Connected to server. You can start typing messages.");
+          if (!isClosed()) {
+            session.listen();
+          }
+        } catch (IOException | ChatAppException e) {
+          LOGGER.error("Error during client setup: {}", e.getMessage());
+        } finally {
+          closeSocket();
+        }
+        if (isClosed() || (session != null && !session.isConnectionLost())) {
+          return;
+        }
+        if (resumeState != null) {
+          resumeState.connectionLost();
+        }
+        if (++attempt > maxAttempts) {
+          LOGGER.error("Connection to server {}:{} lost, giving up after {} reconnect attempts", serverIP, serverPort, maxAttempts);
+          return;
+        }
+        Duration delay = backoff.nextDelay(attempt);
+        LOGGER.warn("Connection to server {}:{} lost, reconnecting in {} ms", serverIP, serverPort, delay.toMillis());
+        if (closed.await(delay.toMillis(), TimeUnit.MILLISECONDS)) {
+          return;
+        }
+        ChatMetrics.getInstance().reconnectAttempted();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (userInput != null) {
+        userInput.cancel();
+      }
+    }
+  }
 
-        this.clientSession = ChatSessionFactory.createChatSession(ChatSenderType.CLIENT, clientSocket, userInputSource);
-        System.out.println("Connected to server. You can start typing messages.");
-        this.clientSession.start();
-      } catch (IOException | ChatAppException e) {
-        LOGGER.error("Error during client setup: {}", e.getMessage());
+  /**
+   * Closes the socket of a connection that was lost or could not be set up, before connecting again.
+   */
+  private void closeSocket() {
+    Socket socket = clientSocket;
+    if (socket != null && !socket.isClosed()) {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        LOGGER.debug("Error closing client socket: {}", e.getMessage());
       }
-    }).start();
+    }
+  }
+
+  /**
+   * Creates the chat session on the connected client socket and makes it the session messages are sent through.
+   *
+   * @return The new session.
+   * @throws ChatAppException If the session cannot be created.
+   */
+  private ChatSession createSession() throws ChatAppException {
+    ChatSession session = ChatSessionFactory.createChatSession(ChatSenderType.CLIENT, clientSocket, new EmptyUserInputSource());
+    session.setJournal(journal);
+    session.setMessageIndex(messageIndex);
+    if (sendWindow != null) {
+      session.setSendWindow(sendWindow);
+    }
+    if (messageListener != null) {
+      session.setMessageListener(messageListener);
+    }
+    session.setResumeState(resumeState);
+    synchronized (sessionLock) {
+      this.clientSession = session;
+    }
+    return session;
   }
 
   /**
    * Sets up the client socket.
    *
+   * @param tls The TLS context to encrypt the connection with, or null for plaintext.
    * @throws IOException If an error occurs while setting up the server socket.
    */
-  private void setupClient() throws IOException {
+  private void setupClient(TlsContext tls) throws IOException {
     LOGGER.info("Connecting to server {}:{}", serverIP, serverPort);
-    clientSocket = new Socket(serverIP, serverPort);
+    PerformanceSettings settings = PerformanceSettings.current();
+    clientSocket = new Socket();
+    // Buffer sizes must be set before connecting to take effect on the TCP window
+    settings.configure(clientSocket);
+    // An unreachable server fails the connect after the timeout instead of the minutes the platform may wait
+    clientSocket.connect(new InetSocketAddress(serverIP, serverPort), (int) settings.getConnectTimeout().toMillis());
+    if (tls != null) {
+      // Layered over the connected socket, so the connect timeout also bounds encrypted connections
+      clientSocket = tls.wrapClient(clientSocket, serverIP, serverPort);
+    }
     LOGGER.info("Connected to server. You can start typing messages.");
+    StartupTimeline.getInstance().complete(StartupTimeline.CLIENT_CONNECTED);
   }
 
   /**
@@ -77,15 +210,18 @@ public class ChatClient {
   public void close() throws ChatAppException {
     try {
       LOGGER.info("Closing chat client...");
+      closed.countDown();
 
       // Close the chat session
-      if (clientSession != null) {
-        clientSession.close();
+      ChatSession session = clientSession;
+      if (session != null) {
+        session.close();
       }
 
       // Close the client socket
-      if (clientSocket != null && !clientSocket.isClosed()) {
-        clientSocket.close();
+      Socket socket = clientSocket;
+      if (socket != null && !socket.isClosed()) {
+        socket.close();
       }
 
       LOGGER.info("Chat client closed.");
@@ -122,6 +258,62 @@ public class ChatClient {
     return this.clientSession;
   }
 
+  /**
+   * Sets the journal that records the messages of the chat session. Must be called before {@link #start}.
+   *
+   * @param journal The journal, or null to disable recording.
+   */
+  public void setJournal(ChatJournal journal) {
+    this.journal = journal;
+  }
+
+  /**
+   * Sets the index that makes the messages of the chat session searchable. Must be called before {@link #start}.
+   *
+   * @param messageIndex The index, or null to disable searching.
+   */
+  public void setMessageIndex(MessageIndex messageIndex) {
+    this.messageIndex = messageIndex;
+  }
+
+  /**
+   * Sets how long outgoing messages of the chat session may wait to be written together with later messages. Must be called before {@link #start}.
+   *
+   * @param sendWindow The coalescing window, zero to write every message as soon as possible, or null to use
+   *                   the send window of the performance settings.
+   */
+  public void setSendWindow(Duration sendWindow) {
+    this.sendWindow = sendWindow;
+  }
+
+  /**
+   * Sets the listener that receives the messages read from the server. Must be called before {@link #start}.
+   *
+   * @param messageListener The listener, or null to print received messages to the console.
+   */
+  public void setMessageListener(MessageListener messageListener) {
+    this.messageListener = messageListener;
+  }
+
+  /**
+   * Sets how often the client tries to reconnect after losing its connection. Must be called before {@link #start}.
+   *
+   * @param reconnectAttempts The number of attempts, 0 to not reconnect, or null to use the reconnect attempts of
+   *                          the performance settings.
+   */
+  public void setReconnectAttempts(Integer reconnectAttempts) {
+    this.reconnectAttempts = reconnectAttempts;
+  }
+
+  /**
+   * Sets the TLS context connections are encrypted with. Must be called before {@link #start}.
+   *
+   * @param tlsContext The context, or null to use the TLS settings of the configuration.
+   */
+  public void setTlsContext(TlsContext tlsContext) {
+    this.tlsContext = tlsContext;
+  }
+
   /**
    * Returns the client socket used for communication with the server.
    *
@@ -132,13 +324,26 @@ public class ChatClient {
   }
 
   /**
-   * Sends a message to the chat server through the client session.
+   * Sends a message to the chat server through the client session. While the client is reconnecting, the message
+   * waits until the session is resumed, and an exit command stops reconnecting.
    *
    * @param message The message to be sent.
    */
   public void sendMessage(String message) {
     LOGGER.debug("Sending message: {}", message);
-    this.clientSession.sendMessage(message);
+    synchronized (sessionLock) {
+      ChatSession session = clientSession;
+      if (session != null && session.isRunning()) {
+        session.sendMessage(message);
+      } else if (ChatSession.isExitCommand(message)) {
+        closed.countDown();
+      } else if (resumeState != null) {
+        resumeState.add(new ChatMessage(ChatSenderType.CLIENT, message));
+        LOGGER.debug("Not connected, message waits for the reconnect");
+      } else {
+        LOGGER.warn("Not connected, message dropped: {}", message);
+      }
+    }
   }
 
   /**
@@ -147,6 +352,16 @@ public class ChatClient {
    * @return true if the chat client is running, false otherwise.
    */
   public boolean isRunning() {
-    return this.clientSession != null && this.clientSession.isRunning();
+    ChatSession session = this.clientSession;
+    return session != null && session.isRunning();
+  }
+
+  /**
+   * Checks if the chat client was closed or stopped reconnecting because of an exit command.
+   *
+   * @return true if the client will not connect again
+   */
+  private boolean isClosed() {
+    return closed.getCount() == 0;
   }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package de.sql.chat.client;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes the delays of a client between its reconnect attempts, as exponential backoff with full jitter.
+ * <p>
+ * The limit of the delay starts at the initial delay and doubles with every failed attempt up to the maximum delay,
+ * and each delay is drawn uniformly between zero and the limit. When a server restarts, its clients therefore spread
+ * their reconnects over the whole interval instead of arriving together, and every round of failed attempts
+ * spreads them further, so the server is not overrun by all of its clients at once.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ReconnectBackoff {
+
+  private final long initialMillis;
+  private final long maxMillis;
+
+  /**
+   * Constructs a ReconnectBackoff.
+   *
+   * @param initialDelay the limit of the delay before the first attempt
+   * @param maxDelay     the limit the delay grows to
+   * @throws IllegalArgumentException if a delay is not positive
+   */
+  public ReconnectBackoff(Duration initialDelay, Duration maxDelay) {
+    if (initialDelay.isNegative() || initialDelay.isZero() || maxDelay.isNegative() || maxDelay.isZero()) {
+      throw new IllegalArgumentException("Reconnect delays must be positive: " + initialDelay + ", " + maxDelay);
+    }
+    this.initialMillis = initialDelay.toMillis();
+    this.maxMillis = Math.max(initialMillis, maxDelay.toMillis());
+  }
+
+  /**
+   * Returns the limit of the delay before an attempt.
+   *
+   * @param attempt the number of the attempt, starting with 1
+   * @return the longest delay before the attempt
+   */
+  public Duration getLimit(int attempt) {
+    int doublings = Math.min(Math.max(attempt - 1, 0), Long.numberOfLeadingZeros(initialMillis) - 1);
+    return Duration.ofMillis(Math.min(maxMillis, initialMillis << doublings));
+  }
+
+  /**
+   * Draws the delay before an attempt.
+   *
+   * @param attempt the number of the attempt, starting with 1
+   * @return a random delay between zero and the limit of the attempt
+   */
+  public Duration nextDelay(int attempt) {
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(getLimit(attempt).toMillis() + 1));
+  }
+}
@@ -6,23 +6,44 @@ import de.sql.chat.util.XmlToObjectUtil;
 import jakarta.xml.bind.JAXBException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.xml.sax.SAXException;
 
 /**
  * The ChatConfigurationAccess class is responsible for managing the application's configuration,
  * specifically for the chat functionality. It follows the singleton pattern to ensure a single
  * instance throughout the application.
+ * <p>
+ * The configuration can be reloaded while the application runs, for example by a {@link ConfigurationWatcher}.
+ * A reloaded configuration is validated against the schema, fully built and then published with a single
+ * reference swap, so readers never lock and never see a partly loaded configuration.
  *
  * @since 23-11-2023
  * @author Abdallah Emad
  */
 public class ChatConfigurationAccess {
 
-  private ChatConfiguration chatConfiguration;
+  private static final Logger LOGGER = LogManager.getLogger(ChatConfigurationAccess.class);
+  private final AtomicReference<ChatConfiguration> chatConfiguration = new AtomicReference<>();
+  private final List<ConfigurationListener> listeners = new CopyOnWriteArrayList<>();
+  private final Object loadLock = new Object();
+  private Schema schema;
   protected static final String CONFIG_FILE_PATH = "config/configuration-chat.xml";
+  protected static final String SCHEMA_PATH = "de/sql/chat/config/schema/configuration-chat.xsd";
 
   /**
    * Private constructor to enforce the singleton pattern.
@@ -48,20 +69,175 @@ public class ChatConfigurationAccess {
 
   /**
    * Gets the chat configuration. If the configuration has not been loaded, it triggers the
-   * loading process.
+   * loading process. Once loaded, this is a single volatile read.
    *
    * @return The ChatConfiguration instance.
    */
   public ChatConfiguration getChatConfiguration() throws ChatAppException {
-    if (chatConfiguration == null) {
-      try {
-        String xmlBody = Files.readString(Paths.get(getFilePath()));
-        chatConfiguration = new XmlToObjectUtil<>(xmlBody, ChatConfiguration.class).getTargetObject();
-      } catch (IOException | JAXBException e) {
+    ChatConfiguration current = chatConfiguration.get();
+    if (current == null) {
+      synchronized (loadLock) {
+        current = chatConfiguration.get();
+        if (current == null) {
+          try (InputStream in = openConfiguration()) {
+            current = parse(in);
+          } catch (IOException e) {
+            throw new ChatAppException(ErrorCode.CONFIGURATION_ERROR, "configuration Error: " + e.getMessage());
+          }
+          chatConfiguration.set(current);
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Loads the configuration again from the configuration file or the class path and publishes it.
+   *
+   * @return The keys of the changed values.
+   * @throws ChatAppException If the configuration cannot be read or is not valid, the current configuration is kept.
+   */
+  public Set<String> reload() throws ChatAppException {
+    // Opened under the lock as well, so the file read last is the one published last
+    synchronized (loadLock) {
+      try (InputStream in = openConfiguration()) {
+        return reload(in);
+      } catch (IOException e) {
         throw new ChatAppException(ErrorCode.CONFIGURATION_ERROR, "configuration Error: " + e.getMessage());
       }
     }
-    return chatConfiguration;
+  }
+
+  /**
+   * Parses a new version of the configuration and publishes it. Listeners are notified if any value changed.
+   * Parsing, publishing and notifying run under one lock, so overlapping reloads publish in the order they parse
+   * and an older configuration never replaces a newer one.
+   *
+   * @param in The stream of the new configuration XML.
+   * @return The keys of the changed values.
+   * @throws ChatAppException If the configuration is not valid, the current configuration is kept.
+   */
+  Set<String> reload(InputStream in) throws ChatAppException {
+    synchronized (loadLock) {
+      ChatConfiguration updated = parse(in);
+      ChatConfiguration previous = chatConfiguration.getAndSet(updated);
+      Set<String> changedKeys = ConfigurationKeys.changedKeys(previous, updated);
+      LOGGER.info("Configuration reloaded, changed keys: {}", changedKeys);
+      if (!changedKeys.isEmpty()) {
+        for (ConfigurationListener listener : listeners) {
+          listener.onConfigurationChanged(updated, changedKeys);
+        }
+      }
+      return changedKeys;
+    }
+  }
+
+  /**
+   * Starts watching the configuration file in the working directory and reloads the configuration whenever
+   * the file changes. Close the returned watcher to stop watching.
+   *
+   * @return The running watcher.
+   * @throws ChatAppException If the configuration directory does not exist or cannot be watched.
+   */
+  public ConfigurationWatcher watch() throws ChatAppException {
+    return watch(getConfigurationFile());
+  }
+
+  /**
+   * Starts watching a configuration file and reloads the configuration from it whenever it changes.
+   *
+   * @param file The configuration file.
+   * @return The running watcher.
+   * @throws ChatAppException If the directory of the file does not exist or cannot be watched.
+   */
+  ConfigurationWatcher watch(Path file) throws ChatAppException {
+    return new ConfigurationWatcher(this, file);
+  }
+
+  /**
+   * Returns the configuration file in the working directory, which takes precedence over the bundled configuration.
+   *
+   * @return The path of the configuration file, which may not exist.
+   */
+  public Path getConfigurationFile() {
+    return Paths.get(System.getProperty("user.dir"), CONFIG_FILE_PATH);
+  }
+
+  /**
+   * Registers a listener that is notified whenever a reload changes the configuration.
+   *
+   * @param listener The listener to add.
+   */
+  public void addListener(ConfigurationListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener added with {@link #addListener(ConfigurationListener)}.
+   *
+   * @param listener The listener to remove.
+   */
+  public void removeListener(ConfigurationListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Parses and validates a configuration against the configuration schema.
+   *
+   * @param in The stream of the configuration XML.
+   * @return The fully built configuration.
+   * @throws ChatAppException If the configuration is not valid.
+   */
+  private ChatConfiguration parse(InputStream in) throws ChatAppException {
+    try {
+      return XmlToObjectUtil.unmarshal(in, ChatConfiguration.class, getSchema());
+    } catch (JAXBException e) {
+      String message = e.getMessage() != null || e.getLinkedException() == null ? e.getMessage() : e.getLinkedException().getMessage();
+      throw new ChatAppException(ErrorCode.CONFIGURATION_ERROR, "configuration Error: " + message);
+    }
+  }
+
+  /**
+   * Returns the configuration schema, loading it from the class path on first use.
+   *
+   * @return The schema.
+   * @throws ChatAppException If the schema cannot be loaded.
+   */
+  private Schema getSchema() throws ChatAppException {
+    synchronized (loadLock) {
+      if (schema == null) {
+        URL schemaUrl = getClass().getClassLoader().getResource(SCHEMA_PATH);
+        if (schemaUrl == null) {
+          throw new ChatAppException(ErrorCode.CONFIGURATION_ERROR, "Resource not found: " + SCHEMA_PATH);
+        }
+        try {
+          schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(schemaUrl);
+        } catch (SAXException e) {
+          throw new ChatAppException(ErrorCode.CONFIGURATION_ERROR, "Error loading schema: " + e.getMessage());
+        }
+      }
+      return schema;
+    }
+  }
+
+  /**
+   * Opens the configuration file in the working directory if it exists, otherwise the configuration bundled
+   * on the class path. The bundled configuration is streamed from the class path, so it is found inside a JAR too.
+   *
+   * @return The stream of the configuration XML.
+   * @throws IOException If the configuration file cannot be opened.
+   * @throws ChatAppException If neither a configuration file nor a bundled configuration exists.
+   */
+  private InputStream openConfiguration() throws IOException, ChatAppException {
+    Path file = getConfigurationFile();
+    if (Files.exists(file)) {
+      return Files.newInputStream(file);
+    }
+    InputStream resource = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE_PATH);
+    if (resource == null) {
+      throw new ChatAppException(ErrorCode.CONFIGURATION_ERROR, "Resource not found: " + CONFIG_FILE_PATH);
+    }
+    return resource;
   }
 
   /**
@@ -0,0 +1,103 @@
+package de.sql.chat.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Flattens the generated configuration classes into {@code Element.Child} keys, so two configurations
+ * can be compared value by value without knowing every element of the schema.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+final class ConfigurationKeys {
+
+  private ConfigurationKeys() {
+    // Utility class
+  }
+
+  /**
+   * Returns the keys whose values differ between two configurations.
+   *
+   * @param previous the previous configuration, or null if there was none
+   * @param current  the current configuration
+   * @return the changed keys in alphabetical order
+   */
+  static Set<String> changedKeys(ChatConfiguration previous, ChatConfiguration current) {
+    Map<String, String> before = flatten(previous);
+    Map<String, String> after = flatten(current);
+    Set<String> changed = new TreeSet<>();
+    for (String key : before.keySet()) {
+      if (!Objects.equals(before.get(key), after.get(key))) {
+        changed.add(key);
+      }
+    }
+    for (String key : after.keySet()) {
+      if (!before.containsKey(key)) {
+        changed.add(key);
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Flattens a configuration into its values, keyed by element path.
+   *
+   * @param configuration the configuration, or null
+   * @return the values, empty for a null configuration
+   */
+  static Map<String, String> flatten(Object configuration) {
+    Map<String, String> values = new TreeMap<>();
+    if (configuration != null) {
+      flatten("", configuration, values);
+    }
+    return values;
+  }
+
+  private static void flatten(String prefix, Object bean, Map<String, String> values) {
+    Method[] getters = bean.getClass().getMethods();
+    Arrays.sort(getters, Comparator.comparing(Method::getName));
+    for (Method getter : getters) {
+      String property = propertyName(getter);
+      if (property == null) {
+        continue;
+      }
+      Object value = invoke(getter, bean);
+      String key = prefix + property;
+      if (getter.getReturnType().getPackage() == ChatConfiguration.class.getPackage()) {
+        // A missing block has no values of its own, its elements count as removed
+        if (value != null) {
+          flatten(key + ".", value, values);
+        }
+      } else {
+        values.put(key, value == null ? null : String.valueOf(value));
+      }
+    }
+  }
+
+  private static String propertyName(Method method) {
+    String name = method.getName();
+    boolean getter = name.startsWith("get") && name.length() > 3 || name.startsWith("is") && name.length() > 2;
+    if (!getter || method.getParameterCount() > 0 || Modifier.isStatic(method.getModifiers())
+        || method.getDeclaringClass() == Object.class) {
+      return null;
+    }
+    return name.substring(name.startsWith("get") ? 3 : 2);
+  }
+
+  private static Object invoke(Method getter, Object bean) {
+    try {
+      return getter.invoke(bean);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Cannot read configuration property " + getter.getName(), e);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package de.sql.chat.config;
+
+import java.util.Set;
+
+/**
+ * Callback that is notified when {@link ChatConfigurationAccess} publishes a reloaded configuration.
+ * The listener is invoked on the thread that reloaded the configuration, after the new configuration
+ * has become visible to all readers.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@FunctionalInterface
+public interface ConfigurationListener {
+
+  /**
+   * Called once for every reload that changed at least one value.
+   *
+   * @param configuration the new configuration
+   * @param changedKeys   the keys of the changed values, element paths such as {@code Application.Local}
+   */
+  void onConfigurationChanged(ChatConfiguration configuration, Set<String> changedKeys);
+}
@@ -0,0 +1,144 @@
+package de.sql.chat.config;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.exceptions.ErrorCode;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Watches the configuration file for changes and hands every changed version to {@link ChatConfigurationAccess}.
+ * <p>
+ * Editors often write a file in several steps, which raises several events for one save. The watcher waits until
+ * the events have settled and then compares the content with the last version it handed over, so the file is only
+ * parsed again if it really changed. A new version that cannot be parsed or is not valid against the schema is
+ * logged and ignored, the previous configuration stays in effect.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ConfigurationWatcher implements AutoCloseable {
+
+  private static final Logger LOGGER = LogManager.getLogger(ConfigurationWatcher.class);
+  private static final long SETTLE_MILLIS = 50;
+
+  private final ChatConfigurationAccess access;
+  private final Path file;
+  private final WatchService watchService;
+  private final Thread thread;
+  private byte[] lastContent;
+  private volatile boolean running = true;
+
+  /**
+   * Starts watching a configuration file. The directory of the file must exist, the file itself may be created later.
+   *
+   * @param access the configuration access to publish new versions to
+   * @param file   the configuration file
+   * @throws ChatAppException if the directory cannot be watched
+   */
+  ConfigurationWatcher(ChatConfigurationAccess access, Path file) throws ChatAppException {
+    this.access = access;
+    this.file = file.toAbsolutePath();
+    try {
+      this.lastContent = Files.exists(this.file) ? Files.readAllBytes(this.file) : null;
+      this.watchService = this.file.getFileSystem().newWatchService();
+      this.file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    } catch (IOException e) {
+      throw new ChatAppException(ErrorCode.CONFIGURATION_ERROR, "Error watching configuration: " + e.getMessage());
+    }
+    this.thread = new Thread(this::watch, "configuration-watcher");
+    this.thread.setDaemon(true);
+    this.thread.start();
+    LOGGER.info("Watching configuration file {}", this.file);
+  }
+
+  /**
+   * Returns the watched configuration file.
+   *
+   * @return the absolute path of the file
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Waits for file system events until the watcher is closed.
+   */
+  private void watch() {
+    try {
+      while (running) {
+        WatchKey key = watchService.take();
+        boolean changed = pollEvents(key);
+        // Collect the remaining events of the same save before reading the file
+        while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          changed |= pollEvents(key);
+        }
+        if (changed) {
+          reload();
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      LOGGER.debug("Configuration watcher closed.");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean pollEvents(WatchKey key) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      Object context = event.context();
+      if (context instanceof Path && file.getFileName().equals(context)) {
+        changed = true;
+      }
+    }
+    key.reset();
+    return changed;
+  }
+
+  /**
+   * Reads the file and publishes it if its content differs from the last published version.
+   */
+  private void reload() {
+    try {
+      byte[] content = Files.readAllBytes(file);
+      if (Arrays.equals(content, lastContent)) {
+        return;
+      }
+      lastContent = content;
+      access.reload(new ByteArrayInputStream(content));
+    } catch (NoSuchFileException e) {
+      LOGGER.debug("Configuration file {} was removed, keeping the current configuration", file);
+    } catch (IOException e) {
+      LOGGER.error("Error reading configuration file {}: {}", file, e.getMessage());
+    } catch (ChatAppException e) {
+      LOGGER.error("Ignoring invalid configuration file {}: {}", file, e.getMessage());
+    }
+  }
+
+  /**
+   * Stops watching the file.
+   */
+  @Override
+  public void close() {
+    running = false;
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      LOGGER.debug("Error closing configuration watcher: {}", e.getMessage());
+    }
+  }
+}
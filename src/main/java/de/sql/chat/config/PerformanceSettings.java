@@ -0,0 +1,360 @@
+package de.sql.chat.config;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.session.OverflowPolicy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.NetworkChannel;
+import java.time.Duration;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The values of the optional {@code Performance} block of the chat configuration, with the default of every
+ * element that is not configured. Settings are read once when a server, client or session is created, so a
+ * reloaded configuration applies to the connections opened afterwards.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public final class PerformanceSettings {
+
+  private static final Logger LOGGER = LogManager.getLogger(PerformanceSettings.class);
+
+  /** The settings used if the configuration has no {@code Performance} block. */
+  public static final PerformanceSettings DEFAULTS = new PerformanceSettings(null);
+
+  static final int DEFAULT_LISTEN_PORT = 0;
+  static final int DEFAULT_BACKLOG = 50;
+  static final boolean DEFAULT_TCP_NO_DELAY = true;
+  static final int DEFAULT_SEND_BATCH_BYTES = 64 * 1024;
+  static final int DEFAULT_HISTORY_CAPACITY = 1000;
+  static final int DEFAULT_INPUT_POLL_MILLIS = 100;
+  static final int DEFAULT_SEND_QUEUE_BYTES = 1024 * 1024;
+  static final OverflowPolicy DEFAULT_SEND_QUEUE_POLICY = OverflowPolicy.DROP_OLDEST;
+  static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
+  static final boolean DEFAULT_TCP_KEEP_ALIVE = true;
+  static final int DEFAULT_HEARTBEAT_MILLIS = 15_000;
+  static final int DEFAULT_READ_TIMEOUT_MILLIS = 45_000;
+  static final int DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60_000;
+  static final int DEFAULT_COMPRESSION_THRESHOLD_BYTES = 1024;
+  static final int DEFAULT_COMPRESSION_LEVEL = 6;
+  static final int DEFAULT_RECONNECT_ATTEMPTS = 10;
+  static final int DEFAULT_RECONNECT_INITIAL_DELAY_MILLIS = 500;
+  static final int DEFAULT_RECONNECT_MAX_DELAY_MILLIS = 30_000;
+  static final int DEFAULT_RESUME_BUFFER_MESSAGES = 1000;
+  static final int DEFAULT_RESUME_TIMEOUT_MILLIS = 60_000;
+
+  private final Performance performance;
+
+  private PerformanceSettings(Performance performance) {
+    this.performance = performance;
+  }
+
+  /**
+   * Returns the performance settings of a configuration.
+   *
+   * @param configuration the configuration
+   * @return the settings, with defaults for everything that is not configured
+   */
+  public static PerformanceSettings from(ChatConfiguration configuration) {
+    return configuration == null || configuration.getPerformance() == null
+        ? DEFAULTS : new PerformanceSettings(configuration.getPerformance());
+  }
+
+  /**
+   * Returns the performance settings of the current configuration.
+   * If the configuration cannot be loaded, the defaults are returned.
+   *
+   * @return the current settings
+   */
+  public static PerformanceSettings current() {
+    try {
+      return from(ChatConfigurationAccess.getInstance().getChatConfiguration());
+    } catch (ChatAppException e) {
+      LOGGER.warn("Using default performance settings: {}", e.getMessage());
+      return DEFAULTS;
+    }
+  }
+
+  /**
+   * Returns the port servers listen on.
+   *
+   * @return the port, 0 to pick a free port
+   */
+  public int getListenPort() {
+    return value(Performance::getListenPort, DEFAULT_LISTEN_PORT);
+  }
+
+  /**
+   * Returns the number of pending connections a server socket queues.
+   *
+   * @return the backlog, 0 for the platform default
+   */
+  public int getBacklog() {
+    return value(Performance::getBacklog, DEFAULT_BACKLOG);
+  }
+
+  /**
+   * Returns the socket receive buffer size.
+   *
+   * @return the size of SO_RCVBUF in bytes, 0 for the platform default
+   */
+  public int getReceiveBufferSize() {
+    return value(Performance::getReceiveBufferSize, 0);
+  }
+
+  /**
+   * Returns the socket send buffer size.
+   *
+   * @return the size of SO_SNDBUF in bytes, 0 for the platform default
+   */
+  public int getSendBufferSize() {
+    return value(Performance::getSendBufferSize, 0);
+  }
+
+  /**
+   * Returns whether Nagle's algorithm is disabled on chat connections.
+   *
+   * @return true to send small messages without delay
+   */
+  public boolean isTcpNoDelay() {
+    return value(Performance::isTcpNoDelay, DEFAULT_TCP_NO_DELAY);
+  }
+
+  /**
+   * Returns the number of NIO selector threads.
+   *
+   * @return the configured number, or the number of available processors if none is configured
+   */
+  public int getIoThreads() {
+    int ioThreads = value(Performance::getIoThreads, 0);
+    return ioThreads > 0 ? ioThreads : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Returns the number of queued bytes a session writes at once.
+   *
+   * @return the batch limit in bytes
+   */
+  public int getSendBatchBytes() {
+    return value(Performance::getSendBatchBytes, DEFAULT_SEND_BATCH_BYTES);
+  }
+
+  /**
+   * Returns how long an outgoing message may wait for more messages before it is written.
+   *
+   * @return the send window, zero to write as soon as possible
+   */
+  public Duration getSendWindow() {
+    return Duration.ofNanos(value(Performance::getSendWindowMicros, 0) * 1000L);
+  }
+
+  /**
+   * Returns the number of sent messages each session keeps.
+   *
+   * @return the history capacity
+   */
+  public int getHistoryCapacity() {
+    return value(Performance::getHistoryCapacity, DEFAULT_HISTORY_CAPACITY);
+  }
+
+  /**
+   * Returns how long to wait before polling a user input source again that had no input. Sources that block until
+   * a line is available, like the console or a file, are never polled.
+   *
+   * @return the poll interval
+   */
+  public Duration getInputPollInterval() {
+    return Duration.ofMillis(value(Performance::getInputPollMillis, DEFAULT_INPUT_POLL_MILLIS));
+  }
+
+  /**
+   * Returns the number of bytes a connection queues for a peer that reads slower than messages are sent to it,
+   * before the send queue policy applies.
+   *
+   * @return the high-water mark of the send queue in bytes
+   */
+  public int getSendQueueBytes() {
+    return value(Performance::getSendQueueBytes, DEFAULT_SEND_QUEUE_BYTES);
+  }
+
+  /**
+   * Returns what a connection does once its send queue is above the high-water mark.
+   *
+   * @return the overflow policy of the send queue
+   */
+  public OverflowPolicy getSendQueuePolicy() {
+    SendQueuePolicy policy = value(Performance::getSendQueuePolicy, null);
+    return policy != null ? OverflowPolicy.valueOf(policy.name()) : DEFAULT_SEND_QUEUE_POLICY;
+  }
+
+  /**
+   * Returns how long a client waits for its connection to a server to be established.
+   *
+   * @return the connect timeout, zero to wait as long as the platform does
+   */
+  public Duration getConnectTimeout() {
+    return Duration.ofMillis(value(Performance::getConnectTimeoutMillis, DEFAULT_CONNECT_TIMEOUT_MILLIS));
+  }
+
+  /**
+   * Returns whether the operating system probes idle chat connections, so connections to crashed hosts are
+   * eventually closed even if the peer does not answer heartbeats.
+   *
+   * @return true to enable SO_KEEPALIVE
+   */
+  public boolean isTcpKeepAlive() {
+    return value(Performance::isTcpKeepAlive, DEFAULT_TCP_KEEP_ALIVE);
+  }
+
+  /**
+   * Returns how long a binary connection may be quiet before a ping is sent to the peer.
+   *
+   * @return the heartbeat interval, zero to send no pings
+   */
+  public Duration getHeartbeatInterval() {
+    return Duration.ofMillis(value(Performance::getHeartbeatMillis, DEFAULT_HEARTBEAT_MILLIS));
+  }
+
+  /**
+   * Returns how long a peer that answers pings may stay silent before its connection is closed.
+   *
+   * @return the read timeout, zero to never close quiet connections
+   */
+  public Duration getReadTimeout() {
+    return Duration.ofMillis(value(Performance::getReadTimeoutMillis, DEFAULT_READ_TIMEOUT_MILLIS));
+  }
+
+  /**
+   * Returns how long a peer that has not answered a ping yet may stay silent before its connection is closed. This
+   * covers line protocol peers and binary peers that went away before their first ping, which the read timeout
+   * cannot tell apart from idle users.
+   *
+   * @return the idle timeout, zero to never close quiet connections of such peers
+   */
+  public Duration getIdleTimeout() {
+    return Duration.ofMillis(value(Performance::getIdleTimeoutMillis, DEFAULT_IDLE_TIMEOUT_MILLIS));
+  }
+
+  /**
+   * Returns the payload size from which messages are deflated for peers that announced support for it.
+   *
+   * @return the threshold in bytes, 0 to never compress
+   */
+  public int getCompressionThreshold() {
+    return value(Performance::getCompressionThresholdBytes, DEFAULT_COMPRESSION_THRESHOLD_BYTES);
+  }
+
+  /**
+   * Returns the deflate level of compressed messages.
+   *
+   * @return the level, from 1 for the fastest to 9 for the smallest compression
+   */
+  public int getCompressionLevel() {
+    return value(Performance::getCompressionLevel, DEFAULT_COMPRESSION_LEVEL);
+  }
+
+  /**
+   * Returns how many times in a row a client tries to reconnect after its connection dropped before it gives up.
+   *
+   * @return the number of attempts, 0 to never reconnect
+   */
+  public int getReconnectAttempts() {
+    return value(Performance::getReconnectAttempts, DEFAULT_RECONNECT_ATTEMPTS);
+  }
+
+  /**
+   * Returns the longest delay before the first reconnect attempt. The limit doubles with every failed attempt.
+   *
+   * @return the initial reconnect delay
+   */
+  public Duration getReconnectInitialDelay() {
+    return Duration.ofMillis(value(Performance::getReconnectInitialDelayMillis, DEFAULT_RECONNECT_INITIAL_DELAY_MILLIS));
+  }
+
+  /**
+   * Returns the longest delay between two reconnect attempts.
+   *
+   * @return the maximum reconnect delay
+   */
+  public Duration getReconnectMaxDelay() {
+    return Duration.ofMillis(value(Performance::getReconnectMaxDelayMillis, DEFAULT_RECONNECT_MAX_DELAY_MILLIS));
+  }
+
+  /**
+   * Returns the number of unacknowledged messages clients keep for resending and servers keep for each client that
+   * may resume its session.
+   *
+   * @return the number of messages, 0 to disable resuming sessions
+   */
+  public int getResumeBufferMessages() {
+    return value(Performance::getResumeBufferMessages, DEFAULT_RESUME_BUFFER_MESSAGES);
+  }
+
+  /**
+   * Returns how long a server keeps the session of a disconnected client for it to resume.
+   *
+   * @return the resume timeout
+   */
+  public Duration getResumeTimeout() {
+    return Duration.ofMillis(value(Performance::getResumeTimeoutMillis, DEFAULT_RESUME_TIMEOUT_MILLIS));
+  }
+
+  /**
+   * Applies the buffer sizes, TCP_NODELAY and SO_KEEPALIVE to a connected or connecting socket.
+   *
+   * @param socket the socket to configure
+   * @throws IOException if an option cannot be set
+   */
+  public void configure(Socket socket) throws IOException {
+    socket.setTcpNoDelay(isTcpNoDelay());
+    socket.setKeepAlive(isTcpKeepAlive());
+    if (getReceiveBufferSize() > 0) {
+      socket.setReceiveBufferSize(getReceiveBufferSize());
+    }
+    if (getSendBufferSize() > 0) {
+      socket.setSendBufferSize(getSendBufferSize());
+    }
+  }
+
+  /**
+   * Applies the buffer sizes, TCP_NODELAY and SO_KEEPALIVE to an accepted socket channel.
+   *
+   * @param channel the channel to configure
+   * @throws IOException if an option cannot be set
+   */
+  public void configure(NetworkChannel channel) throws IOException {
+    channel.setOption(StandardSocketOptions.TCP_NODELAY, isTcpNoDelay());
+    channel.setOption(StandardSocketOptions.SO_KEEPALIVE, isTcpKeepAlive());
+    if (getReceiveBufferSize() > 0) {
+      channel.setOption(StandardSocketOptions.SO_RCVBUF, getReceiveBufferSize());
+    }
+    if (getSendBufferSize() > 0) {
+      channel.setOption(StandardSocketOptions.SO_SNDBUF, getSendBufferSize());
+    }
+  }
+
+  /**
+   * Binds a server socket to the listen port with the configured backlog. The receive buffer size is set
+   * before binding, so accepted sockets inherit it and can use a large TCP window from the start.
+   *
+   * @param serverSocket the unbound server socket
+   * @throws IOException if the socket cannot be bound
+   */
+  public void bind(ServerSocket serverSocket) throws IOException {
+    if (getReceiveBufferSize() > 0) {
+      serverSocket.setReceiveBufferSize(getReceiveBufferSize());
+    }
+    serverSocket.bind(new InetSocketAddress(getListenPort()), getBacklog());
+  }
+
+  private <T> T value(Function<Performance, T> getter, T defaultValue) {
+    T value = performance == null ? null : getter.apply(performance);
+    return value != null ? value : defaultValue;
+  }
+}
@@ -0,0 +1,155 @@
+package de.sql.chat.config;
+
+import de.sql.chat.exceptions.ChatAppException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The values of the optional {@code Tls} block of the chat configuration, with the default of every element that
+ * is not configured. Like the {@link PerformanceSettings}, the settings are read when a server or client is started.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public final class TlsSettings {
+
+  private static final Logger LOGGER = LogManager.getLogger(TlsSettings.class);
+
+  /** The settings used if the configuration has no {@code Tls} block, with TLS disabled. */
+  public static final TlsSettings DEFAULTS = new TlsSettings(null);
+
+  static final String DEFAULT_KEY_STORE_TYPE = "PKCS12";
+  static final int DEFAULT_SESSION_CACHE_SIZE = 20_000;
+  static final int DEFAULT_SESSION_TIMEOUT_SECONDS = 24 * 60 * 60;
+
+  private final Tls tls;
+
+  private TlsSettings(Tls tls) {
+    this.tls = tls;
+  }
+
+  /**
+   * Returns the TLS settings of a configuration.
+   *
+   * @param configuration the configuration
+   * @return the settings, with defaults for everything that is not configured
+   */
+  public static TlsSettings from(ChatConfiguration configuration) {
+    return configuration == null || configuration.getTls() == null ? DEFAULTS : new TlsSettings(configuration.getTls());
+  }
+
+  /**
+   * Returns the TLS settings of the current configuration.
+   * If the configuration cannot be loaded, the defaults are returned.
+   *
+   * @return the current settings
+   */
+  public static TlsSettings current() {
+    try {
+      return from(ChatConfigurationAccess.getInstance().getChatConfiguration());
+    } catch (ChatAppException e) {
+      LOGGER.warn("Using default TLS settings: {}", e.getMessage());
+      return DEFAULTS;
+    }
+  }
+
+  /**
+   * Returns whether chat connections are encrypted.
+   *
+   * @return true if TLS is enabled
+   */
+  public boolean isEnabled() {
+    return value(Tls::isEnabled, false);
+  }
+
+  /**
+   * Returns the key store with the certificate and private key servers present.
+   *
+   * @return the path of the key store, or null if none is configured
+   */
+  public Path getKeyStore() {
+    String keyStore = value(Tls::getKeyStore, null);
+    return keyStore != null ? Path.of(keyStore) : null;
+  }
+
+  /**
+   * Returns the password of the key store and its private key.
+   *
+   * @return the password, empty if none is configured
+   */
+  public char[] getKeyStorePassword() {
+    return value(Tls::getKeyStorePassword, "").toCharArray();
+  }
+
+  /**
+   * Returns the type of the key store.
+   *
+   * @return the key store type
+   */
+  public String getKeyStoreType() {
+    return value(Tls::getKeyStoreType, DEFAULT_KEY_STORE_TYPE);
+  }
+
+  /**
+   * Returns the trust store with the certificates clients trust.
+   *
+   * @return the path of the trust store, or null to use the trust store of the JVM
+   */
+  public Path getTrustStore() {
+    String trustStore = value(Tls::getTrustStore, null);
+    return trustStore != null ? Path.of(trustStore) : null;
+  }
+
+  /**
+   * Returns the password of the trust store.
+   *
+   * @return the password, empty if none is configured
+   */
+  public char[] getTrustStorePassword() {
+    return value(Tls::getTrustStorePassword, "").toCharArray();
+  }
+
+  /**
+   * Returns the type of the trust store.
+   *
+   * @return the trust store type, or null to detect it from the trust store file
+   */
+  public String getTrustStoreType() {
+    return value(Tls::getTrustStoreType, null);
+  }
+
+  /**
+   * Returns whether clients check that the server certificate names the host they connect to.
+   *
+   * @return true to verify the host name
+   */
+  public boolean isVerifyHostname() {
+    return value(Tls::isVerifyHostname, true);
+  }
+
+  /**
+   * Returns the number of sessions servers and clients keep for resumption.
+   *
+   * @return the session cache size, 0 for no limit
+   */
+  public int getSessionCacheSize() {
+    return value(Tls::getSessionCacheSize, DEFAULT_SESSION_CACHE_SIZE);
+  }
+
+  /**
+   * Returns how long a session can be resumed after its full handshake.
+   *
+   * @return the session timeout
+   */
+  public Duration getSessionTimeout() {
+    return Duration.ofSeconds(value(Tls::getSessionTimeoutSeconds, DEFAULT_SESSION_TIMEOUT_SECONDS));
+  }
+
+  private <T> T value(Function<Tls, T> getter, T defaultValue) {
+    T value = tls == null ? null : getter.apply(tls);
+    return value != null ? value : defaultValue;
+  }
+}
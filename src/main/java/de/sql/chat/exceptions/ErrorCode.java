@@ -10,7 +10,9 @@ public enum ErrorCode {
   SERVER_ERROR("error.server"),
   CLIENT_ERROR("error.client"),
   SESSION_ERROR("error.session"),
-  CONFIGURATION_ERROR("error.configuration");
+  CONFIGURATION_ERROR("error.configuration"),
+  JOURNAL_ERROR("error.journal"),
+  STARTUP_ERROR("error.startup");
 
   private final String key;
 
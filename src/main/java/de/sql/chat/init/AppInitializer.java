@@ -1,16 +1,21 @@
 package de.sql.chat.init;
 
 import de.sql.chat.config.ChatConfigurationAccess;
+import de.sql.chat.config.ConfigurationWatcher;
 import de.sql.chat.exceptions.ChatAppException;
 import java.util.Locale;
 import de.sql.chat.localization.LocalizedResourceManager;
+import de.sql.chat.metrics.ChatMetrics;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the application initializer.
@@ -20,7 +25,14 @@ import java.nio.file.Paths;
  */
 public class AppInitializer {
 
+  /** The system property log4j2 reads the location of its configuration file from. */
+  public static final String LOG4J2_CONFIGURATION_PROPERTY = "log4j.configurationFile";
+  /** The log4j2 configuration file, relative to the working directory. */
+  public static final String LOG4J2_CONFIGURATION_FILE = "config/log4j2.xml";
+
   private static final Logger LOGGER = LogManager.getLogger(AppInitializer.class);
+  private static final String LOCALE_KEY = "Application.Local";
+  private ConfigurationWatcher configurationWatcher;
   
   /**
    * Private constructor to enforce the singleton pattern.
@@ -50,14 +62,46 @@ public class AppInitializer {
    * This method should be called once at the start of the application.
    */
   public void initialize() throws ChatAppException {
+    StartupTimeline timeline = StartupTimeline.getInstance();
     // Initialize log4j2 configuration first to allow logging of other initialization steps
     initLog4j2();
+    timeline.mark("logging");
     LOGGER.info("Starting application initialization...");
 
     initLocalization();
+    timeline.mark("localization");
+    // Nothing on the startup path needs the watcher or JMX, so they are registered in the background
+    CompletableFuture.runAsync(() -> {
+      try {
+        initConfigurationWatcher();
+      } catch (ChatAppException e) {
+        LOGGER.error("Error watching the configuration file: {}", e.getMessage());
+      }
+      ChatMetrics.getInstance().registerMBean();
+    });
     LOGGER.info("Application initialization completed.");
   }
 
+  /**
+   * Starts reloading the configuration whenever the configuration file in the working directory changes,
+   * and applies a changed locale right away. Does nothing if there is no configuration file to watch
+   * or the watcher is already running.
+   *
+   * @throws ChatAppException if the configuration file cannot be watched.
+   */
+  protected synchronized void initConfigurationWatcher() throws ChatAppException {
+    ChatConfigurationAccess configurationAccess = ChatConfigurationAccess.getInstance();
+    if (configurationWatcher != null || !Files.exists(configurationAccess.getConfigurationFile())) {
+      return;
+    }
+    configurationAccess.addListener((configuration, changedKeys) -> {
+      if (changedKeys.contains(LOCALE_KEY)) {
+        LocalizedResourceManager.getInstance().setLocale(new Locale(configuration.getApplication().getLocal()));
+      }
+    });
+    configurationWatcher = configurationAccess.watch();
+  }
+
   /**
    * Initializes the localization resources for the chat application.
    * @throws ChatAppException if an error occurs during initialization.
@@ -71,13 +115,20 @@ public class AppInitializer {
 
   /**
    * Initializes the log4j2 configuration by setting the log4j2 configuration file path and reconfiguring the logger context.
+   * The logger context is only reconfigured if it does not use the configuration file yet, so an application that
+   * set the path before creating its first logger does not parse the configuration twice.
    */
   protected void initLog4j2() {
-    Path configPath = Paths.get(System.getProperty("user.dir") + "/config/log4j2.xml");
-    System.setProperty("log4j.configurationFile", configPath.toUri().toString());
+    Path configPath = Paths.get(System.getProperty("user.dir"), LOG4J2_CONFIGURATION_FILE);
+    System.setProperty(LOG4J2_CONFIGURATION_PROPERTY, configPath.toUri().toString());
 
-    // Force log4j2 to reconfigure using the specified configuration file
     LoggerContext context = (LoggerContext) LogManager.getContext(false);
+    File configuredFile = context.getConfiguration().getConfigurationSource().getFile();
+    if (configuredFile != null && configuredFile.toPath().toAbsolutePath().equals(configPath.toAbsolutePath())) {
+      LOGGER.debug("log4j2 already configured from {}", configPath);
+      return;
+    }
+    // Force log4j2 to reconfigure using the specified configuration file
     context.reconfigure();
     LOGGER.info("log4j2 configuration initialized.");
   }
@@ -0,0 +1,135 @@
+package de.sql.chat.init;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * Records how long the phases of the application startup take, until the server listens or the client is connected.
+ * <p>
+ * Every phase is marked when it ends, with the time since the timeline was created. The main class creates the
+ * timeline before anything else, so the time the JVM needs to load it is not included. Completing the startup
+ * logs the whole timeline once and wakes up the threads waiting for it.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public final class StartupTimeline {
+
+  /** The phase that completes the startup of a server. */
+  public static final String SERVER_STARTED = "server started";
+  /** The phase that completes the startup of a client. */
+  public static final String CLIENT_CONNECTED = "client connected";
+
+  private static final StartupTimeline INSTANCE = new StartupTimeline();
+
+  private final long startNanos = System.nanoTime();
+  private final List<Phase> phases = new ArrayList<>();
+  private String completedPhase;
+
+  private StartupTimeline() {
+    // Private constructor to enforce singleton pattern
+  }
+
+  /**
+   * Returns the timeline of this JVM.
+   *
+   * @return the timeline
+   */
+  public static StartupTimeline getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Marks the end of a startup phase.
+   *
+   * @param phase the name of the phase
+   */
+  public synchronized void mark(String phase) {
+    phases.add(new Phase(phase, System.nanoTime() - startNanos));
+  }
+
+  /**
+   * Marks the end of the last startup phase, logs the timeline and wakes up the threads waiting for the startup.
+   * Only the first call completes the startup, later calls just mark their phase.
+   *
+   * @param phase the name of the phase
+   */
+  public void complete(String phase) {
+    String timeline;
+    synchronized (this) {
+      mark(phase);
+      if (completedPhase != null) {
+        return;
+      }
+      completedPhase = phase;
+      notifyAll();
+      timeline = format();
+    }
+    LogManager.getLogger(StartupTimeline.class).info("Startup completed:{}{}", System.lineSeparator(), timeline);
+  }
+
+  /**
+   * Waits until the startup is completed.
+   *
+   * @param timeout the maximum time to wait
+   * @return the phase that completed the startup, or null if the startup did not complete in time
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public synchronized String awaitCompletion(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (completedPhase == null) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return completedPhase;
+  }
+
+  /**
+   * Returns the names of the marked phases in the order they ended.
+   *
+   * @return the phase names
+   */
+  public synchronized List<String> getPhases() {
+    return phases.stream().map(Phase::name).toList();
+  }
+
+  /**
+   * Returns the time from the creation of the timeline until a phase ended.
+   *
+   * @param phase the name of the phase
+   * @return the elapsed time, or null if the phase has not been marked
+   */
+  public synchronized Duration getElapsed(String phase) {
+    for (Phase marked : phases) {
+      if (marked.name().equals(phase)) {
+        return Duration.ofNanos(marked.elapsedNanos());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Formats the timeline with one line per phase, showing the time since the start and the time the phase took.
+   *
+   * @return the formatted timeline
+   */
+  public synchronized String format() {
+    StringBuilder builder = new StringBuilder();
+    long previous = 0;
+    for (Phase phase : phases) {
+      builder.append(String.format("  %6d ms  %-20s (+%d ms)%n", TimeUnit.NANOSECONDS.toMillis(phase.elapsedNanos()),
+          phase.name(), TimeUnit.NANOSECONDS.toMillis(phase.elapsedNanos() - previous)));
+      previous = phase.elapsedNanos();
+    }
+    return builder.toString();
+  }
+
+  private record Phase(String name, long elapsedNanos) {
+  }
+}
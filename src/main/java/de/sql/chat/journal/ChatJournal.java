@@ -0,0 +1,416 @@
+package de.sql.chat.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.exceptions.ErrorCode;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A persistent, append-only journal of chat messages.
+ * <p>
+ * The journal is a directory of segment files that are filled one after the other. Every record is laid out as
+ * <pre>
+ * int length | long timestamp | int sender id | short room length | room | text | int length
+ * </pre>
+ * where both length fields hold the number of bytes between them. The trailing length allows reading a segment
+ * backwards, so the most recent messages are found without scanning or indexing the segment.
+ * <p>
+ * Messages are appended by a single writer thread. It takes every message queued since its last write, writes them
+ * with one call and forces them to disk with one {@code fsync} before completing their futures. While a sync is in
+ * progress new messages keep queuing up, so under load many messages share one sync (group commit).
+ * <p>
+ * Readers map the segments read-only with {@link java.nio.MappedByteBuffer}s and only see records that have been
+ * synced. Only the records actually returned are copied to the heap.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ChatJournal implements AutoCloseable {
+
+  private static final Logger LOGGER = LogManager.getLogger(ChatJournal.class);
+
+  /** The size after which the journal starts a new segment file. */
+  public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+  /** The room name recorded for messages that were not sent to a particular room. */
+  public static final String NO_ROOM = "";
+
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final int LENGTH_SIZE = 4;
+  private static final int FIXED_BODY_SIZE = 8 + 4 + 2;
+  private static final int MAX_BATCH_SIZE = 1024;
+  private static final int MAX_ROOM_LENGTH = 0xFFFF;
+  private static final PendingRecord CLOSE_MARKER = new PendingRecord(0, NO_ROOM, new ChatMessage(null, ""));
+
+  private final Path directory;
+  private final int segmentSize;
+  private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+  private final BlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+  private final Thread writerThread;
+  private volatile boolean running = true;
+  private ByteBuffer batchBuffer = ByteBuffer.allocate(64 * 1024);
+
+  /**
+   * Opens the journal in the given directory with the default segment size, creating the directory if needed.
+   *
+   * @param directory the journal directory
+   * @throws ChatAppException if the journal cannot be opened
+   */
+  public ChatJournal(Path directory) throws ChatAppException {
+    this(directory, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Opens the journal in the given directory, creating the directory if needed.
+   * A record torn by a crash at the end of the last segment is cut off.
+   *
+   * @param directory   the journal directory
+   * @param segmentSize the size after which a new segment file is started
+   * @throws ChatAppException if the journal cannot be opened
+   */
+  public ChatJournal(Path directory, int segmentSize) throws ChatAppException {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+
+    try {
+      Files.createDirectories(directory);
+      openSegments();
+    } catch (IOException e) {
+      closeSegments();
+      throw new ChatAppException(ErrorCode.JOURNAL_ERROR, "Journal Error: " + e.getMessage());
+    }
+
+    writerThread = new Thread(this::writeRecords, "journal-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+    LOGGER.info("Chat journal opened in {} with {} segment(s)", directory, segments.size());
+  }
+
+  /**
+   * Queues a message for appending. The message is written by the writer thread, the caller never waits for I/O.
+   *
+   * @param room    the room of the message, or {@link #NO_ROOM}
+   * @param message the message to append
+   * @return a future completed once the message has been forced to disk
+   * @throws IllegalArgumentException if the UTF-8 encoded room name is longer than 65535 bytes
+   */
+  public CompletableFuture<Void> append(String room, ChatMessage message) {
+    String recordRoom = room == null ? NO_ROOM : room;
+    if (recordRoom.length() > MAX_ROOM_LENGTH / 3 && recordRoom.getBytes(UTF_8).length > MAX_ROOM_LENGTH) {
+      throw new IllegalArgumentException("Room name too long for the journal");
+    }
+    PendingRecord record = new PendingRecord(System.currentTimeMillis(), recordRoom, message);
+    if (!running) {
+      record.future.completeExceptionally(new IOException("Journal is closed"));
+      return record.future;
+    }
+    queue.add(record);
+    return record.future;
+  }
+
+  /**
+   * Returns the most recent messages of a room, oldest first. Messages recorded without room are part of every room.
+   *
+   * @param room  the room to read, or null to read the messages of all rooms
+   * @param count the maximum number of messages to return
+   * @return the messages that have been forced to disk, at most {@code count}
+   * @throws ChatAppException if a segment cannot be read
+   */
+  public List<JournalEntry> tail(String room, int count) throws ChatAppException {
+    List<JournalEntry> entries = new ArrayList<>(Math.min(Math.max(count, 0), 1024));
+    try {
+      for (int i = segments.size() - 1; i >= 0 && entries.size() < count; i--) {
+        ByteBuffer view = segments.get(i).view();
+        int end = view.limit();
+        while (end > 0 && entries.size() < count) {
+          int bodyLength = view.getInt(end - LENGTH_SIZE);
+          int start = end - bodyLength - 2 * LENGTH_SIZE;
+          if (matches(view, start, room)) {
+            entries.add(readEntry(view, start));
+          }
+          end = start;
+        }
+      }
+    } catch (IOException | IndexOutOfBoundsException e) {
+      throw new ChatAppException(ErrorCode.JOURNAL_ERROR, "Journal Error: " + e.getMessage());
+    }
+    Collections.reverse(entries);
+    return entries;
+  }
+
+  /**
+   * Passes every message that has been forced to disk to the consumer, oldest first.
+   *
+   * @param consumer the consumer receiving the entries
+   * @throws ChatAppException if a segment cannot be read
+   */
+  public void replay(Consumer<JournalEntry> consumer) throws ChatAppException {
+    try {
+      for (JournalSegment segment : segments) {
+        ByteBuffer view = segment.view();
+        int position = 0;
+        while (position < view.limit()) {
+          consumer.accept(readEntry(view, position));
+          position += view.getInt(position) + 2 * LENGTH_SIZE;
+        }
+      }
+    } catch (IOException | IndexOutOfBoundsException e) {
+      throw new ChatAppException(ErrorCode.JOURNAL_ERROR, "Journal Error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the directory of the journal.
+   *
+   * @return the journal directory
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Returns the number of segment files of the journal.
+   *
+   * @return the number of segments
+   */
+  public int getSegmentCount() {
+    return segments.size();
+  }
+
+  /**
+   * Writes and syncs the messages queued so far and closes the journal.
+   *
+   * @throws ChatAppException if the calling thread is interrupted while waiting for the writer
+   */
+  @Override
+  public void close() throws ChatAppException {
+    if (!running) {
+      return;
+    }
+    running = false;
+    // Interrupting the writer could close the segment channels in the middle of a write, so it is stopped with a marker
+    queue.add(CLOSE_MARKER);
+    try {
+      writerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ChatAppException(ErrorCode.JOURNAL_ERROR, "Journal Error: " + e.getMessage());
+    } finally {
+      closeSegments();
+    }
+    LOGGER.info("Chat journal closed");
+  }
+
+  /**
+   * Runs on the writer thread. Takes the queued messages in batches and commits every batch with one sync,
+   * until the close marker is taken.
+   */
+  private void writeRecords() {
+    List<PendingRecord> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    boolean closing = false;
+    while (!closing) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+      closing = batch.remove(CLOSE_MARKER);
+      if (!batch.isEmpty()) {
+        commit(batch);
+        batch.clear();
+      }
+    }
+
+    // Messages queued concurrently with close are not written anymore
+    PendingRecord record;
+    while ((record = queue.poll()) != null) {
+      record.future.completeExceptionally(new IOException("Journal is closed"));
+    }
+  }
+
+  /**
+   * Writes a batch of records, starting new segments as needed, and forces them to disk.
+   *
+   * @param batch the records to write
+   */
+  private void commit(List<PendingRecord> batch) {
+    try {
+      JournalSegment segment = segments.get(segments.size() - 1);
+      long position = segment.size();
+      batchBuffer.clear();
+
+      for (PendingRecord record : batch) {
+        byte[] room = record.room.getBytes(UTF_8);
+        byte[] text = record.message.getText().getBytes(UTF_8);
+        int bodyLength = FIXED_BODY_SIZE + room.length + text.length;
+        int recordLength = bodyLength + 2 * LENGTH_SIZE;
+
+        if (position + batchBuffer.position() > 0 && position + batchBuffer.position() + recordLength > segmentSize) {
+          position += flushBatch(segment, position);
+          segment.commit(position);
+          segment = newSegment(segment.getIndex() + 1);
+          position = 0;
+        }
+        ensureBatchCapacity(recordLength);
+
+        ChatSenderType sender = record.message.getSender();
+        batchBuffer.putInt(bodyLength)
+            .putLong(record.timestamp)
+            .putInt(sender == null ? ChatMessage.UNKNOWN_SENDER_ID : sender.getId())
+            .putShort((short) room.length)
+            .put(room)
+            .put(text)
+            .putInt(bodyLength);
+      }
+
+      position += flushBatch(segment, position);
+      segment.commit(position);
+      batch.forEach(record -> record.future.complete(null));
+    } catch (IOException e) {
+      LOGGER.error("Error writing chat journal: {}", e.getMessage());
+      batch.forEach(record -> record.future.completeExceptionally(e));
+    }
+  }
+
+  private int flushBatch(JournalSegment segment, long position) throws IOException {
+    batchBuffer.flip();
+    int written = segment.write(batchBuffer, position);
+    batchBuffer.clear();
+    return written;
+  }
+
+  private void ensureBatchCapacity(int length) {
+    if (batchBuffer.remaining() < length) {
+      ByteBuffer larger = ByteBuffer.allocate(Math.max(batchBuffer.capacity() * 2, batchBuffer.position() + length));
+      batchBuffer.flip();
+      batchBuffer = larger.put(batchBuffer);
+    }
+  }
+
+  private JournalSegment newSegment(long index) throws IOException {
+    JournalSegment segment = new JournalSegment(directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX)), index);
+    segments.add(segment);
+    return segment;
+  }
+
+  private void openSegments() throws IOException {
+    List<Path> paths;
+    try (Stream<Path> files = Files.list(directory)) {
+      paths = files.filter(ChatJournal::isSegmentFile).sorted().toList();
+    }
+    for (Path path : paths) {
+      String name = path.getFileName().toString();
+      segments.add(new JournalSegment(path, Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+    }
+    if (segments.isEmpty()) {
+      newSegment(1);
+    } else {
+      recover(segments.get(segments.size() - 1));
+    }
+  }
+
+  /**
+   * Cuts off a record at the end of the last segment that was only partially written before a crash.
+   *
+   * @param segment the last segment
+   * @throws IOException if the segment cannot be read or truncated
+   */
+  private static void recover(JournalSegment segment) throws IOException {
+    ByteBuffer view = segment.view();
+    int position = 0;
+    while (position + LENGTH_SIZE <= view.limit()) {
+      int bodyLength = view.getInt(position);
+      int end = position + bodyLength + 2 * LENGTH_SIZE;
+      if (bodyLength < FIXED_BODY_SIZE || end > view.limit() || view.getInt(end - LENGTH_SIZE) != bodyLength) {
+        break;
+      }
+      position = end;
+    }
+    if (position < view.limit()) {
+      LOGGER.warn("Truncating torn record at the end of {}", segment.getPath());
+      segment.truncate(position);
+    }
+  }
+
+  private static boolean isSegmentFile(Path path) {
+    String name = path.getFileName().toString();
+    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+  }
+
+  private static boolean matches(ByteBuffer view, int start, String room) {
+    if (room == null) {
+      return true;
+    }
+    int roomOffset = start + LENGTH_SIZE + FIXED_BODY_SIZE;
+    int roomLength = Short.toUnsignedInt(view.getShort(roomOffset - 2));
+    if (roomLength == 0) {
+      return true;
+    }
+    byte[] expected = room.getBytes(UTF_8);
+    return roomLength == expected.length && view.slice(roomOffset, roomLength).equals(ByteBuffer.wrap(expected));
+  }
+
+  private static JournalEntry readEntry(ByteBuffer view, int start) {
+    int bodyLength = view.getInt(start);
+    long timestamp = view.getLong(start + LENGTH_SIZE);
+    int senderId = view.getInt(start + LENGTH_SIZE + 8);
+    int roomLength = Short.toUnsignedInt(view.getShort(start + LENGTH_SIZE + 12));
+    int roomOffset = start + LENGTH_SIZE + FIXED_BODY_SIZE;
+    int textLength = bodyLength - FIXED_BODY_SIZE - roomLength;
+
+    byte[] bytes = new byte[roomLength + textLength];
+    view.get(roomOffset, bytes);
+    String room = new String(bytes, 0, roomLength, UTF_8);
+    String text = new String(bytes, roomLength, textLength, UTF_8);
+    return new JournalEntry(timestamp, room, new ChatMessage(ChatSenderType.fromId(senderId), text));
+  }
+
+  private void closeSegments() {
+    for (JournalSegment segment : segments) {
+      try {
+        segment.close();
+      } catch (IOException e) {
+        LOGGER.debug("Error closing journal segment {}: {}", segment.getPath(), e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * A message waiting for the writer thread.
+   */
+  private static class PendingRecord {
+    private final long timestamp;
+    private final String room;
+    private final ChatMessage message;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    PendingRecord(long timestamp, String room, ChatMessage message) {
+      this.timestamp = timestamp;
+      this.room = room;
+      this.message = message;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package de.sql.chat.journal;
+
+import de.sql.chat.session.ChatMessage;
+
+/**
+ * A chat message read back from the {@link ChatJournal}, together with the time it was recorded and its room.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class JournalEntry {
+
+  private final long timestamp;
+  private final String room;
+  private final ChatMessage message;
+
+  /**
+   * Constructs a JournalEntry.
+   *
+   * @param timestamp the time the message was recorded, in milliseconds since the epoch
+   * @param room      the room of the message, or an empty string if it was not sent to a particular room
+   * @param message   the recorded message
+   */
+  public JournalEntry(long timestamp, String room, ChatMessage message) {
+    this.timestamp = timestamp;
+    this.room = room;
+    this.message = message;
+  }
+
+  /**
+   * Returns the time the message was recorded.
+   *
+   * @return the timestamp in milliseconds since the epoch
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Returns the room of the message.
+   *
+   * @return the room name, or an empty string if the message was not sent to a particular room
+   */
+  public String getRoom() {
+    return room;
+  }
+
+  /**
+   * Returns the recorded message.
+   *
+   * @return the message
+   */
+  public ChatMessage getMessage() {
+    return message;
+  }
+
+  @Override
+  public String toString() {
+    return message.toLine();
+  }
+}
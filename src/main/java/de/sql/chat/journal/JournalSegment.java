@@ -0,0 +1,113 @@
+package de.sql.chat.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One file of the {@link ChatJournal}. Records are appended by the journal writer thread only, while any thread
+ * may read the durable part of the segment through a read-only memory mapping.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+class JournalSegment implements AutoCloseable {
+
+  private final Path path;
+  private final long index;
+  private final FileChannel channel;
+  private volatile long size;
+  private MappedByteBuffer mapped;
+
+  /**
+   * Opens or creates a segment file.
+   *
+   * @param path  the segment file
+   * @param index the index of the segment, used to order segments
+   * @throws IOException if the file cannot be opened
+   */
+  JournalSegment(Path path, long index) throws IOException {
+    this.path = path;
+    this.index = index;
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.size = channel.size();
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  long getIndex() {
+    return index;
+  }
+
+  /**
+   * Returns the number of bytes written and forced to disk.
+   *
+   * @return the durable size of the segment
+   */
+  long size() {
+    return size;
+  }
+
+  /**
+   * Appends the buffer at the end of the segment without forcing it to disk.
+   *
+   * @param buffer the encoded records
+   * @param position the file position to write at, the end of the bytes written so far
+   * @return the number of bytes written
+   * @throws IOException if an I/O error occurs
+   */
+  int write(ByteBuffer buffer, long position) throws IOException {
+    int written = 0;
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer, position + written);
+    }
+    return written;
+  }
+
+  /**
+   * Forces the written bytes to disk and makes them visible to readers.
+   *
+   * @param newSize the size of the segment including the forced bytes
+   * @throws IOException if an I/O error occurs
+   */
+  void commit(long newSize) throws IOException {
+    channel.force(false);
+    size = newSize;
+  }
+
+  /**
+   * Cuts off a torn record left behind by a crash.
+   *
+   * @param newSize the size of the valid part of the segment
+   * @throws IOException if an I/O error occurs
+   */
+  void truncate(long newSize) throws IOException {
+    channel.truncate(newSize);
+    size = newSize;
+  }
+
+  /**
+   * Returns a read-only view of the durable records. The mapping is created once and only replaced
+   * when the segment has grown since, so reading a sealed segment never touches the file system.
+   *
+   * @return a buffer from the first byte to the end of the durable records
+   * @throws IOException if the segment cannot be mapped
+   */
+  synchronized ByteBuffer view() throws IOException {
+    long currentSize = size;
+    if (mapped == null || mapped.capacity() < currentSize) {
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, currentSize);
+    }
+    return mapped.duplicate().limit((int) currentSize);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
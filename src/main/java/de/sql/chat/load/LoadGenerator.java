@@ -0,0 +1,221 @@
+package de.sql.chat.load;
+
+import de.sql.chat.client.ChatClient;
+import de.sql.chat.config.PerformanceSettings;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.exceptions.ErrorCode;
+import de.sql.chat.metrics.LatencyHistogram;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Puts load on a chat server from a single JVM, without a console, to size the hardware of a deployment.
+ * <p>
+ * The generator connects a number of {@link ChatClient}s, each fed by a {@link RateUserInputSource} that sends
+ * a fixed number of messages at a fixed rate. The messages are generated or replayed from a recorded transcript.
+ * Servers that relay messages between the members of a room, like the NIO and virtual thread servers, deliver the
+ * messages of each client to the other clients, which measure the latency from the creation of the message until
+ * its arrival. All clients run in one JVM, so the timestamps of sender and receiver come from the same clock.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class LoadGenerator {
+
+  /** The number of messages every client sends if nothing else is configured. */
+  public static final long DEFAULT_MESSAGES_PER_CLIENT = 1000;
+
+  private static final Logger LOGGER = LogManager.getLogger(LoadGenerator.class);
+  private static final List<String> GENERATED_TEXTS = List.of("The quick brown fox jumps over the lazy dog");
+  private static final Duration QUIET_PERIOD = Duration.ofMillis(500);
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+  private final String serverIP;
+  private final int serverPort;
+  private final int clients;
+  private long messagesPerClient = DEFAULT_MESSAGES_PER_CLIENT;
+  private double ratePerClient;
+  private List<String> texts = GENERATED_TEXTS;
+  private Integer reconnectAttempts;
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final LongAdder received = new LongAdder();
+  private volatile long lastReceivedNanos;
+
+  /**
+   * Creates a new LoadGenerator for the given server.
+   *
+   * @param serverIP   The IP address of the chat server.
+   * @param serverPort The port on which the server is listening.
+   * @param clients    The number of clients to connect.
+   */
+  public LoadGenerator(String serverIP, int serverPort, int clients) {
+    if (clients < 1) {
+      throw new IllegalArgumentException("Invalid number of load clients: " + clients);
+    }
+    this.serverIP = serverIP;
+    this.serverPort = serverPort;
+    this.clients = clients;
+  }
+
+  /**
+   * Sets the number of messages every client sends.
+   *
+   * @param messagesPerClient The number of messages.
+   */
+  public void setMessagesPerClient(long messagesPerClient) {
+    this.messagesPerClient = messagesPerClient;
+  }
+
+  /**
+   * Sets the number of messages every client sends per second.
+   *
+   * @param ratePerClient The rate, 0 to send as fast as the connection takes the messages.
+   */
+  public void setRatePerClient(double ratePerClient) {
+    this.ratePerClient = ratePerClient;
+  }
+
+  /**
+   * Sets how often a load client tries to reconnect after losing its connection. Clients that give up before
+   * sending all their messages are reported as failed.
+   *
+   * @param reconnectAttempts The number of attempts, 0 to not reconnect, or null to use the reconnect attempts of
+   *                          the performance settings.
+   */
+  public void setReconnectAttempts(Integer reconnectAttempts) {
+    this.reconnectAttempts = reconnectAttempts;
+  }
+
+  /**
+   * Sets the texts of the messages, for example the lines of a recorded transcript. Every client sends them in
+   * turn, starting over after the last one.
+   *
+   * @param texts The message texts, or null to send generated texts.
+   */
+  public void setTexts(List<String> texts) {
+    this.texts = texts == null || texts.isEmpty() ? GENERATED_TEXTS : List.copyOf(texts);
+  }
+
+  /**
+   * Connects the clients, lets them send their messages, waits for the relayed messages to arrive and
+   * disconnects the clients again.
+   *
+   * @return The throughput and latencies of the run.
+   * @throws ChatAppException If no client could connect or the run is interrupted.
+   */
+  public LoadReport run() throws ChatAppException {
+    LOGGER.info("Starting {} load clients against {}:{}, {} messages each at {} msg/s", clients, serverIP, serverPort,
+        messagesPerClient, ratePerClient > 0 ? ratePerClient : "unlimited");
+    List<ChatClient> chatClients = new ArrayList<>(clients);
+    List<RateUserInputSource> sources = new ArrayList<>(clients);
+    long startNanos = System.nanoTime();
+    try {
+      for (int i = 0; i < clients; i++) {
+        RateUserInputSource source = new RateUserInputSource(texts, messagesPerClient, ratePerClient);
+        ChatClient chatClient = new ChatClient(serverIP, serverPort);
+        chatClient.setMessageListener(this::onMessage);
+        chatClient.setReconnectAttempts(reconnectAttempts);
+        chatClient.start(source);
+        chatClients.add(chatClient);
+        sources.add(source);
+      }
+
+      List<RateUserInputSource> started = awaitStart(sources);
+      if (started.isEmpty()) {
+        throw new ChatAppException(ErrorCode.CLIENT_ERROR, "No load client could connect to " + serverIP + ":" + serverPort);
+      }
+      long sent = 0;
+      int failed = 0;
+      for (RateUserInputSource source : started) {
+        // Also returns once a client stopped taking messages, because it lost its connection for good
+        source.awaitCompletion();
+        sent += source.getPublished();
+        if (!source.isFinished()) {
+          failed++;
+        }
+      }
+      long sentNanos = System.nanoTime();
+      if (failed > 0) {
+        LOGGER.warn("{} of {} load clients stopped before sending all their messages", failed, started.size());
+      }
+      awaitQuiet();
+
+      long receiveEnd = Math.max(lastReceivedNanos, startNanos);
+      return new LoadReport(clients, started.size(), failed, sent, Duration.ofNanos(sentNanos - startNanos),
+          received.sum(), Duration.ofNanos(receiveEnd - startNanos), latencies);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ChatAppException(ErrorCode.CLIENT_ERROR, "Interrupted while generating load");
+    } finally {
+      for (ChatClient chatClient : chatClients) {
+        closeQuietly(chatClient);
+      }
+    }
+  }
+
+  /**
+   * Measures the latency of a received load message.
+   *
+   * @param message The received message in the {@code Sender: text} format.
+   */
+  private void onMessage(String message) {
+    long sendNanos = LoadMessage.sendNanosOf(message);
+    if (sendNanos >= 0) {
+      long now = System.nanoTime();
+      latencies.record(now - sendNanos);
+      received.increment();
+      lastReceivedNanos = now;
+    }
+  }
+
+  /**
+   * Waits for every client to connect and start sending, up to the connect timeout.
+   *
+   * @param sources The sources of all clients.
+   * @return The sources of the clients that started.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  private List<RateUserInputSource> awaitStart(List<RateUserInputSource> sources) throws InterruptedException {
+    // Clients connect one after another, so the timeout covers the connect timeout and the time to start a session
+    long deadline = System.nanoTime() + PerformanceSettings.current().getConnectTimeout().plus(DRAIN_TIMEOUT).toNanos();
+    List<RateUserInputSource> started = new ArrayList<>(sources.size());
+    for (RateUserInputSource source : sources) {
+      if (source.awaitStart(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))) {
+        started.add(source);
+      }
+    }
+    if (started.size() < sources.size()) {
+      LOGGER.warn("{} of {} load clients did not connect", sources.size() - started.size(), sources.size());
+    }
+    return started;
+  }
+
+  /**
+   * Waits until no message was received for the quiet period, so relayed messages still in flight are counted.
+   */
+  private void awaitQuiet() {
+    long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+    long seen = -1;
+    while (System.nanoTime() < deadline) {
+      long current = received.sum();
+      if (current == seen) {
+        return;
+      }
+      seen = current;
+      LockSupport.parkNanos(QUIET_PERIOD.toNanos());
+    }
+  }
+
+  private void closeQuietly(ChatClient chatClient) {
+    try {
+      chatClient.close();
+    } catch (ChatAppException e) {
+      LOGGER.debug("Error closing load client: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package de.sql.chat.load;
+
+/**
+ * The format of the messages sent by the {@link LoadGenerator}. Every message carries its sequence number and the
+ * {@link System#nanoTime()} at which it was created, so a load client in the same JVM that receives it can measure
+ * its latency: {@code #load <sequence> <nanos> <text>}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+final class LoadMessage {
+
+  static final String MARKER = "#load ";
+
+  private LoadMessage() {
+    // Utility class
+  }
+
+  /**
+   * Formats a load message.
+   *
+   * @param sequence  the number of the message within its client
+   * @param sendNanos the time the message was created
+   * @param text      the text of the message
+   * @return the message text to send
+   */
+  static String format(long sequence, long sendNanos, String text) {
+    return MARKER + sequence + ' ' + sendNanos + ' ' + text;
+  }
+
+  /**
+   * Returns the time a received load message was created.
+   *
+   * @param line the received line in the {@code Sender: text} format
+   * @return the creation time, or -1 if the line is not a load message
+   */
+  static long sendNanosOf(String line) {
+    int start = line.indexOf(MARKER);
+    if (start < 0) {
+      return -1;
+    }
+    int nanosStart = line.indexOf(' ', start + MARKER.length()) + 1;
+    int nanosEnd = line.indexOf(' ', nanosStart);
+    if (nanosStart == 0 || nanosEnd < 0) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(line, nanosStart, nanosEnd, 10);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package de.sql.chat.load;
+
+import de.sql.chat.metrics.LatencyHistogram;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * The result of a {@link LoadGenerator} run: how many messages were sent and received in which time, and the
+ * latencies from creating a message in one load client until another load client received it.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public final class LoadReport {
+
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private final int clients;
+  private final int connectedClients;
+  private final int failedClients;
+  private final long sent;
+  private final Duration sendTime;
+  private final long received;
+  private final Duration receiveTime;
+  private final LatencyHistogram latencies;
+
+  /**
+   * Constructs a LoadReport.
+   *
+   * @param clients          the number of clients that were started
+   * @param connectedClients the number of clients that connected and sent messages
+   * @param failedClients    the number of connected clients that stopped before sending all their messages
+   * @param sent             the number of messages sent by all clients
+   * @param sendTime         the time from the start until the last message was sent
+   * @param received         the number of load messages received by all clients
+   * @param receiveTime      the time from the start until the last message was received
+   * @param latencies        the latencies of the received messages
+   */
+  LoadReport(int clients, int connectedClients, int failedClients, long sent, Duration sendTime, long received,
+      Duration receiveTime, LatencyHistogram latencies) {
+    this.clients = clients;
+    this.connectedClients = connectedClients;
+    this.failedClients = failedClients;
+    this.sent = sent;
+    this.sendTime = sendTime;
+    this.received = received;
+    this.receiveTime = receiveTime;
+    this.latencies = latencies;
+  }
+
+  /**
+   * Returns the number of clients that connected and sent messages.
+   *
+   * @return the connected clients
+   */
+  public int getConnectedClients() {
+    return connectedClients;
+  }
+
+  /**
+   * Returns the number of connected clients that stopped before sending all their messages, because they lost
+   * their connection for good or the server ended their session.
+   *
+   * @return the failed clients
+   */
+  public int getFailedClients() {
+    return failedClients;
+  }
+
+  /**
+   * Returns the number of messages sent by all clients.
+   *
+   * @return the sent messages
+   */
+  public long getSent() {
+    return sent;
+  }
+
+  /**
+   * Returns the number of load messages received by all clients.
+   *
+   * @return the received messages
+   */
+  public long getReceived() {
+    return received;
+  }
+
+  /**
+   * Returns the number of messages sent per second.
+   *
+   * @return the send throughput
+   */
+  public double getSendThroughput() {
+    return perSecond(sent, sendTime);
+  }
+
+  /**
+   * Returns the number of messages received per second.
+   *
+   * @return the receive throughput
+   */
+  public double getReceiveThroughput() {
+    return perSecond(received, receiveTime);
+  }
+
+  /**
+   * Returns the latencies of the received messages.
+   *
+   * @return the latency histogram in nanoseconds
+   */
+  public LatencyHistogram getLatencies() {
+    return latencies;
+  }
+
+  /**
+   * Formats the report for the console.
+   *
+   * @return the formatted report
+   */
+  public String format() {
+    StringBuilder builder = new StringBuilder(512);
+    builder.append(String.format(Locale.ROOT, "clients    %d started, %d connected, %d failed%n", clients,
+        connectedClients, failedClients));
+    builder.append(String.format(Locale.ROOT, "sent       %d messages in %.3f s, %.1f msg/s%n",
+        sent, seconds(sendTime), getSendThroughput()));
+    builder.append(String.format(Locale.ROOT, "received   %d messages in %.3f s, %.1f msg/s%n",
+        received, seconds(receiveTime), getReceiveThroughput()));
+    if (latencies.getCount() == 0) {
+      builder.append(String.format("latency    no load messages came back, the server does not relay between clients%n"));
+      return builder.toString();
+    }
+    builder.append("latency   ");
+    for (double percentile : PERCENTILES) {
+      builder.append(String.format(Locale.ROOT, " p%s %.3f ms", formatPercentile(percentile),
+          latencies.getPercentile(percentile) / 1e6));
+    }
+    builder.append(String.format(Locale.ROOT, " max %.3f ms%n", latencies.getMax() / 1e6));
+    return builder.toString();
+  }
+
+  @Override
+  public String toString() {
+    return format();
+  }
+
+  private static String formatPercentile(double percentile) {
+    return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+  }
+
+  private static double perSecond(long count, Duration time) {
+    return time.isZero() ? 0 : count / seconds(time);
+  }
+
+  private static double seconds(Duration time) {
+    return time.toNanos() / 1e9;
+  }
+}
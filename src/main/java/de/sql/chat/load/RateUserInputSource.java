@@ -0,0 +1,162 @@
+package de.sql.chat.load;
+
+import de.sql.chat.session.UserInputSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A UserInputSource that needs no console and publishes a fixed number of load messages at a fixed rate.
+ * The texts of the messages are taken in turn from a list, for example generated texts or the lines of a recorded
+ * transcript, and each message is stamped with its creation time as described in {@link LoadMessage}.
+ * <p>
+ * Messages are scheduled at fixed points in time from the start, so a send that takes longer than the interval
+ * is followed by the next ones without delay until the schedule is met again. A rate of zero publishes as fast as
+ * the session sends.
+ * <p>
+ * The source is done once the last message was sent, or earlier if its subscriber stops taking messages, for
+ * example because its client gave up reconnecting or the server ended the session. Only in the first case the
+ * source {@link #isFinished() finished}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class RateUserInputSource implements UserInputSource {
+
+  private final List<String> texts;
+  private final long messageCount;
+  private final long intervalNanos;
+  private final AtomicLong published = new AtomicLong();
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch completed = new CountDownLatch(1);
+  private volatile boolean finished;
+  private long startNanos;
+
+  /**
+   * Constructs a RateUserInputSource.
+   *
+   * @param texts         the texts of the messages, used in turn
+   * @param messageCount  the number of messages to publish
+   * @param ratePerSecond the number of messages per second, 0 to publish without pauses
+   */
+  public RateUserInputSource(List<String> texts, long messageCount, double ratePerSecond) {
+    if (texts.isEmpty()) {
+      throw new IllegalArgumentException("No message texts");
+    }
+    this.texts = List.copyOf(texts);
+    this.messageCount = messageCount;
+    this.intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+  }
+
+  /**
+   * Waits for the next message to be due and returns it. The previous message has been sent when this method is
+   * called again, so the source is complete once the last message was followed by a call.
+   *
+   * @return the message, or null after the last message
+   */
+  @Override
+  public synchronized String getUserInput() {
+    long sequence = published.get();
+    if (sequence == 0) {
+      startNanos = System.nanoTime();
+      started.countDown();
+    }
+    if (sequence >= messageCount) {
+      finished = true;
+      completed.countDown();
+      return null;
+    }
+    long dueNanos = startNanos + sequence * intervalNanos;
+    long waitNanos;
+    while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(this, waitNanos);
+    }
+    published.incrementAndGet();
+    return LoadMessage.format(sequence, System.nanoTime(), texts.get((int) (sequence % texts.size())));
+  }
+
+  /**
+   * Publishes the messages to the subscriber, and ends the source as soon as the subscriber cancels its
+   * subscription or the input fails, so nobody waits for messages that are never sent.
+   *
+   * @param subscriber the subscriber that receives the messages
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super String> subscriber) {
+    UserInputSource.super.subscribe(new Flow.Subscriber<String>() {
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+          @Override
+          public void request(long n) {
+            subscription.request(n);
+          }
+
+          @Override
+          public void cancel() {
+            subscription.cancel();
+            completed.countDown();
+          }
+        });
+      }
+
+      @Override
+      public void onNext(String item) {
+        subscriber.onNext(item);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        completed.countDown();
+        subscriber.onError(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+        subscriber.onComplete();
+      }
+    });
+  }
+
+  /**
+   * Returns the number of messages handed out so far.
+   *
+   * @return the published messages
+   */
+  public long getPublished() {
+    return published.get();
+  }
+
+  /**
+   * Waits until the first message was requested, which happens once the session of the source is running.
+   *
+   * @param timeout the longest time to wait
+   * @return true if the source started, false if it did not start in time
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public boolean awaitStart(Duration timeout) throws InterruptedException {
+    return started.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Checks whether the last message was sent, rather than the subscriber stopping before.
+   *
+   * @return true if all messages were sent
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Waits until the last message was sent or the subscriber stopped taking messages.
+   *
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public void awaitCompletion() throws InterruptedException {
+    completed.await();
+  }
+}
@@ -1,13 +1,20 @@
 package de.sql.chat.localization;
 
-import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * The LocalizedResourceManager class is responsible for managing and retrieving localized messages from resource bundles.
  * It provides methods to get messages from a specific resource bundle, format messages with arguments, and manage the current locale.
+ * <p>
+ * The current locale is the language of the application itself. Servers answer every client in the language the
+ * client announced, so messages can also be requested for any other locale. Resource bundles are loaded once per
+ * locale and message patterns are parsed once per bundle, key and locale and kept as {@link MessageTemplate}s.
+ * Both caches are shared by all threads and filled on first use, so thousands of sessions speaking a few languages
+ * share a few bundles and templates. Locales received from peers must be passed through {@link #resolveLocale(Locale)}
+ * first, which maps them to one of the few locales the application has bundles for.
  *
  * @since 8-11-2023
  * @author Abdallah Emad
@@ -16,17 +23,15 @@ public class LocalizedResourceManager {
 
     private static final Logger LOGGER = LogManager.getLogger(LocalizedResourceManager.class);
 
-    private Map<LocalizationBundle, ResourceBundle> resourceBundles;
-    private Locale currentLocale = Locale.getDefault();
-    private static LocalizedResourceManager instance;
+    private final Map<Locale, Map<LocalizationBundle, ResourceBundle>> resourceBundles = new ConcurrentHashMap<>();
+    private final Map<TemplateKey, MessageTemplate> templates = new ConcurrentHashMap<>();
+    private volatile Locale currentLocale = Locale.getDefault();
+    private static volatile LocalizedResourceManager instance;
 
      // Private constructor to prevent instantiation
      private LocalizedResourceManager(Locale locale) {
         this.currentLocale = locale;
-        this.resourceBundles = new EnumMap<>(LocalizationBundle.class);
-        for (LocalizationBundle bundle : LocalizationBundle.values()) {
-            resourceBundles.put(bundle, bundle.getResourceBundle(locale));
-        }
+        getResourceBundles(locale);
     }
 
     public static synchronized LocalizedResourceManager getInstance(Locale locale) {
@@ -37,10 +42,8 @@ public class LocalizedResourceManager {
     }
 
     public static LocalizedResourceManager getInstance() {
-        if (instance == null) {
-            instance = new LocalizedResourceManager(Locale.getDefault());
-        }
-        return instance;
+        LocalizedResourceManager current = instance;
+        return current != null ? current : getInstance(Locale.getDefault());
     }
 
     /**
@@ -51,7 +54,19 @@ public class LocalizedResourceManager {
      * @return The localized message, or null if not found.
      */
     public String getMessage(LocalizationBundle bundle, String key) {
-        ResourceBundle resourceBundle = resourceBundles.get(bundle);
+        return getMessage(currentLocale, bundle, key);
+    }
+
+    /**
+     * Get a message in the specified language from the specified resource bundle by key.
+     *
+     * @param locale The language of the message, or null for the current locale.
+     * @param bundle The LocalizationBundle to use.
+     * @param key    The key of the message.
+     * @return The localized message, or null if not found.
+     */
+    public String getMessage(Locale locale, LocalizationBundle bundle, String key) {
+        ResourceBundle resourceBundle = getResourceBundles(locale != null ? locale : currentLocale).get(bundle);
         if (resourceBundle != null && key != null) {
             try {
                 return resourceBundle.getString(key);
@@ -71,13 +86,23 @@ public class LocalizedResourceManager {
      * @return The formatted message, or null if not found.
      */
     public String getFormattedMessage(LocalizationBundle bundle, String key, Object... args) {
-        String pattern = getMessage(bundle, key);
-        if (pattern != null) {
+        return getFormattedMessage(currentLocale, bundle, key, args);
+    }
+
+    /**
+     * Get a parameterized message in the specified language and format it with the provided arguments.
+     *
+     * @param locale The language of the message, or null for the current locale.
+     * @param bundle The LocalizationBundle to use.
+     * @param key    The key of the message.
+     * @param args   The arguments to format the message.
+     * @return The formatted message, or null if not found.
+     */
+    public String getFormattedMessage(Locale locale, LocalizationBundle bundle, String key, Object... args) {
+        MessageTemplate template = getTemplate(bundle, key, locale != null ? locale : currentLocale);
+        if (template != null) {
             try {
-                MessageFormat formatter = new MessageFormat("");
-                formatter.applyPattern(pattern);
-                formatter.setLocale(currentLocale);
-                return formatter.format(args);
+                return template.format(args);
             } catch (Exception e) {
                 LOGGER.error("Error formatting message from bundle {} with key {}: {}", bundle, key, e.getMessage());
             }
@@ -85,6 +110,79 @@ public class LocalizedResourceManager {
         return null;
     }
 
+    /**
+     * Get the parsed pattern of a message, parsing it on first use.
+     *
+     * @param bundle The LocalizationBundle to use.
+     * @param key    The key of the message.
+     * @param locale The locale to format numbers and dates with.
+     * @return The template, or null if the message is not found or its pattern is invalid.
+     */
+    private MessageTemplate getTemplate(LocalizationBundle bundle, String key, Locale locale) {
+        if (key == null) {
+            return null;
+        }
+        TemplateKey templateKey = new TemplateKey(bundle, key, locale);
+        MessageTemplate template = templates.get(templateKey);
+        if (template == null) {
+            String pattern = getMessage(locale, bundle, key);
+            if (pattern == null) {
+                return null;
+            }
+            try {
+                template = MessageTemplate.compile(pattern, locale);
+            } catch (IllegalArgumentException e) {
+                LOGGER.error("Error formatting message from bundle {} with key {}: {}", bundle, key, e.getMessage());
+                return null;
+            }
+            // Two threads may both parse a pattern on first use, only one of the templates is kept
+            MessageTemplate existing = templates.putIfAbsent(templateKey, template);
+            if (existing != null) {
+                template = existing;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Maps a requested locale, for example one announced by a client, to the locale of the messages bundle that
+     * serves it. Unlike the lookup of the bundles themselves, this does not fall back to the default locale of the
+     * JVM, so a client asking for a language without bundle gets the current locale of the application.
+     *
+     * @param requested The requested locale.
+     * @return The locale of the bundle for the requested language, or the current locale if there is none.
+     */
+    public Locale resolveLocale(Locale requested) {
+        try {
+            ResourceBundle bundle = ResourceBundle.getBundle(LocalizationBundle.MESSAGES.getBundleName(), requested,
+                    ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+            return bundle.getLocale();
+        } catch (MissingResourceException e) {
+            return currentLocale;
+        }
+    }
+
+    /**
+     * Get the resource bundles of a locale, loading them on first use.
+     *
+     * @param locale The locale of the bundles.
+     * @return The bundles, shared by all callers.
+     */
+    private Map<LocalizationBundle, ResourceBundle> getResourceBundles(Locale locale) {
+        Map<LocalizationBundle, ResourceBundle> bundles = resourceBundles.get(locale);
+        if (bundles == null) {
+            bundles = resourceBundles.computeIfAbsent(locale, newLocale -> {
+                Map<LocalizationBundle, ResourceBundle> loaded = new EnumMap<>(LocalizationBundle.class);
+                for (LocalizationBundle bundle : LocalizationBundle.values()) {
+                    loaded.put(bundle, bundle.getResourceBundle(newLocale));
+                }
+                LOGGER.debug("Loaded resource bundles for locale {}", newLocale);
+                return loaded;
+            });
+        }
+        return bundles;
+    }
+
     /**
      * Set the locale for the resource bundle.
      *
@@ -103,4 +201,7 @@ public class LocalizedResourceManager {
     public Locale getCurrentLocale() {
         return currentLocale;
     }
+
+    private record TemplateKey(LocalizationBundle bundle, String key, Locale locale) {
+    }
 }
\ No newline at end of file
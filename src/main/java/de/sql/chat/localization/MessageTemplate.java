@@ -0,0 +1,130 @@
+package de.sql.chat.localization;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A message pattern that is parsed once and then formatted by any number of threads.
+ * <p>
+ * Most messages only contain plain placeholders like {@code {0}} and are formatted with text arguments. Such
+ * patterns are split into their literal parts and argument indexes, and formatting them just appends the parts and
+ * arguments to one builder. Patterns with quotes or format types, and arguments that {@link MessageFormat} formats
+ * locale-dependent (numbers and dates), are formatted by a {@link MessageFormat} parsed once for the template.
+ * {@link MessageFormat} is not thread-safe, so that path holds the lock of the format while formatting.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+final class MessageTemplate {
+
+    private final MessageFormat format;
+    // The literal text before every placeholder and after the last one, or null if the pattern is not simple
+    private final String[] literals;
+    private final int[] argumentIndexes;
+    private final int literalLength;
+
+    private MessageTemplate(MessageFormat format, String[] literals, int[] argumentIndexes) {
+        this.format = format;
+        this.literals = literals;
+        this.argumentIndexes = argumentIndexes;
+        int length = 0;
+        if (literals != null) {
+            for (String literal : literals) {
+                length += literal.length();
+            }
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses a message pattern.
+     *
+     * @param pattern the pattern in {@link MessageFormat} syntax
+     * @param locale  the locale used to format numbers and dates
+     * @return the parsed template
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    static MessageTemplate compile(String pattern, Locale locale) {
+        MessageFormat format = new MessageFormat(pattern, locale);
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'' || c == '}') {
+                return new MessageTemplate(format, null, null);
+            }
+            if (c == '{') {
+                int end = pattern.indexOf('}', i);
+                if (end <= i + 1 || !isDigits(pattern, i + 1, end)) {
+                    return new MessageTemplate(format, null, null);
+                }
+                literals.add(pattern.substring(start, i));
+                indexes.add(Integer.parseInt(pattern, i + 1, end, 10));
+                start = end + 1;
+                i = end;
+            }
+        }
+        literals.add(pattern.substring(start));
+        return new MessageTemplate(format, literals.toArray(new String[0]), indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Formats the message with the given arguments, with the same result as {@link MessageFormat#format(Object)}.
+     *
+     * @param args the arguments
+     * @return the formatted message
+     */
+    String format(Object... args) {
+        if (literals == null || !isPlain(args)) {
+            synchronized (format) {
+                return format.format(args);
+            }
+        }
+        StringBuilder builder = new StringBuilder(literalLength + 16 * argumentIndexes.length);
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            builder.append(literals[i]);
+            int index = argumentIndexes[i];
+            if (args == null || index >= args.length) {
+                // MessageFormat keeps placeholders without an argument
+                builder.append('{').append(index).append('}');
+            } else {
+                builder.append(args[index]);
+            }
+        }
+        return builder.append(literals[argumentIndexes.length]).toString();
+    }
+
+    /**
+     * Returns true if the pattern has no quotes or format types and is formatted without a {@link MessageFormat}
+     * for text arguments.
+     *
+     * @return true for simple patterns
+     */
+    boolean isSimple() {
+        return literals != null;
+    }
+
+    private boolean isPlain(Object[] args) {
+        if (args != null) {
+            for (int index : argumentIndexes) {
+                if (index < args.length && (args[index] instanceof Number || args[index] instanceof Date)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigits(String pattern, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (pattern.charAt(i) < '0' || pattern.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
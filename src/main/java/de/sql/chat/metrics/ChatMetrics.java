@@ -0,0 +1,384 @@
+package de.sql.chat.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The meters of the chat application, shared by all servers, clients and sessions of the JVM.
+ * <p>
+ * Counters and gauges are {@link LongAdder}s and latencies are {@link LatencyHistogram}s, so recording is a few
+ * uncontended additions that never allocate and never block the chat threads. Gauges like the active sessions or the
+ * queued bytes are kept up to date by the code that changes them instead of being computed when they are read.
+ * The meters are read through JMX, under {@value #OBJECT_NAME}, and as plain text by the {@link MetricsEndpoint}.
+ * Rates, for example of accepted connections, are derived by the reader from the totals.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public final class ChatMetrics implements ChatMetricsMXBean {
+
+  /** The JMX object name the metrics are registered under. */
+  public static final String OBJECT_NAME = "de.sql.chat:type=ChatMetrics";
+
+  private static final Logger LOGGER = LogManager.getLogger(ChatMetrics.class);
+  private static final ChatMetrics INSTANCE = new ChatMetrics();
+
+  private final LongAdder messagesReceived = new LongAdder();
+  private final LongAdder messagesSent = new LongAdder();
+  private final LongAdder bytesReceived = new LongAdder();
+  private final LongAdder bytesSent = new LongAdder();
+  private final LongAdder acceptedConnections = new LongAdder();
+  private final LongAdder activeSessions = new LongAdder();
+  private final LongAdder queuedBytes = new LongAdder();
+  private final LongAdder queuedMessages = new LongAdder();
+  private final LongAdder droppedMessages = new LongAdder();
+  private final LongAdder compressionInputBytes = new LongAdder();
+  private final LongAdder compressionOutputBytes = new LongAdder();
+  private final LongAdder compressionNanos = new LongAdder();
+  private final LongAdder decompressionNanos = new LongAdder();
+  private final LongAdder reconnectAttempts = new LongAdder();
+  private final LongAdder resumedSessions = new LongAdder();
+  private final LatencyHistogram sendToWrite = new LatencyHistogram();
+  private final LatencyHistogram receiveToDisplay = new LatencyHistogram();
+
+  private ChatMetrics() {
+    // Private constructor to enforce singleton pattern
+  }
+
+  /**
+   * Returns the metrics of this JVM.
+   *
+   * @return the metrics
+   */
+  public static ChatMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers the metrics with the platform MBean server, unless they are already registered.
+   */
+  public void registerMBean() {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(this, name);
+        LOGGER.debug("Registered metrics as {}", OBJECT_NAME);
+      }
+    } catch (JMException e) {
+      LOGGER.warn("Error registering metrics with JMX: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Counts a chat message received from a peer.
+   */
+  public void messageReceived() {
+    messagesReceived.increment();
+  }
+
+  /**
+   * Counts a chat message queued for a peer.
+   */
+  public void messageSent() {
+    messagesSent.increment();
+  }
+
+  /**
+   * Counts bytes read from a socket.
+   *
+   * @param bytes the number of bytes read
+   */
+  public void bytesReceived(long bytes) {
+    bytesReceived.add(bytes);
+  }
+
+  /**
+   * Counts bytes written to a socket.
+   *
+   * @param bytes the number of bytes written
+   */
+  public void bytesSent(long bytes) {
+    bytesSent.add(bytes);
+  }
+
+  /**
+   * Counts a connection accepted by a server.
+   */
+  public void connectionAccepted() {
+    acceptedConnections.increment();
+  }
+
+  /**
+   * Changes the number of active sessions.
+   *
+   * @param delta 1 when a session starts, -1 when it ends
+   */
+  public void sessionsChanged(int delta) {
+    activeSessions.add(delta);
+  }
+
+  /**
+   * Changes the number of messages and bytes queued for peers but not yet written.
+   *
+   * @param messages the change of queued messages
+   * @param bytes    the change of queued bytes
+   */
+  public void queueChanged(int messages, long bytes) {
+    queuedMessages.add(messages);
+    queuedBytes.add(bytes);
+  }
+
+  /**
+   * Counts messages dropped because a peer did not read them fast enough.
+   *
+   * @param messages the number of dropped messages
+   */
+  public void messagesDropped(long messages) {
+    droppedMessages.add(messages);
+  }
+
+  /**
+   * Counts a payload deflated for a peer.
+   *
+   * @param inputBytes  the size of the payload
+   * @param outputBytes the size of the compressed payload
+   * @param nanos       the time spent compressing
+   */
+  public void compressed(long inputBytes, long outputBytes, long nanos) {
+    compressionInputBytes.add(inputBytes);
+    compressionOutputBytes.add(outputBytes);
+    compressionNanos.add(nanos);
+  }
+
+  /**
+   * Counts a payload inflated after receiving it from a peer.
+   *
+   * @param nanos the time spent decompressing
+   */
+  public void decompressed(long nanos) {
+    decompressionNanos.add(nanos);
+  }
+
+  /**
+   * Counts an attempt of a client to reconnect after its connection dropped.
+   */
+  public void reconnectAttempted() {
+    reconnectAttempts.increment();
+  }
+
+  /**
+   * Counts a session a reconnected client resumed on a server.
+   */
+  public void sessionResumed() {
+    resumedSessions.increment();
+  }
+
+  /**
+   * Returns the histogram of the time from queuing a message until it is written to the socket.
+   *
+   * @return the send-to-write latencies
+   */
+  public LatencyHistogram getSendToWrite() {
+    return sendToWrite;
+  }
+
+  /**
+   * Returns the histogram of the time from reading a message from the socket until it is displayed or handed
+   * to the room of its sender.
+   *
+   * @return the receive-to-display latencies
+   */
+  public LatencyHistogram getReceiveToDisplay() {
+    return receiveToDisplay;
+  }
+
+  @Override
+  public long getMessagesReceived() {
+    return messagesReceived.sum();
+  }
+
+  @Override
+  public long getMessagesSent() {
+    return messagesSent.sum();
+  }
+
+  @Override
+  public long getBytesReceived() {
+    return bytesReceived.sum();
+  }
+
+  @Override
+  public long getBytesSent() {
+    return bytesSent.sum();
+  }
+
+  @Override
+  public long getAcceptedConnections() {
+    return acceptedConnections.sum();
+  }
+
+  @Override
+  public long getActiveSessions() {
+    return activeSessions.sum();
+  }
+
+  @Override
+  public long getQueuedBytes() {
+    return queuedBytes.sum();
+  }
+
+  @Override
+  public long getQueuedMessages() {
+    return queuedMessages.sum();
+  }
+
+  @Override
+  public long getDroppedMessages() {
+    return droppedMessages.sum();
+  }
+
+  @Override
+  public long getCompressionInputBytes() {
+    return compressionInputBytes.sum();
+  }
+
+  @Override
+  public long getCompressionOutputBytes() {
+    return compressionOutputBytes.sum();
+  }
+
+  @Override
+  public double getCompressionRatio() {
+    long output = getCompressionOutputBytes();
+    return output == 0 ? 0 : getCompressionInputBytes() / (double) output;
+  }
+
+  @Override
+  public double getCompressionMillis() {
+    return compressionNanos.sum() / 1e6;
+  }
+
+  @Override
+  public double getDecompressionMillis() {
+    return decompressionNanos.sum() / 1e6;
+  }
+
+  @Override
+  public long getReconnectAttempts() {
+    return reconnectAttempts.sum();
+  }
+
+  @Override
+  public long getResumedSessions() {
+    return resumedSessions.sum();
+  }
+
+  @Override
+  public double getSendToWriteMicros50() {
+    return toMicros(sendToWrite.getPercentile(50));
+  }
+
+  @Override
+  public double getSendToWriteMicros99() {
+    return toMicros(sendToWrite.getPercentile(99));
+  }
+
+  @Override
+  public double getSendToWriteMicrosMax() {
+    return toMicros(sendToWrite.getMax());
+  }
+
+  @Override
+  public double getReceiveToDisplayMicros50() {
+    return toMicros(receiveToDisplay.getPercentile(50));
+  }
+
+  @Override
+  public double getReceiveToDisplayMicros99() {
+    return toMicros(receiveToDisplay.getPercentile(99));
+  }
+
+  @Override
+  public double getReceiveToDisplayMicrosMax() {
+    return toMicros(receiveToDisplay.getMax());
+  }
+
+  /**
+   * Formats all meters in the Prometheus text exposition format. Latency histograms are written as summaries
+   * with the 50th, 90th, 99th and 99.9th percentile in seconds.
+   *
+   * @return the formatted meters
+   */
+  public String format() {
+    StringBuilder builder = new StringBuilder(2048);
+    counter(builder, "chat_messages_received_total", "Chat messages received from peers.", getMessagesReceived());
+    counter(builder, "chat_messages_sent_total", "Chat messages queued for peers.", getMessagesSent());
+    counter(builder, "chat_bytes_received_total", "Bytes read from chat sockets.", getBytesReceived());
+    counter(builder, "chat_bytes_sent_total", "Bytes written to chat sockets.", getBytesSent());
+    counter(builder, "chat_connections_accepted_total", "Connections accepted by chat servers.", getAcceptedConnections());
+    counter(builder, "chat_messages_dropped_total", "Messages dropped for peers that did not read them.", getDroppedMessages());
+    counter(builder, "chat_compression_input_bytes_total", "Payload bytes deflated for peers.", getCompressionInputBytes());
+    counter(builder, "chat_compression_output_bytes_total", "Bytes the deflated payloads were compressed to.", getCompressionOutputBytes());
+    counter(builder, "chat_compression_seconds_total", "Time spent deflating payloads.", toSeconds(compressionNanos.sum()));
+    counter(builder, "chat_decompression_seconds_total", "Time spent inflating payloads.", toSeconds(decompressionNanos.sum()));
+    counter(builder, "chat_client_reconnects_total", "Attempts of clients to reconnect after their connection dropped.", getReconnectAttempts());
+    counter(builder, "chat_sessions_resumed_total", "Sessions resumed by reconnected clients.", getResumedSessions());
+    gauge(builder, "chat_compression_ratio", "Uncompressed divided by compressed bytes of deflated payloads.", getCompressionRatio());
+    gauge(builder, "chat_sessions_active", "Sessions and connections currently open.", getActiveSessions());
+    gauge(builder, "chat_send_queue_bytes", "Bytes queued for peers but not yet written.", getQueuedBytes());
+    gauge(builder, "chat_send_queue_messages", "Messages queued for peers but not yet written.", getQueuedMessages());
+    summary(builder, "chat_send_to_write_seconds", "Time from queuing a message until it is written.", sendToWrite);
+    summary(builder, "chat_receive_to_display_seconds", "Time from reading a message until it is displayed.", receiveToDisplay);
+    return builder.toString();
+  }
+
+  private static void counter(StringBuilder builder, String name, String help, long value) {
+    header(builder, name, help, "counter");
+    builder.append(name).append(' ').append(value).append('\n');
+  }
+
+  private static void counter(StringBuilder builder, String name, String help, double value) {
+    header(builder, name, help, "counter");
+    builder.append(name).append(' ').append(value).append('\n');
+  }
+
+  private static void gauge(StringBuilder builder, String name, String help, long value) {
+    header(builder, name, help, "gauge");
+    builder.append(name).append(' ').append(value).append('\n');
+  }
+
+  private static void gauge(StringBuilder builder, String name, String help, double value) {
+    header(builder, name, help, "gauge");
+    builder.append(name).append(' ').append(value).append('\n');
+  }
+
+  private static void summary(StringBuilder builder, String name, String help, LatencyHistogram histogram) {
+    header(builder, name, help, "summary");
+    for (String quantile : new String[] {"0.5", "0.9", "0.99", "0.999"}) {
+      long nanos = histogram.getPercentile(Double.parseDouble(quantile) * 100);
+      builder.append(name).append("{quantile=\"").append(quantile).append("\"} ").append(toSeconds(nanos)).append('\n');
+    }
+    builder.append(name).append("_sum ").append(toSeconds(histogram.getSum())).append('\n');
+    builder.append(name).append("_count ").append(histogram.getCount()).append('\n');
+  }
+
+  private static void header(StringBuilder builder, String name, String help, String type) {
+    builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static double toMicros(long nanos) {
+    return nanos / 1e3;
+  }
+
+  private static double toSeconds(long nanos) {
+    return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+}
@@ -0,0 +1,165 @@
+package de.sql.chat.metrics;
+
+/**
+ * The management interface of the {@link ChatMetrics}. Counters are totals since the JVM started, gauges are the
+ * current values and latencies are percentiles in microseconds since the JVM started.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public interface ChatMetricsMXBean {
+
+  /**
+   * Returns the number of chat messages received from peers.
+   *
+   * @return the received messages
+   */
+  long getMessagesReceived();
+
+  /**
+   * Returns the number of chat messages queued for peers, once per recipient.
+   *
+   * @return the sent messages
+   */
+  long getMessagesSent();
+
+  /**
+   * Returns the number of bytes read from chat sockets.
+   *
+   * @return the received bytes
+   */
+  long getBytesReceived();
+
+  /**
+   * Returns the number of bytes written to chat sockets.
+   *
+   * @return the sent bytes
+   */
+  long getBytesSent();
+
+  /**
+   * Returns the number of connections accepted by chat servers.
+   *
+   * @return the accepted connections
+   */
+  long getAcceptedConnections();
+
+  /**
+   * Returns the number of sessions and connections currently open.
+   *
+   * @return the active sessions
+   */
+  long getActiveSessions();
+
+  /**
+   * Returns the number of bytes queued for peers but not yet written.
+   *
+   * @return the queued bytes
+   */
+  long getQueuedBytes();
+
+  /**
+   * Returns the number of messages queued for peers but not yet written.
+   *
+   * @return the queued messages
+   */
+  long getQueuedMessages();
+
+  /**
+   * Returns the number of messages dropped for peers that did not read them fast enough.
+   *
+   * @return the dropped messages
+   */
+  long getDroppedMessages();
+
+  /**
+   * Returns the number of payload bytes that were deflated for peers.
+   *
+   * @return the uncompressed bytes
+   */
+  long getCompressionInputBytes();
+
+  /**
+   * Returns the number of bytes the deflated payloads were compressed to.
+   *
+   * @return the compressed bytes
+   */
+  long getCompressionOutputBytes();
+
+  /**
+   * Returns how many times smaller deflated payloads became, for example 4 if they shrank to a quarter.
+   *
+   * @return the compression ratio, 0 if nothing was compressed
+   */
+  double getCompressionRatio();
+
+  /**
+   * Returns the time spent deflating payloads.
+   *
+   * @return the compression time in milliseconds
+   */
+  double getCompressionMillis();
+
+  /**
+   * Returns the time spent inflating payloads received from peers.
+   *
+   * @return the decompression time in milliseconds
+   */
+  double getDecompressionMillis();
+
+  /**
+   * Returns the number of attempts of clients to reconnect after their connection dropped.
+   *
+   * @return the reconnect attempts
+   */
+  long getReconnectAttempts();
+
+  /**
+   * Returns the number of sessions resumed by reconnected clients.
+   *
+   * @return the resumed sessions
+   */
+  long getResumedSessions();
+
+  /**
+   * Returns the median time from queuing a message until it is written.
+   *
+   * @return the latency in microseconds
+   */
+  double getSendToWriteMicros50();
+
+  /**
+   * Returns the 99th percentile of the time from queuing a message until it is written.
+   *
+   * @return the latency in microseconds
+   */
+  double getSendToWriteMicros99();
+
+  /**
+   * Returns the longest time from queuing a message until it was written.
+   *
+   * @return the latency in microseconds
+   */
+  double getSendToWriteMicrosMax();
+
+  /**
+   * Returns the median time from reading a message until it is displayed.
+   *
+   * @return the latency in microseconds
+   */
+  double getReceiveToDisplayMicros50();
+
+  /**
+   * Returns the 99th percentile of the time from reading a message until it is displayed.
+   *
+   * @return the latency in microseconds
+   */
+  double getReceiveToDisplayMicros99();
+
+  /**
+   * Returns the longest time from reading a message until it was displayed.
+   *
+   * @return the latency in microseconds
+   */
+  double getReceiveToDisplayMicrosMax();
+}
@@ -0,0 +1,112 @@
+package de.sql.chat.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.exceptions.ErrorCode;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Serves the {@link ChatMetrics} as plain text on {@code /metrics}, for scrapers like Prometheus.
+ * The endpoint uses the HTTP server of the JDK with a single daemon handler thread, so it adds no dependency,
+ * scraping never competes with the chat threads for more than one core and it never keeps the JVM alive.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class MetricsEndpoint implements AutoCloseable {
+
+  /** The path the metrics are served on. */
+  public static final String PATH = "/metrics";
+
+  private static final Logger LOGGER = LogManager.getLogger(MetricsEndpoint.class);
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final ChatMetrics metrics;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * Starts serving the metrics on the given port.
+   *
+   * @param metrics the metrics to serve
+   * @param port    the port to listen on, 0 to pick a free port
+   * @throws ChatAppException if the port cannot be bound
+   */
+  public MetricsEndpoint(ChatMetrics metrics, int port) throws ChatAppException {
+    this.metrics = metrics;
+    try {
+      server = HttpServer.create(new InetSocketAddress(port), 0);
+    } catch (IOException e) {
+      LOGGER.error("Error starting metrics endpoint: {}", e.getMessage());
+      throw new ChatAppException(ErrorCode.SERVER_ERROR, "Error starting metrics endpoint: " + e.getMessage());
+    }
+    server.createContext(PATH, this::handle);
+    executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "metrics-endpoint");
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(executor);
+    // The dispatcher thread of the server inherits the daemon flag of the thread that starts it
+    Thread starter = new Thread(server::start, "metrics-endpoint-start");
+    starter.setDaemon(true);
+    starter.start();
+    try {
+      starter.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      server.stop(0);
+      executor.shutdown();
+      throw new ChatAppException(ErrorCode.SERVER_ERROR, "Interrupted while starting the metrics endpoint");
+    }
+    LOGGER.info("Metrics served at http://localhost:{}{}", getPort(), PATH);
+  }
+
+  /**
+   * Returns the port the endpoint listens on.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Writes the formatted metrics for a GET request.
+   *
+   * @param exchange the request and response
+   * @throws IOException if the response cannot be written
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = metrics.format().getBytes(UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+
+  /**
+   * Stops serving the metrics.
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdown();
+  }
+}
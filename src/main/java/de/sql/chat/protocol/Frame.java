@@ -0,0 +1,83 @@
+package de.sql.chat.protocol;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A decoded binary frame. The payload is a view on the bytes the frame was decoded from and is only valid
+ * until the decoder or the source buffer is used again, so callers must consume it right away.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class Frame {
+
+  private final FrameType type;
+  private final byte flags;
+  private final int senderId;
+  private final ByteBuffer payload;
+
+  /**
+   * Constructs a Frame.
+   *
+   * @param type     the frame type, or null if the type is unknown to this version
+   * @param flags    the frame flags
+   * @param senderId the id of the sender
+   * @param payload  the payload bytes
+   */
+  public Frame(FrameType type, byte flags, int senderId, ByteBuffer payload) {
+    this.type = type;
+    this.flags = flags;
+    this.senderId = senderId;
+    this.payload = payload;
+  }
+
+  /**
+   * Returns the type of the frame.
+   *
+   * @return the frame type, or null if the type is unknown to this version
+   */
+  public FrameType getType() {
+    return type;
+  }
+
+  /**
+   * Returns the flags of the frame.
+   *
+   * @return the frame flags
+   */
+  public byte getFlags() {
+    return flags;
+  }
+
+  /**
+   * Returns the id of the sender of the frame.
+   *
+   * @return the sender id
+   */
+  public int getSenderId() {
+    return senderId;
+  }
+
+  /**
+   * Returns the payload bytes. The buffer must not be modified.
+   *
+   * @return the payload, positioned at its first byte
+   */
+  public ByteBuffer getPayload() {
+    return payload;
+  }
+
+  /**
+   * Decodes the payload as UTF-8 text.
+   *
+   * @return the payload text
+   */
+  public String getText() {
+    if (payload.hasArray()) {
+      return new String(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining(), UTF_8);
+    }
+    return UTF_8.decode(payload.duplicate()).toString();
+  }
+}
@@ -0,0 +1,176 @@
+package de.sql.chat.protocol;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encodes and decodes the binary frames of the chat protocol on top of {@link ByteBuffer}s.
+ * <p>
+ * A frame consists of a 4 byte big-endian length of the rest of the frame, a 1 byte {@link FrameType} code,
+ * a 1 byte flags field, a 4 byte sender id and the payload, which is UTF-8 text for chat messages.
+ * Unlike the line protocol, payloads may contain line breaks and the charset never depends on the platform.
+ * <p>
+ * Decoding is zero-copy whenever a complete frame is available in the source buffer: the payload of the returned
+ * {@link Frame} is a slice of that buffer. Only frames split across reads are assembled in an internal buffer.
+ * A decoder instance therefore belongs to one connection and one thread at a time.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class FrameCodec {
+
+  /** The size of the length field that starts every frame. */
+  public static final int LENGTH_FIELD_SIZE = 4;
+
+  /** The size of the complete frame header: length, type, flags and sender id. */
+  public static final int HEADER_SIZE = 10;
+
+  /** The default upper bound for a frame payload, protecting peers from unbounded buffering. */
+  public static final int DEFAULT_MAX_PAYLOAD_LENGTH = 1024 * 1024;
+
+  private static final int BODY_HEADER_SIZE = HEADER_SIZE - LENGTH_FIELD_SIZE;
+
+  private final int maxPayloadLength;
+  private byte[] pending = new byte[256];
+  private int pendingLength;
+
+  /**
+   * Constructs a FrameCodec with the default maximum payload length.
+   */
+  public FrameCodec() {
+    this(DEFAULT_MAX_PAYLOAD_LENGTH);
+  }
+
+  /**
+   * Constructs a FrameCodec with the specified maximum payload length.
+   *
+   * @param maxPayloadLength the maximum number of payload bytes accepted for a single frame
+   */
+  public FrameCodec(int maxPayloadLength) {
+    this.maxPayloadLength = maxPayloadLength;
+  }
+
+  /**
+   * Encodes a text frame into a read-only buffer.
+   * The returned buffer can be shared between several connections by writing {@link ByteBuffer#duplicate()}s of it.
+   *
+   * @param type     the frame type
+   * @param senderId the id of the sender
+   * @param text     the payload text
+   * @return a read-only buffer positioned at the start of the frame
+   */
+  public static ByteBuffer encode(FrameType type, int senderId, String text) {
+    byte[] payload = text.getBytes(UTF_8);
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+    putHeader(buffer, type, (byte) 0, senderId, payload.length);
+    buffer.put(payload).flip();
+    return buffer.asReadOnlyBuffer();
+  }
+
+  /**
+   * Encodes only the header of a frame. Writing the header and the untouched payload buffer with a gathering
+   * write sends a frame without copying the payload.
+   *
+   * @param type          the frame type
+   * @param flags         the frame flags
+   * @param senderId      the id of the sender
+   * @param payloadLength the number of payload bytes that follow the header
+   * @return a buffer positioned at the start of the header
+   */
+  public static ByteBuffer encodeHeader(FrameType type, byte flags, int senderId, int payloadLength) {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    putHeader(header, type, flags, senderId, payloadLength);
+    return header.flip();
+  }
+
+  /**
+   * Writes a frame header into the target buffer.
+   *
+   * @param target        the buffer to write to, in write mode
+   * @param type          the frame type
+   * @param flags         the frame flags
+   * @param senderId      the id of the sender
+   * @param payloadLength the number of payload bytes that follow the header
+   */
+  public static void putHeader(ByteBuffer target, FrameType type, byte flags, int senderId, int payloadLength) {
+    target.putInt(BODY_HEADER_SIZE + payloadLength)
+        .put(type.getCode())
+        .put(flags)
+        .putInt(senderId);
+  }
+
+  /**
+   * Decodes the next complete frame from the buffer.
+   * If the buffer holds only part of a frame, its bytes are consumed and kept until the next call.
+   *
+   * @param buffer the buffer to read from, in read mode
+   * @return the decoded frame, or null if more bytes are needed
+   * @throws ProtocolException if the frame length is invalid or exceeds the maximum payload length
+   */
+  public Frame decode(ByteBuffer buffer) throws ProtocolException {
+    if (pendingLength == 0 && buffer.remaining() >= LENGTH_FIELD_SIZE) {
+      int position = buffer.position();
+      int frameLength = LENGTH_FIELD_SIZE + checkLength(buffer.getInt(position));
+      if (buffer.remaining() >= frameLength) {
+        buffer.position(position + frameLength);
+        return toFrame(buffer, position, frameLength);
+      }
+    }
+    return decodePending(buffer);
+  }
+
+  /**
+   * Returns the number of bytes buffered for a frame that is not complete yet.
+   *
+   * @return the number of pending bytes
+   */
+  public int getPendingLength() {
+    return pendingLength;
+  }
+
+  private Frame decodePending(ByteBuffer buffer) throws ProtocolException {
+    if (pendingLength < LENGTH_FIELD_SIZE) {
+      append(buffer, LENGTH_FIELD_SIZE);
+      if (pendingLength < LENGTH_FIELD_SIZE) {
+        return null;
+      }
+    }
+
+    int frameLength = LENGTH_FIELD_SIZE + checkLength(ByteBuffer.wrap(pending).getInt(0));
+    if (pending.length < frameLength) {
+      pending = Arrays.copyOf(pending, Math.max(frameLength, pending.length * 2));
+    }
+    append(buffer, frameLength);
+    if (pendingLength < frameLength) {
+      return null;
+    }
+
+    pendingLength = 0;
+    return toFrame(ByteBuffer.wrap(pending), 0, frameLength);
+  }
+
+  private void append(ByteBuffer buffer, int targetLength) {
+    int length = Math.min(buffer.remaining(), targetLength - pendingLength);
+    buffer.get(pending, pendingLength, length);
+    pendingLength += length;
+  }
+
+  private int checkLength(int bodyLength) throws ProtocolException {
+    if (bodyLength < BODY_HEADER_SIZE || bodyLength - BODY_HEADER_SIZE > maxPayloadLength) {
+      pendingLength = 0;
+      throw new ProtocolException("Invalid frame length: " + bodyLength);
+    }
+    return bodyLength;
+  }
+
+  private static Frame toFrame(ByteBuffer buffer, int offset, int frameLength) {
+    FrameType type = FrameType.fromCode(buffer.get(offset + LENGTH_FIELD_SIZE));
+    byte flags = buffer.get(offset + LENGTH_FIELD_SIZE + 1);
+    int senderId = buffer.getInt(offset + LENGTH_FIELD_SIZE + 2);
+    ByteBuffer payload = buffer.slice(offset + HEADER_SIZE, frameLength - HEADER_SIZE);
+    return new Frame(type, flags, senderId, payload);
+  }
+}
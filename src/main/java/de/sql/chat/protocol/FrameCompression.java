@@ -0,0 +1,276 @@
+package de.sql.chat.protocol;
+
+import de.sql.chat.metrics.ChatMetrics;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates and inflates the payloads of the binary frames of one connection.
+ * <p>
+ * A frame with the {@link #FLAG_DEFLATE} flag carries the 4 byte length of the uncompressed payload followed by the
+ * raw deflate stream of it. Every payload is compressed on its own, so frames can be inflated in any order and a
+ * frame shared by several connections is compressed once. A peer writes deflated frames only after it received a
+ * {@link FrameType#COMPRESSION} frame announcing {@link #DEFLATE}, which every peer that knows the frame type sends
+ * after its switch line. Older peers ignore the announcement and never send one, so they only get plain frames.
+ * <p>
+ * Messages are compressed from a size threshold on, because deflating a short chat line costs more than the bytes it
+ * saves. History transfers are sent as {@link FrameType#BATCH} frames instead, which deflate many messages together
+ * and therefore compress far better than the messages one by one.
+ * <p>
+ * The {@link Deflater} and {@link Inflater} are created on first use and reused for every frame, because creating
+ * them allocates native memory. Compressing is synchronized, as messages are delivered from several threads, and
+ * inflating has a lock of its own, so the reading thread does not wait for them. Messages may still be delivered
+ * after the connection closed its compression, so a closed compression sends frames plain and never recreates the
+ * native state. The compressed and uncompressed sizes and the time spent are recorded in the {@link ChatMetrics}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public final class FrameCompression implements AutoCloseable {
+
+  /** The flag of frames whose payload is deflated. */
+  public static final byte FLAG_DEFLATE = 0x01;
+
+  /** The payload of a {@link FrameType#COMPRESSION} frame of a peer that inflates deflated frames. */
+  public static final String DEFLATE = "deflate";
+
+  /** The number of uncompressed bytes of frames deflated into one {@link FrameType#BATCH} frame. */
+  public static final int BATCH_BYTES = 256 * 1024;
+
+  private static final ChatMetrics METRICS = ChatMetrics.getInstance();
+  private static final int LENGTH_SIZE = 4;
+
+  private final int level;
+  private final int threshold;
+  private final int maxPayloadLength;
+  private final Object inflateLock = new Object();
+  private volatile boolean closed;
+  private Deflater deflater;
+  private Inflater inflater;
+  private byte[] deflated = new byte[256];
+  private byte[] inflated = new byte[256];
+
+  /**
+   * Constructs a FrameCompression that inflates payloads up to the default maximum payload length.
+   *
+   * @param level     the deflate level, from 1 for the fastest to 9 for the smallest compression
+   * @param threshold the payload size from which messages are compressed, 0 to never compress them
+   */
+  public FrameCompression(int level, int threshold) {
+    this(level, threshold, FrameCodec.DEFAULT_MAX_PAYLOAD_LENGTH);
+  }
+
+  /**
+   * Constructs a FrameCompression.
+   *
+   * @param level            the deflate level, from 1 for the fastest to 9 for the smallest compression
+   * @param threshold        the payload size from which messages are compressed, 0 to never compress them
+   * @param maxPayloadLength the largest uncompressed payload accepted from the peer
+   */
+  public FrameCompression(int level, int threshold, int maxPayloadLength) {
+    this.level = level;
+    this.threshold = threshold;
+    this.maxPayloadLength = maxPayloadLength;
+  }
+
+  /**
+   * Checks if a received frame announces that the peer inflates deflated frames.
+   *
+   * @param frame the received {@link FrameType#COMPRESSION} frame
+   * @return true if deflated frames may be sent to the peer
+   */
+  public static boolean announcesDeflate(Frame frame) {
+    return frame.getType() == FrameType.COMPRESSION && DEFLATE.equals(frame.getText());
+  }
+
+  /**
+   * Checks if the payload of a frame is deflated.
+   *
+   * @param frame the received frame
+   * @return true if the frame has to be inflated
+   */
+  public static boolean isDeflated(Frame frame) {
+    return (frame.getFlags() & FLAG_DEFLATE) != 0;
+  }
+
+  /**
+   * Checks if messages are compressed at all.
+   *
+   * @return true if the threshold is above zero and the compression is not closed
+   */
+  public boolean isEnabled() {
+    return threshold > 0 && !closed;
+  }
+
+  /**
+   * Returns the message frame in the form to send: deflated if its payload reaches the threshold and gets smaller,
+   * and unchanged otherwise. A closed compression returns every frame unchanged.
+   *
+   * @param frame an encoded frame without flags, which is not modified
+   * @return a read-only deflated frame, or the given frame
+   */
+  public ByteBuffer compress(ByteBuffer frame) {
+    int payloadLength = frame.remaining() - FrameCodec.HEADER_SIZE;
+    if (!isEnabled() || payloadLength < threshold) {
+      return frame;
+    }
+    ByteBuffer payload = frame.slice(frame.position() + FrameCodec.HEADER_SIZE, payloadLength);
+    FrameType type = FrameType.fromCode(frame.get(frame.position() + FrameCodec.LENGTH_FIELD_SIZE));
+    int senderId = frame.getInt(frame.position() + FrameCodec.LENGTH_FIELD_SIZE + 2);
+    ByteBuffer compressed = deflate(type, senderId, List.of(payload), payloadLength);
+    return compressed != null && compressed.remaining() < frame.remaining() ? compressed : frame;
+  }
+
+  /**
+   * Packs encoded frames into deflated {@link FrameType#BATCH} frames of up to {@link #BATCH_BYTES} uncompressed
+   * bytes each. A frame larger than that gets a batch of its own. A closed compression returns the frames unchanged
+   * instead, as duplicates so writing them leaves the given buffers untouched.
+   *
+   * @param frames   the encoded frames without flags, which are not modified
+   * @param senderId the id of the sender
+   * @return the read-only batch frames, or the given frames
+   */
+  public synchronized List<ByteBuffer> batch(List<ByteBuffer> frames, int senderId) {
+    if (closed) {
+      return frames.stream().map(ByteBuffer::duplicate).toList();
+    }
+    List<ByteBuffer> batches = new ArrayList<>();
+    List<ByteBuffer> pending = new ArrayList<>();
+    int pendingBytes = 0;
+    for (ByteBuffer frame : frames) {
+      if (!pending.isEmpty() && pendingBytes + frame.remaining() > BATCH_BYTES) {
+        batches.add(deflate(FrameType.BATCH, senderId, pending, pendingBytes));
+        pending.clear();
+        pendingBytes = 0;
+      }
+      pending.add(frame.duplicate());
+      pendingBytes += frame.remaining();
+    }
+    if (!pending.isEmpty()) {
+      batches.add(deflate(FrameType.BATCH, senderId, pending, pendingBytes));
+    }
+    return batches;
+  }
+
+  /**
+   * Inflates the payload of a deflated frame. Like every decoded frame, the result is only valid until the next
+   * frame is inflated.
+   *
+   * @param frame the received frame with the {@link #FLAG_DEFLATE} flag
+   * @return the frame with the uncompressed payload and without the flag
+   * @throws ProtocolException if the payload is not a valid deflate stream of the announced length, or the
+   *                           compression is closed
+   */
+  public Frame inflate(Frame frame) throws ProtocolException {
+    synchronized (inflateLock) {
+      if (closed) {
+        throw new ProtocolException("Compression is closed");
+      }
+      return inflateOpen(frame);
+    }
+  }
+
+  private Frame inflateOpen(Frame frame) throws ProtocolException {
+    long start = System.nanoTime();
+    ByteBuffer payload = frame.getPayload().duplicate();
+    if (payload.remaining() < LENGTH_SIZE) {
+      throw new ProtocolException("Deflated frame without length");
+    }
+    int length = payload.getInt();
+    // The announced length bounds the output, so a small frame cannot inflate into unbounded memory
+    if (length < 0 || length > maxPayloadLength) {
+      throw new ProtocolException("Invalid inflated frame length: " + length);
+    }
+    if (inflated.length < length) {
+      inflated = new byte[Math.max(length, inflated.length * 2)];
+    }
+    if (inflater == null) {
+      inflater = new Inflater(true);
+    }
+    try {
+      inflater.setInput(payload);
+      int total = 0;
+      while (total < length && !inflater.finished()) {
+        int count = inflater.inflate(inflated, total, length - total);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        total += count;
+      }
+      if (total != length || !inflater.finished()) {
+        throw new ProtocolException("Deflated frame does not match its length " + length);
+      }
+    } catch (DataFormatException e) {
+      throw new ProtocolException("Invalid deflated frame: " + e.getMessage());
+    } finally {
+      inflater.reset();
+    }
+    METRICS.decompressed(System.nanoTime() - start);
+    return new Frame(frame.getType(), (byte) (frame.getFlags() & ~FLAG_DEFLATE), frame.getSenderId(),
+        ByteBuffer.wrap(inflated, 0, length));
+  }
+
+  private synchronized ByteBuffer deflate(FrameType type, int senderId, List<ByteBuffer> inputs, int inputLength) {
+    // Closed between the check of the caller and now
+    if (closed) {
+      return null;
+    }
+    long start = System.nanoTime();
+    if (deflater == null) {
+      deflater = new Deflater(level, true);
+    }
+    int length = 0;
+    try {
+      for (ByteBuffer input : inputs) {
+        deflater.setInput(input.duplicate());
+        while (!deflater.needsInput()) {
+          length = deflateInto(length);
+        }
+      }
+      deflater.finish();
+      while (!deflater.finished()) {
+        length = deflateInto(length);
+      }
+    } finally {
+      deflater.reset();
+    }
+
+    ByteBuffer frame = ByteBuffer.allocate(FrameCodec.HEADER_SIZE + LENGTH_SIZE + length);
+    FrameCodec.putHeader(frame, type, FLAG_DEFLATE, senderId, LENGTH_SIZE + length);
+    frame.putInt(inputLength).put(deflated, 0, length).flip();
+    METRICS.compressed(inputLength, LENGTH_SIZE + length, System.nanoTime() - start);
+    return frame.asReadOnlyBuffer();
+  }
+
+  private int deflateInto(int length) {
+    if (length == deflated.length) {
+      deflated = Arrays.copyOf(deflated, deflated.length * 2);
+    }
+    return length + deflater.deflate(deflated, length, deflated.length - length);
+  }
+
+  /**
+   * Releases the native memory of the deflater and the inflater. Frames are sent plain afterwards, and received
+   * deflated frames are refused.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (deflater != null) {
+      deflater.end();
+      deflater = null;
+    }
+    synchronized (inflateLock) {
+      if (inflater != null) {
+        inflater.end();
+        inflater = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package de.sql.chat.protocol;
+
+/**
+ * Enum representing the message types carried by binary frames.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public enum FrameType {
+  /** A chat message whose payload is the UTF-8 message text. */
+  MESSAGE((byte) 1),
+  /** The language of the sender, whose payload is a UTF-8 IETF BCP 47 language tag. */
+  LOCALE((byte) 2),
+  /** A heartbeat the peer answers with a {@link #PONG}, without payload. */
+  PING((byte) 3),
+  /** The answer to a {@link #PING}, without payload. */
+  PONG((byte) 4),
+  /** The compression methods the sender is able to inflate, whose payload is {@link FrameCompression#DEFLATE}. */
+  COMPRESSION((byte) 5),
+  /** A sequence of complete frames, like the messages of a history, whose payload is always deflated. */
+  BATCH((byte) 6),
+  /** The request of a reconnected client to resume its session, see {@link SessionResumption}. */
+  RESUME((byte) 7),
+  /** The number of chat messages received from the peer since the session was resumed, as UTF-8 decimal text. */
+  ACK((byte) 8);
+
+  private static final FrameType[] BY_CODE = new FrameType[256];
+
+  static {
+    for (FrameType type : values()) {
+      BY_CODE[type.code & 0xFF] = type;
+    }
+  }
+
+  private final byte code;
+
+  /**
+   * Constructs a FrameType with the specified wire code.
+   *
+   * @param code the code written into the frame header
+   */
+  FrameType(byte code) {
+    this.code = code;
+  }
+
+  /**
+   * Returns the code written into the frame header.
+   *
+   * @return the wire code
+   */
+  public byte getCode() {
+    return code;
+  }
+
+  /**
+   * Returns the FrameType for the specified wire code.
+   *
+   * @param code the code read from a frame header
+   * @return the frame type, or null if the code is unknown
+   */
+  public static FrameType fromCode(byte code) {
+    return BY_CODE[code & 0xFF];
+  }
+}
@@ -0,0 +1,172 @@
+package de.sql.chat.protocol;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Encodes and decodes the newline terminated UTF-8 chat lines exchanged by {@code ChatSession}
+ * on top of {@link ByteBuffer}s, so that non-blocking transports can speak the same protocol.
+ * A decoder instance keeps the bytes of an incomplete line between calls and must therefore be
+ * used by one connection and one thread at a time.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class LineCodec {
+
+  /** The default upper bound for a single line, protecting the server from unbounded buffering. */
+  public static final int DEFAULT_MAX_LINE_LENGTH = 64 * 1024;
+
+  private static final byte LINE_FEED = '\n';
+  private static final byte CARRIAGE_RETURN = '\r';
+
+  private final int maxLineLength;
+  private byte[] pending = new byte[256];
+  private int pendingLength;
+
+  /**
+   * Constructs a LineCodec with the default maximum line length.
+   */
+  public LineCodec() {
+    this(DEFAULT_MAX_LINE_LENGTH);
+  }
+
+  /**
+   * Constructs a LineCodec with the specified maximum line length.
+   *
+   * @param maxLineLength the maximum number of bytes accepted for a single line
+   */
+  public LineCodec(int maxLineLength) {
+    this.maxLineLength = maxLineLength;
+  }
+
+  /**
+   * Encodes a chat line into a read-only buffer terminated by a line feed.
+   * The returned buffer can be shared between several connections by writing {@link ByteBuffer#duplicate()}s of it.
+   *
+   * @param line the line to encode, without line terminator
+   * @return a read-only buffer positioned at the start of the encoded line
+   * @throws IllegalArgumentException if the line contains a line feed or carriage return
+   */
+  public static ByteBuffer encode(String line) {
+    return encode(List.of(line));
+  }
+
+  /**
+   * Encodes several chat lines into one read-only buffer, each terminated by a line feed.
+   * The returned buffer can be shared between several connections by writing {@link ByteBuffer#duplicate()}s of it.
+   *
+   * @param lines the lines to encode, without line terminators
+   * @return a read-only buffer positioned at the start of the first encoded line
+   * @throws IllegalArgumentException if a line contains a line feed or carriage return, which would let its text
+   *                                  be read as further lines by the peer
+   */
+  public static ByteBuffer encode(List<String> lines) {
+    byte[][] texts = new byte[lines.size()][];
+    int length = 0;
+    for (int i = 0; i < texts.length; i++) {
+      texts[i] = lines.get(i).getBytes(UTF_8);
+      for (byte b : texts[i]) {
+        if (b == LINE_FEED || b == CARRIAGE_RETURN) {
+          throw new IllegalArgumentException("Line contains a line terminator");
+        }
+      }
+      length += texts[i].length + 1;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    for (byte[] text : texts) {
+      buffer.put(text).put(LINE_FEED);
+    }
+    buffer.flip();
+    return buffer.asReadOnlyBuffer();
+  }
+
+  /**
+   * Decodes all complete lines available in the buffer and passes them to the consumer.
+   * Bytes of a trailing incomplete line are kept until the next call. The buffer is fully consumed.
+   *
+   * @param buffer   the buffer to read from, in read mode
+   * @param consumer the consumer receiving every complete line without its terminator
+   * @throws ProtocolException if a line exceeds the maximum line length
+   */
+  public void decode(ByteBuffer buffer, Consumer<String> consumer) throws ProtocolException {
+    String line;
+    while ((line = decodeLine(buffer)) != null) {
+      consumer.accept(line);
+    }
+  }
+
+  /**
+   * Decodes the next complete line from the buffer and leaves the bytes after it untouched, so that
+   * the rest of the buffer can be read with another codec once the connection switched its protocol.
+   * If the buffer holds only part of a line, its bytes are consumed and kept until the next call.
+   *
+   * @param buffer the buffer to read from, in read mode
+   * @return the decoded line without its terminator, or null if more bytes are needed
+   * @throws ProtocolException if a line exceeds the maximum line length
+   */
+  public String decodeLine(ByteBuffer buffer) throws ProtocolException {
+    int start = buffer.position();
+    int end = indexOfLineFeed(buffer, start, buffer.limit());
+
+    if (end < 0) {
+      append(buffer, start, buffer.limit());
+      buffer.position(buffer.limit());
+      return null;
+    }
+
+    String line;
+    if (pendingLength == 0 && buffer.hasArray()) {
+      line = toLine(buffer.array(), buffer.arrayOffset() + start, end - start);
+    } else {
+      append(buffer, start, end);
+      line = toLine(pending, 0, pendingLength);
+      pendingLength = 0;
+    }
+    buffer.position(end + 1);
+    return line;
+  }
+
+  /**
+   * Returns the number of bytes buffered for a line that has not been terminated yet.
+   *
+   * @return the number of pending bytes
+   */
+  public int getPendingLength() {
+    return pendingLength;
+  }
+
+  private static int indexOfLineFeed(ByteBuffer buffer, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (buffer.get(i) == LINE_FEED) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void append(ByteBuffer buffer, int from, int to) throws ProtocolException {
+    int length = to - from;
+    if (pendingLength + length > maxLineLength) {
+      pendingLength = 0;
+      throw new ProtocolException("Line exceeds the maximum length of " + maxLineLength + " bytes");
+    }
+    if (pendingLength + length > pending.length) {
+      pending = Arrays.copyOf(pending, Math.min(maxLineLength, Math.max(pending.length * 2, pendingLength + length)));
+    }
+    buffer.get(from, pending, pendingLength, length);
+    pendingLength += length;
+  }
+
+  private static String toLine(byte[] bytes, int offset, int length) {
+    if (length > 0 && bytes[offset + length - 1] == CARRIAGE_RETURN) {
+      length--;
+    }
+    return new String(bytes, offset, length, UTF_8);
+  }
+}
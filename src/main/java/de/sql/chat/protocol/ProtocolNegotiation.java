@@ -0,0 +1,61 @@
+package de.sql.chat.protocol;
+
+/**
+ * Holds the control lines used to switch a connection from the line protocol to binary frames.
+ * <p>
+ * Every connection starts with the line protocol in both directions. A peer that supports binary frames sends
+ * {@link #HELLO}. A peer that receives the hello, or a switch line, and also prefers binary frames writes
+ * {@link #SWITCH} and uses binary frames for everything it writes afterwards. A reader switches to binary frames
+ * right after reading a switch line. Each direction therefore changes format at a well defined point of the stream,
+ * and a peer that only knows the line protocol never answers the hello, so both sides simply keep using lines.
+ * <p>
+ * A client writes a {@link FrameType#LOCALE} frame right after its switch line, so the server answers it in its
+ * language. Servers that do not know the frame ignore it, and clients using lines are answered in the language of
+ * the server.
+ * <p>
+ * Once binary, either side sends a {@link FrameType#PING} after a heartbeat interval without incoming data, which
+ * the peer answers with a {@link FrameType#PONG}. Peers that answer pings are expected to keep doing so, while older
+ * peers ignore the ping and are never closed for being quiet.
+ * <p>
+ * Both sides also write a {@link FrameType#COMPRESSION} frame right after their switch line, announcing that they
+ * inflate deflated frames. Each side deflates large messages and histories only after reading the announcement of
+ * its peer, as described in {@link FrameCompression}.
+ * <p>
+ * Clients that reconnect automatically write a {@link FrameType#RESUME} frame after their announcements, and servers
+ * that keep sessions for reconnecting clients answer it with a {@link FrameType#ACK}, see {@link SessionResumption}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ProtocolNegotiation {
+
+  /** Announces that the sender is able to use binary frames. */
+  public static final String HELLO = "#sql-chat hello binary/1";
+
+  /** Marks the last line written by the sender, everything after it is written as binary frames. */
+  public static final String SWITCH = "#sql-chat switch binary/1";
+
+  private ProtocolNegotiation() {
+    // Private constructor to prevent instantiation from outside the class.
+  }
+
+  /**
+   * Checks if the line is a hello line.
+   *
+   * @param line the received line
+   * @return true if the peer announced binary frame support
+   */
+  public static boolean isHello(String line) {
+    return HELLO.equals(line);
+  }
+
+  /**
+   * Checks if the line is a switch line.
+   *
+   * @param line the received line
+   * @return true if the peer writes binary frames from now on
+   */
+  public static boolean isSwitch(String line) {
+    return SWITCH.equals(line);
+  }
+}
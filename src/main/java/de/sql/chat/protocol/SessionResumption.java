@@ -0,0 +1,134 @@
+package de.sql.chat.protocol;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes the frames that let a client resume its session after its connection dropped.
+ * <p>
+ * Chat messages carry no sequence number on the wire, so a message fanned out to many connections is still encoded
+ * once. Instead, both sides number the {@link FrameType#MESSAGE} frames they exchange, from the first message after
+ * the session was resumed on. A client writes a {@link FrameType#RESUME} frame with its client id, the number of
+ * messages it received from the server and the sequence number of the first message it writes afterwards, which is
+ * the oldest message the server has not acknowledged yet. The server answers with an {@link FrameType#ACK} of the
+ * messages it received from the client, after which it counts every message it delivers, and sends the messages
+ * the client missed. Servers that do not know the frame never answer it, and their clients keep nothing for resending.
+ * <p>
+ * Each side acknowledges the messages of its peer every {@value #ACK_INTERVAL} messages, so the messages kept for
+ * resending stay few while acknowledgements cost next to nothing. Messages acknowledged again after a reconnect
+ * are dropped by the receiver, so every message is handled once.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public final class SessionResumption {
+
+  /** The number of received messages after which each side acknowledges them. */
+  public static final int ACK_INTERVAL = 32;
+
+  private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+  private final String clientId;
+  private final long received;
+  private final long nextSequence;
+
+  private SessionResumption(String clientId, long received, long nextSequence) {
+    this.clientId = clientId;
+    this.received = received;
+    this.nextSequence = nextSequence;
+  }
+
+  /**
+   * Encodes the request of a client to resume its session.
+   *
+   * @param senderId     the id of the sender
+   * @param clientId     the id the client keeps across its connections
+   * @param received     the number of messages the client received from the server
+   * @param nextSequence the sequence number of the first message the client writes after the frame
+   * @return the encoded frame, ready for writing
+   */
+  public static ByteBuffer encodeResume(int senderId, String clientId, long received, long nextSequence) {
+    return FrameCodec.encode(FrameType.RESUME, senderId, clientId + " " + received + " " + nextSequence);
+  }
+
+  /**
+   * Encodes the acknowledgement of the messages received from the peer.
+   *
+   * @param senderId the id of the sender
+   * @param sequence the sequence number of the last message received
+   * @return the encoded frame, ready for writing
+   */
+  public static ByteBuffer encodeAck(int senderId, long sequence) {
+    return FrameCodec.encode(FrameType.ACK, senderId, Long.toString(sequence));
+  }
+
+  /**
+   * Decodes a {@link FrameType#RESUME} frame.
+   *
+   * @param frame the received frame
+   * @return the resumption requested by the client
+   * @throws ProtocolException if the payload is not a valid request
+   */
+  public static SessionResumption parseResume(Frame frame) throws ProtocolException {
+    String[] fields = frame.getText().split(" ");
+    if (fields.length != 3 || fields[0].isEmpty() || fields[0].length() > MAX_CLIENT_ID_LENGTH) {
+      throw new ProtocolException("Invalid resume frame");
+    }
+    long received = parseSequence(fields[1]);
+    long nextSequence = parseSequence(fields[2]);
+    if (nextSequence < 1) {
+      throw new ProtocolException("Invalid resume frame");
+    }
+    return new SessionResumption(fields[0], received, nextSequence);
+  }
+
+  /**
+   * Decodes an {@link FrameType#ACK} frame.
+   *
+   * @param frame the received frame
+   * @return the sequence number of the last message the peer received
+   * @throws ProtocolException if the payload is not a sequence number
+   */
+  public static long parseAck(Frame frame) throws ProtocolException {
+    return parseSequence(frame.getText());
+  }
+
+  private static long parseSequence(String text) throws ProtocolException {
+    try {
+      long sequence = Long.parseLong(text);
+      if (sequence >= 0) {
+        return sequence;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    throw new ProtocolException("Invalid sequence number: " + text);
+  }
+
+  /**
+   * Returns the id the client keeps across its connections.
+   *
+   * @return the client id
+   */
+  public String getClientId() {
+    return clientId;
+  }
+
+  /**
+   * Returns the number of messages the client received from the server.
+   *
+   * @return the sequence number of the last message received by the client
+   */
+  public long getReceived() {
+    return received;
+  }
+
+  /**
+   * Returns the sequence number of the first message the client writes after the request.
+   *
+   * @return the next sequence number of the client
+   */
+  public long getNextSequence() {
+    return nextSequence;
+  }
+}
@@ -0,0 +1,14 @@
+package de.sql.chat.protocol;
+
+/**
+ * Enum representing the wire formats a chat connection can use in each direction.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public enum WireProtocol {
+  /** Newline terminated UTF-8 {@code Sender: text} lines, understood by every peer. */
+  LINE,
+  /** Length prefixed binary frames, see {@link FrameCodec}. Used once both peers agreed on it. */
+  BINARY
+}
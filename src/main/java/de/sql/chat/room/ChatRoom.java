@@ -0,0 +1,102 @@
+package de.sql.chat.room;
+
+import de.sql.chat.session.ChatMessage;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A named chat room whose messages are fanned out to every member.
+ * Every member receives the same {@link ChatMessage}, which is encoded at most once per wire protocol,
+ * so the cost per recipient is independent of the message size.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ChatRoom {
+
+  private final String name;
+  private final Set<RoomMember> members = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Constructs a ChatRoom with the specified name.
+   *
+   * @param name the name of the room
+   */
+  public ChatRoom(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the name of the room.
+   *
+   * @return the name of the room
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Adds a member to the room.
+   *
+   * @param member the member to add
+   */
+  void add(RoomMember member) {
+    members.add(member);
+  }
+
+  /**
+   * Removes a member from the room.
+   *
+   * @param member the member to remove
+   */
+  void remove(RoomMember member) {
+    members.remove(member);
+  }
+
+  /**
+   * Parses a chat line and delivers it to every member except the sender.
+   *
+   * @param sender the member that sent the line, or null if it should reach every member
+   * @param line   the chat line in the {@code Sender: text} format
+   * @return the number of members the line was delivered to
+   */
+  public int publish(RoomMember sender, String line) {
+    return publish(sender, ChatMessage.parse(line));
+  }
+
+  /**
+   * Delivers a chat message to every member except the sender.
+   *
+   * @param sender  the member that sent the message, or null if it should reach every member
+   * @param message the message shared by all recipients
+   * @return the number of members the message was delivered to
+   */
+  public int publish(RoomMember sender, ChatMessage message) {
+    int delivered = 0;
+    for (RoomMember member : members) {
+      if (member != sender) {
+        member.deliver(message);
+        delivered++;
+      }
+    }
+    return delivered;
+  }
+
+  /**
+   * Returns the number of members in the room.
+   *
+   * @return the number of members
+   */
+  public int size() {
+    return members.size();
+  }
+
+  /**
+   * Checks if the room has no members.
+   *
+   * @return true if the room is empty, false otherwise
+   */
+  public boolean isEmpty() {
+    return members.isEmpty();
+  }
+}
@@ -0,0 +1,407 @@
+package de.sql.chat.room;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.journal.ChatJournal;
+import de.sql.chat.journal.JournalEntry;
+import de.sql.chat.localization.LocalizationBundle;
+import de.sql.chat.localization.LocalizedResourceManager;
+import de.sql.chat.protocol.SessionResumption;
+import de.sql.chat.search.MessageIndex;
+import de.sql.chat.search.SearchQuery;
+import de.sql.chat.search.SearchResult;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps track of the chat rooms of a server and of the room every member is currently in.
+ * New members are placed in the {@link #DEFAULT_ROOM}. Members switch rooms with the {@code /join <room>}
+ * command and go back to the default room with {@code /leave}. Rooms other than the default room
+ * are created on first join and removed when their last member leaves.
+ * <p>
+ * If a {@link ChatJournal} is set, every published message is recorded with its room and members can fetch
+ * the most recent messages of their room with {@code /history [count]}. If a {@link MessageIndex} is set, published
+ * messages are indexed as well and members search the messages of their room with {@code /search <words>}.
+ * <p>
+ * Servers place connections in rooms through {@link ResumableMember}s. If resumption is enabled, a client that
+ * sends a resumption request is registered under its client id, and a later connection with the same id takes over
+ * the member with its room and the messages the client missed. A member whose client does not come back within the
+ * resume timeout leaves its room.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ChatRoomRegistry {
+
+  private static final Logger LOGGER = LogManager.getLogger(ChatRoomRegistry.class);
+
+  /** The room every member joins when connecting. */
+  public static final String DEFAULT_ROOM = "lobby";
+
+  private static final String JOIN_COMMAND = "/join";
+  private static final String LEAVE_COMMAND = "/leave";
+  private static final String HISTORY_COMMAND = "/history";
+  private static final String SEARCH_COMMAND = "/search";
+  private static final int MAX_ROOM_NAME_LENGTH = 64;
+  private static final int DEFAULT_HISTORY_COUNT = 20;
+
+  /** The maximum number of messages returned by one {@code /history} command. */
+  public static final int MAX_HISTORY_COUNT = 500;
+
+  private final ConcurrentMap<String, ChatRoom> rooms = new ConcurrentHashMap<>();
+  private final ConcurrentMap<RoomMember, ChatRoom> memberships = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ResumableMember> resumable = new ConcurrentHashMap<>();
+  private volatile ChatJournal journal;
+  private volatile MessageIndex index;
+  private volatile int resumeCapacity;
+  private volatile Duration resumeTimeout = Duration.ZERO;
+
+  /**
+   * Sets the journal that records published messages and answers {@code /history} commands.
+   *
+   * @param journal the journal, or null to disable recording
+   */
+  public void setJournal(ChatJournal journal) {
+    this.journal = journal;
+  }
+
+  /**
+   * Sets the index that makes published messages searchable with the {@code /search} command.
+   *
+   * @param index the index, or null to disable searching
+   */
+  public void setIndex(MessageIndex index) {
+    this.index = index;
+  }
+
+  /**
+   * Enables keeping the sessions of clients that reconnect. Resumption is disabled by default.
+   *
+   * @param capacity the maximum number of unacknowledged messages kept per client, 0 to disable resumption
+   * @param timeout  how long the session of a disconnected client is kept
+   */
+  public void setResumption(int capacity, Duration timeout) {
+    this.resumeCapacity = capacity;
+    this.resumeTimeout = timeout;
+  }
+
+  /**
+   * Resumes the session of a client on a new connection. The first request of a client registers the member of
+   * the connection under the client id. Later requests move the registered member to the new connection, which
+   * receives the messages the client missed, and the member the connection was placed in before leaves its room.
+   * Nothing is done if resumption is disabled or the member was resumed before.
+   *
+   * @param member     the member the connection is currently placed in
+   * @param connection the connection that received the request
+   * @param resumption the resumption request of the client
+   * @return the member the connection is placed in from now on
+   */
+  public ResumableMember resume(ResumableMember member, ResumableMember.Connection connection,
+      SessionResumption resumption) {
+    int capacity = resumeCapacity;
+    if (capacity <= 0 || member.isResumable()) {
+      return member;
+    }
+    String clientId = resumption.getClientId();
+    while (true) {
+      ResumableMember existing = resumable.putIfAbsent(clientId, member);
+      if (existing == null) {
+        member.register(clientId, capacity, resumption);
+        return member;
+      }
+      // Detached first, so no message reaches the client through both members
+      member.detach(connection);
+      if (existing.takeOver(connection, resumption, member.getForwarded())) {
+        leave(member);
+        LOGGER.debug("Client {} resumed its session", clientId);
+        return existing;
+      }
+      member.attach(connection);
+      resumable.remove(clientId, existing);
+    }
+  }
+
+  /**
+   * Detaches a closed connection from its member. A resumable member stays in its room for the resume timeout,
+   * any other member leaves its room right away.
+   *
+   * @param member     the member of the connection
+   * @param connection the closed connection
+   */
+  public void detach(ResumableMember member, ResumableMember.Connection connection) {
+    if (!member.detach(connection)) {
+      return;
+    }
+    if (!member.isResumable()) {
+      leave(member);
+      return;
+    }
+    long timeoutMillis = resumeTimeout.toMillis();
+    CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> expire(member));
+  }
+
+  /**
+   * Ends the session of a member whose client left the chat, so it leaves its room and cannot be resumed.
+   *
+   * @param member the member
+   */
+  public void remove(ResumableMember member) {
+    member.end();
+    String clientId = member.getClientId();
+    if (clientId != null) {
+      resumable.remove(clientId, member);
+    }
+    leave(member);
+  }
+
+  /**
+   * Removes a member whose client has not resumed its session within the resume timeout.
+   *
+   * @param member the detached member
+   */
+  private void expire(ResumableMember member) {
+    if (member.expire(resumeTimeout.toNanos())) {
+      resumable.remove(member.getClientId(), member);
+      leave(member);
+      LOGGER.debug("Session of client {} expired", member.getClientId());
+    }
+  }
+
+  /**
+   * Returns the number of sessions kept for clients that may reconnect, including connected ones.
+   *
+   * @return the number of resumable sessions
+   */
+  public int getResumableCount() {
+    return resumable.size();
+  }
+
+  /**
+   * Delivers a message to every member of every room, including members whose client is reconnecting.
+   *
+   * @param message the message shared by all members
+   */
+  public void broadcast(ChatMessage message) {
+    for (RoomMember member : memberships.keySet()) {
+      member.deliver(message);
+    }
+  }
+
+  /**
+   * Records a message in the journal and the index, if they are set.
+   *
+   * @param roomName the room of the message, or {@link ChatJournal#NO_ROOM} for messages to every room
+   * @param message  the message to record
+   */
+  public void record(String roomName, ChatMessage message) {
+    ChatJournal currentJournal = journal;
+    if (currentJournal != null) {
+      currentJournal.append(roomName, message);
+    }
+    MessageIndex currentIndex = index;
+    if (currentIndex != null) {
+      currentIndex.add(roomName, message);
+    }
+  }
+
+  /**
+   * Moves a member into the named room, leaving the room it was in before.
+   *
+   * @param member   the member joining the room
+   * @param roomName the name of the room to join
+   * @return the joined room
+   */
+  public ChatRoom join(RoomMember member, String roomName) {
+    leave(member);
+    ChatRoom room = rooms.compute(roomName, (name, existing) -> {
+      ChatRoom target = existing != null ? existing : new ChatRoom(name);
+      target.add(member);
+      return target;
+    });
+    memberships.put(member, room);
+    LOGGER.debug("Member joined room {}", roomName);
+    return room;
+  }
+
+  /**
+   * Removes a member from its current room. Empty rooms other than the default room are discarded.
+   *
+   * @param member the member leaving its room
+   */
+  public void leave(RoomMember member) {
+    ChatRoom room = memberships.remove(member);
+    if (room != null) {
+      rooms.computeIfPresent(room.getName(), (name, existing) -> {
+        existing.remove(member);
+        return existing.isEmpty() && !DEFAULT_ROOM.equals(name) ? null : existing;
+      });
+    }
+  }
+
+  /**
+   * Returns the room the member is currently in.
+   *
+   * @param member the member
+   * @return the member's room, or null if the member is not in any room
+   */
+  public ChatRoom getRoom(RoomMember member) {
+    return memberships.get(member);
+  }
+
+  /**
+   * Returns the room with the given name.
+   *
+   * @param roomName the name of the room
+   * @return the room, or null if no such room exists
+   */
+  public ChatRoom getRoom(String roomName) {
+    return rooms.get(roomName);
+  }
+
+  /**
+   * Handles a chat line received from a member. Room commands change the member's room and are answered
+   * with a server line, any other line is published to the other members of the member's room.
+   *
+   * @param member the member that sent the line
+   * @param line   the received line in the {@code Sender: text} format
+   * @return true if the line was a room command, false if it was published as a chat message
+   */
+  public boolean handleMessage(RoomMember member, String line) {
+    return handleMessage(member, ChatMessage.parse(line));
+  }
+
+  /**
+   * Handles a chat message received from a member. Room commands change the member's room and are answered
+   * with a server message, any other message is published to the other members of the member's room.
+   *
+   * @param member  the member that sent the message
+   * @param message the received message
+   * @return true if the message was a room command, false if it was published as a chat message
+   */
+  public boolean handleMessage(RoomMember member, ChatMessage message) {
+    String text = message.getText().trim();
+
+    if (text.equals(LEAVE_COMMAND)) {
+      join(member, DEFAULT_ROOM);
+      reply(member, "room.joined", DEFAULT_ROOM);
+      return true;
+    }
+    if (text.startsWith(JOIN_COMMAND + " ")) {
+      String roomName = text.substring(JOIN_COMMAND.length()).trim();
+      if (roomName.isEmpty() || roomName.length() > MAX_ROOM_NAME_LENGTH) {
+        reply(member, "room.invalid", roomName);
+      } else {
+        join(member, roomName);
+        reply(member, "room.joined", roomName);
+      }
+      return true;
+    }
+    if (text.equals(HISTORY_COMMAND) || text.startsWith(HISTORY_COMMAND + " ")) {
+      sendHistory(member, text.substring(HISTORY_COMMAND.length()).trim());
+      return true;
+    }
+    if (text.equals(SEARCH_COMMAND) || text.startsWith(SEARCH_COMMAND + " ")) {
+      sendSearchResults(member, text.substring(SEARCH_COMMAND.length()).trim());
+      return true;
+    }
+
+    ChatRoom room = memberships.get(member);
+    if (room != null) {
+      room.publish(member, message);
+      record(room.getName(), message);
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of rooms that currently exist.
+   *
+   * @return the number of rooms
+   */
+  public int getRoomCount() {
+    return rooms.size();
+  }
+
+  /**
+   * Delivers the most recent journaled messages of the member's room to the member only.
+   *
+   * @param member   the member that sent the command
+   * @param argument the requested number of messages, or an empty string for the default
+   */
+  private void sendHistory(RoomMember member, String argument) {
+    ChatJournal currentJournal = journal;
+    ChatRoom room = memberships.get(member);
+    if (currentJournal == null || room == null) {
+      reply(member, "history.unavailable", "");
+      return;
+    }
+
+    int count;
+    try {
+      count = argument.isEmpty() ? DEFAULT_HISTORY_COUNT : Integer.parseInt(argument);
+    } catch (NumberFormatException e) {
+      count = -1;
+    }
+    if (count <= 0) {
+      reply(member, "history.invalid", argument);
+      return;
+    }
+
+    try {
+      List<JournalEntry> entries = currentJournal.tail(room.getName(), Math.min(count, MAX_HISTORY_COUNT));
+      List<ChatMessage> messages = new ArrayList<>(entries.size());
+      for (JournalEntry entry : entries) {
+        messages.add(entry.getMessage());
+      }
+      member.deliverAll(messages);
+    } catch (ChatAppException e) {
+      LOGGER.error("Error reading message history: {}", e.getMessage());
+      reply(member, "history.unavailable", "");
+    }
+  }
+
+  /**
+   * Delivers the most recent messages of the member's room that match the search to the member only, oldest first.
+   *
+   * @param member    the member that sent the command
+   * @param arguments the search words and filters
+   */
+  private void sendSearchResults(RoomMember member, String arguments) {
+    MessageIndex currentIndex = index;
+    ChatRoom room = memberships.get(member);
+    if (currentIndex == null || room == null) {
+      reply(member, "search.unavailable", "");
+      return;
+    }
+
+    SearchQuery query;
+    try {
+      query = SearchQuery.parse(arguments).withRoom(room.getName());
+    } catch (IllegalArgumentException e) {
+      reply(member, "search.invalid", arguments);
+      return;
+    }
+
+    List<SearchResult> results = currentIndex.search(query);
+    if (results.isEmpty()) {
+      reply(member, "search.none", arguments);
+    }
+    for (int i = results.size() - 1; i >= 0; i--) {
+      member.deliver(results.get(i).getMessage());
+    }
+  }
+
+  private static void reply(RoomMember member, String key, String argument) {
+    String message = LocalizedResourceManager.getInstance().getFormattedMessage(member.getLocale(),
+        LocalizationBundle.MESSAGES, key, argument);
+    member.deliver(new ChatMessage(ChatSenderType.SERVER, message));
+  }
+}
@@ -0,0 +1,317 @@
+package de.sql.chat.room;
+
+import de.sql.chat.protocol.SessionResumption;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.MessageLog;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The room membership of a client connection that outlives the connection once the client resumed its session.
+ * <p>
+ * Servers place every connection in its rooms through a ResumableMember. Until the client sends a resumption
+ * request, the member only forwards messages to the connection. Once the client was registered through
+ * {@link ChatRoomRegistry#resume}, the member numbers the messages it delivers and keeps them in a bounded
+ * {@link MessageLog} until the client acknowledges them, and it numbers the messages of the client to drop the ones
+ * written again after a reconnect. When the connection drops, the member stays in its room and keeps collecting
+ * messages, and the next connection of the client takes it over and receives only the messages it missed.
+ * <p>
+ * A client that reconnects quickly may already receive messages on its new connection before its resumption request
+ * is read. The member of the new connection remembers the last of these messages, so the takeover does not send them
+ * a second time.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ResumableMember implements RoomMember {
+
+  /**
+   * The connection a {@link ResumableMember} writes to.
+   */
+  public interface Connection extends RoomMember {
+
+    /**
+     * Writes an acknowledgement of the messages received from the client.
+     *
+     * @param sequence the sequence number of the last message received
+     */
+    void acknowledge(long sequence);
+
+    /**
+     * Closes the connection, because the client resumed its session on another one. May be called from any thread.
+     */
+    void disconnect();
+  }
+
+  // The number of messages forwarded before a resumption request that are remembered
+  private static final int FORWARDED_CAPACITY = 64;
+
+  private Connection connection;
+  private String clientId;
+  private int capacity;
+  private MessageLog delivered;
+  // The messages forwarded before the client resumed, null once it resumed or wrote without resuming
+  private ArrayDeque<ChatMessage> forwarded = new ArrayDeque<>();
+  // The sequence numbers of the last message accepted from the client and of the next one it writes
+  private long received;
+  private long nextSequence;
+  private long detachedNanos;
+  private boolean expired;
+
+  /**
+   * Constructs a ResumableMember that forwards messages to the connection until the client resumes its session.
+   *
+   * @param connection the connection of the client
+   */
+  public ResumableMember(Connection connection) {
+    this.connection = connection;
+  }
+
+  /**
+   * Delivers a message to the connection, and keeps it until the client acknowledges it if the session is resumable.
+   * Messages delivered while the client is disconnected are only kept.
+   *
+   * @param message the message to deliver
+   */
+  @Override
+  public synchronized void deliver(ChatMessage message) {
+    if (delivered != null) {
+      delivered.append(message);
+    }
+    if (connection != null) {
+      remember(message);
+      connection.deliver(message);
+    }
+  }
+
+  /**
+   * Delivers a sequence of messages to the connection, and keeps them until the client acknowledges them if the
+   * session is resumable.
+   *
+   * @param messages the messages to deliver, oldest first
+   */
+  @Override
+  public synchronized void deliverAll(List<ChatMessage> messages) {
+    if (delivered != null) {
+      messages.forEach(delivered::append);
+    }
+    if (connection != null) {
+      messages.forEach(this::remember);
+      connection.deliverAll(messages);
+    }
+  }
+
+  /**
+   * Remembers a message forwarded before the client resumed, dropping the oldest one if too many are remembered.
+   *
+   * @param message the forwarded message
+   */
+  private void remember(ChatMessage message) {
+    if (forwarded != null) {
+      if (forwarded.size() == FORWARDED_CAPACITY) {
+        forwarded.removeFirst();
+      }
+      forwarded.addLast(message);
+    }
+  }
+
+  /**
+   * Returns the messages forwarded to the connection before the client resumed.
+   *
+   * @return a copy of the remembered messages, oldest first
+   */
+  synchronized List<ChatMessage> getForwarded() {
+    return forwarded != null ? new ArrayList<>(forwarded) : List.of();
+  }
+
+  /**
+   * Returns the locale of the current connection.
+   *
+   * @return the locale of the client, or null if it is disconnected or has not announced one
+   */
+  @Override
+  public synchronized Locale getLocale() {
+    return connection != null ? connection.getLocale() : null;
+  }
+
+  /**
+   * Makes the session resumable under the id of the client, which starts numbering messages in both directions.
+   * The acknowledgement is written before any numbered message, so the client counts the same messages.
+   *
+   * @param clientId   the id of the client
+   * @param capacity   the maximum number of unacknowledged messages kept for the client
+   * @param resumption the resumption request of the client
+   */
+  synchronized void register(String clientId, int capacity, SessionResumption resumption) {
+    this.clientId = clientId;
+    this.capacity = capacity;
+    this.forwarded = null;
+    // A client that lost a session the server no longer knows continues its own numbering
+    this.delivered = new MessageLog(capacity, resumption.getReceived() + 1);
+    this.received = resumption.getNextSequence() - 1;
+    this.nextSequence = resumption.getNextSequence();
+    connection.acknowledge(received);
+  }
+
+  /**
+   * Moves the session to the new connection of the client and delivers the messages the client missed. A previous
+   * connection that is still open, because its drop was not noticed yet, is disconnected.
+   * <p>
+   * Messages the new connection received before the request are neither delivered again nor numbered, and the
+   * missed messages are numbered from the last message the client received on, so both sides count the same
+   * messages even if some were dropped from the full log.
+   *
+   * @param newConnection    the new connection of the client
+   * @param resumption       the resumption request of the client
+   * @param alreadyForwarded the messages the new connection received before the request
+   * @return false if the session expired before, in which case nothing was done
+   */
+  synchronized boolean takeOver(Connection newConnection, SessionResumption resumption,
+      List<ChatMessage> alreadyForwarded) {
+    if (expired) {
+      return false;
+    }
+    Connection previous = connection;
+    connection = newConnection;
+    nextSequence = resumption.getNextSequence();
+    List<ChatMessage> missed = delivered.after(resumption.getReceived());
+    Set<ChatMessage> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+    skipped.addAll(alreadyForwarded);
+    missed.removeIf(skipped::contains);
+    delivered = new MessageLog(capacity, resumption.getReceived() + 1);
+    missed.forEach(delivered::append);
+    newConnection.acknowledge(received);
+    if (!missed.isEmpty()) {
+      newConnection.deliverAll(missed);
+    }
+    if (previous != null) {
+      previous.disconnect();
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether a message read from a connection is handled, and counts it if the session is resumable.
+   * Messages the client wrote again after a reconnect and messages still read from a connection that was taken
+   * over are dropped.
+   *
+   * @param from the connection the message was read from
+   * @return true if the message is new and should be handled
+   */
+  public synchronized boolean accept(Connection from) {
+    if (from != connection) {
+      return false;
+    }
+    if (delivered == null) {
+      // A client that resumes does so before writing, so this one never will
+      forwarded = null;
+      return true;
+    }
+    long sequence = nextSequence++;
+    if (sequence <= received) {
+      return false;
+    }
+    received = sequence;
+    if (received % SessionResumption.ACK_INTERVAL == 0) {
+      connection.acknowledge(received);
+    }
+    return true;
+  }
+
+  /**
+   * Removes the messages the client acknowledged.
+   *
+   * @param sequence the sequence number of the last message the client received
+   */
+  public synchronized void acknowledge(long sequence) {
+    if (delivered != null) {
+      delivered.acknowledge(sequence);
+    }
+  }
+
+  /**
+   * Returns the number of messages delivered to the client that it has not acknowledged yet, which are sent again
+   * if it resumes its session.
+   *
+   * @return the number of kept messages
+   */
+  public synchronized int getUnacknowledgedCount() {
+    return delivered != null ? delivered.size() : 0;
+  }
+
+  /**
+   * Checks whether the client registered its session for resumption.
+   *
+   * @return true if the session is resumable
+   */
+  public synchronized boolean isResumable() {
+    return delivered != null;
+  }
+
+  /**
+   * Returns the id of the client.
+   *
+   * @return the client id, or null if the session is not resumable
+   */
+  public synchronized String getClientId() {
+    return clientId;
+  }
+
+  /**
+   * Checks whether the member currently writes to a connection.
+   *
+   * @return true if a connection is attached
+   */
+  public synchronized boolean isConnected() {
+    return connection != null;
+  }
+
+  /**
+   * Attaches a connection again that was detached to resume another session, which had expired in the meantime.
+   *
+   * @param newConnection the connection of the client
+   */
+  synchronized void attach(Connection newConnection) {
+    connection = newConnection;
+  }
+
+  /**
+   * Detaches a connection that was closed, unless the client already resumed on another connection.
+   *
+   * @param closed the closed connection
+   * @return true if the connection was detached, false if it was no longer the connection of the member
+   */
+  synchronized boolean detach(Connection closed) {
+    if (connection != closed) {
+      return false;
+    }
+    connection = null;
+    detachedNanos = System.nanoTime();
+    return true;
+  }
+
+  /**
+   * Ends the session, because the client left the chat. The session can no longer be resumed.
+   */
+  synchronized void end() {
+    expired = true;
+  }
+
+  /**
+   * Marks the session as expired if the client has been disconnected for the timeout.
+   *
+   * @param timeoutNanos the time a client may stay disconnected
+   * @return true if the session expired, false if the client resumed or the timeout has not passed yet
+   */
+  synchronized boolean expire(long timeoutNanos) {
+    if (connection == null && System.nanoTime() - detachedNanos >= timeoutNanos) {
+      expired = true;
+    }
+    return expired;
+  }
+}
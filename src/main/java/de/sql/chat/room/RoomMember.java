@@ -0,0 +1,45 @@
+package de.sql.chat.room;
+
+import de.sql.chat.session.ChatMessage;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A participant of a {@link ChatRoom} that can receive chat messages fanned out by the room.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@FunctionalInterface
+public interface RoomMember {
+
+  /**
+   * Delivers a chat message to the member.
+   * The message is shared by all recipients and caches its encoded forms, so members write
+   * {@link java.nio.ByteBuffer#duplicate()}s of {@link ChatMessage#encoded} in their own wire protocol.
+   *
+   * @param message the message to deliver
+   */
+  void deliver(ChatMessage message);
+
+  /**
+   * Delivers a sequence of messages to the member only, like the messages of a history. Members that support it
+   * send the messages compressed together, by default every message is delivered on its own.
+   *
+   * @param messages the messages to deliver, oldest first
+   */
+  default void deliverAll(List<ChatMessage> messages) {
+    for (ChatMessage message : messages) {
+      deliver(message);
+    }
+  }
+
+  /**
+   * Returns the language the member announced, in which the registry answers its commands.
+   *
+   * @return the locale of the member, or null for the locale of the application
+   */
+  default Locale getLocale() {
+    return null;
+  }
+}
@@ -0,0 +1,111 @@
+package de.sql.chat.search;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fixed number of consecutive messages of the {@link MessageIndex} with their own term dictionary.
+ * The index evicts whole blocks, so dropping the oldest messages never rewrites any posting list.
+ * Not thread-safe, the index guards all access.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+class IndexBlock {
+
+  /** The estimated heap cost of a term entry besides its characters: map entry, string and posting list. */
+  private static final int TERM_OVERHEAD = 120;
+  private static final int ARRAY_OVERHEAD = 16;
+
+  private final long[] timestamps;
+  private final byte[] senders;
+  private final short[] rooms;
+  private final byte[][] texts;
+  private final Map<String, PostingList> postings = new HashMap<>();
+  private int size;
+  private long memory;
+
+  /**
+   * Constructs an empty block.
+   *
+   * @param capacity the number of messages the block holds
+   */
+  IndexBlock(int capacity) {
+    timestamps = new long[capacity];
+    senders = new byte[capacity];
+    rooms = new short[capacity];
+    texts = new byte[capacity][];
+    memory = (long) capacity * (Long.BYTES + 1 + Short.BYTES + 8) + 4 * ARRAY_OVERHEAD;
+  }
+
+  /**
+   * Adds a message to the block.
+   *
+   * @param timestamp the time the message was indexed
+   * @param senderId  the id of the sender
+   * @param roomId    the id of the room
+   * @param text      the message text
+   * @param terms     the distinct terms of the text
+   */
+  void add(long timestamp, int senderId, short roomId, String text, List<String> terms) {
+    int id = size++;
+    timestamps[id] = timestamp;
+    senders[id] = (byte) senderId;
+    rooms[id] = roomId;
+    texts[id] = text.getBytes(UTF_8);
+    memory += texts[id].length + ARRAY_OVERHEAD;
+
+    for (String term : terms) {
+      PostingList list = postings.get(term);
+      if (list == null) {
+        list = new PostingList();
+        postings.put(term, list);
+        memory += TERM_OVERHEAD + 2L * term.length() + list.capacity();
+      }
+      memory += list.add(id);
+    }
+  }
+
+  boolean isFull() {
+    return size == timestamps.length;
+  }
+
+  int size() {
+    return size;
+  }
+
+  long getMemory() {
+    return memory;
+  }
+
+  long getFirstTimestamp() {
+    return size == 0 ? Long.MAX_VALUE : timestamps[0];
+  }
+
+  long getLastTimestamp() {
+    return size == 0 ? Long.MIN_VALUE : timestamps[size - 1];
+  }
+
+  PostingList getPostings(String term) {
+    return postings.get(term);
+  }
+
+  long getTimestamp(int id) {
+    return timestamps[id];
+  }
+
+  int getSenderId(int id) {
+    return senders[id];
+  }
+
+  short getRoomId(int id) {
+    return rooms[id];
+  }
+
+  String getText(int id) {
+    return new String(texts[id], UTF_8);
+  }
+}
@@ -0,0 +1,278 @@
+package de.sql.chat.search;
+
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory, incrementally built full-text index of chat messages.
+ * <p>
+ * Messages are split into lower-case terms of letters and digits. For every term the index keeps a posting list
+ * of the ids of the messages containing it, stored as variable-length encoded gaps in a primitive array. A query
+ * intersects the posting lists of its terms and applies the room, sender and time filters to the candidates.
+ * <p>
+ * The index is divided into blocks of consecutive messages. Once the estimated heap usage exceeds the memory budget,
+ * the oldest block is dropped, so the index always covers the most recent messages that fit into the budget.
+ * <p>
+ * The index is safe for concurrent use: messages are added under a write lock and queries run under a read lock.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class MessageIndex {
+
+  /** The memory budget of an index created without an explicit budget. */
+  public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+  private static final int BLOCK_SIZE = 16 * 1024;
+  private static final int MAX_TERM_LENGTH = 64;
+  private static final short NO_ROOM_ID = 0;
+
+  private final long memoryBudget;
+  private final Deque<IndexBlock> blocks = new ArrayDeque<>();
+  private final Map<String, Short> roomIds = new HashMap<>();
+  private final List<String> roomNames = new ArrayList<>(List.of(""));
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private long memory;
+  private long messageCount;
+
+  /**
+   * Constructs a MessageIndex with the default memory budget.
+   */
+  public MessageIndex() {
+    this(DEFAULT_MEMORY_BUDGET);
+  }
+
+  /**
+   * Constructs a MessageIndex.
+   *
+   * @param memoryBudget the estimated number of heap bytes the index may use
+   */
+  public MessageIndex(long memoryBudget) {
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Splits a text into its distinct lower-case terms, in order of their first occurrence.
+   *
+   * @param text the text to split
+   * @return the distinct terms
+   */
+  public static List<String> tokenize(String text) {
+    Set<String> terms = new LinkedHashSet<>();
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean partOfTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (partOfTerm && start < 0) {
+        start = i;
+      } else if (!partOfTerm && start >= 0) {
+        if (i - start <= MAX_TERM_LENGTH) {
+          terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        }
+        start = -1;
+      }
+    }
+    return new ArrayList<>(terms);
+  }
+
+  /**
+   * Indexes a message with the current time.
+   *
+   * @param room    the room of the message, or an empty string if it was not sent to a particular room
+   * @param message the message to index
+   */
+  public void add(String room, ChatMessage message) {
+    add(room, message, System.currentTimeMillis());
+  }
+
+  /**
+   * Indexes a message. Messages should be added in the order of their timestamps.
+   * Messages of rooms beyond the first 32767 distinct room names are not indexed.
+   *
+   * @param room      the room of the message, or an empty string if it was not sent to a particular room
+   * @param message   the message to index
+   * @param timestamp the time of the message in milliseconds since the epoch
+   */
+  public void add(String room, ChatMessage message, long timestamp) {
+    List<String> terms = tokenize(message.getText());
+    ChatSenderType sender = message.getSender();
+
+    lock.writeLock().lock();
+    try {
+      Short roomId = roomId(room);
+      if (roomId == null) {
+        return;
+      }
+      IndexBlock block = blocks.peekLast();
+      if (block == null || block.isFull()) {
+        block = new IndexBlock(BLOCK_SIZE);
+        blocks.addLast(block);
+        memory += block.getMemory();
+      }
+      long before = block.getMemory();
+      block.add(timestamp, sender == null ? ChatMessage.UNKNOWN_SENDER_ID : sender.getId(), roomId, message.getText(), terms);
+      memory += block.getMemory() - before;
+      messageCount++;
+
+      while (memory > memoryBudget && blocks.size() > 1) {
+        IndexBlock evicted = blocks.pollFirst();
+        memory -= evicted.getMemory();
+        messageCount -= evicted.size();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Finds the most recent messages matching the query.
+   *
+   * @param query the query
+   * @return the matching messages, newest first, at most {@link SearchQuery#getLimit()}
+   */
+  public List<SearchResult> search(SearchQuery query) {
+    List<SearchResult> results = new ArrayList<>();
+    if (query.getTerms().isEmpty() || query.getLimit() <= 0) {
+      return results;
+    }
+
+    lock.readLock().lock();
+    try {
+      Short room = query.getRoom() == null ? null : roomIds.getOrDefault(query.getRoom(), NO_ROOM_ID);
+      Iterator<IndexBlock> newestFirst = blocks.descendingIterator();
+      while (newestFirst.hasNext() && results.size() < query.getLimit()) {
+        IndexBlock block = newestFirst.next();
+        if (block.getLastTimestamp() < query.getFromTimestamp() || block.getFirstTimestamp() > query.getToTimestamp()) {
+          continue;
+        }
+        int[] candidates = intersect(block, query.getTerms());
+        for (int i = candidates.length - 1; i >= 0 && results.size() < query.getLimit(); i--) {
+          int id = candidates[i];
+          if (matches(block, id, query, room)) {
+            results.add(new SearchResult(block.getTimestamp(id), roomNames.get(block.getRoomId(id)),
+                new ChatMessage(ChatSenderType.fromId(block.getSenderId(id)), block.getText(id))));
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return results;
+  }
+
+  /**
+   * Returns the number of messages currently covered by the index.
+   *
+   * @return the number of indexed messages
+   */
+  public long getMessageCount() {
+    lock.readLock().lock();
+    try {
+      return messageCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the estimated number of heap bytes used by the index.
+   *
+   * @return the estimated memory usage
+   */
+  public long getEstimatedMemory() {
+    lock.readLock().lock();
+    try {
+      return memory;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the memory budget of the index.
+   *
+   * @return the estimated number of heap bytes the index may use
+   */
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * Returns the id of a room, assigning the next free id to a room seen for the first time.
+   *
+   * @param room the room name
+   * @return the room id, or null if all room ids are in use
+   */
+  private Short roomId(String room) {
+    if (room == null || room.isEmpty()) {
+      return NO_ROOM_ID;
+    }
+    Short id = roomIds.get(room);
+    if (id == null && roomNames.size() <= Short.MAX_VALUE) {
+      id = (short) roomNames.size();
+      roomNames.add(room);
+      roomIds.put(room, id);
+    }
+    return id;
+  }
+
+  /**
+   * Intersects the posting lists of all terms, starting with the shortest list.
+   *
+   * @param block the block to search
+   * @param terms the terms that must all occur
+   * @return the ids of the messages containing all terms, in ascending order
+   */
+  private static int[] intersect(IndexBlock block, List<String> terms) {
+    PostingList[] lists = new PostingList[terms.size()];
+    for (int i = 0; i < lists.length; i++) {
+      lists[i] = block.getPostings(terms.get(i));
+      if (lists[i] == null) {
+        return new int[0];
+      }
+    }
+    Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+    int[] result = lists[0].toArray();
+    int length = result.length;
+    for (int i = 1; i < lists.length && length > 0; i++) {
+      int[] other = lists[i].toArray();
+      int kept = 0;
+      int j = 0;
+      for (int k = 0; k < length && j < other.length; k++) {
+        while (j < other.length && other[j] < result[k]) {
+          j++;
+        }
+        if (j < other.length && other[j] == result[k]) {
+          result[kept++] = result[k];
+        }
+      }
+      length = kept;
+    }
+    return length == result.length ? result : Arrays.copyOf(result, length);
+  }
+
+  private static boolean matches(IndexBlock block, int id, SearchQuery query, Short room) {
+    long timestamp = block.getTimestamp(id);
+    if (timestamp < query.getFromTimestamp() || timestamp > query.getToTimestamp()) {
+      return false;
+    }
+    if (query.getSender() != null && block.getSenderId(id) != query.getSender().getId()) {
+      return false;
+    }
+    short roomId = block.getRoomId(id);
+    return room == null || roomId == NO_ROOM_ID || roomId == room;
+  }
+}
@@ -0,0 +1,90 @@
+package de.sql.chat.search;
+
+import java.util.Arrays;
+
+/**
+ * The ids of the messages containing one term, in ascending order.
+ * Ids are stored as variable-length encoded gaps to the previous id, so a term that occurs in many
+ * consecutive messages costs about one byte per message.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+class PostingList {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private byte[] data = new byte[INITIAL_CAPACITY];
+  private int length;
+  private int count;
+  private int lastId = -1;
+
+  /**
+   * Adds a message id. Ids must be added in ascending order, repeated ids are ignored.
+   *
+   * @param id the id of the message
+   * @return the number of bytes the backing array grew by, for memory accounting
+   */
+  int add(int id) {
+    if (id == lastId) {
+      return 0;
+    }
+    int grown = 0;
+    if (length + 5 > data.length) {
+      int newCapacity = Math.max(data.length * 2, length + 5);
+      grown = newCapacity - data.length;
+      data = Arrays.copyOf(data, newCapacity);
+    }
+    int gap = id - lastId;
+    while ((gap & ~0x7F) != 0) {
+      data[length++] = (byte) ((gap & 0x7F) | 0x80);
+      gap >>>= 7;
+    }
+    data[length++] = (byte) gap;
+    lastId = id;
+    count++;
+    return grown;
+  }
+
+  /**
+   * Returns the number of message ids in the list.
+   *
+   * @return the number of ids
+   */
+  int size() {
+    return count;
+  }
+
+  /**
+   * Decodes all message ids.
+   *
+   * @return the ids in ascending order
+   */
+  int[] toArray() {
+    int[] ids = new int[count];
+    int id = -1;
+    int position = 0;
+    for (int i = 0; i < count; i++) {
+      int gap = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = data[position++];
+        gap |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      id += gap;
+      ids[i] = id;
+    }
+    return ids;
+  }
+
+  /**
+   * Returns the number of bytes allocated for the encoded ids.
+   *
+   * @return the capacity of the backing array
+   */
+  int capacity() {
+    return data.length;
+  }
+}
@@ -0,0 +1,210 @@
+package de.sql.chat.search;
+
+import de.sql.chat.session.ChatSenderType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable query for the {@link MessageIndex}. A message matches if it contains all terms
+ * and passes every filter that is set.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class SearchQuery {
+
+  /** The number of results returned if no limit is set. */
+  public static final int DEFAULT_LIMIT = 10;
+
+  private static final String SENDER_FILTER = "from:";
+  private static final String SINCE_FILTER = "since:";
+
+  private final List<String> terms;
+  private final String room;
+  private final ChatSenderType sender;
+  private final long fromTimestamp;
+  private final long toTimestamp;
+  private final int limit;
+
+  private SearchQuery(List<String> terms, String room, ChatSenderType sender, long fromTimestamp, long toTimestamp, int limit) {
+    this.terms = terms;
+    this.room = room;
+    this.sender = sender;
+    this.fromTimestamp = fromTimestamp;
+    this.toTimestamp = toTimestamp;
+    this.limit = limit;
+  }
+
+  /**
+   * Creates a query for messages containing all words of the text, without filters.
+   *
+   * @param text the words to search for
+   * @return the query
+   */
+  public static SearchQuery of(String text) {
+    return new SearchQuery(MessageIndex.tokenize(text), null, null, Long.MIN_VALUE, Long.MAX_VALUE, DEFAULT_LIMIT);
+  }
+
+  /**
+   * Parses the arguments of the {@code /search} command: words to search for, optionally mixed with
+   * {@code from:client} or {@code from:server} and {@code since:<n>m}, {@code since:<n>h} or {@code since:<n>d}.
+   *
+   * @param arguments the command arguments
+   * @return the query
+   * @throws IllegalArgumentException if a filter is invalid or no word is given
+   */
+  public static SearchQuery parse(String arguments) {
+    StringBuilder text = new StringBuilder();
+    ChatSenderType sender = null;
+    long fromTimestamp = Long.MIN_VALUE;
+
+    for (String argument : arguments.trim().split("\\s+")) {
+      String lowerCase = argument.toLowerCase(Locale.ROOT);
+      if (lowerCase.startsWith(SENDER_FILTER)) {
+        sender = ChatSenderType.fromDisplayName(capitalize(argument.substring(SENDER_FILTER.length())));
+        if (sender == null) {
+          throw new IllegalArgumentException("Unknown sender: " + argument);
+        }
+      } else if (lowerCase.startsWith(SINCE_FILTER)) {
+        fromTimestamp = System.currentTimeMillis() - parseDuration(lowerCase.substring(SINCE_FILTER.length())).toMillis();
+      } else {
+        text.append(argument).append(' ');
+      }
+    }
+
+    List<String> terms = MessageIndex.tokenize(text.toString());
+    if (terms.isEmpty()) {
+      throw new IllegalArgumentException("No search terms");
+    }
+    return new SearchQuery(terms, null, sender, fromTimestamp, Long.MAX_VALUE, DEFAULT_LIMIT);
+  }
+
+  /**
+   * Returns a copy of this query restricted to one room. Messages sent to no particular room are part of every room.
+   *
+   * @param room the room to search, or null to search all rooms
+   * @return the restricted query
+   */
+  public SearchQuery withRoom(String room) {
+    return new SearchQuery(terms, room, sender, fromTimestamp, toTimestamp, limit);
+  }
+
+  /**
+   * Returns a copy of this query restricted to one sender.
+   *
+   * @param sender the sender, or null to accept every sender
+   * @return the restricted query
+   */
+  public SearchQuery withSender(ChatSenderType sender) {
+    return new SearchQuery(terms, room, sender, fromTimestamp, toTimestamp, limit);
+  }
+
+  /**
+   * Returns a copy of this query restricted to messages indexed in a time range.
+   *
+   * @param fromTimestamp the earliest timestamp, inclusive, in milliseconds since the epoch
+   * @param toTimestamp   the latest timestamp, inclusive, in milliseconds since the epoch
+   * @return the restricted query
+   */
+  public SearchQuery withTimeRange(long fromTimestamp, long toTimestamp) {
+    return new SearchQuery(terms, room, sender, fromTimestamp, toTimestamp, limit);
+  }
+
+  /**
+   * Returns a copy of this query with a different maximum number of results.
+   *
+   * @param limit the maximum number of results
+   * @return the limited query
+   */
+  public SearchQuery withLimit(int limit) {
+    return new SearchQuery(terms, room, sender, fromTimestamp, toTimestamp, limit);
+  }
+
+  /**
+   * Returns the normalized terms a message must contain.
+   *
+   * @return the search terms
+   */
+  public List<String> getTerms() {
+    return terms;
+  }
+
+  /**
+   * Returns the room the query is restricted to.
+   *
+   * @return the room, or null if all rooms are searched
+   */
+  public String getRoom() {
+    return room;
+  }
+
+  /**
+   * Returns the sender the query is restricted to.
+   *
+   * @return the sender, or null if every sender is accepted
+   */
+  public ChatSenderType getSender() {
+    return sender;
+  }
+
+  /**
+   * Returns the earliest timestamp of a matching message.
+   *
+   * @return the timestamp in milliseconds since the epoch
+   */
+  public long getFromTimestamp() {
+    return fromTimestamp;
+  }
+
+  /**
+   * Returns the latest timestamp of a matching message.
+   *
+   * @return the timestamp in milliseconds since the epoch
+   */
+  public long getToTimestamp() {
+    return toTimestamp;
+  }
+
+  /**
+   * Returns the maximum number of results.
+   *
+   * @return the limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  private static Duration parseDuration(String value) {
+    try {
+      long amount = Long.parseLong(value.substring(0, value.length() - 1));
+      switch (value.charAt(value.length() - 1)) {
+        case 'm':
+          return Duration.ofMinutes(amount);
+        case 'h':
+          return Duration.ofHours(amount);
+        case 'd':
+          return Duration.ofDays(amount);
+        default:
+          break;
+      }
+    } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+      // Reported below
+    }
+    throw new IllegalArgumentException("Invalid duration: " + value);
+  }
+
+  private static String capitalize(String value) {
+    return value.isEmpty() ? value : value.substring(0, 1).toUpperCase(Locale.ROOT) + value.substring(1).toLowerCase(Locale.ROOT);
+  }
+
+  @Override
+  public String toString() {
+    List<String> parts = new ArrayList<>(terms);
+    if (sender != null) {
+      parts.add(SENDER_FILTER + sender.toString().toLowerCase(Locale.ROOT));
+    }
+    return String.join(" ", parts);
+  }
+}
@@ -0,0 +1,61 @@
+package de.sql.chat.search;
+
+import de.sql.chat.session.ChatMessage;
+
+/**
+ * A message found by the {@link MessageIndex}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class SearchResult {
+
+  private final long timestamp;
+  private final String room;
+  private final ChatMessage message;
+
+  /**
+   * Constructs a SearchResult.
+   *
+   * @param timestamp the time the message was indexed, in milliseconds since the epoch
+   * @param room      the room of the message, or an empty string if it was not sent to a particular room
+   * @param message   the found message
+   */
+  public SearchResult(long timestamp, String room, ChatMessage message) {
+    this.timestamp = timestamp;
+    this.room = room;
+    this.message = message;
+  }
+
+  /**
+   * Returns the time the message was indexed.
+   *
+   * @return the timestamp in milliseconds since the epoch
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Returns the room of the message.
+   *
+   * @return the room name, or an empty string if the message was not sent to a particular room
+   */
+  public String getRoom() {
+    return room;
+  }
+
+  /**
+   * Returns the found message.
+   *
+   * @return the message
+   */
+  public ChatMessage getMessage() {
+    return message;
+  }
+
+  @Override
+  public String toString() {
+    return message.toLine();
+  }
+}
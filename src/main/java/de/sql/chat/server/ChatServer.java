@@ -1,17 +1,24 @@
 package de.sql.chat.server;
 
+import de.sql.chat.config.PerformanceSettings;
 import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.init.StartupTimeline;
+import de.sql.chat.journal.ChatJournal;
 import de.sql.chat.localization.LocalizationBundle;
 import de.sql.chat.localization.LocalizedResourceManager;
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.search.MessageIndex;
 import de.sql.chat.session.ChatSession;
 import de.sql.chat.session.ChatSessionFactory;
 import de.sql.chat.session.ChatSenderType;
 
 import de.sql.chat.session.UserInputSource;
+import de.sql.chat.tls.TlsContext;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.time.Duration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 /**
@@ -29,6 +36,10 @@ public class ChatServer {
   private String serverIP;
   private int serverPort;
   private ChatSession serverSession;
+  private ChatJournal journal;
+  private MessageIndex messageIndex;
+  private Duration sendWindow;
+  private TlsContext tlsContext;
 
   /**
    * Starts the chat server by creating a server socket and waiting for
@@ -41,10 +52,15 @@ public class ChatServer {
     // Start the server in a new thread
     new Thread(() -> {
       try {
-        setupServer();
+        setupServer(tlsContext != null ? tlsContext : TlsContext.current());
         acceptClientConnection();
 
         serverSession = ChatSessionFactory.createChatSession(ChatSenderType.SERVER, clientSocket, userInputSource);
+        serverSession.setJournal(journal);
+        serverSession.setMessageIndex(messageIndex);
+        if (sendWindow != null) {
+          serverSession.setSendWindow(sendWindow);
+        }
         serverSession.start();
       } catch (ChatAppException | IOException e) {
         LOGGER.error("Error during server setup: {}", e.getMessage());
@@ -55,14 +71,17 @@ public class ChatServer {
   /**
    * Sets up the server socket.
    *
+   * @param tls The TLS context to accept encrypted connections with, or null for plaintext.
    * @throws IOException If an error occurs while setting up the server socket.
    */
-  private void setupServer() throws IOException {
-    serverSocket = new ServerSocket(0);
+  private void setupServer(TlsContext tls) throws IOException {
+    serverSocket = tls != null ? tls.createServerSocket() : new ServerSocket();
+    PerformanceSettings.current().bind(serverSocket);
     this.serverIP = InetAddress.getLocalHost().getHostAddress();
     this.serverPort = serverSocket.getLocalPort();
     System.out.println(LocalizedResourceManager.getInstance().getFormattedMessage(LocalizationBundle.MESSAGES, "server.started", serverIP, serverPort));
     LOGGER.info("Server started at {}:{}", serverIP, serverPort);
+    StartupTimeline.getInstance().complete(StartupTimeline.SERVER_STARTED);
   }
 
   /**
@@ -72,6 +91,7 @@ public class ChatServer {
    */
   private void acceptClientConnection() throws IOException {
     clientSocket = serverSocket.accept();
+    ChatMetrics.getInstance().connectionAccepted();
     System.out.println(LocalizedResourceManager.getInstance().getMessage(LocalizationBundle.MESSAGES, "server.connected"));
     LOGGER.info("Client connected from {}:{}", clientSocket.getInetAddress().getHostAddress(), clientSocket.getPort());
   }
@@ -120,6 +140,43 @@ public class ChatServer {
     return serverSession;
   }
 
+  /**
+   * Sets the journal that records the messages of the chat session. Must be called before {@link #start}.
+   *
+   * @param journal The journal, or null to disable recording.
+   */
+  public void setJournal(ChatJournal journal) {
+    this.journal = journal;
+  }
+
+  /**
+   * Sets the index that makes the messages of the chat session searchable. Must be called before {@link #start}.
+   *
+   * @param messageIndex The index, or null to disable searching.
+   */
+  public void setMessageIndex(MessageIndex messageIndex) {
+    this.messageIndex = messageIndex;
+  }
+
+  /**
+   * Sets how long outgoing messages of the chat session may wait to be written together with later messages. Must be called before {@link #start}.
+   *
+   * @param sendWindow The coalescing window, zero to write every message as soon as possible, or null to use
+   *                   the send window of the performance settings.
+   */
+  public void setSendWindow(Duration sendWindow) {
+    this.sendWindow = sendWindow;
+  }
+
+  /**
+   * Sets the TLS context connections are encrypted with. Must be called before {@link #start}.
+   *
+   * @param tlsContext The context, or null to use the TLS settings of the configuration.
+   */
+  public void setTlsContext(TlsContext tlsContext) {
+    this.tlsContext = tlsContext;
+  }
+
   public boolean isRunning() {
     return serverSocket != null && !serverSocket.isClosed();
   }
@@ -0,0 +1,417 @@
+package de.sql.chat.server;
+
+import de.sql.chat.config.PerformanceSettings;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.exceptions.ErrorCode;
+import de.sql.chat.init.StartupTimeline;
+import de.sql.chat.journal.ChatJournal;
+import de.sql.chat.localization.LocalizationBundle;
+import de.sql.chat.localization.LocalizedResourceManager;
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.protocol.SessionResumption;
+import de.sql.chat.room.ChatRoomRegistry;
+import de.sql.chat.room.ResumableMember;
+import de.sql.chat.search.MessageIndex;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import de.sql.chat.session.ChatSession;
+import de.sql.chat.session.MessageListener;
+import de.sql.chat.session.UserInputSource;
+import de.sql.chat.session.UserInputSubscriber;
+import de.sql.chat.tls.TlsContext;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The NioChatServer class represents a server that accepts any number of client connections
+ * and multiplexes them over a small, fixed set of selector driven I/O threads.
+ * It speaks the same line protocol as {@link ChatSession}: clients send {@code Sender: text} lines that are
+ * printed on the server console and fanned out to the other members of the client's chat room, an {@code EXIT}
+ * line closes the client connection, and every line typed on the server console is sent to all connected clients.
+ * Clients that reconnect resume their session in their room and receive the messages they missed, see
+ * {@link ChatRoomRegistry#resume}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class NioChatServer {
+
+  private static final Logger LOGGER = LogManager.getLogger(NioChatServer.class);
+  private static final ChatMetrics METRICS = ChatMetrics.getInstance();
+  private final int ioThreads;
+  private final Set<NioConnection> connections = ConcurrentHashMap.newKeySet();
+  private final LongAdder droppedMessages = new LongAdder();
+  private final ChatRoomRegistry rooms = new ChatRoomRegistry();
+  private ServerSocketChannel serverChannel;
+  private Selector acceptSelector;
+  private NioWorker[] workers;
+  private PerformanceSettings settings;
+  private int nextWorker;
+  private String serverIP;
+  private int serverPort;
+  private volatile boolean running;
+  private UserInputSubscriber consoleInput;
+  private volatile MessageListener messageListener = this::printMessage;
+  private TlsContext tlsContext;
+
+  /**
+   * Creates a new NioChatServer with the number of I/O threads of the performance settings,
+   * by default one per available processor.
+   */
+  public NioChatServer() {
+    this(PerformanceSettings.current().getIoThreads());
+  }
+
+  /**
+   * Creates a new NioChatServer with the specified number of I/O threads.
+   *
+   * @param ioThreads The number of selector threads serving the client connections.
+   */
+  public NioChatServer(int ioThreads) {
+    this.ioThreads = Math.max(1, ioThreads);
+  }
+
+  /**
+   * Starts the chat server by opening the listening channel and the I/O threads.
+   * Lines typed on the server console are sent to every connected client.
+   *
+   * @param userInputSource The source of user input for the server console.
+   * @throws ChatAppException If an error occurs during server setup.
+   */
+  public void start(UserInputSource userInputSource) throws ChatAppException {
+    if (tlsContext == null) {
+      tlsContext = TlsContext.current();
+    }
+    try {
+      setupServer();
+    } catch (IOException e) {
+      LOGGER.error("Error during server setup: {}", e.getMessage());
+      close();
+      throw new ChatAppException(ErrorCode.SERVER_ERROR, "Error during server setup: " + e.getMessage());
+    }
+
+    new Thread(this::acceptConnections, "nio-acceptor").start();
+
+    consoleInput = new UserInputSubscriber(this::onConsoleInput);
+    userInputSource.subscribe(consoleInput);
+  }
+
+  /**
+   * Opens the non-blocking server channel and starts the I/O workers.
+   *
+   * @throws IOException If an error occurs while setting up the server channel.
+   */
+  private void setupServer() throws IOException {
+    acceptSelector = Selector.open();
+    serverChannel = ServerSocketChannel.open();
+    settings = PerformanceSettings.current();
+    settings.bind(serverChannel.socket());
+    serverChannel.configureBlocking(false);
+    serverChannel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+    rooms.setResumption(settings.getResumeBufferMessages(), settings.getResumeTimeout());
+
+    // Checking twice per interval pings a quiet client at most half an interval late
+    Duration tick = Stream.of(settings.getHeartbeatInterval(), settings.getReadTimeout(), settings.getIdleTimeout())
+        .filter(interval -> !interval.isZero()).findFirst().orElse(Duration.ZERO).dividedBy(2);
+    workers = new NioWorker[ioThreads];
+    for (int i = 0; i < ioThreads; i++) {
+      workers[i] = new NioWorker("nio-worker-" + i, tick.isZero() ? 0 : Math.max(1, tick.toMillis()));
+      workers[i].start();
+    }
+    running = true;
+
+    this.serverIP = InetAddress.getLocalHost().getHostAddress();
+    this.serverPort = serverChannel.socket().getLocalPort();
+    System.out.println(LocalizedResourceManager.getInstance().getFormattedMessage(LocalizationBundle.MESSAGES, "server.started", serverIP, serverPort));
+    LOGGER.info("NIO server started at {}:{} with {} I/O threads", serverIP, serverPort, ioThreads);
+    StartupTimeline.getInstance().complete(StartupTimeline.SERVER_STARTED);
+  }
+
+  /**
+   * Accepts client connections until the server is closed and spreads them over the I/O workers.
+   */
+  private void acceptConnections() {
+    try {
+      while (running) {
+        acceptSelector.select();
+        acceptSelector.selectedKeys().clear();
+
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+          registerConnection(channel);
+        }
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      if (running) {
+        LOGGER.error("Error accepting client connections: {}", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Configures an accepted channel and hands it to the next I/O worker.
+   *
+   * @param channel The accepted channel.
+   */
+  private void registerConnection(SocketChannel channel) {
+    try {
+      channel.configureBlocking(false);
+      settings.configure(channel);
+      InetSocketAddress remote = (InetSocketAddress) channel.getRemoteAddress();
+
+      NioWorker worker = workers[nextWorker++ % workers.length];
+      NioTransport transport = tlsContext != null ? new TlsTransport(channel, tlsContext.createServerEngine()) : new PlainTransport(channel);
+      NioConnection connection = new NioConnection(this, worker, channel, transport,
+          remote.getAddress().getHostAddress() + ":" + remote.getPort(), settings);
+      connections.add(connection);
+      METRICS.connectionAccepted();
+      METRICS.sessionsChanged(1);
+      rooms.join(connection.getMember(), ChatRoomRegistry.DEFAULT_ROOM);
+      worker.register(connection);
+
+      System.out.println(LocalizedResourceManager.getInstance().getMessage(LocalizationBundle.MESSAGES, "server.connected"));
+      LOGGER.info("Client connected from {}", connection);
+    } catch (IOException e) {
+      LOGGER.error("Error registering client connection: {}", e.getMessage());
+      try {
+        channel.close();
+      } catch (IOException closeException) {
+        LOGGER.debug("Error closing rejected channel: {}", closeException.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Sends a line of the server console to all connected clients.
+   * An exit command on the console closes the server.
+   *
+   * @param userInput The line published by the server console.
+   */
+  private void onConsoleInput(String userInput) {
+    if (!running) {
+      return;
+    }
+    if (ChatSession.isExitCommand(userInput)) {
+      close();
+    } else {
+      broadcast(userInput);
+    }
+  }
+
+  /**
+   * Sends a message from the server to every client, including clients that are reconnecting.
+   * The message is encoded at most once per wire protocol and the same read-only buffer is written to all connections.
+   *
+   * @param message The message to send.
+   */
+  public void broadcast(String message) {
+    ChatMessage chatMessage = new ChatMessage(ChatSenderType.SERVER, message);
+    rooms.broadcast(chatMessage);
+    rooms.record(ChatJournal.NO_ROOM, chatMessage);
+    LOGGER.debug("Message sent: {}", message);
+  }
+
+  /**
+   * Handles a message received from a client. Called on the I/O thread of the connection.
+   *
+   * @param connection The connection that received the message.
+   * @param message    The received message.
+   */
+  void onMessage(NioConnection connection, ChatMessage message) {
+    ResumableMember member = connection.getMember();
+    if (!member.accept(connection)) {
+      LOGGER.debug("Dropping message client {} wrote again after reconnecting", connection);
+      return;
+    }
+    String line = message.toLine();
+    if (line.isEmpty()) {
+      return;
+    }
+    if (ChatSession.isExitCommand(line)) {
+      rooms.remove(member);
+      connection.close();
+    } else if (!rooms.handleMessage(member, message)) {
+      messageListener.onMessage(line);
+    }
+  }
+
+  /**
+   * Resumes the session of a client that reconnected. Called on the I/O thread of the connection.
+   *
+   * @param connection The connection that received the resumption request.
+   * @param resumption The resumption request of the client.
+   * @return The member the connection is placed in from now on.
+   */
+  ResumableMember onResume(NioConnection connection, SessionResumption resumption) {
+    ResumableMember member = connection.getMember();
+    ResumableMember resumed = rooms.resume(member, connection, resumption);
+    if (resumed != member) {
+      METRICS.sessionResumed();
+      LOGGER.info("Client {} resumed its session", connection);
+    }
+    return resumed;
+  }
+
+  /**
+   * Removes a closed connection from the server.
+   *
+   * @param connection The closed connection.
+   */
+  void onClosed(NioConnection connection) {
+    rooms.detach(connection.getMember(), connection);
+    if (connections.remove(connection)) {
+      droppedMessages.add(connection.getDroppedMessages());
+      METRICS.sessionsChanged(-1);
+      LOGGER.info("Client disconnected from {}", connection);
+    }
+  }
+
+  /**
+   * Prints a message received from a client to the console.
+   *
+   * @param message The message to be printed.
+   */
+  private void printMessage(String message) {
+    System.out.println(message);
+    LOGGER.debug("Received message: {}", message);
+  }
+
+  /**
+   * Closes the server channel, the I/O workers and all client connections.
+   */
+  public void close() {
+    running = false;
+    if (consoleInput != null) {
+      consoleInput.cancel();
+    }
+    try {
+      if (acceptSelector != null) {
+        acceptSelector.close();
+      }
+      if (serverChannel != null) {
+        serverChannel.close();
+      }
+      if (workers != null) {
+        for (NioWorker worker : workers) {
+          if (worker != null) {
+            worker.close();
+          }
+        }
+      }
+      LOGGER.info("Server closed.");
+    } catch (IOException e) {
+      LOGGER.error("Error during server socket closure: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Sets the listener that receives the messages sent by clients.
+   * By default received messages are printed to the console.
+   *
+   * @param messageListener The listener to notify for each received message.
+   */
+  public void setMessageListener(MessageListener messageListener) {
+    this.messageListener = messageListener;
+  }
+
+  /**
+   * Returns the IP address of the server.
+   *
+   * @return The IP address of the server.
+   */
+  public String getServerIP() {
+    return serverIP;
+  }
+
+  /**
+   * Returns the port number of the server.
+   *
+   * @return The port number of the server.
+   */
+  public int getServerPort() {
+    return serverPort;
+  }
+
+  /**
+   * Sets the journal that records the messages of all rooms and serves the {@code /history} command.
+   * The journal is not closed by the server.
+   *
+   * @param journal The journal, or null to disable recording.
+   */
+  public void setJournal(ChatJournal journal) {
+    rooms.setJournal(journal);
+  }
+
+  /**
+   * Sets the index that makes the messages of all rooms searchable with the {@code /search} command.
+   *
+   * @param index The index, or null to disable searching.
+   */
+  public void setMessageIndex(MessageIndex index) {
+    rooms.setIndex(index);
+  }
+
+  /**
+   * Sets the TLS context connections are encrypted with. Must be called before {@link #start}.
+   * The handshakes run on the I/O threads without blocking them.
+   *
+   * @param tlsContext The context, or null to use the TLS settings of the configuration.
+   */
+  public void setTlsContext(TlsContext tlsContext) {
+    this.tlsContext = tlsContext;
+  }
+
+  /**
+   * Returns the chat rooms of the server.
+   *
+   * @return The chat room registry.
+   */
+  public ChatRoomRegistry getRooms() {
+    return rooms;
+  }
+
+  /**
+   * Returns the number of currently connected clients.
+   *
+   * @return The number of open client connections.
+   */
+  public int getConnectionCount() {
+    return connections.size();
+  }
+
+  /**
+   * Returns the number of bytes queued for all connected clients but not yet written to their sockets.
+   *
+   * @return The queued bytes.
+   */
+  public long getQueuedBytes() {
+    return connections.stream().mapToLong(NioConnection::getQueuedBytes).sum();
+  }
+
+  /**
+   * Returns the number of messages dropped since the server started because clients did not read them fast enough,
+   * including the messages queued for clients disconnected by the send queue policy.
+   *
+   * @return The number of dropped messages.
+   */
+  public long getDroppedMessages() {
+    return droppedMessages.sum() + connections.stream().mapToLong(NioConnection::getDroppedMessages).sum();
+  }
+
+  public boolean isRunning() {
+    return running && serverChannel != null && serverChannel.isOpen();
+  }
+}
@@ -0,0 +1,524 @@
+package de.sql.chat.server;
+
+import de.sql.chat.config.PerformanceSettings;
+import de.sql.chat.protocol.Frame;
+import de.sql.chat.protocol.FrameCodec;
+import de.sql.chat.protocol.FrameCompression;
+import de.sql.chat.protocol.FrameType;
+import de.sql.chat.protocol.LineCodec;
+import de.sql.chat.protocol.ProtocolNegotiation;
+import de.sql.chat.protocol.WireProtocol;
+import de.sql.chat.localization.LocalizedResourceManager;
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.protocol.SessionResumption;
+import de.sql.chat.room.ResumableMember;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import de.sql.chat.session.OverflowPolicy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A single client connection of the {@link NioChatServer}.
+ * Reading, writing and closing happen on the owning {@link NioWorker} thread, while
+ * {@link #send(ByteBuffer, boolean)} may be called from any thread.
+ * <p>
+ * The connection starts with the line protocol and switches to binary frames as described in
+ * {@link ProtocolNegotiation} once the client announced support for them.
+ * <p>
+ * The bytes queued for a client that reads slower than messages are sent to it are bounded by a high-water mark.
+ * Above the mark, {@link OverflowPolicy#DROP_OLDEST} drops the oldest queued chat messages, but never the protocol
+ * lines and control frames the client needs to negotiate, inflate and resume, and every other policy
+ * disconnects the client. Blocking is not an option here, the sending thread is the selector thread of other
+ * clients.
+ * <p>
+ * The worker checks every connection regularly through {@link #checkHeartbeat(long)}: a binary client that has been
+ * quiet for the heartbeat interval is pinged, and a client that answers pings but stays silent for the read timeout
+ * is closed. Clients that never answered a ping, like line protocol clients, are closed once they stay silent for
+ * the longer idle timeout.
+ * <p>
+ * Reads and writes go through a {@link NioTransport}, which is the channel itself or a TLS session over it.
+ * Large messages and histories are deflated for clients that announced support for it, see {@link FrameCompression}.
+ * <p>
+ * The connection is placed in rooms through its {@link ResumableMember}, which a client that resumes its session
+ * replaces with the member of its previous connection.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+class NioConnection implements ResumableMember.Connection {
+
+  private static final Logger LOGGER = LogManager.getLogger(NioConnection.class);
+  private static final ChatMetrics METRICS = ChatMetrics.getInstance();
+
+  private final NioChatServer server;
+  private final NioWorker worker;
+  private final SocketChannel channel;
+  private final NioTransport transport;
+  private final String remoteAddress;
+  private final LineCodec lineCodec = new LineCodec();
+  private final FrameCodec frameCodec = new FrameCodec();
+  private final FrameCompression compression;
+  // Set by the worker once the client announced that it inflates deflated frames
+  private volatile boolean peerInflates;
+  private WireProtocol readProtocol = WireProtocol.LINE;
+  private WireProtocol writeProtocol = WireProtocol.LINE;
+  private final Queue<Outbound> outbound = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final int maxQueuedBytes;
+  private final OverflowPolicy overflowPolicy;
+  private final AtomicLong queuedBytes = new AtomicLong();
+  private final AtomicLong droppedMessages = new AtomicLong();
+  private final AtomicBoolean overflowScheduled = new AtomicBoolean();
+  // When the flush of the oldest queued buffer was requested, so a drained queue records the longest wait of its
+  // buffers as send-to-write latency. Written by the sender that schedules the flush, read by the worker.
+  private volatile long flushRequestedNanos;
+  // When the last bytes were read from the channel and the last ping was sent, only used by the worker
+  private long lastReadNanos;
+  private long lastPingNanos;
+  private final long heartbeatNanos;
+  private final long readTimeoutNanos;
+  private final long idleTimeoutNanos;
+  // Set once the client sent a ping or a pong, only used by the worker
+  private boolean peerAnswersPings;
+  private SelectionKey key;
+  private volatile Locale locale;
+  private volatile ResumableMember member;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a NioConnection for an accepted, non-blocking channel.
+   *
+   * @param server        the server that accepted the connection
+   * @param worker        the worker that drives the connection
+   * @param channel       the accepted channel
+   * @param transport     the transport over the channel
+   * @param remoteAddress the address of the client, used for logging
+   * @param settings      the send queue limit, heartbeat, timeouts and compression of the connection
+   */
+  NioConnection(NioChatServer server, NioWorker worker, SocketChannel channel, NioTransport transport,
+      String remoteAddress, PerformanceSettings settings) {
+    this.server = server;
+    this.worker = worker;
+    this.channel = channel;
+    this.transport = transport;
+    this.remoteAddress = remoteAddress;
+    this.maxQueuedBytes = settings.getSendQueueBytes();
+    this.overflowPolicy = settings.getSendQueuePolicy();
+    this.heartbeatNanos = settings.getHeartbeatInterval().toNanos();
+    this.readTimeoutNanos = settings.getReadTimeout().toNanos();
+    this.idleTimeoutNanos = settings.getIdleTimeout().toNanos();
+    this.compression = new FrameCompression(settings.getCompressionLevel(), settings.getCompressionThreshold());
+    this.lastReadNanos = System.nanoTime();
+    this.member = new ResumableMember(this);
+  }
+
+  SocketChannel getChannel() {
+    return channel;
+  }
+
+  void setKey(SelectionKey key) {
+    this.key = key;
+  }
+
+  /**
+   * Returns the member the connection is placed in rooms with.
+   *
+   * @return the member of the connection
+   */
+  ResumableMember getMember() {
+    return member;
+  }
+
+  /**
+   * Queues an encoded buffer for writing. The buffer must not be modified afterwards,
+   * shared buffers should be passed as {@link ByteBuffer#duplicate()}s.
+   *
+   * @param buffer    the buffer to write
+   * @param droppable true if the buffer is a chat message that may be dropped for a client that stopped reading
+   */
+  void send(ByteBuffer buffer, boolean droppable) {
+    if (closed) {
+      return;
+    }
+    int size = buffer.remaining();
+    long queued = queuedBytes.addAndGet(size);
+    outbound.add(new Outbound(buffer, droppable));
+    METRICS.queueChanged(1, size);
+    if (queued > maxQueuedBytes && queued > size && overflowScheduled.compareAndSet(false, true)) {
+      // Only the worker removes buffers, so the flush never loses track of the buffers it writes
+      worker.execute(overflowPolicy == OverflowPolicy.DROP_OLDEST ? this::dropOldest : this::disconnectSlowClient);
+    }
+    if (flushScheduled.compareAndSet(false, true)) {
+      flushRequestedNanos = System.nanoTime();
+      worker.execute(this::flush);
+    }
+  }
+
+  /**
+   * Drops the oldest queued chat messages until the queue is below the high-water mark. The head of the queue may
+   * be partially written and is kept, like the protocol lines and control frames.
+   */
+  private void dropOldest() {
+    overflowScheduled.set(false);
+    Iterator<Outbound> iterator = outbound.iterator();
+    if (iterator.hasNext()) {
+      iterator.next();
+    }
+    while (queuedBytes.get() > maxQueuedBytes && iterator.hasNext()) {
+      Outbound queued = iterator.next();
+      if (queued.droppable()) {
+        ByteBuffer buffer = queued.buffer();
+        iterator.remove();
+        queuedBytes.addAndGet(-buffer.remaining());
+        droppedMessages.incrementAndGet();
+        METRICS.queueChanged(-1, -buffer.remaining());
+        METRICS.messagesDropped(1);
+      }
+    }
+  }
+
+  private void disconnectSlowClient() {
+    if (!closed) {
+      LOGGER.warn("Disconnecting client {} that stopped reading, {} bytes queued", remoteAddress, queuedBytes.get());
+      droppedMessages.addAndGet(outbound.size());
+      METRICS.messagesDropped(outbound.size());
+      close();
+    }
+  }
+
+  /**
+   * Returns the number of bytes queued for the client but not yet written to the socket.
+   *
+   * @return the queued bytes
+   */
+  long getQueuedBytes() {
+    return queuedBytes.get();
+  }
+
+  /**
+   * Returns the number of messages queued for the client but not yet completely written to the socket.
+   *
+   * @return the queue depth
+   */
+  int getQueuedMessages() {
+    return outbound.size();
+  }
+
+  /**
+   * Returns the number of messages dropped because the client did not read them fast enough.
+   *
+   * @return the number of dropped messages
+   */
+  long getDroppedMessages() {
+    return droppedMessages.get();
+  }
+
+  /**
+   * Delivers a message fanned out by a chat room in the wire protocol of this connection.
+   * Synchronized with the protocol switch, so no line can be queued after the switch line.
+   *
+   * @param message the message to deliver
+   */
+  @Override
+  public synchronized void deliver(ChatMessage message) {
+    METRICS.messageSent();
+    send(message.encoded(writeProtocol, peerInflates ? compression : null).duplicate(), true);
+  }
+
+  /**
+   * Delivers a sequence of messages, like a history, as deflated batches if the client inflates frames.
+   *
+   * @param messages the messages to deliver, oldest first
+   */
+  @Override
+  public synchronized void deliverAll(List<ChatMessage> messages) {
+    if (writeProtocol != WireProtocol.BINARY || !peerInflates || !compression.isEnabled() || messages.size() < 2) {
+      messages.forEach(this::deliver);
+      return;
+    }
+    List<ByteBuffer> frames = new ArrayList<>(messages.size());
+    for (ChatMessage message : messages) {
+      METRICS.messageSent();
+      frames.add(message.encoded(WireProtocol.BINARY).duplicate());
+    }
+    for (ByteBuffer batch : compression.batch(frames, ChatSenderType.SERVER.getId())) {
+      send(batch, true);
+    }
+  }
+
+  /**
+   * Returns the locale the client announced after switching to binary frames.
+   *
+   * @return the resolved locale of the client, or null if it has not announced one
+   */
+  @Override
+  public Locale getLocale() {
+    return locale;
+  }
+
+  /**
+   * Reads the available bytes and hands every complete message to the server.
+   * A transport that decrypted more than fits into the read buffer is read until it has nothing buffered.
+   */
+  void onReadable() {
+    try {
+      do {
+        ByteBuffer buffer = worker.getReadBuffer();
+        int read = transport.read(buffer);
+        if (read < 0) {
+          close();
+          return;
+        }
+        buffer.flip();
+        if (read > 0) {
+          lastReadNanos = System.nanoTime();
+          METRICS.bytesReceived(read);
+        }
+        while (buffer.hasRemaining() && !closed) {
+          if (readProtocol == WireProtocol.BINARY) {
+            Frame frame = frameCodec.decode(buffer);
+            if (frame == null) {
+              break;
+            }
+            onFrame(frame);
+          } else {
+            String line = lineCodec.decodeLine(buffer);
+            if (line == null) {
+              break;
+            }
+            onLine(line);
+          }
+        }
+        if (read == 0) {
+          break;
+        }
+      } while (!closed && transport.hasBufferedInput());
+      // The read may have produced handshake messages or completed the handshake queued messages waited for
+      if (!closed && transport.wantsFlush()) {
+        flush();
+      }
+    } catch (IOException e) {
+      LOGGER.error("Error reading from client {}: {}", remoteAddress, e.getMessage());
+      close();
+    }
+  }
+
+  private void onLine(String line) {
+    if (ProtocolNegotiation.isHello(line)) {
+      switchToBinaryWrites();
+    } else if (ProtocolNegotiation.isSwitch(line)) {
+      readProtocol = WireProtocol.BINARY;
+      switchToBinaryWrites();
+    } else {
+      onMessage(ChatMessage.parse(line));
+    }
+  }
+
+  private void onFrame(Frame frame) throws IOException {
+    // The payload is a slice of the shared read buffer, so it is decoded before the next read
+    if (FrameCompression.isDeflated(frame)) {
+      frame = compression.inflate(frame);
+    }
+    if (frame.getType() == FrameType.MESSAGE) {
+      onMessage(ChatMessage.fromFrame(frame));
+    } else if (frame.getType() == FrameType.LOCALE) {
+      locale = LocalizedResourceManager.getInstance().resolveLocale(Locale.forLanguageTag(frame.getText()));
+    } else if (frame.getType() == FrameType.PING) {
+      peerAnswersPings = true;
+      sendControl(FrameType.PONG);
+    } else if (frame.getType() == FrameType.PONG) {
+      peerAnswersPings = true;
+    } else if (frame.getType() == FrameType.COMPRESSION) {
+      peerInflates = FrameCompression.announcesDeflate(frame);
+    } else if (frame.getType() == FrameType.RESUME) {
+      member = server.onResume(this, SessionResumption.parseResume(frame));
+    } else if (frame.getType() == FrameType.ACK) {
+      member.acknowledge(SessionResumption.parseAck(frame));
+    } else {
+      LOGGER.debug("Ignoring frame of unknown type from client {}", remoteAddress);
+    }
+  }
+
+  private void onMessage(ChatMessage message) {
+    METRICS.messageReceived();
+    server.onMessage(this, message);
+    METRICS.getReceiveToDisplay().record(System.nanoTime() - lastReadNanos);
+  }
+
+  /**
+   * Closes the connection if a client that answers pings has been silent for the read timeout, or any other client
+   * for the idle timeout, and otherwise pings a client that has been quiet for the heartbeat interval. Called
+   * regularly by the worker.
+   *
+   * @param now the current {@link System#nanoTime()}
+   */
+  void checkHeartbeat(long now) {
+    long quietNanos = now - lastReadNanos;
+    long timeoutNanos = peerAnswersPings ? readTimeoutNanos : idleTimeoutNanos;
+    if (timeoutNanos > 0 && quietNanos >= timeoutNanos) {
+      LOGGER.warn("Closing client {} that has been silent for {} ms", remoteAddress, quietNanos / 1_000_000);
+      close();
+    } else if (heartbeatNanos > 0 && quietNanos >= heartbeatNanos && now - lastPingNanos >= heartbeatNanos) {
+      lastPingNanos = now;
+      sendControl(FrameType.PING);
+    }
+  }
+
+  /**
+   * Queues an acknowledgement of the messages received from the client. Called by the member of the connection.
+   *
+   * @param sequence the sequence number of the last message received
+   */
+  @Override
+  public synchronized void acknowledge(long sequence) {
+    if (writeProtocol == WireProtocol.BINARY) {
+      send(SessionResumption.encodeAck(ChatSenderType.SERVER.getId(), sequence), false);
+    }
+  }
+
+  /**
+   * Closes the connection on its worker, because the client resumed its session on another connection.
+   */
+  @Override
+  public void disconnect() {
+    worker.execute(this::close);
+  }
+
+  /**
+   * Queues a heartbeat frame if the client reads binary frames. Nothing is queued while messages are queued,
+   * because the queued messages already show the client that the server is alive.
+   *
+   * @param type the frame type, {@link FrameType#PING} or {@link FrameType#PONG}
+   */
+  private synchronized void sendControl(FrameType type) {
+    if (writeProtocol == WireProtocol.BINARY && outbound.isEmpty()) {
+      send(FrameCodec.encode(type, ChatSenderType.SERVER.getId(), ""), false);
+    }
+  }
+
+  private synchronized void switchToBinaryWrites() {
+    if (writeProtocol == WireProtocol.LINE) {
+      send(LineCodec.encode(ProtocolNegotiation.SWITCH), false);
+      writeProtocol = WireProtocol.BINARY;
+      send(FrameCodec.encode(FrameType.COMPRESSION, ChatSenderType.SERVER.getId(), FrameCompression.DEFLATE), false);
+      LOGGER.debug("Switched client {} to binary frames", remoteAddress);
+    }
+  }
+
+  /**
+   * Writes the queued buffers until the queue is empty or the socket send buffer is full,
+   * in which case the connection waits for the channel to become writable again.
+   * The queued buffers are handed to the channel in one gathering write, so a burst of messages
+   * costs one system call instead of one per message.
+   */
+  void flush() {
+    if (closed || key == null) {
+      return;
+    }
+    ByteBuffer[] batch = worker.getWriteBatch();
+    try {
+      if (!transport.flushPending()) {
+        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        return;
+      }
+      while (!outbound.isEmpty()) {
+        int count = 0;
+        for (Outbound queued : outbound) {
+          if (count == batch.length) {
+            break;
+          }
+          batch[count++] = queued.buffer();
+        }
+        long written = transport.write(batch, 0, count);
+        queuedBytes.addAndGet(-written);
+        METRICS.bytesSent(written);
+        METRICS.queueChanged(0, -written);
+        for (int i = 0; i < count && !batch[i].hasRemaining(); i++) {
+          outbound.poll();
+          METRICS.queueChanged(-1, 0);
+        }
+        boolean full = batch[count - 1].hasRemaining();
+        Arrays.fill(batch, 0, count, null);
+        if (full) {
+          // Otherwise the transport waits for the peer to continue a handshake, and the next read flushes again
+          if (transport.isWaitingForSocket()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+          }
+          return;
+        }
+      }
+      key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+      if (!flushScheduled.get()) {
+        // Flushed for the transport only, no queued message waited
+        return;
+      }
+      METRICS.getSendToWrite().record(System.nanoTime() - flushRequestedNanos);
+      flushScheduled.set(false);
+
+      // A buffer may have been queued after the queue was drained but before the flag was cleared
+      if (!outbound.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+        flushRequestedNanos = System.nanoTime();
+        worker.execute(this::flush);
+      }
+    } catch (IOException e) {
+      Arrays.fill(batch, null);
+      LOGGER.error("Error writing to client {}: {}", remoteAddress, e.getMessage());
+      close();
+    }
+  }
+
+  /**
+   * Closes the connection and removes it from the server.
+   */
+  void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    METRICS.queueChanged(-outbound.size(), -queuedBytes.get());
+    outbound.clear();
+    queuedBytes.set(0);
+    compression.close();
+    try {
+      if (key != null) {
+        key.cancel();
+      }
+      transport.close();
+    } catch (IOException e) {
+      LOGGER.debug("Error closing client {}: {}", remoteAddress, e.getMessage());
+    }
+    server.onClosed(this);
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public String toString() {
+    return remoteAddress;
+  }
+
+  /**
+   * A queued buffer and whether {@link OverflowPolicy#DROP_OLDEST} may drop it.
+   *
+   * @param buffer    the buffer to write
+   * @param droppable true for chat messages, false for protocol lines and control frames
+   */
+  private record Outbound(ByteBuffer buffer, boolean droppable) {
+  }
+}
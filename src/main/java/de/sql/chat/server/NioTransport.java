@@ -0,0 +1,73 @@
+package de.sql.chat.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The byte stream a {@link NioConnection} reads its messages from and writes them to, either the plain channel or
+ * a TLS session over it. All methods are called on the worker thread of the connection and never block.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+interface NioTransport {
+
+  /**
+   * Reads the available application bytes.
+   *
+   * @param dst the buffer to read into
+   * @return the number of bytes read, possibly zero, or -1 at the end of the stream
+   * @throws IOException if the channel cannot be read
+   */
+  int read(ByteBuffer dst) throws IOException;
+
+  /**
+   * Returns whether bytes the last {@link #read} did not fit into its buffer are ready to be read without waiting
+   * for the channel.
+   *
+   * @return true if {@link #read} should be called again
+   */
+  boolean hasBufferedInput();
+
+  /**
+   * Writes as many application bytes as the channel accepts.
+   *
+   * @param srcs   the buffers to write
+   * @param offset the index of the first buffer
+   * @param length the number of buffers
+   * @return the number of application bytes consumed
+   * @throws IOException if the channel cannot be written
+   */
+  long write(ByteBuffer[] srcs, int offset, int length) throws IOException;
+
+  /**
+   * Writes the bytes the transport produced itself, like handshake messages, that the channel did not accept yet.
+   *
+   * @return true if nothing is pending anymore
+   * @throws IOException if the channel cannot be written
+   */
+  boolean flushPending() throws IOException;
+
+  /**
+   * Returns whether a write that did not consume all application bytes has to wait for the channel to become
+   * writable, rather than for the peer to continue a handshake.
+   *
+   * @return true if the channel send buffer is full
+   */
+  boolean isWaitingForSocket();
+
+  /**
+   * Returns whether the last {@link #read} left bytes to write or completed a handshake that writes waited for.
+   * Clears the completed handshake, so it is reported once.
+   *
+   * @return true if the connection should be flushed
+   */
+  boolean wantsFlush();
+
+  /**
+   * Closes the transport and the channel.
+   *
+   * @throws IOException if the channel cannot be closed
+   */
+  void close() throws IOException;
+}
@@ -0,0 +1,185 @@
+package de.sql.chat.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An I/O thread of the {@link NioChatServer} that owns a selector and drives all connections registered with it.
+ * Other threads interact with the worker only through {@link #execute(Runnable)}, so every selection key and
+ * connection state is touched by the worker thread alone.
+ * <p>
+ * With a heartbeat tick, the selection wakes up at least once per tick and checks the heartbeat of every
+ * connection, so pinging and closing dead connections costs no thread of its own.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+class NioWorker implements Runnable {
+
+  private static final Logger LOGGER = LogManager.getLogger(NioWorker.class);
+  private static final int READ_BUFFER_SIZE = 16 * 1024;
+  private static final int WRITE_BATCH_SIZE = 64;
+
+  private final Selector selector;
+  private final Thread thread;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  // Shared by all connections of this worker, since reads are processed synchronously on the worker thread
+  private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+  private final ByteBuffer[] writeBatch = new ByteBuffer[WRITE_BATCH_SIZE];
+  private final long tickMillis;
+  private long lastTickNanos = System.nanoTime();
+  private volatile boolean running = true;
+
+  /**
+   * Constructs a NioWorker with its own selector.
+   *
+   * @param name       the name of the worker thread
+   * @param tickMillis how often the heartbeats of the connections are checked, 0 to never check them
+   * @throws IOException if the selector cannot be opened
+   */
+  NioWorker(String name, long tickMillis) throws IOException {
+    this.selector = Selector.open();
+    this.thread = new Thread(this, name);
+    this.tickMillis = tickMillis;
+  }
+
+  /**
+   * Starts the worker thread.
+   */
+  void start() {
+    thread.start();
+  }
+
+  /**
+   * Registers a connection with this worker's selector for reading.
+   *
+   * @param connection the connection to register
+   */
+  void register(NioConnection connection) {
+    execute(() -> {
+      try {
+        connection.setKey(connection.getChannel().register(selector, SelectionKey.OP_READ, connection));
+      } catch (IOException e) {
+        LOGGER.error("Error registering connection {}: {}", connection, e.getMessage());
+        connection.close();
+      }
+    });
+  }
+
+  /**
+   * Runs the task on the worker thread during the next selection round.
+   *
+   * @param task the task to run
+   */
+  void execute(Runnable task) {
+    tasks.add(task);
+    if (Thread.currentThread() != thread) {
+      selector.wakeup();
+    }
+  }
+
+  /**
+   * Returns the read buffer shared by the connections of this worker.
+   *
+   * @return the cleared read buffer
+   */
+  ByteBuffer getReadBuffer() {
+    return readBuffer.clear();
+  }
+
+  /**
+   * Returns the array the connections of this worker collect their queued buffers in for one gathering write.
+   * Callers must clear the entries they set once the write is done.
+   *
+   * @return the shared write batch
+   */
+  ByteBuffer[] getWriteBatch() {
+    return writeBatch;
+  }
+
+  /**
+   * Runs the selection loop until the worker is closed.
+   */
+  @Override
+  public void run() {
+    try {
+      while (running) {
+        selector.select(tickMillis);
+        processSelectedKeys();
+        // Tasks queued by this thread while processing keys, such as flushes, do not wake up the selector
+        runTasks();
+        checkHeartbeats();
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      if (running) {
+        LOGGER.error("Error in I/O worker {}: {}", thread.getName(), e.getMessage());
+      }
+    } finally {
+      closeConnections();
+    }
+  }
+
+  private void runTasks() {
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      task.run();
+    }
+  }
+
+  private void checkHeartbeats() {
+    long now = System.nanoTime();
+    if (tickMillis == 0 || now - lastTickNanos < TimeUnit.MILLISECONDS.toNanos(tickMillis)) {
+      return;
+    }
+    lastTickNanos = now;
+    for (SelectionKey key : selector.keys()) {
+      if (key.isValid()) {
+        ((NioConnection) key.attachment()).checkHeartbeat(now);
+      }
+    }
+  }
+
+  private void processSelectedKeys() {
+    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+    while (keys.hasNext()) {
+      SelectionKey key = keys.next();
+      keys.remove();
+
+      NioConnection connection = (NioConnection) key.attachment();
+      if (key.isValid() && key.isReadable()) {
+        connection.onReadable();
+      }
+      if (key.isValid() && key.isWritable()) {
+        connection.flush();
+      }
+    }
+  }
+
+  private void closeConnections() {
+    try {
+      for (SelectionKey key : selector.keys()) {
+        ((NioConnection) key.attachment()).close();
+      }
+      selector.close();
+    } catch (IOException | ClosedSelectorException e) {
+      LOGGER.debug("Error closing I/O worker {}: {}", thread.getName(), e.getMessage());
+    }
+  }
+
+  /**
+   * Stops the worker and closes all of its connections.
+   */
+  void close() {
+    running = false;
+    selector.wakeup();
+  }
+}
@@ -0,0 +1,60 @@
+package de.sql.chat.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * The unencrypted transport, which passes reads and writes straight to the channel.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+final class PlainTransport implements NioTransport {
+
+  private final SocketChannel channel;
+
+  /**
+   * Constructs a PlainTransport.
+   *
+   * @param channel the connected, non-blocking channel
+   */
+  PlainTransport(SocketChannel channel) {
+    this.channel = channel;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    return channel.read(dst);
+  }
+
+  @Override
+  public boolean hasBufferedInput() {
+    return false;
+  }
+
+  @Override
+  public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+    return channel.write(srcs, offset, length);
+  }
+
+  @Override
+  public boolean flushPending() {
+    return true;
+  }
+
+  @Override
+  public boolean isWaitingForSocket() {
+    return true;
+  }
+
+  @Override
+  public boolean wantsFlush() {
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
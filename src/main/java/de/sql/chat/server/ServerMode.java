@@ -0,0 +1,55 @@
+package de.sql.chat.server;
+
+import java.util.Locale;
+
+/**
+ * Enum representing the available ways of running the chat server.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public enum ServerMode {
+  /** A single client served by a blocking {@link ChatServer}. */
+  CLASSIC("classic"),
+  /** Many clients multiplexed over a few selector threads by a {@link NioChatServer}. */
+  NIO("nio"),
+  /** One virtual thread per client connection served by a {@link VirtualThreadChatServer}. */
+  VIRTUAL("virtual");
+
+  private final String modeName;
+
+  /**
+   * Constructs a ServerMode with the specified name.
+   *
+   * @param modeName the name used to select the mode on the command line
+   */
+  ServerMode(String modeName) {
+    this.modeName = modeName;
+  }
+
+  /**
+   * Returns the ServerMode that corresponds to the specified name, ignoring case.
+   *
+   * @param modeName the name of the mode
+   * @return the ServerMode that corresponds to the specified name
+   * @throws IllegalArgumentException if the specified name is invalid
+   */
+  public static ServerMode valueOfModeName(String modeName) {
+    for (ServerMode mode : ServerMode.values()) {
+      if (mode.modeName.equals(modeName.toLowerCase(Locale.ROOT))) {
+        return mode;
+      }
+    }
+    throw new IllegalArgumentException("Invalid server mode: " + modeName);
+  }
+
+  /**
+   * Returns the name of the mode.
+   *
+   * @return the name of the mode
+   */
+  @Override
+  public String toString() {
+    return modeName;
+  }
+}
@@ -0,0 +1,232 @@
+package de.sql.chat.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+
+/**
+ * The TLS transport of the {@link NioChatServer}, which runs an {@link SSLEngine} over the non-blocking channel.
+ * <p>
+ * The handshake advances whenever the channel has bytes for it and never waits for the peer, so a slow or stalled
+ * client does not pin the worker thread. The delegated tasks of the engine, the signature and key agreement of a
+ * full handshake, run inline on the worker: they take a fraction of a millisecond with elliptic curve keys, less
+ * than handing them to another thread and back, and a resumed handshake skips them.
+ * <p>
+ * Writes gather all queued messages into as few records as fit, so a burst of small messages costs one record and
+ * one system call instead of one per message, like on the plain transport.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+final class TlsTransport implements NioTransport {
+
+  private static final ByteBuffer[] NO_DATA = new ByteBuffer[0];
+
+  private final SocketChannel channel;
+  private final SSLEngine engine;
+  // Records read from the channel, in write mode
+  private ByteBuffer netIn;
+  // Records not yet written to the channel, in read mode
+  private ByteBuffer netOut;
+  // Decrypted bytes not yet handed to the connection, in read mode
+  private ByteBuffer appIn;
+  private boolean handshaking = true;
+  // Set when a write had to wait for the peer to continue the handshake
+  private boolean writeDeferred;
+  private boolean inboundDone;
+
+  /**
+   * Constructs a TlsTransport and starts the handshake.
+   *
+   * @param channel the connected, non-blocking channel
+   * @param engine  the engine of the connection
+   * @throws SSLException if the handshake cannot be started
+   */
+  TlsTransport(SocketChannel channel, SSLEngine engine) throws SSLException {
+    this.channel = channel;
+    this.engine = engine;
+    this.netIn = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+    this.netOut = ByteBuffer.allocate(engine.getSession().getPacketBufferSize()).flip();
+    this.appIn = ByteBuffer.allocate(engine.getSession().getApplicationBufferSize()).flip();
+    engine.beginHandshake();
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    while (!appIn.hasRemaining()) {
+      handshake();
+      if (inboundDone) {
+        return -1;
+      }
+      if (engine.getHandshakeStatus() == HandshakeStatus.NEED_WRAP) {
+        // The channel did not take the last handshake message, the next flush continues the handshake
+        return 0;
+      }
+      SSLEngineResult result;
+      netIn.flip();
+      appIn.clear();
+      try {
+        result = engine.unwrap(netIn, appIn);
+      } finally {
+        netIn.compact();
+        appIn.flip();
+      }
+      switch (result.getStatus()) {
+        case BUFFER_UNDERFLOW -> {
+          if (!netIn.hasRemaining()) {
+            netIn = grow(netIn, engine.getSession().getPacketBufferSize());
+          }
+          int read = channel.read(netIn);
+          if (read <= 0) {
+            inboundDone = read < 0;
+            return read;
+          }
+        }
+        case BUFFER_OVERFLOW -> appIn = ByteBuffer.allocate(appIn.capacity() * 2).flip();
+        case CLOSED -> {
+          // Answers the close_notify of the peer
+          inboundDone = true;
+          handshake();
+        }
+        default -> {
+          // A record was decrypted or consumed by the handshake
+        }
+      }
+    }
+    int count = Math.min(appIn.remaining(), dst.remaining());
+    dst.put(appIn.slice(appIn.position(), count));
+    appIn.position(appIn.position() + count);
+    return count;
+  }
+
+  @Override
+  public boolean hasBufferedInput() {
+    return appIn.hasRemaining() || netIn.position() > 0;
+  }
+
+  @Override
+  public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+    handshake();
+    writeDeferred = handshaking;
+    long consumed = 0;
+    while (!handshaking && !netOut.hasRemaining()) {
+      SSLEngineResult result = wrap(srcs, offset, length);
+      if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+        throw new SSLException("Connection closed by the peer");
+      }
+      consumed += result.bytesConsumed();
+      flushNetOut();
+      if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+        break;
+      }
+    }
+    return consumed;
+  }
+
+  @Override
+  public boolean flushPending() throws IOException {
+    handshake();
+    return !netOut.hasRemaining();
+  }
+
+  @Override
+  public boolean isWaitingForSocket() {
+    return netOut.hasRemaining();
+  }
+
+  @Override
+  public boolean wantsFlush() {
+    boolean deferred = writeDeferred && !handshaking;
+    if (deferred) {
+      writeDeferred = false;
+    }
+    return deferred || netOut.hasRemaining();
+  }
+
+  /**
+   * Sends a close_notify to the peer, if the channel accepts it right away, and closes the channel.
+   *
+   * @throws IOException if the channel cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      engine.closeOutbound();
+      if (flushNetOut()) {
+        wrap(NO_DATA, 0, 0);
+        flushNetOut();
+      }
+    } catch (IOException e) {
+      // The peer may already be gone, the channel is closed anyway
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Advances the handshake as far as possible without reading: runs the delegated tasks and writes the handshake
+   * messages of this side.
+   *
+   * @throws IOException if a handshake message cannot be produced or written
+   */
+  private void handshake() throws IOException {
+    while (true) {
+      HandshakeStatus status = engine.getHandshakeStatus();
+      if (status == HandshakeStatus.NEED_TASK) {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+          task.run();
+        }
+      } else if (status == HandshakeStatus.NEED_WRAP && flushNetOut()) {
+        wrap(NO_DATA, 0, 0);
+      } else {
+        flushNetOut();
+        if (status == HandshakeStatus.NOT_HANDSHAKING) {
+          handshaking = false;
+        }
+        return;
+      }
+    }
+  }
+
+  private SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length) throws SSLException {
+    while (true) {
+      SSLEngineResult result;
+      netOut.compact();
+      try {
+        result = engine.wrap(srcs, offset, length, netOut);
+      } finally {
+        netOut.flip();
+      }
+      if (result.getStatus() != SSLEngineResult.Status.BUFFER_OVERFLOW) {
+        return result;
+      }
+      ByteBuffer larger = ByteBuffer.allocate(netOut.capacity() + engine.getSession().getPacketBufferSize());
+      netOut = larger.put(netOut).flip();
+    }
+  }
+
+  /**
+   * Writes the pending records to the channel.
+   *
+   * @return true if all records were written
+   * @throws IOException if the channel cannot be written
+   */
+  private boolean flushNetOut() throws IOException {
+    while (netOut.hasRemaining()) {
+      if (channel.write(netOut) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static ByteBuffer grow(ByteBuffer buffer, int minimumCapacity) {
+    ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, minimumCapacity));
+    return larger.put(buffer.flip());
+  }
+}
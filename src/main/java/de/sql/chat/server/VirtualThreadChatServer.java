@@ -0,0 +1,477 @@
+package de.sql.chat.server;
+
+import de.sql.chat.config.PerformanceSettings;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.exceptions.ErrorCode;
+import de.sql.chat.init.StartupTimeline;
+import de.sql.chat.journal.ChatJournal;
+import de.sql.chat.localization.LocalizationBundle;
+import de.sql.chat.localization.LocalizedResourceManager;
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.protocol.SessionResumption;
+import de.sql.chat.room.ChatRoomRegistry;
+import de.sql.chat.room.ResumableMember;
+import de.sql.chat.search.MessageIndex;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import de.sql.chat.session.ChatSession;
+import de.sql.chat.session.ChatSessionFactory;
+import de.sql.chat.session.EmptyUserInputSource;
+import de.sql.chat.session.MessageListener;
+import de.sql.chat.session.ResumeListener;
+import de.sql.chat.session.UserInputSource;
+import de.sql.chat.session.UserInputSubscriber;
+import de.sql.chat.tls.TlsContext;
+import de.sql.chat.util.ThreadFactories;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The VirtualThreadChatServer class represents a server that gives every accepted client its own
+ * virtual thread running a blocking {@link ChatSession}. Idle chats only cost a parked virtual thread,
+ * so the server scales to many thousands of connections without tuning a thread pool.
+ * Client messages are fanned out to the other members of the client's chat room.
+ * The number of concurrent connections is capped; further clients wait in the accept backlog until a slot frees up.
+ * On JVMs without virtual threads the server falls back to one platform thread per connection.
+ * Clients that reconnect resume their session in their room and receive the messages they missed, see
+ * {@link ChatRoomRegistry#resume}.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class VirtualThreadChatServer {
+
+  private static final Logger LOGGER = LogManager.getLogger(VirtualThreadChatServer.class);
+
+  /** The default maximum number of concurrent client connections. */
+  public static final int DEFAULT_MAX_CONNECTIONS = 10_000;
+
+  private final int maxConnections;
+  private final Semaphore connectionPermits;
+  private final ThreadFactory sessionThreadFactory = ThreadFactories.virtualThreadFactory("chat-session-");
+  private final Set<ChatSession> sessions = ConcurrentHashMap.newKeySet();
+  private final LongAdder droppedMessages = new LongAdder();
+  private final ChatRoomRegistry rooms = new ChatRoomRegistry();
+  private ServerSocket serverSocket;
+  private String serverIP;
+  private int serverPort;
+  private volatile boolean running;
+  private UserInputSubscriber consoleInput;
+  private volatile MessageListener messageListener = this::printMessage;
+  private volatile Duration sendWindow;
+  private TlsContext tlsContext;
+
+  /**
+   * Creates a new VirtualThreadChatServer with the default connection cap.
+   */
+  public VirtualThreadChatServer() {
+    this(DEFAULT_MAX_CONNECTIONS);
+  }
+
+  /**
+   * Creates a new VirtualThreadChatServer with the specified connection cap.
+   *
+   * @param maxConnections The maximum number of concurrent client connections.
+   */
+  public VirtualThreadChatServer(int maxConnections) {
+    this.maxConnections = Math.max(1, maxConnections);
+    this.connectionPermits = new Semaphore(this.maxConnections);
+  }
+
+  /**
+   * Starts the chat server by opening the server socket and the accept loop.
+   * Lines typed on the server console are sent to every connected client.
+   *
+   * @param userInputSource The source of user input for the server console.
+   * @throws ChatAppException If an error occurs during server setup.
+   */
+  public void start(UserInputSource userInputSource) throws ChatAppException {
+    TlsContext tls = tlsContext != null ? tlsContext : TlsContext.current();
+    try {
+      setupServer(tls);
+    } catch (IOException e) {
+      LOGGER.error("Error during server setup: {}", e.getMessage());
+      close();
+      throw new ChatAppException(ErrorCode.SERVER_ERROR, "Error during server setup: " + e.getMessage());
+    }
+
+    new Thread(this::acceptConnections, "chat-acceptor").start();
+
+    consoleInput = new UserInputSubscriber(this::onConsoleInput);
+    userInputSource.subscribe(consoleInput);
+  }
+
+  /**
+   * Sets up the server socket.
+   *
+   * @param tls The TLS context to accept encrypted connections with, or null for plaintext.
+   * @throws IOException If an error occurs while setting up the server socket.
+   */
+  private void setupServer(TlsContext tls) throws IOException {
+    serverSocket = tls != null ? tls.createServerSocket() : new ServerSocket();
+    PerformanceSettings settings = PerformanceSettings.current();
+    settings.bind(serverSocket);
+    rooms.setResumption(settings.getResumeBufferMessages(), settings.getResumeTimeout());
+    running = true;
+    this.serverIP = InetAddress.getLocalHost().getHostAddress();
+    this.serverPort = serverSocket.getLocalPort();
+    System.out.println(LocalizedResourceManager.getInstance().getFormattedMessage(LocalizationBundle.MESSAGES, "server.started", serverIP, serverPort));
+    LOGGER.info("Server started at {}:{} with up to {} connections", serverIP, serverPort, maxConnections);
+    StartupTimeline.getInstance().complete(StartupTimeline.SERVER_STARTED);
+  }
+
+  /**
+   * Accepts client connections until the server is closed and starts a session thread for each of them.
+   */
+  private void acceptConnections() {
+    try {
+      while (running) {
+        connectionPermits.acquire();
+        Socket clientSocket;
+        try {
+          clientSocket = serverSocket.accept();
+        } catch (IOException e) {
+          connectionPermits.release();
+          throw e;
+        }
+        ChatMetrics.getInstance().connectionAccepted();
+        startSession(clientSocket);
+      }
+    } catch (IOException e) {
+      if (running) {
+        LOGGER.error("Error accepting client connections: {}", e.getMessage());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Creates the chat session for an accepted client and runs it on its own session thread.
+   *
+   * @param clientSocket The accepted client socket.
+   */
+  private void startSession(Socket clientSocket) {
+    try {
+      ChatSession session = ChatSessionFactory.createChatSession(ChatSenderType.SERVER, clientSocket, new EmptyUserInputSource());
+      if (sendWindow != null) {
+        session.setSendWindow(sendWindow);
+      }
+      ClientConnection connection = new ClientConnection(session, clientSocket);
+      session.setMessageListener(message -> onMessage(connection, message));
+      session.setResumeListener(connection);
+      sessions.add(session);
+      rooms.join(connection.member, ChatRoomRegistry.DEFAULT_ROOM);
+      sessionThreadFactory.newThread(() -> runSession(session, connection, clientSocket)).start();
+
+      System.out.println(LocalizedResourceManager.getInstance().getMessage(LocalizationBundle.MESSAGES, "server.connected"));
+      LOGGER.info("Client connected from {}:{}", clientSocket.getInetAddress().getHostAddress(), clientSocket.getPort());
+    } catch (ChatAppException e) {
+      LOGGER.error("Error creating session: {}", e.getMessage());
+      closeQuietly(clientSocket);
+      connectionPermits.release();
+    }
+  }
+
+  /**
+   * Runs the receive loop of a session until it ends and releases its connection slot afterwards.
+   *
+   * @param session      The session to run.
+   * @param connection   The room membership of the session.
+   * @param clientSocket The socket of the session.
+   */
+  private void runSession(ChatSession session, ClientConnection connection, Socket clientSocket) {
+    try {
+      session.listen();
+    } finally {
+      if (session.isConnectionLost()) {
+        rooms.detach(connection.member, connection);
+      } else {
+        // The client left with an exit command or the server is closing, so there is nothing to resume
+        rooms.remove(connection.member);
+      }
+      sessions.remove(session);
+      droppedMessages.add(session.getDroppedMessages());
+      closeQuietly(clientSocket);
+      connectionPermits.release();
+      LOGGER.info("Client disconnected from {}:{}", clientSocket.getInetAddress().getHostAddress(), clientSocket.getPort());
+    }
+  }
+
+  /**
+   * Sends a line of the server console to all connected clients.
+   * An exit command on the console closes the server.
+   *
+   * @param userInput The line published by the server console.
+   */
+  private void onConsoleInput(String userInput) {
+    if (!running) {
+      return;
+    }
+    if (ChatSession.isExitCommand(userInput)) {
+      close();
+    } else {
+      broadcast(userInput);
+    }
+  }
+
+  /**
+   * Handles a message received from a client. Room commands are answered by the room registry,
+   * any other message is printed and fanned out to the client's room.
+   *
+   * @param connection The connection of the client.
+   * @param message    The received message.
+   */
+  private void onMessage(ClientConnection connection, String message) {
+    ResumableMember member = connection.member;
+    if (!member.accept(connection)) {
+      LOGGER.debug("Dropping message a client wrote again after reconnecting");
+      return;
+    }
+    if (!rooms.handleMessage(member, message)) {
+      messageListener.onMessage(message);
+    }
+  }
+
+  /**
+   * Sends a message from the server to every client, including clients that are reconnecting.
+   * The message is encoded at most once per wire protocol and the same read-only buffer is written to all sessions.
+   *
+   * @param message The message to send.
+   */
+  public void broadcast(String message) {
+    ChatMessage chatMessage = new ChatMessage(ChatSenderType.SERVER, message);
+    rooms.broadcast(chatMessage);
+    rooms.record(ChatJournal.NO_ROOM, chatMessage);
+    LOGGER.debug("Message sent: {}", message);
+  }
+
+  /**
+   * Prints a message received from a client to the console.
+   *
+   * @param message The message to be printed.
+   */
+  private void printMessage(String message) {
+    System.out.println(message);
+    LOGGER.debug("Received message: {}", message);
+  }
+
+  /**
+   * Closes the server socket and all client sessions.
+   */
+  public void close() {
+    running = false;
+    if (consoleInput != null) {
+      consoleInput.cancel();
+    }
+    try {
+      if (serverSocket != null) {
+        serverSocket.close();
+      }
+      for (ChatSession session : sessions) {
+        session.close();
+      }
+      LOGGER.info("Server closed.");
+    } catch (IOException e) {
+      LOGGER.error("Error during server socket closure: {}", e.getMessage());
+    }
+  }
+
+  private void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      LOGGER.debug("Error closing client socket: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Sets the listener that receives the messages sent by clients.
+   * By default received messages are printed to the console.
+   *
+   * @param messageListener The listener to notify for each received message.
+   */
+  public void setMessageListener(MessageListener messageListener) {
+    this.messageListener = messageListener;
+  }
+
+  /**
+   * Returns the IP address of the server.
+   *
+   * @return The IP address of the server.
+   */
+  public String getServerIP() {
+    return serverIP;
+  }
+
+  /**
+   * Returns the port number of the server.
+   *
+   * @return The port number of the server.
+   */
+  public int getServerPort() {
+    return serverPort;
+  }
+
+  /**
+   * Sets the journal that records the messages of all rooms and serves the {@code /history} command.
+   * The journal is not closed by the server.
+   *
+   * @param journal The journal, or null to disable recording.
+   */
+  public void setJournal(ChatJournal journal) {
+    rooms.setJournal(journal);
+  }
+
+  /**
+   * Sets the index that makes the messages of all rooms searchable with the {@code /search} command.
+   *
+   * @param index The index, or null to disable searching.
+   */
+  public void setMessageIndex(MessageIndex index) {
+    rooms.setIndex(index);
+  }
+
+  /**
+   * Sets the TLS context connections are encrypted with. Must be called before {@link #start}.
+   *
+   * @param tlsContext The context, or null to use the TLS settings of the configuration.
+   */
+  public void setTlsContext(TlsContext tlsContext) {
+    this.tlsContext = tlsContext;
+  }
+
+  /**
+   * Sets how long outgoing messages of the client sessions may wait to be written together with later messages.
+   * Applies to sessions accepted afterwards.
+   *
+   * @param sendWindow The coalescing window, zero to write every message as soon as possible, or null to use
+   *                   the send window of the performance settings.
+   */
+  public void setSendWindow(Duration sendWindow) {
+    this.sendWindow = sendWindow;
+  }
+
+  /**
+   * Returns the chat rooms of the server.
+   *
+   * @return The chat room registry.
+   */
+  public ChatRoomRegistry getRooms() {
+    return rooms;
+  }
+
+  /**
+   * Returns the number of currently connected clients.
+   *
+   * @return The number of running client sessions.
+   */
+  public int getConnectionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * Returns the maximum number of concurrent client connections.
+   *
+   * @return The connection cap of the server.
+   */
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  /**
+   * Returns the number of bytes queued for all connected clients but not yet written to their sockets.
+   *
+   * @return The queued bytes.
+   */
+  public long getQueuedBytes() {
+    return sessions.stream().mapToLong(ChatSession::getQueuedBytes).sum();
+  }
+
+  /**
+   * Returns the number of messages dropped since the server started because clients did not read them fast enough,
+   * including the messages queued for clients disconnected by the send queue policy.
+   *
+   * @return The number of dropped messages.
+   */
+  public long getDroppedMessages() {
+    return droppedMessages.sum() + sessions.stream().mapToLong(ChatSession::getDroppedMessages).sum();
+  }
+
+  /**
+   * The connection of a client session, placed in rooms through its {@link ResumableMember}.
+   * The resumption frames of the client are read on the session thread, like its messages.
+   */
+  private final class ClientConnection implements ResumableMember.Connection, ResumeListener {
+
+    private final ChatSession session;
+    private final Socket socket;
+    // Only changed by the session thread
+    private volatile ResumableMember member;
+
+    private ClientConnection(ChatSession session, Socket socket) {
+      this.session = session;
+      this.socket = socket;
+      this.member = new ResumableMember(this);
+    }
+
+    @Override
+    public void deliver(ChatMessage message) {
+      session.deliver(message);
+    }
+
+    @Override
+    public void deliverAll(List<ChatMessage> messages) {
+      session.deliverAll(messages);
+    }
+
+    @Override
+    public Locale getLocale() {
+      return session.getPeerLocale();
+    }
+
+    @Override
+    public void acknowledge(long sequence) {
+      session.acknowledge(sequence);
+    }
+
+    /**
+     * Closes the socket only, which ends the session thread without waiting for queued messages.
+     */
+    @Override
+    public void disconnect() {
+      closeQuietly(socket);
+    }
+
+    @Override
+    public void onResume(SessionResumption resumption) {
+      ResumableMember previous = member;
+      member = rooms.resume(previous, this, resumption);
+      if (member != previous) {
+        ChatMetrics.getInstance().sessionResumed();
+        LOGGER.info("Client {}:{} resumed its session", socket.getInetAddress().getHostAddress(), socket.getPort());
+      }
+    }
+
+    @Override
+    public void onAcknowledge(long sequence) {
+      member.acknowledge(sequence);
+    }
+  }
+
+  public boolean isRunning() {
+    return running && serverSocket != null && !serverSocket.isClosed();
+  }
+}
@@ -0,0 +1,174 @@
+package de.sql.chat.session;
+
+import de.sql.chat.protocol.Frame;
+import de.sql.chat.protocol.FrameCodec;
+import de.sql.chat.protocol.FrameCompression;
+import de.sql.chat.protocol.FrameType;
+import de.sql.chat.protocol.LineCodec;
+import de.sql.chat.protocol.WireProtocol;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable chat message made of a sender and a text, independent of the wire format it arrived in.
+ * The encoded form for each {@link WireProtocol} is built at most once and shared as a read-only buffer,
+ * so a message fanned out to many connections is never encoded per recipient. The same holds for the deflated frame
+ * of a large message, which is compressed by the first connection that needs it.
+ * <p>
+ * Binary frames carry texts of several lines as they are. The line protocol sends such a text as one
+ * {@code Sender: text} line per line of the text instead, so no part of it can be read as a line of its own, such as
+ * an {@code EXIT} command or a protocol negotiation line. Texts without a known sender cannot be attributed, so their
+ * lines are joined with spaces.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ChatMessage {
+
+  /** The sender id used for messages whose sender is not a known {@link ChatSenderType}. */
+  public static final int UNKNOWN_SENDER_ID = -1;
+
+  private static final Pattern LINE_TERMINATOR = Pattern.compile("\\r\\n|\\r|\\n");
+
+  private final ChatSenderType sender;
+  private final String text;
+  private volatile String line;
+  private volatile ByteBuffer encodedLine;
+  private volatile ByteBuffer encodedFrame;
+  private volatile ByteBuffer compressedFrame;
+
+  /**
+   * Constructs a ChatMessage.
+   *
+   * @param sender the type of chat sender, or null if the sender is unknown
+   * @param text   the message text
+   */
+  public ChatMessage(ChatSenderType sender, String text) {
+    this.sender = sender;
+    this.text = text;
+  }
+
+  /**
+   * Parses a received {@code Sender: text} line. Lines without a known sender prefix are kept as text
+   * without sender, so they are passed on unchanged.
+   *
+   * @param line the received line
+   * @return the parsed message
+   */
+  public static ChatMessage parse(String line) {
+    int separator = line.indexOf(": ");
+    ChatSenderType sender = separator < 0 ? null : ChatSenderType.fromDisplayName(line.substring(0, separator));
+    ChatMessage message = sender == null ? new ChatMessage(null, line) : new ChatMessage(sender, line.substring(separator + 2));
+    message.line = line;
+    return message;
+  }
+
+  /**
+   * Creates a message from a received binary message frame.
+   *
+   * @param frame the received frame
+   * @return the message carried by the frame
+   */
+  public static ChatMessage fromFrame(Frame frame) {
+    return new ChatMessage(ChatSenderType.fromId(frame.getSenderId()), frame.getText());
+  }
+
+  /**
+   * Returns the type of chat sender.
+   *
+   * @return the sender, or null if the sender is unknown
+   */
+  public ChatSenderType getSender() {
+    return sender;
+  }
+
+  /**
+   * Returns the message text without sender prefix.
+   *
+   * @return the message text
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * Returns the message in the {@code Sender: text} line format.
+   *
+   * @return the chat line
+   */
+  public String toLine() {
+    String result = line;
+    if (result == null) {
+      result = sender == null ? text : ChatSession.formatMessage(sender, text);
+      line = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the message encoded for the given wire protocol. The buffer is shared by all callers,
+   * so it must be written as a {@link ByteBuffer#duplicate()}.
+   *
+   * @param protocol the wire protocol of the receiving connection
+   * @return the read-only encoded message
+   */
+  public ByteBuffer encoded(WireProtocol protocol) {
+    if (protocol == WireProtocol.BINARY) {
+      ByteBuffer result = encodedFrame;
+      if (result == null) {
+        result = FrameCodec.encode(FrameType.MESSAGE, sender == null ? UNKNOWN_SENDER_ID : sender.getId(), text);
+        encodedFrame = result;
+      }
+      return result;
+    }
+    ByteBuffer result = encodedLine;
+    if (result == null) {
+      result = encodeLines();
+      encodedLine = result;
+    }
+    return result;
+  }
+
+  private ByteBuffer encodeLines() {
+    String[] parts = LINE_TERMINATOR.split(text, -1);
+    if (parts.length == 1) {
+      return LineCodec.encode(toLine());
+    }
+    if (sender == null) {
+      return LineCodec.encode(String.join(" ", parts));
+    }
+    List<String> lines = new ArrayList<>(parts.length);
+    for (String part : parts) {
+      lines.add(ChatSession.formatMessage(sender, part));
+    }
+    return LineCodec.encode(lines);
+  }
+
+  /**
+   * Returns the message encoded for the given wire protocol, with binary frames deflated by the compression of the
+   * receiving connection if the message is large enough. The buffer is shared by all callers, so it must be
+   * written as a {@link ByteBuffer#duplicate()}.
+   *
+   * @param protocol    the wire protocol of the receiving connection
+   * @param compression the compression of the connection, or null if the peer does not inflate frames
+   * @return the read-only encoded message
+   */
+  public ByteBuffer encoded(WireProtocol protocol, FrameCompression compression) {
+    if (protocol != WireProtocol.BINARY || compression == null || !compression.isEnabled()) {
+      return encoded(protocol);
+    }
+    ByteBuffer result = compressedFrame;
+    if (result == null) {
+      result = compression.compress(encoded(WireProtocol.BINARY));
+      compressedFrame = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toLine();
+  }
+}
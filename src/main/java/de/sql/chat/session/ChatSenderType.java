@@ -7,20 +7,62 @@ package de.sql.chat.session;
  * @author Abdallah Emad
  */
 public enum ChatSenderType {
-  CLIENT("Client"),
-  SERVER("Server");
+  CLIENT(0, "Client"),
+  SERVER(1, "Server");
 
+  private final int id;
   private final String displayName;
 
   /**
-   * Constructs a ChatSenderType with the specified display name.
+   * Constructs a ChatSenderType with the specified id and display name.
    *
+   * @param id          the sender id used in binary frames
    * @param displayName the display name of the sender type
    */
-  ChatSenderType(String displayName) {
+  ChatSenderType(int id, String displayName) {
+    this.id = id;
     this.displayName = displayName;
   }
 
+  /**
+   * Returns the sender id used in binary frames.
+   *
+   * @return the sender id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Returns the ChatSenderType with the specified sender id.
+   *
+   * @param id the sender id
+   * @return the sender type, or null if the id is unknown
+   */
+  public static ChatSenderType fromId(int id) {
+    for (ChatSenderType type : values()) {
+      if (type.id == id) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the ChatSenderType with the specified display name.
+   *
+   * @param displayName the display name
+   * @return the sender type, or null if the display name is unknown
+   */
+  public static ChatSenderType fromDisplayName(String displayName) {
+    for (ChatSenderType type : values()) {
+      if (type.displayName.equals(displayName)) {
+        return type;
+      }
+    }
+    return null;
+  }
+
   /**
    * Returns the display name of the sender type.
    *
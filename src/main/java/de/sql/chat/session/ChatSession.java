@@ -1,37 +1,104 @@
 package de.sql.chat.session;
 
-import static java.util.concurrent.CompletableFuture.delayedExecutor;
-import static java.util.concurrent.CompletableFuture.runAsync;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
-
+import de.sql.chat.config.PerformanceSettings;
 import de.sql.chat.exceptions.ChatAppException;
 import de.sql.chat.exceptions.ErrorCode;
+import de.sql.chat.journal.ChatJournal;
+import de.sql.chat.localization.LocalizationBundle;
+import de.sql.chat.localization.LocalizedResourceManager;
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.protocol.Frame;
+import de.sql.chat.protocol.FrameCodec;
+import de.sql.chat.protocol.FrameCompression;
+import de.sql.chat.protocol.FrameType;
+import de.sql.chat.protocol.LineCodec;
+import de.sql.chat.protocol.ProtocolNegotiation;
+import de.sql.chat.protocol.SessionResumption;
+import de.sql.chat.protocol.WireProtocol;
+import de.sql.chat.search.MessageIndex;
+import de.sql.chat.search.SearchQuery;
+import de.sql.chat.search.SearchResult;
 
 import java.io.*;
+import java.net.ProtocolException;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 /**
  * Represents a chat session between a client and a server.
  * Implements the AutoCloseable interface to allow for automatic resource management.
+ * <p>
+ * Every session starts with the {@code Sender: text} line protocol. Sessions that prefer binary frames negotiate
+ * them as described in {@link ProtocolNegotiation}: the client announces support and each direction switches to
+ * binary frames once both peers agreed, while peers that only know the line protocol keep exchanging lines.
+ * <p>
+ * The socket read wakes up after every heartbeat interval without data. A binary session then pings its peer, and
+ * once the peer has shown that it answers pings, a peer that stays silent for the read timeout is considered dead
+ * and the session is closed, so half-open connections do not hold the session and its threads forever. Peers that
+ * never answered a ping, like line protocol clients, are closed once they stay silent for the longer idle timeout.
+ * <p>
+ * Once the peer announced that it inflates frames, messages from the compression threshold on are sent deflated
+ * and {@link #deliverAll} sends a history as deflated batches, see {@link FrameCompression}.
+ * <p>
+ * A client session with a {@link ResumeState} asks the server to resume the session right after switching to
+ * binary frames and writes the messages the server has not acknowledged yet, as described in
+ * {@link SessionResumption}. Until then, new messages only wait in the state. Server sessions hand resumption
+ * requests to their {@link ResumeListener}.
  * 
  * @since 8-11-2023
  * @author Abdallah Emad
  */
 public class ChatSession implements AutoCloseable {
     private static final Logger LOGGER = LogManager.getLogger(ChatSession.class);
+    private static final ChatMetrics METRICS = ChatMetrics.getInstance();
     private final Socket socket;
     private final ChatSenderType sender;
-    private final PrintWriter out;
-    private final BufferedReader in;
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final String SEARCH_COMMAND = "/search";
+    private final SendQueue sendQueue;
+    private final Object writeLock = new Object();
+    private final InputStream in;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE).flip();
+    private final LineCodec lineCodec = new LineCodec();
+    private final FrameCodec frameCodec = new FrameCodec();
+    private final FrameCompression compression;
+    // Set once the peer announced that it inflates deflated frames
+    private volatile boolean peerInflates;
+    private final WireProtocol preferredProtocol;
+    private volatile WireProtocol writeProtocol = WireProtocol.LINE;
+    private WireProtocol readProtocol = WireProtocol.LINE;
     private final UserInputSource userInputSource;
     private volatile boolean exitRequested = false;
-    private List<String> userMessages = new ArrayList<>();
+    private volatile MessageListener messageListener = this::printMessage;
+    private volatile MessageHistory history;
+    private volatile ChatJournal journal;
+    private volatile MessageIndex messageIndex;
+    private volatile Locale peerLocale;
+    // When the last bytes were read from the socket, only used by the receive thread
+    private long lastReadNanos;
+    private volatile long heartbeatNanos;
+    private volatile long readTimeoutNanos;
+    private volatile long idleTimeoutNanos;
+    // Set once the peer sent a ping or a pong, only used by the receive thread
+    private boolean peerAnswersPings;
+    private volatile ResumeState resumeState;
+    private volatile ResumeListener resumeListener;
+    // Set once the resumption request was written, guarded by the write lock
+    private boolean resumeRequested;
+    // Set once the server acknowledged the resumption request, only used by the receive thread
+    private boolean resumeAcknowledged;
+    private volatile boolean connectionLost;
 
     /**
-     * Constructs a ChatSession object.
+     * Constructs a ChatSession object that prefers binary frames and falls back to lines.
      *
      * @param sender           the type of chat sender (client or server)
      * @param socket           the socket associated with the chat session
@@ -39,13 +106,42 @@ public class ChatSession implements AutoCloseable {
      * @throws ChatAppException if there is an error creating the session
      */
     public ChatSession(ChatSenderType sender, Socket socket, UserInputSource userInputSource) throws ChatAppException {
+        this(sender, socket, userInputSource, WireProtocol.BINARY);
+    }
+
+    /**
+     * Constructs a ChatSession object.
+     *
+     * @param sender            the type of chat sender (client or server)
+     * @param socket            the socket associated with the chat session
+     * @param userInputSource   the source of user input
+     * @param preferredProtocol the wire protocol to use if the peer supports it
+     * @throws ChatAppException if there is an error creating the session
+     */
+    public ChatSession(ChatSenderType sender, Socket socket, UserInputSource userInputSource, WireProtocol preferredProtocol) throws ChatAppException {
         this.socket = socket;
         this.sender = sender;
         this.userInputSource = userInputSource;
+        this.preferredProtocol = preferredProtocol;
+
+        PerformanceSettings settings = PerformanceSettings.current();
+        this.history = new MessageHistory(settings.getHistoryCapacity(), false);
+        this.compression = new FrameCompression(settings.getCompressionLevel(), settings.getCompressionThreshold());
+        this.lastReadNanos = System.nanoTime();
 
         try {
-            this.out = new PrintWriter(socket.getOutputStream(), true);
-            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            // Chat lines are small and latency sensitive, so by default Nagle does not hold them back
+            settings.configure(socket);
+            setHeartbeat(settings.getHeartbeatInterval(), settings.getReadTimeout(), settings.getIdleTimeout());
+            this.sendQueue = new SendQueue(Channels.newChannel(socket.getOutputStream()), this::disconnectSlowPeer);
+            this.sendQueue.configure(settings.getSendWindow().toNanos(), settings.getSendBatchBytes());
+            this.sendQueue.configureOverflow(settings.getSendQueueBytes(), settings.getSendQueuePolicy());
+            this.in = socket.getInputStream();
+
+            // The client starts the negotiation, servers answer once the hello arrives
+            if (sender == ChatSenderType.CLIENT && preferredProtocol == WireProtocol.BINARY) {
+                write(LineCodec.encode(ProtocolNegotiation.HELLO));
+            }
         } catch (IOException e) {
             LOGGER.error("Error creating session: {}", e.getMessage());
             throw new ChatAppException(
@@ -55,68 +151,370 @@ public class ChatSession implements AutoCloseable {
 
     /**
      * Starts the chat session.
+     * The calling thread blocks on the socket and hands every received line to the
+     * {@link MessageListener} as soon as it arrives, until an exit is requested or the peer disconnects.
+     * Every line published by the user input source is sent as soon as it is read.
      *
      * @throws ChatAppException if there is an error during the chat session
      */
     public void start() throws ChatAppException {
-        Thread userInputThread = new Thread(this::readUserInput);
-        userInputThread.start();
+        UserInputSubscriber userInput = new UserInputSubscriber(this::onUserInput);
+        userInputSource.subscribe(userInput);
 
         try {
-            while (!exitRequested) {
-                printReceivedMessages();
+            receiveMessages();
+        } finally {
+            userInput.cancel();
+        }
+    }
+
+    /**
+     * Runs only the receive side of the chat session on the calling thread, without a user input thread.
+     * Used by servers that feed outgoing messages to many sessions themselves through {@link #sendMessage(String)}.
+     * Returns once an exit command is received, an exit is requested locally or the peer disconnects.
+     */
+    public void listen() {
+        receiveMessages();
+    }
 
-                // Sleep for a short duration to avoid busy-waiting
-                sleepForShortDuration(100);
+    /**
+     * Sends a line of user input, unless the session is already exiting.
+     *
+     * @param userInput the line published by the user input source
+     */
+    private void onUserInput(String userInput) {
+        if (!exitRequested) {
+            sendMessage(userInput);
+        }
+    }
+
+    /**
+     * Receives messages from the input stream.
+     * Blocks on the input stream until an exit command is received, an exit is requested locally or the peer
+     * closes the connection. Every non-empty message that is not an exit command is passed to the message listener.
+     * If an IOException occurs while the session is still running, the exception is logged.
+     */
+    private void receiveMessages() {
+        METRICS.sessionsChanged(1);
+        try {
+            while (!exitRequested) {
+                if (readProtocol == WireProtocol.BINARY) {
+                    Frame frame = readFrame();
+                    if (frame == null) {
+                        break;
+                    }
+                    onFrame(frame);
+                } else {
+                    String line = readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    onLine(line);
+                }
+            }
+        } catch (IOException e) {
+            if (!exitRequested) {
+                LOGGER.error("Error reading received messages: {}", e.getMessage());
             }
         } finally {
-            userInputThread.interrupt();
+            if (!exitRequested) {
+                connectionLost = true;
+            }
+            exitRequested = true;
+            METRICS.sessionsChanged(-1);
+            // Only this thread inflates, so the inflater is not released while in use
+            compression.close();
+        }
+    }
+
+    /**
+     * Reads the next line, blocking until it is complete.
+     *
+     * @return the line, or null if the peer closed the connection
+     * @throws IOException if an I/O error occurs
+     */
+    private String readLine() throws IOException {
+        String line;
+        while ((line = lineCodec.decodeLine(readBuffer)) == null) {
+            if (!fillReadBuffer()) {
+                return null;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Reads the next binary frame, blocking until it is complete.
+     *
+     * @return the frame, or null if the peer closed the connection
+     * @throws IOException if an I/O error occurs
+     */
+    private Frame readFrame() throws IOException {
+        Frame frame;
+        while ((frame = frameCodec.decode(readBuffer)) == null) {
+            if (!fillReadBuffer()) {
+                return null;
+            }
         }
+        return frame;
     }
 
     /**
-     * Reads user input and sends messages based on the input.
+     * Reads the next chunk of bytes from the socket into the read buffer.
+     * If no bytes arrive within the socket timeout, nothing is read and the heartbeat is checked instead.
+     *
+     * @return false if the peer closed the connection
+     * @throws IOException if an I/O error occurs
      */
-    private void readUserInput() {
+    private boolean fillReadBuffer() throws IOException {
+        readBuffer.compact();
+        int read;
         try {
-            while (!exitRequested) {
-                String userInput = userInputSource.getUserInput();
+            read = in.read(readBuffer.array(), readBuffer.arrayOffset() + readBuffer.position(), readBuffer.remaining());
+        } catch (SocketTimeoutException e) {
+            read = 0;
+            onReadTimeout();
+        }
+        if (read > 0) {
+            readBuffer.position(readBuffer.position() + read);
+            lastReadNanos = System.nanoTime();
+            METRICS.bytesReceived(read);
+        }
+        readBuffer.flip();
+        return read >= 0;
+    }
+
+    /**
+     * Called when nothing was read for a socket timeout. Closes the socket if a peer that answers pings has been
+     * silent for the read timeout, or any other peer for the idle timeout, and otherwise pings a binary peer that has
+     * been quiet for the heartbeat interval.
+     */
+    private void onReadTimeout() {
+        long quietNanos = System.nanoTime() - lastReadNanos;
+        long timeoutNanos = peerAnswersPings ? readTimeoutNanos : idleTimeoutNanos;
+        if (timeoutNanos > 0 && quietNanos >= timeoutNanos) {
+            LOGGER.warn("Closing session, the peer has been silent for {} ms", quietNanos / 1_000_000);
+            disconnectSlowPeer();
+        } else if (heartbeatNanos > 0 && quietNanos >= heartbeatNanos) {
+            writeControl(FrameType.PING);
+        }
+    }
+
+    /**
+     * Writes a heartbeat frame if the peer reads binary frames. Nothing is written while messages are queued,
+     * because the queued messages already show the peer that this side is alive.
+     *
+     * @param type the frame type, {@link FrameType#PING} or {@link FrameType#PONG}
+     */
+    private void writeControl(FrameType type) {
+        synchronized (writeLock) {
+            if (writeProtocol == WireProtocol.BINARY && sendQueue.getPendingBytes() == 0) {
+                try {
+                    write(FrameCodec.encode(type, sender.getId(), ""));
+                } catch (IOException e) {
+                    LOGGER.debug("Error sending heartbeat: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles a line received while the peer writes the line protocol.
+     *
+     * @param line the received line
+     */
+    private void onLine(String line) {
+        if (ProtocolNegotiation.isHello(line)) {
+            switchToBinaryWrites();
+        } else if (ProtocolNegotiation.isSwitch(line)) {
+            readProtocol = WireProtocol.BINARY;
+            switchToBinaryWrites();
+            LOGGER.debug("Peer switched to binary frames");
+        } else {
+            onMessage(line);
+        }
+    }
+
+    /**
+     * Handles a frame received while the peer writes binary frames.
+     *
+     * @param frame the received frame
+     * @throws IOException if a deflated frame or a batch is invalid
+     */
+    private void onFrame(Frame frame) throws IOException {
+        if (FrameCompression.isDeflated(frame)) {
+            frame = compression.inflate(frame);
+        }
+        if (frame.getType() == FrameType.MESSAGE) {
+            countReceived();
+            onMessage(ChatMessage.fromFrame(frame).toLine());
+        } else if (frame.getType() == FrameType.LOCALE) {
+            peerLocale = LocalizedResourceManager.getInstance().resolveLocale(Locale.forLanguageTag(frame.getText()));
+            LOGGER.debug("Peer locale set to: {}", peerLocale);
+        } else if (frame.getType() == FrameType.PING) {
+            peerAnswersPings = true;
+            writeControl(FrameType.PONG);
+        } else if (frame.getType() == FrameType.PONG) {
+            peerAnswersPings = true;
+        } else if (frame.getType() == FrameType.COMPRESSION) {
+            peerInflates = FrameCompression.announcesDeflate(frame);
+        } else if (frame.getType() == FrameType.BATCH) {
+            onBatch(frame);
+        } else if (frame.getType() == FrameType.RESUME) {
+            ResumeListener listener = resumeListener;
+            if (listener != null) {
+                listener.onResume(SessionResumption.parseResume(frame));
+            }
+        } else if (frame.getType() == FrameType.ACK) {
+            onAck(SessionResumption.parseAck(frame));
+        } else {
+            LOGGER.debug("Ignoring frame of unknown type");
+        }
+    }
+
+    /**
+     * Handles an acknowledgement of the peer. The first acknowledgement a resuming client receives answers its
+     * resumption request, and every message after it is counted.
+     *
+     * @param sequence the sequence number of the last message the peer received
+     */
+    private void onAck(long sequence) {
+        ResumeState state = resumeState;
+        if (state != null) {
+            resumeAcknowledged = true;
+            state.acknowledge(sequence);
+        } else {
+            ResumeListener listener = resumeListener;
+            if (listener != null) {
+                listener.onAcknowledge(sequence);
+            }
+        }
+    }
+
+    /**
+     * Counts a message received by a client whose session was resumed, and acknowledges every
+     * {@link SessionResumption#ACK_INTERVAL} messages.
+     */
+    private void countReceived() {
+        ResumeState state = resumeState;
+        if (state != null && resumeAcknowledged) {
+            long received = state.messageReceived();
+            if (received % SessionResumption.ACK_INTERVAL == 0) {
+                acknowledge(received);
+            }
+        }
+    }
 
-                if (!userInput.isEmpty()) {
-                    sendMessage(userInput);
+    /**
+     * Writes an acknowledgement of the messages received from the peer, if the peer reads binary frames.
+     *
+     * @param sequence the sequence number of the last message received
+     */
+    public void acknowledge(long sequence) {
+        synchronized (writeLock) {
+            if (writeProtocol == WireProtocol.BINARY) {
+                try {
+                    write(SessionResumption.encodeAck(sender.getId(), sequence));
+                } catch (IOException e) {
+                    LOGGER.debug("Error sending acknowledgement: {}", e.getMessage());
                 }
+            }
+        }
+    }
+
+    /**
+     * Handles the frames of an inflated batch in order. The frames are slices of the inflated payload, so they must
+     * not be deflated or batches themselves.
+     *
+     * @param batch the inflated batch frame
+     * @throws IOException if the batch does not hold complete, plain frames
+     */
+    private void onBatch(Frame batch) throws IOException {
+        FrameCodec batchCodec = new FrameCodec();
+        ByteBuffer frames = batch.getPayload();
+        while (frames.hasRemaining()) {
+            Frame frame = batchCodec.decode(frames);
+            if (frame == null || FrameCompression.isDeflated(frame) || frame.getType() == FrameType.BATCH) {
+                throw new ProtocolException("Invalid frame in batch");
+            }
+            onFrame(frame);
+        }
+    }
 
-                // Sleep for a short duration to avoid busy-waiting
-                sleepForShortDuration(100);
+    /**
+     * Handles a received chat message.
+     *
+     * @param message the received message in the {@code Sender: text} format
+     */
+    private void onMessage(String message) {
+        if (!message.isEmpty()) {
+            if (isExitCommand(message)) {
+                exitRequested = true;
+            } else {
+                METRICS.messageReceived();
+                record(ChatMessage.parse(message));
+                messageListener.onMessage(message);
+                METRICS.getReceiveToDisplay().record(System.nanoTime() - lastReadNanos);
             }
-        } catch (IOException e) {
-            LOGGER.error("Error reading user input: {}", e.getMessage());
         }
     }
 
     /**
-     * Prints the received messages from the input stream.
-     * Continuously reads messages from the input stream until an exit command is received or the input stream is closed.
-     * If a non-empty message is received and it is not an exit command, the message is printed.
-     * If an IOException occurs while reading from the input stream, the exception is printed.
+     * Switches the outgoing direction to binary frames if this session prefers them and has not switched yet.
+     * The switch line is written under the write lock, so no line can follow it. Clients announce their locale
+     * in the first frame after the switch line.
      */
-    private void printReceivedMessages() {
-        try {
-            while (!exitRequested && in.ready()) {
-                String message = in.readLine();
-                if (!message.isEmpty()) {
-                    if (isExitCommand(message)) {
-                        exitRequested = true;
-                    } else {
-                        printMessage(message);
+    private void switchToBinaryWrites() {
+        if (preferredProtocol != WireProtocol.BINARY) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (writeProtocol == WireProtocol.LINE) {
+                try {
+                    write(LineCodec.encode(ProtocolNegotiation.SWITCH));
+                    writeProtocol = WireProtocol.BINARY;
+                    if (sender == ChatSenderType.CLIENT) {
+                        Locale locale = LocalizedResourceManager.getInstance().getCurrentLocale();
+                        write(FrameCodec.encode(FrameType.LOCALE, sender.getId(), locale.toLanguageTag()));
+                    }
+                    write(FrameCodec.encode(FrameType.COMPRESSION, sender.getId(), FrameCompression.DEFLATE));
+                    if (resumeState != null) {
+                        requestResume();
                     }
+                } catch (IOException e) {
+                    LOGGER.error("Error switching to binary frames: {}", e.getMessage());
                 }
             }
-        } catch (IOException e) {
-            LOGGER.error("Error reading received messages: {}", e.getMessage());
         }
     }
 
+    /**
+     * Asks the server to resume the session and writes the messages it has not acknowledged yet, starting with the
+     * sequence number sent in the request. Called with the write lock held, so no new message comes in between.
+     *
+     * @throws IOException if the request is written right away and an I/O error occurs
+     */
+    private void requestResume() throws IOException {
+        ResumeState state = resumeState;
+        long firstSequence = state.getFirstUnacknowledged();
+        write(SessionResumption.encodeResume(sender.getId(), state.getClientId(), state.getReceived(), firstSequence));
+        resumeRequested = true;
+        List<ChatMessage> unacknowledged = state.getUnacknowledged();
+        for (ChatMessage message : unacknowledged) {
+            deliver(message);
+        }
+        LOGGER.debug("Requested to resume the session, {} messages unacknowledged", unacknowledged.size());
+    }
+
+    /**
+     * Returns the language the peer announced after switching to binary frames.
+     *
+     * @return the peer locale resolved to a supported locale, or null if the peer has not announced one
+     */
+    public Locale getPeerLocale() {
+        return peerLocale;
+    }
+
     /**
      * Sends a message to the chat session.
      *
@@ -124,15 +522,198 @@ public class ChatSession implements AutoCloseable {
      */
     public void sendMessage(String message) {
         if (isExitCommand(message)) {
-            exitRequested = true;
+            requestExit();
+        } else if (messageIndex != null && isSearchCommand(message)) {
+            searchLocally(message.trim().substring(SEARCH_COMMAND.length()));
         } else {
-            out.println(sender + ": " + message);
-            out.flush();
-            userMessages.add(sender + ": " + message);
+            ChatMessage chatMessage = new ChatMessage(sender, message);
+            ResumeState state = resumeState;
+            if (state == null) {
+                deliver(chatMessage);
+            } else {
+                synchronized (writeLock) {
+                    // Written by the resumption request if it has not been written yet
+                    state.add(chatMessage);
+                    if (resumeRequested) {
+                        deliver(chatMessage);
+                    }
+                }
+            }
+            history.add(chatMessage);
+            record(chatMessage);
             LOGGER.debug("Message sent: {}", message);
         }
     }
 
+    /**
+     * Writes a message to the peer in the current wire protocol of the session, for example a message shared
+     * by all members of a chat room. The message is not added to the user messages of this session.
+     *
+     * @param message the message to write
+     */
+    public void deliver(ChatMessage message) {
+        METRICS.messageSent();
+        synchronized (writeLock) {
+            try {
+                writeMessage(message.encoded(writeProtocol, peerInflates ? compression : null).duplicate());
+            } catch (IOException e) {
+                LOGGER.error("Error sending message: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes a sequence of messages to the peer, like the messages of a history. If the peer inflates frames, the
+     * messages are deflated together in batches, which compresses them far better than one by one.
+     *
+     * @param messages the messages to write, oldest first
+     */
+    public void deliverAll(List<ChatMessage> messages) {
+        synchronized (writeLock) {
+            if (writeProtocol != WireProtocol.BINARY || !peerInflates || !compression.isEnabled() || messages.size() < 2) {
+                messages.forEach(this::deliver);
+                return;
+            }
+            List<ByteBuffer> frames = new ArrayList<>(messages.size());
+            for (ChatMessage message : messages) {
+                METRICS.messageSent();
+                frames.add(message.encoded(WireProtocol.BINARY).duplicate());
+            }
+            try {
+                for (ByteBuffer batch : compression.batch(frames, sender.getId())) {
+                    writeMessage(batch);
+                }
+            } catch (IOException e) {
+                LOGGER.error("Error sending messages: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Queues a protocol line or control frame for writing to the socket, which is never dropped for a slow peer.
+     * Callers must hold the write lock unless the session is still being constructed, so buffers are queued in the
+     * order the protocol requires.
+     *
+     * @param buffer the bytes to write
+     * @throws IOException if the buffer is written right away and an I/O error occurs
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        sendQueue.send(buffer);
+    }
+
+    /**
+     * Queues encoded chat messages for writing to the socket, which the {@code DROP_OLDEST} policy may drop for a
+     * slow peer. Callers must hold the write lock.
+     *
+     * @param buffer the bytes to write
+     * @throws IOException if the buffer is written right away and an I/O error occurs
+     */
+    private void writeMessage(ByteBuffer buffer) throws IOException {
+        sendQueue.send(buffer, true);
+    }
+
+    /**
+     * Lets outgoing messages wait up to a window for more messages, so a burst is written to the socket at once
+     * instead of with one write per message. The session starts with the send window and batch size of the
+     * {@link PerformanceSettings}; without a window, messages are written as soon as no other write is in progress,
+     * and only messages queued during a write are combined.
+     *
+     * @param window        the time the first message of a batch may wait, zero to write without waiting
+     * @param maxBatchBytes the number of queued bytes written at once regardless of the window
+     */
+    public void setSendCoalescing(Duration window, int maxBatchBytes) {
+        sendQueue.configure(window.toNanos(), maxBatchBytes);
+    }
+
+    /**
+     * Changes only the send window and keeps the batch size, see {@link #setSendCoalescing(Duration, int)}.
+     *
+     * @param window the time the first message of a batch may wait, zero to write without waiting
+     */
+    public void setSendWindow(Duration window) {
+        sendQueue.configure(window.toNanos(), sendQueue.getMaxBatchBytes());
+    }
+
+    /**
+     * Bounds the bytes queued for a peer that reads slower than messages are sent to it. The session starts with
+     * the send queue limit and policy of the {@link PerformanceSettings}.
+     *
+     * @param maxQueuedBytes the high-water mark of the send queue in bytes
+     * @param policy         what happens to messages sent while the queue is above the mark
+     */
+    public void setSendQueueLimit(int maxQueuedBytes, OverflowPolicy policy) {
+        sendQueue.configureOverflow(maxQueuedBytes, policy);
+    }
+
+    /**
+     * Changes how often a quiet peer is pinged and how long the peer may stay silent before the session is closed.
+     * The session starts with the heartbeat interval, read timeout and idle timeout of the
+     * {@link PerformanceSettings}. Blocking reads wake up after every interval without data to check the peer.
+     *
+     * @param interval    the time without incoming data after which the peer is pinged, zero to send no pings
+     * @param readTimeout the time a peer that answers pings may stay silent, zero to never close the session
+     * @param idleTimeout the time a peer that never answered a ping may stay silent, zero to never close the session
+     * @throws IOException if the socket timeout cannot be set
+     */
+    public void setHeartbeat(Duration interval, Duration readTimeout, Duration idleTimeout) throws IOException {
+        heartbeatNanos = interval.toNanos();
+        readTimeoutNanos = readTimeout.toNanos();
+        idleTimeoutNanos = idleTimeout.toNanos();
+        Duration tick = Stream.of(interval, readTimeout, idleTimeout)
+                .filter(timeout -> !timeout.isZero()).findFirst().orElse(Duration.ZERO);
+        socket.setSoTimeout(tick.isZero() ? 0 : (int) Math.max(1, tick.toMillis()));
+    }
+
+    /**
+     * Returns the number of bytes queued for the peer but not yet written to the socket.
+     *
+     * @return the queued bytes
+     */
+    public int getQueuedBytes() {
+        return sendQueue.getPendingBytes();
+    }
+
+    /**
+     * Returns the number of messages queued for the peer but not yet written to the socket.
+     *
+     * @return the queue depth
+     */
+    public int getQueuedMessages() {
+        return sendQueue.getPendingCount();
+    }
+
+    /**
+     * Returns the number of messages dropped because the peer did not read them fast enough.
+     *
+     * @return the number of dropped messages
+     */
+    public long getDroppedMessages() {
+        return sendQueue.getDroppedCount();
+    }
+
+    /**
+     * Closes the socket of a peer that stopped reading, which also releases a writer blocked on it.
+     * Called by the send queue with the {@code DISCONNECT} policy and when a peer stopped answering pings.
+     */
+    private void disconnectSlowPeer() {
+        connectionLost = true;
+        exitRequested = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.debug("Error closing slow peer: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the wire protocol currently used for outgoing messages.
+     *
+     * @return the outgoing wire protocol
+     */
+    public WireProtocol getWriteProtocol() {
+        return writeProtocol;
+    }
+
     /**
      * Prints a message to the console.
      *
@@ -143,6 +724,32 @@ public class ChatSession implements AutoCloseable {
         LOGGER.debug("Received message: {}", message);
     }
 
+    /**
+     * Formats a message into the {@code Sender: text} line that is sent to the peer.
+     *
+     * @param sender  the type of chat sender
+     * @param message the message text
+     * @return the formatted chat line
+     */
+    public static String formatMessage(ChatSenderType sender, String message) {
+        return sender + ": " + message;
+    }
+
+    /**
+     * Marks the session as finished and wakes up the receive thread blocked on the input stream.
+     * Only the input side is shut down, so the socket stays open until the session is closed.
+     */
+    private void requestExit() {
+        exitRequested = true;
+        try {
+            if (!socket.isClosed() && !socket.isInputShutdown()) {
+                socket.shutdownInput();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Error shutting down session input: {}", e.getMessage());
+        }
+    }
+
     /**
      * Checks if the given message is an exit command.
      * An exit command is considered when the message is trimmed and case-insensitively equals "EXIT".
@@ -150,7 +757,7 @@ public class ChatSession implements AutoCloseable {
      * @param message the message to check
      * @return true if the message is an exit command, false otherwise
      */
-    private boolean isExitCommand(String message) {
+    public static boolean isExitCommand(String message) {
         return message.trim().equalsIgnoreCase("EXIT");
     }
 
@@ -162,6 +769,11 @@ public class ChatSession implements AutoCloseable {
     @Override
     public void close() throws IOException {
         exitRequested = true;
+        try {
+            sendQueue.flush();
+        } catch (IOException e) {
+            LOGGER.debug("Error sending queued messages on close: {}", e.getMessage());
+        }
         socket.close();
         LOGGER.info("Chat session closed.");
     }
@@ -176,27 +788,137 @@ public class ChatSession implements AutoCloseable {
     }
 
     /**
-     * Returns the list of user messages sent during the chat session.
+     * Checks if the session ended because the connection was lost, rather than by an exit command or by closing it.
+     *
+     * @return true if the peer closed the connection, stopped answering or an I/O error occurred
+     */
+    public boolean isConnectionLost() {
+        return connectionLost;
+    }
+
+    /**
+     * Sets the state a client resumes its session with after reconnecting. Must be called before {@link #start}.
+     *
+     * @param resumeState the state kept across the connections of the client, or null to not resume the session
+     */
+    public void setResumeState(ResumeState resumeState) {
+        this.resumeState = resumeState;
+    }
+
+    /**
+     * Sets the listener of a server that receives the resumption requests and acknowledgements of the client.
+     *
+     * @param resumeListener the listener, or null to ignore them
+     */
+    public void setResumeListener(ResumeListener resumeListener) {
+        this.resumeListener = resumeListener;
+    }
+
+    /**
+     * Sets the listener that receives the messages read from the peer.
+     * By default received messages are printed to the console.
+     *
+     * @param messageListener the listener to notify for each received message
+     */
+    public void setMessageListener(MessageListener messageListener) {
+        this.messageListener = messageListener;
+    }
+
+    /**
+     * Returns the user messages sent during the chat session that are still kept in its history.
      *
-     * @return the list of user messages
+     * @return an immutable snapshot of the user messages, oldest first
      */
     public List<String> getUserMessages() {
-        return userMessages;
+        return history.snapshot();
     }
 
     /**
-     * Clears the user messages in the chat session.
+     * Returns the bounded history of the user messages sent during the chat session.
+     *
+     * @return the message history
      */
-    public void clearUserMessages() {
-        userMessages.clear();
+    public MessageHistory getHistory() {
+        return history;
     }
 
     /**
-     * Sleeps for a short duration in milliseconds.
+     * Replaces the history of the chat session, for example with one of a different capacity.
+     * Messages kept by the previous history are not copied.
      *
-     * @param millis the duration to sleep in milliseconds
+     * @param history the history to record sent messages in
      */
-    private void sleepForShortDuration(long millis) {
-        runAsync(() -> {}, delayedExecutor(millis, MILLISECONDS)).join();
+    public void setHistory(MessageHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Sets the journal that records every message sent and received in the chat session.
+     *
+     * @param journal the journal, or null to disable recording
+     */
+    public void setJournal(ChatJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets the index that makes every message sent and received in the chat session searchable.
+     * While an index is set, the {@code /search <words>} command is answered locally instead of being sent.
+     *
+     * @param messageIndex the index, or null to disable searching
+     */
+    public void setMessageIndex(MessageIndex messageIndex) {
+        this.messageIndex = messageIndex;
+    }
+
+    /**
+     * Records a message in the journal and the index, if they are set.
+     *
+     * @param message the message to record
+     */
+    private void record(ChatMessage message) {
+        ChatJournal currentJournal = journal;
+        if (currentJournal != null) {
+            currentJournal.append(ChatJournal.NO_ROOM, message);
+        }
+        MessageIndex currentIndex = messageIndex;
+        if (currentIndex != null) {
+            currentIndex.add(ChatJournal.NO_ROOM, message);
+        }
+    }
+
+    /**
+     * Checks if the given message is a search command.
+     *
+     * @param message the message to check
+     * @return true if the message starts with the search command, false otherwise
+     */
+    private static boolean isSearchCommand(String message) {
+        String trimmed = message.trim();
+        return trimmed.equals(SEARCH_COMMAND) || trimmed.startsWith(SEARCH_COMMAND + " ");
+    }
+
+    /**
+     * Searches the local index and passes the matching messages to the message listener, oldest first.
+     *
+     * @param arguments the search words and filters
+     */
+    private void searchLocally(String arguments) {
+        try {
+            List<SearchResult> results = messageIndex.search(SearchQuery.parse(arguments));
+            for (int i = results.size() - 1; i >= 0; i--) {
+                messageListener.onMessage(results.get(i).toString());
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug("Invalid search: {}", e.getMessage());
+            messageListener.onMessage(LocalizedResourceManager.getInstance().getMessage(LocalizationBundle.MESSAGES, "search.invalid"));
+        }
+    }
+
+    /**
+     * Clears the user messages in the chat session.
+     */
+    public void clearUserMessages() {
+        history.clear();
     }
 }
\ No newline at end of file
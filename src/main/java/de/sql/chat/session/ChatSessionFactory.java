@@ -1,6 +1,7 @@
 package de.sql.chat.session;
 
 import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.protocol.WireProtocol;
 
 import java.io.IOException;
 import java.net.Socket;
@@ -31,4 +32,19 @@ public class ChatSessionFactory {
 
     return new ChatSession(sender, socket, userInputSource);
   }
-}
\ No newline at end of file
+
+  /**
+  * Create a ChatSession that uses the preferred wire protocol if the peer supports it.
+  *
+  * @param sender The sender type (e.g., ChatSenderType.CLIENT or ChatSenderType.SERVER).
+  * @param socket The socket for communication.
+  * @param userInputSource The source of user input.
+  * @param preferredProtocol The wire protocol to negotiate with the peer.
+  * @return A new ChatSession instance.
+  * @throws ChatAppException If an exception specific to the ChatApp occurs while creating the ChatSession.
+  */
+  public static ChatSession createChatSession(ChatSenderType sender, Socket socket, UserInputSource userInputSource, WireProtocol preferredProtocol) throws ChatAppException {
+
+    return new ChatSession(sender, socket, userInputSource, preferredProtocol);
+  }
+}
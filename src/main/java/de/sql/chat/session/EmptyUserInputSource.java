@@ -1,5 +1,7 @@
 package de.sql.chat.session;
 
+import java.util.concurrent.Flow;
+
 /**
  * A UserInputSource implementation that represents an empty user input.
  * This class is used for testing purposes.
@@ -17,5 +19,25 @@ public class EmptyUserInputSource implements UserInputSource {
   public String getUserInput() {
     return "";
   }
+
+  /**
+   * Subscribes the subscriber without ever publishing a line, so no thread polls the empty input.
+   *
+   * @param subscriber the subscriber
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super String> subscriber) {
+    subscriber.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        // There is never any input
+      }
+
+      @Override
+      public void cancel() {
+        // Nothing to stop
+      }
+    });
+  }
   
 }
\ No newline at end of file
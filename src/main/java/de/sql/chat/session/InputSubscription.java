@@ -0,0 +1,139 @@
+package de.sql.chat.session;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pushes the lines of a {@link UserInputSource} to a single subscriber, on a daemon thread of its own.
+ * <p>
+ * Lines are handed to the subscriber as soon as they are read and only while it has requested more, so a fast
+ * source is limited by the subscriber alone. Empty lines are never published: a source that returns an empty line
+ * has no input right now and is asked again after the poll interval, while a source that blocks until a line is
+ * available is read without any pause.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+final class InputSubscription implements Flow.Subscription, Runnable {
+
+  /**
+   * Reads the next line of a source.
+   */
+  @FunctionalInterface
+  interface LineReader {
+
+    /**
+     * Reads the next line, blocking until it is available if the source supports blocking.
+     *
+     * @return the line, an empty line if no input is available right now, or null at the end of the input
+     * @throws IOException if an I/O error occurs
+     */
+    String readLine() throws IOException;
+  }
+
+  private final Flow.Subscriber<? super String> subscriber;
+  private final LineReader reader;
+  private final long pollNanos;
+  private final AtomicLong demand = new AtomicLong();
+  private final Thread thread;
+  private volatile boolean cancelled;
+  // Set by an invalid request and signalled by the reading thread, so the signals to the subscriber stay serial
+  private volatile IllegalArgumentException invalidRequest;
+
+  private InputSubscription(Flow.Subscriber<? super String> subscriber, LineReader reader, Duration pollInterval) {
+    this.subscriber = subscriber;
+    this.reader = reader;
+    this.pollNanos = pollInterval.toNanos();
+    this.thread = new Thread(this, "user-input");
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * Subscribes the subscriber to the lines of the reader and starts reading.
+   *
+   * @param subscriber   the subscriber that receives the lines
+   * @param reader       reads the lines of the source
+   * @param pollInterval how long to wait before reading again after an empty line
+   */
+  static void start(Flow.Subscriber<? super String> subscriber, LineReader reader, Duration pollInterval) {
+    new InputSubscription(subscriber, reader, pollInterval).thread.start();
+  }
+
+  /**
+   * Reads and publishes lines until the input ends, reading fails, the subscriber makes an invalid request or the
+   * subscription is cancelled. Every signal to the subscriber is sent from this thread.
+   */
+  @Override
+  public void run() {
+    subscriber.onSubscribe(this);
+    try {
+      while (!cancelled) {
+        IllegalArgumentException error = invalidRequest;
+        if (error != null) {
+          cancelled = true;
+          subscriber.onError(error);
+          return;
+        }
+        if (demand.get() == 0) {
+          LockSupport.park(this);
+          continue;
+        }
+        String line = reader.readLine();
+        if (line == null) {
+          if (!cancelled) {
+            subscriber.onComplete();
+          }
+          return;
+        }
+        if (line.isEmpty()) {
+          if (pollNanos > 0) {
+            LockSupport.parkNanos(this, pollNanos);
+          }
+          continue;
+        }
+        if (invalidRequest != null) {
+          continue;
+        }
+        if (demand.get() != Long.MAX_VALUE) {
+          demand.decrementAndGet();
+        }
+        subscriber.onNext(line);
+      }
+    } catch (IOException e) {
+      if (!cancelled) {
+        subscriber.onError(e);
+      }
+    }
+  }
+
+  /**
+   * Allows the subscription to publish n more lines. Demand of {@link Long#MAX_VALUE} is unbounded. A non-positive
+   * request ends the subscription with an error, which the reading thread signals once it is not publishing.
+   *
+   * @param n the number of additional lines, must be positive
+   */
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      if (invalidRequest == null) {
+        invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+      }
+      LockSupport.unpark(thread);
+      return;
+    }
+    demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+    LockSupport.unpark(thread);
+  }
+
+  /**
+   * Stops publishing. A read that is blocked on the source still completes, but its line is not published.
+   */
+  @Override
+  public void cancel() {
+    cancelled = true;
+    LockSupport.unpark(thread);
+  }
+}
@@ -0,0 +1,249 @@
+package de.sql.chat.session;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A bounded history of the messages sent in a chat session.
+ * <p>
+ * Messages are kept in a ring buffer of fixed capacity, so once it is full every new message replaces the oldest one.
+ * The buffer keeps the sender and the text of a message separately and builds the {@code Sender: text} line only
+ * when the history is read, so adding a message never copies the text. In compact mode the text is stored as a
+ * UTF-8 byte array instead of a {@link String}, trading a decode on every read for less memory per entry.
+ * <p>
+ * The history is safe to read from any thread while the session appends to it. Readers either take an immutable
+ * {@link #snapshot()} or walk the history with a {@link #cursor()}, which keeps up with concurrent appends.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class MessageHistory {
+
+  /** The number of messages kept by a history created without an explicit capacity. */
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  private final int capacity;
+  private final boolean compact;
+  private final ChatSenderType[] senders;
+  private final Object[] texts;
+  private long sequence;
+  private long first;
+
+  /**
+   * Constructs a MessageHistory with the default capacity that stores texts as strings.
+   */
+  public MessageHistory() {
+    this(DEFAULT_CAPACITY, false);
+  }
+
+  /**
+   * Constructs a MessageHistory.
+   *
+   * @param capacity the maximum number of messages kept
+   * @param compact  true to store the texts as UTF-8 byte arrays, false to keep the strings
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public MessageHistory(int capacity, boolean compact) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.compact = compact;
+    this.senders = new ChatSenderType[capacity];
+    this.texts = new Object[capacity];
+  }
+
+  /**
+   * Appends a message, replacing the oldest message if the history is full.
+   *
+   * @param sender the type of chat sender, or null if the text already is a complete line
+   * @param text   the message text
+   */
+  public synchronized void add(ChatSenderType sender, String text) {
+    int index = (int) (sequence % capacity);
+    senders[index] = sender;
+    texts[index] = compact ? text.getBytes(UTF_8) : text;
+    sequence++;
+    if (sequence - first > capacity) {
+      first = sequence - capacity;
+    }
+  }
+
+  /**
+   * Appends a message, replacing the oldest message if the history is full.
+   *
+   * @param message the message to append
+   */
+  public void add(ChatMessage message) {
+    add(message.getSender(), message.getText());
+  }
+
+  /**
+   * Removes all messages from the history.
+   */
+  public synchronized void clear() {
+    for (long i = first; i < sequence; i++) {
+      int index = (int) (i % capacity);
+      senders[index] = null;
+      texts[index] = null;
+    }
+    first = sequence;
+  }
+
+  /**
+   * Returns the number of messages currently kept.
+   *
+   * @return the number of messages
+   */
+  public synchronized int size() {
+    return (int) (sequence - first);
+  }
+
+  /**
+   * Checks if the history keeps no messages.
+   *
+   * @return true if the history is empty, false otherwise
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns the maximum number of messages kept.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Checks if the texts are stored as UTF-8 byte arrays.
+   *
+   * @return true if the history is compact, false otherwise
+   */
+  public boolean isCompact() {
+    return compact;
+  }
+
+  /**
+   * Returns the number of messages appended since the history was created, including evicted and cleared ones.
+   *
+   * @return the total number of appended messages
+   */
+  public synchronized long getTotalCount() {
+    return sequence;
+  }
+
+  /**
+   * Returns an immutable copy of the kept messages, oldest first.
+   *
+   * @return the messages in the {@code Sender: text} format
+   */
+  public List<String> snapshot() {
+    return tail(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns an immutable copy of the most recent messages, oldest first.
+   *
+   * @param count the maximum number of messages to return
+   * @return the messages in the {@code Sender: text} format
+   */
+  public synchronized List<String> tail(int count) {
+    long from = Math.max(first, sequence - Math.max(count, 0));
+    List<String> lines = new ArrayList<>((int) (sequence - from));
+    for (long i = from; i < sequence; i++) {
+      lines.add(lineAt(i));
+    }
+    return Collections.unmodifiableList(lines);
+  }
+
+  /**
+   * Returns a sequential stream over the kept messages, oldest first.
+   * The stream is backed by a {@link #cursor()}, so it also returns messages appended while it is consumed.
+   *
+   * @return the messages in the {@code Sender: text} format
+   */
+  public Stream<String> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Returns a cursor positioned at the oldest kept message.
+   * The cursor never fails because of concurrent appends: if the messages it points to are evicted
+   * before it reaches them, it continues with the oldest message still kept.
+   *
+   * @return a cursor over the messages in the {@code Sender: text} format
+   */
+  public Cursor cursor() {
+    synchronized (this) {
+      return new Cursor(first);
+    }
+  }
+
+  private synchronized String next(Cursor cursor) {
+    if (cursor.position < first) {
+      cursor.position = first;
+    }
+    if (cursor.position >= sequence) {
+      return null;
+    }
+    return lineAt(cursor.position++);
+  }
+
+  private synchronized boolean hasNext(Cursor cursor) {
+    return Math.max(cursor.position, first) < sequence;
+  }
+
+  private String lineAt(long position) {
+    int index = (int) (position % capacity);
+    Object stored = texts[index];
+    String text = stored instanceof byte[] ? new String((byte[]) stored, UTF_8) : (String) stored;
+    ChatSenderType sender = senders[index];
+    return sender == null ? text : ChatSession.formatMessage(sender, text);
+  }
+
+  /**
+   * A forward-only position in a {@link MessageHistory}. A cursor is meant to be used by a single thread.
+   */
+  public final class Cursor implements Iterator<String> {
+    private long position;
+
+    private Cursor(long position) {
+      this.position = position;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return MessageHistory.this.hasNext(this);
+    }
+
+    @Override
+    public String next() {
+      String line = MessageHistory.this.next(this);
+      if (line == null) {
+        throw new NoSuchElementException();
+      }
+      return line;
+    }
+
+    /**
+     * Returns the sequence number of the next message this cursor returns.
+     *
+     * @return the position of the cursor
+     */
+    public long getPosition() {
+      return position;
+    }
+  }
+}
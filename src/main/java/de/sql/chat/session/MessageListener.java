@@ -0,0 +1,20 @@
+package de.sql.chat.session;
+
+/**
+ * Callback that receives every chat line read from the peer of a {@link ChatSession}.
+ * The listener is invoked on the session's receive thread as soon as the line arrives,
+ * so implementations should return quickly and hand off any expensive work.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+@FunctionalInterface
+public interface MessageListener {
+
+  /**
+   * Called for each non-empty line received from the peer that is not an exit command.
+   *
+   * @param message the received line in the {@code Sender: text} format
+   */
+  void onMessage(String message);
+}
@@ -0,0 +1,144 @@
+package de.sql.chat.session;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A bounded log of the messages sent to a peer that the peer has not acknowledged yet, numbered by consecutive
+ * sequence numbers. Clients keep the messages they wrote, servers the messages they delivered, so either side sends
+ * exactly the messages its peer missed after a reconnect, see {@link de.sql.chat.protocol.SessionResumption}.
+ * <p>
+ * The log holds the shared {@link ChatMessage}s, so keeping a fanned out message costs a reference per peer, and
+ * resending it reuses its encoded forms. Once the log is full, every new message drops the oldest unacknowledged
+ * one, so a peer that stays away does not hold on to an unbounded number of messages. The log is safe to use from
+ * any thread.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class MessageLog {
+
+  private final int capacity;
+  private final ArrayDeque<ChatMessage> messages;
+  // The sequence number of the oldest message in the log
+  private long firstSequence;
+  private long dropped;
+
+  /**
+   * Constructs a MessageLog whose first message gets the sequence number 1.
+   *
+   * @param capacity the maximum number of unacknowledged messages kept
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public MessageLog(int capacity) {
+    this(capacity, 1);
+  }
+
+  /**
+   * Constructs a MessageLog.
+   *
+   * @param capacity      the maximum number of unacknowledged messages kept
+   * @param firstSequence the sequence number of the first message appended
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public MessageLog(int capacity, long firstSequence) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Log capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.messages = new ArrayDeque<>(Math.min(capacity, 64));
+    this.firstSequence = firstSequence;
+  }
+
+  /**
+   * Appends a message, dropping the oldest message if the log is full.
+   *
+   * @param message the message to append
+   * @return the sequence number of the message
+   */
+  public synchronized long append(ChatMessage message) {
+    if (messages.size() == capacity) {
+      messages.removeFirst();
+      firstSequence++;
+      dropped++;
+    }
+    messages.addLast(message);
+    return firstSequence + messages.size() - 1;
+  }
+
+  /**
+   * Removes the messages the peer acknowledged. Acknowledgements of messages that are no longer kept are ignored.
+   *
+   * @param sequence the sequence number of the last message the peer received
+   */
+  public synchronized void acknowledge(long sequence) {
+    while (!messages.isEmpty() && firstSequence <= sequence) {
+      messages.removeFirst();
+      firstSequence++;
+    }
+  }
+
+  /**
+   * Returns the messages after the given sequence number that are still kept.
+   *
+   * @param sequence the sequence number of the last message the peer received
+   * @return a copy of the later messages, oldest first
+   */
+  public synchronized List<ChatMessage> after(long sequence) {
+    List<ChatMessage> result = new ArrayList<>();
+    long current = firstSequence;
+    for (Iterator<ChatMessage> iterator = messages.iterator(); iterator.hasNext(); current++) {
+      ChatMessage message = iterator.next();
+      if (current > sequence) {
+        result.add(message);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Removes all messages without acknowledging them. Later messages continue the numbering.
+   */
+  public synchronized void clear() {
+    firstSequence += messages.size();
+    messages.clear();
+  }
+
+  /**
+   * Returns the sequence number of the oldest kept message, or of the next message if the log is empty.
+   *
+   * @return the first sequence number
+   */
+  public synchronized long getFirstSequence() {
+    return firstSequence;
+  }
+
+  /**
+   * Returns the sequence number the next appended message gets.
+   *
+   * @return the next sequence number
+   */
+  public synchronized long getNextSequence() {
+    return firstSequence + messages.size();
+  }
+
+  /**
+   * Returns the number of unacknowledged messages kept.
+   *
+   * @return the number of messages
+   */
+  public synchronized int size() {
+    return messages.size();
+  }
+
+  /**
+   * Returns the number of unacknowledged messages dropped because the log was full.
+   *
+   * @return the number of dropped messages
+   */
+  public synchronized long getDroppedCount() {
+    return dropped;
+  }
+}
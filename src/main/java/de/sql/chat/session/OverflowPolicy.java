@@ -0,0 +1,17 @@
+package de.sql.chat.session;
+
+/**
+ * What a connection does with a new outgoing message once its send queue holds more bytes than its high-water mark,
+ * because the peer reads slower than messages are sent to it.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public enum OverflowPolicy {
+  /** The sending thread waits until the peer has read enough of the queued messages. */
+  BLOCK,
+  /** The oldest queued chat messages are dropped to make room for the new one. */
+  DROP_OLDEST,
+  /** The peer is disconnected and the queued messages are dropped. */
+  DISCONNECT
+}
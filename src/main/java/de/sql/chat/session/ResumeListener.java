@@ -0,0 +1,28 @@
+package de.sql.chat.session;
+
+import de.sql.chat.protocol.SessionResumption;
+
+/**
+ * Callback of a server that keeps the sessions of reconnecting clients, which receives the resumption requests and
+ * acknowledgements read by a {@link ChatSession}. The listener is invoked on the session's receive thread, before
+ * any message read after the frame.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public interface ResumeListener {
+
+  /**
+   * Called when the client asks to resume its session on this connection.
+   *
+   * @param resumption the client id and sequence numbers sent by the client
+   */
+  void onResume(SessionResumption resumption);
+
+  /**
+   * Called when the client acknowledges the messages it received.
+   *
+   * @param sequence the sequence number of the last message the client received
+   */
+  void onAcknowledge(long sequence);
+}
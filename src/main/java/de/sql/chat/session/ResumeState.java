@@ -0,0 +1,122 @@
+package de.sql.chat.session;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What a client keeps across its connections to resume its session after a reconnect: an id the server knows it by,
+ * the number of messages received from the server and a bounded {@link MessageLog} of the messages the server has
+ * not acknowledged yet.
+ * <p>
+ * Messages written while the client is disconnected are appended to the log as well and written once the session
+ * is resumed. A server that never acknowledged a message does not keep sessions, so the log is cleared when the
+ * connection to such a server drops, instead of writing its messages twice.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ResumeState {
+
+  private final String clientId;
+  private final MessageLog unacknowledged;
+  private volatile long received;
+  private volatile boolean serverAcknowledges;
+
+  /**
+   * Constructs a ResumeState with a random client id.
+   *
+   * @param capacity the maximum number of unacknowledged messages kept
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public ResumeState(int capacity) {
+    this.clientId = UUID.randomUUID().toString();
+    this.unacknowledged = new MessageLog(capacity);
+  }
+
+  /**
+   * Returns the id the client keeps across its connections.
+   *
+   * @return the client id
+   */
+  public String getClientId() {
+    return clientId;
+  }
+
+  /**
+   * Appends a message written by the client to the unacknowledged messages.
+   *
+   * @param message the message
+   * @return the sequence number of the message
+   */
+  public long add(ChatMessage message) {
+    return unacknowledged.append(message);
+  }
+
+  /**
+   * Removes the messages the server acknowledged.
+   *
+   * @param sequence the sequence number of the last message the server received
+   */
+  public void acknowledge(long sequence) {
+    serverAcknowledges = true;
+    unacknowledged.acknowledge(sequence);
+  }
+
+  /**
+   * Returns the messages the server has not acknowledged yet, which are written again after a reconnect.
+   *
+   * @return the unacknowledged messages, oldest first
+   */
+  public List<ChatMessage> getUnacknowledged() {
+    return unacknowledged.after(0);
+  }
+
+  /**
+   * Returns the sequence number of the oldest unacknowledged message, which is the first message written after
+   * the session is resumed.
+   *
+   * @return the first unacknowledged sequence number
+   */
+  public long getFirstUnacknowledged() {
+    return unacknowledged.getFirstSequence();
+  }
+
+  /**
+   * Returns the number of unacknowledged messages dropped because too many were kept.
+   *
+   * @return the number of dropped messages
+   */
+  public long getDroppedCount() {
+    return unacknowledged.getDroppedCount();
+  }
+
+  /**
+   * Counts a message received from the server. Only called by the receive thread of the current session.
+   *
+   * @return the number of messages received so far
+   */
+  public long messageReceived() {
+    long count = received + 1;
+    received = count;
+    return count;
+  }
+
+  /**
+   * Returns the number of messages received from the server since the session was first resumed.
+   *
+   * @return the sequence number of the last message received
+   */
+  public long getReceived() {
+    return received;
+  }
+
+  /**
+   * Notes that the connection dropped. The unacknowledged messages are dropped if the server never acknowledged
+   * a message, because it does not keep sessions and the messages may have reached it.
+   */
+  public void connectionLost() {
+    if (!serverAcknowledges) {
+      unacknowledged.clear();
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package de.sql.chat.session;
 
+import java.time.Duration;
 import java.util.Scanner;
+import java.util.concurrent.Flow;
 
 /**
  * A class that implements the UserInputSource interface and provides user input using a Scanner instance.
@@ -30,10 +32,21 @@ public class ScannerUserInputSource implements UserInputSource {
   /**
    * Retrieves the user input as a String.
    * 
-   * @return the user input as a String
+   * @return the user input as a String, or null once the scanner has no more lines
    */
   @Override
   public String getUserInput() {
-    return scanner.nextLine();
+    return scanner.hasNextLine() ? scanner.nextLine() : null;
+  }
+
+  /**
+   * Publishes the lines of the scanner to the subscriber and completes it once the scanner has no more lines.
+   * Empty lines are skipped without polling.
+   *
+   * @param subscriber the subscriber that receives the lines
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super String> subscriber) {
+    InputSubscription.start(subscriber, this::getUserInput, Duration.ZERO);
   }
 }
\ No newline at end of file
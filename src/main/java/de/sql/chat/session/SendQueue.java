@@ -0,0 +1,441 @@
+package de.sql.chat.session;
+
+import static java.util.concurrent.CompletableFuture.delayedExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.util.ThreadFactories;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Coalesces the encoded messages of a {@link ChatSession} into as few socket writes as possible.
+ * <p>
+ * Only one thread writes at a time. Buffers queued while it writes are copied into one batch and written together
+ * once it is done, so a burst of messages costs a few writes instead of one write per message. With a coalescing
+ * window, the first queued buffer also waits up to the window for more buffers before it is written, unless the
+ * queued bytes reach the batch limit first. Without a window, a buffer queued on an idle queue is written at once.
+ * <p>
+ * The queue is bounded by a high-water mark of pending bytes. A peer that stops reading fills the socket send
+ * buffer until the writing thread blocks, and everything sent afterwards piles up in the queue. Once the pending
+ * bytes would exceed the mark, the {@link OverflowPolicy} decides: {@code BLOCK} lets the sending thread wait for
+ * the writer, {@code DROP_OLDEST} drops queued buffers the sender marked as droppable, the chat messages, while
+ * protocol lines and control frames are always kept, and {@code DISCONNECT} hands the queue to the
+ * disconnect handler. With the last two policies senders never write to the socket themselves, a shared pool of
+ * writer threads drains the queue, so a slow peer can only ever block its own writer. The same pool flushes the
+ * queues whose window expired.
+ * <p>
+ * Every queued buffer is stamped with the time it was sent, and the time until it is written is recorded in the
+ * send-to-write histogram of the {@link ChatMetrics}. The stamps are kept in a ring of {@code long}s next to the
+ * queue, so recording does not allocate.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+class SendQueue {
+
+  /** The maximum number of bytes combined into one write if no other limit is set. */
+  static final int DEFAULT_MAX_BATCH_BYTES = 64 * 1024;
+
+  /** The high-water mark of pending bytes if no other limit is set. */
+  static final int DEFAULT_MAX_PENDING_BYTES = 1024 * 1024;
+
+  private static final Logger LOGGER = LogManager.getLogger(SendQueue.class);
+  private static final ChatMetrics METRICS = ChatMetrics.getInstance();
+
+  private static final Executor WRITERS = Executors.newCachedThreadPool(daemon(ThreadFactories.platformThreadFactory("chat-writer-")));
+
+  private final WritableByteChannel out;
+  private final Runnable disconnectHandler;
+  private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+  // The send times of the pending buffers and whether they may be dropped, in the same order
+  private final TimestampRing pendingNanos = new TimestampRing();
+  private ByteBuffer batch;
+  // The send times of the buffers in the batch, only used by the writing thread
+  private long[] batchNanos = new long[16];
+  private long windowNanos;
+  private int maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+  private int maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+  private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+  private int pendingBytes;
+  private long droppedCount;
+  private boolean writing;
+  private boolean flushScheduled;
+  private boolean disconnected;
+
+  /**
+   * Constructs a SendQueue that writes every buffer as soon as no other write is in progress.
+   *
+   * @param out the channel to write to
+   */
+  SendQueue(WritableByteChannel out) {
+    this(out, () -> { });
+  }
+
+  /**
+   * Constructs a SendQueue that writes every buffer as soon as no other write is in progress.
+   *
+   * @param out               the channel to write to
+   * @param disconnectHandler called once if the {@code DISCONNECT} policy gives up on the peer, it should close
+   *                          the connection so a writer blocked on the channel is released
+   */
+  SendQueue(WritableByteChannel out, Runnable disconnectHandler) {
+    this.out = out;
+    this.disconnectHandler = disconnectHandler;
+  }
+
+  /**
+   * Sets how long queued buffers may wait for more buffers and how many bytes are combined into one write.
+   *
+   * @param windowNanos   the coalescing window in nanoseconds, 0 to write without waiting
+   * @param maxBatchBytes the number of queued bytes that are written at once regardless of the window
+   */
+  synchronized void configure(long windowNanos, int maxBatchBytes) {
+    if (windowNanos < 0 || maxBatchBytes <= 0) {
+      throw new IllegalArgumentException("Invalid send coalescing: " + windowNanos + " ns, " + maxBatchBytes + " bytes");
+    }
+    this.windowNanos = windowNanos;
+    this.maxBatchBytes = maxBatchBytes;
+  }
+
+  /**
+   * Sets the high-water mark of pending bytes and what happens to buffers sent above it.
+   * A buffer sent to an empty queue is always accepted, even if it is larger than the mark.
+   *
+   * @param maxPendingBytes the high-water mark in bytes
+   * @param overflowPolicy  the policy applied above the mark
+   */
+  synchronized void configureOverflow(int maxPendingBytes, OverflowPolicy overflowPolicy) {
+    if (maxPendingBytes <= 0 || overflowPolicy == null) {
+      throw new IllegalArgumentException("Invalid send queue limit: " + maxPendingBytes + " bytes, " + overflowPolicy);
+    }
+    this.maxPendingBytes = maxPendingBytes;
+    this.overflowPolicy = overflowPolicy;
+    notifyAll();
+  }
+
+  /**
+   * Returns the number of queued bytes that are written at once regardless of the window.
+   *
+   * @return the batch limit in bytes
+   */
+  synchronized int getMaxBatchBytes() {
+    return maxBatchBytes;
+  }
+
+  /**
+   * Queues a protocol line or control frame for writing, which {@code DROP_OLDEST} never drops.
+   *
+   * @param buffer the buffer to write
+   * @throws IOException if the calling thread writes and an I/O error occurs, or if it is interrupted while
+   *                     waiting for the writer
+   * @see #send(ByteBuffer, boolean)
+   */
+  void send(ByteBuffer buffer) throws IOException {
+    send(buffer, false);
+  }
+
+  /**
+   * Queues a buffer for writing. The buffer must not be modified afterwards, shared buffers should be passed
+   * as {@link ByteBuffer#duplicate()}s. With the {@code BLOCK} policy, the buffer is written by the calling thread
+   * if no other thread is writing and the window is either disabled or already filled up with the batch limit.
+   * <p>
+   * Only droppable buffers, the encodings of {@link ChatMessage}s, are dropped by {@code DROP_OLDEST}. The
+   * protocol lines and control frames a session writes are not droppable, because the peer cannot negotiate,
+   * inflate or resume without them.
+   *
+   * @param buffer    the buffer to write
+   * @param droppable true if the buffer is a chat message that may be dropped for a peer that stopped reading
+   * @throws IOException if the calling thread writes and an I/O error occurs, or if it is interrupted while
+   *                     waiting for the writer
+   */
+  void send(ByteBuffer buffer, boolean droppable) throws IOException {
+    synchronized (this) {
+      if (disconnected) {
+        droppedCount++;
+        METRICS.messagesDropped(1);
+        return;
+      }
+      int size = buffer.remaining();
+      if (isAboveHighWaterMark(size)) {
+        switch (overflowPolicy) {
+          case BLOCK -> awaitWriter(size);
+          case DROP_OLDEST -> dropOldest(size);
+          case DISCONNECT -> {
+            disconnect();
+            return;
+          }
+        }
+      }
+      pending.add(buffer);
+      pendingNanos.add(System.nanoTime(), droppable);
+      pendingBytes += size;
+      METRICS.queueChanged(1, size);
+      if (writing) {
+        return;
+      }
+      if (overflowPolicy != OverflowPolicy.BLOCK) {
+        scheduleFlush(pendingBytes >= Math.min(maxBatchBytes, maxPendingBytes) ? 0 : windowNanos);
+        return;
+      }
+      if (windowNanos > 0 && pendingBytes < Math.min(maxBatchBytes, maxPendingBytes)) {
+        scheduleFlush(windowNanos);
+        return;
+      }
+      writing = true;
+    }
+    drain();
+  }
+
+  /**
+   * Writes all queued buffers on the calling thread, unless another thread is already writing them.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  void flush() throws IOException {
+    synchronized (this) {
+      if (writing || pending.isEmpty()) {
+        return;
+      }
+      writing = true;
+    }
+    drain();
+  }
+
+  /**
+   * Returns the number of bytes queued but not yet written.
+   *
+   * @return the number of pending bytes
+   */
+  synchronized int getPendingBytes() {
+    return pendingBytes;
+  }
+
+  /**
+   * Returns the number of buffers queued but not yet written.
+   *
+   * @return the number of pending buffers
+   */
+  synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Returns the number of buffers dropped by the overflow policy since the queue was created.
+   *
+   * @return the number of dropped buffers
+   */
+  synchronized long getDroppedCount() {
+    return droppedCount;
+  }
+
+  private boolean isAboveHighWaterMark(int size) {
+    return pendingBytes > 0 && pendingBytes + size > maxPendingBytes;
+  }
+
+  /**
+   * Waits until the writer made room for a buffer. If no thread is writing, for example while the first buffer
+   * waits for its window, the caller writes the queue itself once the buffer is added.
+   */
+  private void awaitWriter(int size) throws InterruptedIOException {
+    try {
+      while (writing && !disconnected && overflowPolicy == OverflowPolicy.BLOCK && isAboveHighWaterMark(size)) {
+        wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the peer to read");
+    }
+  }
+
+  /**
+   * Drops the oldest droppable buffers until the new buffer fits. The queue is rotated once, so the kept buffers
+   * and their send times stay in order.
+   */
+  private void dropOldest(int size) {
+    for (int i = pending.size(); i > 0; i--) {
+      ByteBuffer queued = pending.poll();
+      boolean droppable = pendingNanos.isHeadDroppable();
+      long queuedNanos = pendingNanos.poll();
+      if (droppable && isAboveHighWaterMark(size)) {
+        pendingBytes -= queued.remaining();
+        droppedCount++;
+        METRICS.queueChanged(-1, -queued.remaining());
+        METRICS.messagesDropped(1);
+      } else {
+        pending.add(queued);
+        pendingNanos.add(queuedNanos, droppable);
+      }
+    }
+  }
+
+  /**
+   * Drops everything queued and hands the peer to the disconnect handler. Called with the lock held, the handler
+   * runs on a writer thread, because closing the connection may have to wait for a blocked write.
+   */
+  private void disconnect() {
+    LOGGER.warn("Disconnecting peer that stopped reading, {} bytes in {} messages queued", pendingBytes, pending.size());
+    disconnected = true;
+    droppedCount += pending.size() + 1;
+    METRICS.queueChanged(-pending.size(), -pendingBytes);
+    METRICS.messagesDropped(pending.size() + 1L);
+    clearPending();
+    notifyAll();
+    WRITERS.execute(disconnectHandler);
+  }
+
+  private void scheduleFlush(long delayNanos) {
+    if (!flushScheduled) {
+      flushScheduled = true;
+      Executor executor = delayNanos > 0 ? delayedExecutor(delayNanos, NANOSECONDS, WRITERS) : WRITERS;
+      executor.execute(this::flushQuietly);
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (IOException e) {
+      LOGGER.error("Error sending message: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Writes batches until the queue is empty. Only called by the thread that set the writing flag,
+   * so the batch buffer is used by one thread at a time.
+   *
+   * @throws IOException if an I/O error occurs, the remaining buffers are dropped
+   */
+  private void drain() throws IOException {
+    try {
+      while (true) {
+        ByteBuffer next;
+        int batchCount = 0;
+        synchronized (this) {
+          if (pending.isEmpty()) {
+            writing = false;
+            flushScheduled = false;
+            notifyAll();
+            return;
+          }
+          if (batch == null || batch.capacity() != maxBatchBytes) {
+            batch = ByteBuffer.allocate(maxBatchBytes);
+          }
+          batch.clear();
+          while (!pending.isEmpty() && pending.peek().remaining() <= batch.remaining()) {
+            ByteBuffer buffer = pending.poll();
+            takeSendTime(batchCount++, buffer.remaining());
+            batch.put(buffer);
+          }
+          if (batch.position() > 0) {
+            next = batch.flip();
+          } else {
+            // A buffer larger than a whole batch is written on its own instead of being copied
+            next = pending.poll();
+            takeSendTime(batchCount++, next.remaining());
+          }
+          // Senders blocked above the high-water mark can queue again
+          notifyAll();
+        }
+        while (next.hasRemaining()) {
+          METRICS.bytesSent(out.write(next));
+        }
+        long writtenNanos = System.nanoTime();
+        for (int i = 0; i < batchCount; i++) {
+          METRICS.getSendToWrite().record(writtenNanos - batchNanos[i]);
+        }
+      }
+    } catch (IOException e) {
+      synchronized (this) {
+        METRICS.queueChanged(-pending.size(), -pendingBytes);
+        clearPending();
+        writing = false;
+        flushScheduled = false;
+        notifyAll();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Moves the send time of the buffer taken from the head of the queue into the batch. Called with the lock held.
+   *
+   * @param index the index of the buffer in the batch
+   * @param size  the size of the buffer
+   */
+  private void takeSendTime(int index, int size) {
+    if (index == batchNanos.length) {
+      batchNanos = Arrays.copyOf(batchNanos, index * 2);
+    }
+    batchNanos[index] = pendingNanos.poll();
+    pendingBytes -= size;
+    METRICS.queueChanged(-1, -size);
+  }
+
+  private void clearPending() {
+    pending.clear();
+    pendingNanos.clear();
+    pendingBytes = 0;
+  }
+
+  private static ThreadFactory daemon(ThreadFactory factory) {
+    return task -> {
+      Thread thread = factory.newThread(task);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * A queue of {@code long}s, each with a droppable flag, in a growable ring buffer, which unlike a queue of
+   * {@link Long}s does not allocate once it reached the usual size of the send queue.
+   */
+  private static final class TimestampRing {
+    private long[] values = new long[16];
+    private boolean[] droppable = new boolean[16];
+    private int head;
+    private int size;
+
+    void add(long value, boolean isDroppable) {
+      if (size == values.length) {
+        long[] grown = new long[size * 2];
+        boolean[] grownDroppable = new boolean[size * 2];
+        for (int i = 0; i < size; i++) {
+          grown[i] = values[(head + i) % values.length];
+          grownDroppable[i] = droppable[(head + i) % values.length];
+        }
+        values = grown;
+        droppable = grownDroppable;
+        head = 0;
+      }
+      values[(head + size) % values.length] = value;
+      droppable[(head + size) % values.length] = isDroppable;
+      size++;
+    }
+
+    boolean isHeadDroppable() {
+      return droppable[head];
+    }
+
+    long poll() {
+      long value = values[head];
+      head = (head + 1) % values.length;
+      size--;
+      return value;
+    }
+
+    void clear() {
+      head = 0;
+      size = 0;
+    }
+  }
+}
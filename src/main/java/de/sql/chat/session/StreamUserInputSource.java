@@ -0,0 +1,92 @@
+package de.sql.chat.session;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Flow;
+
+/**
+ * A UserInputSource that reads lines from a stream, such as the console, a pipe or a file of messages to replay.
+ * <p>
+ * Lines are read through a large buffer and published as soon as they are read, without polling, so scripted
+ * or piped input reaches the session as fast as the session can send it. Subscribers are completed once the stream
+ * ends.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class StreamUserInputSource implements UserInputSource, AutoCloseable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final BufferedReader reader;
+
+  /**
+   * Constructs a StreamUserInputSource that reads lines in the given charset.
+   *
+   * @param in      the stream to read
+   * @param charset the charset of the stream
+   */
+  public StreamUserInputSource(InputStream in, Charset charset) {
+    this.reader = new BufferedReader(new InputStreamReader(in, charset), BUFFER_SIZE);
+  }
+
+  /**
+   * Returns a source that reads the console in the platform charset.
+   *
+   * @return the console source
+   */
+  public static StreamUserInputSource stdin() {
+    return new StreamUserInputSource(System.in, Charset.defaultCharset());
+  }
+
+  /**
+   * Returns a source that reads the lines of a UTF-8 file.
+   *
+   * @param file the file to read
+   * @return the file source
+   * @throws IOException if the file cannot be opened
+   */
+  public static StreamUserInputSource of(Path file) throws IOException {
+    return new StreamUserInputSource(Files.newInputStream(file), UTF_8);
+  }
+
+  /**
+   * Reads the next line, blocking until it is available.
+   *
+   * @return the line, or null at the end of the stream
+   * @throws IOException if the stream cannot be read
+   */
+  @Override
+  public String getUserInput() throws IOException {
+    return reader.readLine();
+  }
+
+  /**
+   * Publishes the lines of the stream to the subscriber and completes it at the end of the stream. Empty lines
+   * are skipped without polling. The source can be read by one subscriber only.
+   *
+   * @param subscriber the subscriber that receives the lines
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super String> subscriber) {
+    InputSubscription.start(subscriber, reader::readLine, Duration.ZERO);
+  }
+
+  /**
+   * Closes the stream.
+   *
+   * @throws IOException if the stream cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -1,22 +1,40 @@
 package de.sql.chat.session;
 
+import de.sql.chat.config.PerformanceSettings;
 import java.io.IOException;
+import java.util.concurrent.Flow;
 
 /**
  * The UserInputSource interface represents a source of user input.
  * Implementations of this interface provide a way to retrieve user input.
+ * <p>
+ * Sessions and servers do not pull the input themselves, they {@link #subscribe(Flow.Subscriber)} to it and are
+ * handed every line as soon as it is read. Sources that block until a line is available are read without pauses,
+ * sources that answer an empty line when no input is available are polled at the input poll interval of the
+ * {@link PerformanceSettings}.
  * 
  * @author Abdallah Emad
  * @since 8-11-2023
  */
-public interface UserInputSource {
+public interface UserInputSource extends Flow.Publisher<String> {
 
   /**
    * Retrieves user input.
    *
-   * @return the user input as a String.
+   * @return the user input as a String, an empty String if no input is available right now, or null once the input
+   *     has ended.
    * @throws IOException if an I/O error occurs while retrieving the user input.
    */
   String getUserInput() throws IOException;
-  
+
+  /**
+   * Publishes every non-empty line of {@link #getUserInput()} to the subscriber, on a thread of its own, and
+   * completes the subscriber once the input has ended.
+   *
+   * @param subscriber the subscriber that receives the lines
+   */
+  @Override
+  default void subscribe(Flow.Subscriber<? super String> subscriber) {
+    InputSubscription.start(subscriber, this::getUserInput, PerformanceSettings.current().getInputPollInterval());
+  }
 }
\ No newline at end of file
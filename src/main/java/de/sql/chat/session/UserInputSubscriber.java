@@ -0,0 +1,88 @@
+package de.sql.chat.session;
+
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Subscribes a callback to a {@link UserInputSource} and hands it every line as soon as it is read.
+ * The subscriber requests all lines at once: the callback runs on the reading thread of the source, so a callback
+ * that blocks, for example on a full send queue, holds back the source by itself.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class UserInputSubscriber implements Flow.Subscriber<String> {
+
+  private static final Logger LOGGER = LogManager.getLogger(UserInputSubscriber.class);
+
+  private final Consumer<String> onLine;
+  private volatile Flow.Subscription subscription;
+  private volatile boolean cancelled;
+
+  /**
+   * Constructs a UserInputSubscriber.
+   *
+   * @param onLine the callback that receives every non-empty line
+   */
+  public UserInputSubscriber(Consumer<String> onLine) {
+    this.onLine = onLine;
+  }
+
+  /**
+   * Requests every line of the source, unless the subscriber was cancelled before.
+   *
+   * @param subscription the subscription to the source
+   */
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    if (cancelled) {
+      subscription.cancel();
+    } else {
+      subscription.request(Long.MAX_VALUE);
+    }
+  }
+
+  /**
+   * Hands a line to the callback.
+   *
+   * @param line the line read from the source
+   */
+  @Override
+  public void onNext(String line) {
+    if (!cancelled) {
+      onLine.accept(line);
+    }
+  }
+
+  /**
+   * Logs the error that ended the input.
+   *
+   * @param throwable the error
+   */
+  @Override
+  public void onError(Throwable throwable) {
+    LOGGER.error("Error reading user input: {}", throwable.getMessage());
+  }
+
+  /**
+   * Notes that the source has no more input.
+   */
+  @Override
+  public void onComplete() {
+    LOGGER.debug("User input ended");
+  }
+
+  /**
+   * Stops receiving lines from the source.
+   */
+  public void cancel() {
+    cancelled = true;
+    Flow.Subscription current = subscription;
+    if (current != null) {
+      current.cancel();
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package de.sql.chat.tls;
+
+import de.sql.chat.config.ChatConfiguration;
+import de.sql.chat.config.ChatConfigurationAccess;
+import de.sql.chat.config.Tls;
+import de.sql.chat.config.TlsSettings;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.exceptions.ErrorCode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The TLS setup shared by all servers and clients of the JVM, built once from the {@link TlsSettings}.
+ * <p>
+ * Every server socket, client socket and {@link SSLEngine} is created from the same {@link SSLContext}, so they
+ * share its session caches. A client that reconnects to a server it talked to before resumes the earlier session
+ * with a session ticket, which skips sending, signing and validating the certificates. TLS 1.3 still runs a key
+ * agreement on resumption, so the saving is largest with RSA certificates, whose signatures are the expensive part of
+ * a full handshake. That keeps a reconnect storm after a server restart or a network hiccup from becoming a CPU spike
+ * on the server.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public final class TlsContext {
+
+  private static final Logger LOGGER = LogManager.getLogger(TlsContext.class);
+  private static final Object CURRENT_LOCK = new Object();
+  // The configuration block the current context was built from, replaced when a reloaded configuration changes it
+  private static Tls currentSource;
+  private static TlsContext current;
+
+  private final SSLContext sslContext;
+  private final boolean serverCapable;
+  private final boolean verifyHostname;
+
+  private TlsContext(SSLContext sslContext, boolean serverCapable, boolean verifyHostname) {
+    this.sslContext = sslContext;
+    this.serverCapable = serverCapable;
+    this.verifyHostname = verifyHostname;
+  }
+
+  /**
+   * Returns the TLS context of the current configuration. The context is built once and reused until a reloaded
+   * configuration changes the {@code Tls} block, so sessions can be resumed across connections.
+   *
+   * @return the context, or null if TLS is disabled
+   * @throws ChatAppException if the configuration cannot be loaded or the key or trust store cannot be read
+   */
+  public static TlsContext current() throws ChatAppException {
+    ChatConfiguration configuration = ChatConfigurationAccess.getInstance().getChatConfiguration();
+    TlsSettings settings = TlsSettings.from(configuration);
+    if (!settings.isEnabled()) {
+      return null;
+    }
+    synchronized (CURRENT_LOCK) {
+      if (current == null || currentSource != configuration.getTls()) {
+        current = create(settings);
+        currentSource = configuration.getTls();
+      }
+      return current;
+    }
+  }
+
+  /**
+   * Creates a TLS context from settings, whether or not they enable TLS.
+   *
+   * @param settings the key store, trust store and session cache settings
+   * @return the new context
+   * @throws ChatAppException if the key or trust store cannot be read
+   */
+  public static TlsContext create(TlsSettings settings) throws ChatAppException {
+    try {
+      KeyManagerFactory keyManagers = null;
+      if (settings.getKeyStore() != null) {
+        keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(load(settings.getKeyStore(), settings.getKeyStoreType(), settings.getKeyStorePassword()),
+            settings.getKeyStorePassword());
+      }
+      TrustManagerFactory trustManagers = null;
+      if (settings.getTrustStore() != null) {
+        trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(load(settings.getTrustStore(), settings.getTrustStoreType(), settings.getTrustStorePassword()));
+      }
+
+      SSLContext sslContext = SSLContext.getInstance("TLS");
+      sslContext.init(keyManagers != null ? keyManagers.getKeyManagers() : null,
+          trustManagers != null ? trustManagers.getTrustManagers() : null, null);
+      for (SSLSessionContext sessions : new SSLSessionContext[] {
+          sslContext.getServerSessionContext(), sslContext.getClientSessionContext()}) {
+        sessions.setSessionCacheSize(settings.getSessionCacheSize());
+        sessions.setSessionTimeout((int) settings.getSessionTimeout().toSeconds());
+      }
+      LOGGER.debug("Created TLS context with key store {} and trust store {}", settings.getKeyStore(), settings.getTrustStore());
+      return new TlsContext(sslContext, keyManagers != null, settings.isVerifyHostname());
+    } catch (IOException | GeneralSecurityException e) {
+      LOGGER.error("Error creating TLS context: {}", e.getMessage());
+      throw new ChatAppException(ErrorCode.CONFIGURATION_ERROR, "Error creating TLS context: " + e.getMessage());
+    }
+  }
+
+  private static KeyStore load(Path path, String type, char[] password) throws IOException, GeneralSecurityException {
+    if (type == null) {
+      // Detects PKCS12 and JKS files
+      return KeyStore.getInstance(path.toFile(), password);
+    }
+    KeyStore keyStore = KeyStore.getInstance(type);
+    try (InputStream in = Files.newInputStream(path)) {
+      keyStore.load(in, password);
+    }
+    return keyStore;
+  }
+
+  /**
+   * Returns the SSL context all sockets and engines are created from.
+   *
+   * @return the SSL context
+   */
+  public SSLContext getSslContext() {
+    return sslContext;
+  }
+
+  /**
+   * Creates an unbound server socket whose accepted sockets handshake on their first read or write.
+   *
+   * @return the server socket
+   * @throws IOException if no key store is configured or the socket cannot be created
+   */
+  public ServerSocket createServerSocket() throws IOException {
+    checkServerCapable();
+    return sslContext.getServerSocketFactory().createServerSocket();
+  }
+
+  /**
+   * Creates an engine for the server side of a non-blocking connection.
+   *
+   * @return the engine, in server mode
+   * @throws IOException if no key store is configured
+   */
+  public SSLEngine createServerEngine() throws IOException {
+    checkServerCapable();
+    SSLEngine engine = sslContext.createSSLEngine();
+    engine.setUseClientMode(false);
+    return engine;
+  }
+
+  /**
+   * Layers TLS over a connected client socket. The handshake runs on the first read or write, and it resumes the
+   * last session with the same host and port if the session cache still holds it.
+   *
+   * @param socket the connected socket, closed together with the returned socket
+   * @param host   the host the client connected to, checked against the server certificate
+   * @param port   the port the client connected to
+   * @return the TLS socket
+   * @throws IOException if the socket cannot be layered
+   */
+  public Socket wrapClient(Socket socket, String host, int port) throws IOException {
+    SSLSocket tlsSocket = (SSLSocket) sslContext.getSocketFactory().createSocket(socket, host, port, true);
+    tlsSocket.setUseClientMode(true);
+    if (verifyHostname) {
+      SSLParameters parameters = tlsSocket.getSSLParameters();
+      parameters.setEndpointIdentificationAlgorithm("HTTPS");
+      tlsSocket.setSSLParameters(parameters);
+    }
+    return tlsSocket;
+  }
+
+  private void checkServerCapable() throws SSLException {
+    if (!serverCapable) {
+      throw new SSLException("TLS is enabled but no KeyStore with the server certificate is configured");
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package de.sql.chat.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A utility class for creating the thread factories used by the chat servers.
+ * Virtual threads are looked up reflectively, so the application still compiles and runs on Java 17
+ * and transparently switches to virtual threads when started on Java 21 or newer.
+ *
+ * @since 18-10-2026
+ * @author Abdallah Emad
+ */
+public class ThreadFactories {
+  private static final Logger LOGGER = LogManager.getLogger(ThreadFactories.class);
+
+  private ThreadFactories() {
+    // Private constructor to prevent instantiation from outside the class.
+  }
+
+  /**
+   * Checks whether the running JVM supports virtual threads.
+   *
+   * @return true if virtual threads are available, false otherwise
+   */
+  public static boolean isVirtualThreadSupported() {
+    return createVirtualThreadFactory("probe-") != null;
+  }
+
+  /**
+   * Creates a factory for virtual threads named with the given prefix and a counter.
+   * Falls back to platform threads when the running JVM does not support virtual threads.
+   *
+   * @param namePrefix the prefix of the thread names
+   * @return a thread factory creating virtual threads if possible, platform threads otherwise
+   */
+  public static ThreadFactory virtualThreadFactory(String namePrefix) {
+    ThreadFactory factory = createVirtualThreadFactory(namePrefix);
+    if (factory != null) {
+      return factory;
+    }
+    LOGGER.warn("Virtual threads are not supported by this JVM, falling back to platform threads");
+    return platformThreadFactory(namePrefix);
+  }
+
+  /**
+   * Creates a factory for platform threads named with the given prefix and a counter.
+   *
+   * @param namePrefix the prefix of the thread names
+   * @return a thread factory creating platform threads
+   */
+  public static ThreadFactory platformThreadFactory(String namePrefix) {
+    AtomicLong counter = new AtomicLong();
+    return task -> new Thread(task, namePrefix + counter.getAndIncrement());
+  }
+
+  /**
+   * Creates a virtual thread factory through {@code Thread.ofVirtual().name(prefix, 0).factory()}.
+   *
+   * @param namePrefix the prefix of the thread names
+   * @return the virtual thread factory, or null if virtual threads are not available
+   */
+  private static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+    try {
+      Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = ofVirtual.invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+}
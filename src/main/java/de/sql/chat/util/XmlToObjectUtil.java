@@ -3,12 +3,27 @@ package de.sql.chat.util;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * A utility class for converting XML to Java objects using JAXB.
+ * <p>
+ * Creating a {@link JAXBContext} is by far the most expensive step of unmarshalling, so one context is created
+ * per target class and kept for the lifetime of the class loader. Unmarshallers are not thread-safe but cheap to
+ * reuse, so every context keeps a small pool of them that callers borrow for one conversion.
  *
  * @param <T> the type of the target Java object
  *
@@ -17,6 +32,8 @@ import org.apache.logging.log4j.Logger;
  */
 public class XmlToObjectUtil<T> {
   private static final Logger LOGGER = LogManager.getLogger(XmlToObjectUtil.class);
+  private static final int MAX_POOLED_UNMARSHALLERS = 8;
+  private static final Map<Class<?>, CachedContext> CONTEXTS = new ConcurrentHashMap<>();
 
   private final T targetObject;
 
@@ -28,7 +45,7 @@ public class XmlToObjectUtil<T> {
    * @throws JAXBException if an error occurs during unmarshalling
    */
   public XmlToObjectUtil(String xmlBody, Class<T> targetClass) throws JAXBException {
-    this.targetObject = convertXmlToClass(xmlBody, targetClass);
+    this.targetObject = convertXmlToClass(new StreamSource(new StringReader(xmlBody)), targetClass, null);
   }
 
   /**
@@ -41,16 +58,74 @@ public class XmlToObjectUtil<T> {
   }
 
   /**
-   * Converts an XML string to an instance of the specified class.
+   * Converts the XML read from a stream to an instance of the specified class, without reading it into a string
+   * first. The stream is not closed.
    *
-   * @param xmlBody      the XML string to convert
+   * @param in           the stream to read the XML from
    * @param targetClass  the class to convert the XML to
+   * @param <T>          the type of the target Java object
    * @return the converted instance of the specified class
    * @throws JAXBException if an error occurs during unmarshalling
    */
-  private T convertXmlToClass(String xmlBody, Class<T> targetClass) throws JAXBException {
+  public static <T> T unmarshal(InputStream in, Class<T> targetClass) throws JAXBException {
+    return convertXmlToClass(new StreamSource(in), targetClass, null);
+  }
+
+  /**
+   * Converts the XML read from a stream to an instance of the specified class after validating it against a schema.
+   * The stream is not closed.
+   *
+   * @param in           the stream to read the XML from
+   * @param targetClass  the class to convert the XML to
+   * @param schema       the schema the XML must be valid against
+   * @param <T>          the type of the target Java object
+   * @return the converted instance of the specified class
+   * @throws JAXBException if the XML is not valid or an error occurs during unmarshalling
+   */
+  public static <T> T unmarshal(InputStream in, Class<T> targetClass, Schema schema) throws JAXBException {
+    return convertXmlToClass(new StreamSource(in), targetClass, schema);
+  }
+
+  /**
+   * Converts the XML of a file to an instance of the specified class.
+   *
+   * @param path         the XML file
+   * @param targetClass  the class to convert the XML to
+   * @param <T>          the type of the target Java object
+   * @return the converted instance of the specified class
+   * @throws IOException   if the file cannot be read
+   * @throws JAXBException if an error occurs during unmarshalling
+   */
+  public static <T> T unmarshal(Path path, Class<T> targetClass) throws IOException, JAXBException {
+    try (InputStream in = Files.newInputStream(path)) {
+      StreamSource source = new StreamSource(in, path.toUri().toString());
+      return convertXmlToClass(source, targetClass, null);
+    }
+  }
+
+  /**
+   * Returns the cached JAXB context of a class, creating it on first use.
+   *
+   * @param targetClass the class bound by the context
+   * @return the shared context
+   * @throws JAXBException if the context cannot be created
+   */
+  public static JAXBContext getContext(Class<?> targetClass) throws JAXBException {
+    return getCachedContext(targetClass).context;
+  }
+
+  /**
+   * Converts an XML source to an instance of the specified class.
+   *
+   * @param source       the XML source to convert
+   * @param targetClass  the class to convert the XML to
+   * @param schema       the schema to validate against, or null to skip validation
+   * @return the converted instance of the specified class
+   * @throws JAXBException if an error occurs during unmarshalling
+   */
+  private static <T> T convertXmlToClass(Source source, Class<T> targetClass, Schema schema) throws JAXBException {
     try {
-      return unmarshal(xmlBody, targetClass);
+      return unmarshal(source, targetClass, schema);
     } catch (JAXBException | ClassCastException e) {
       LOGGER.error("Error during JAXB unmarshalling", e);
       throw e;
@@ -58,19 +133,62 @@ public class XmlToObjectUtil<T> {
   }
 
   /**
-   * Unmarshals the given XML body into an object of type T.
+   * Unmarshals the given XML source into an object of type T with a pooled unmarshaller.
    *
-   * @param xmlBody      the XML body to unmarshal
+   * @param source       the XML source to unmarshal
    * @param targetClass  the class of the target object
+   * @param schema       the schema to validate against, or null to skip validation
    * @return the unmarshalled object of type T
    * @throws JAXBException if an error occurs during unmarshalling
    */
-  private T unmarshal(String xmlBody, Class<T> targetClass) throws JAXBException {
-    JAXBContext jaxbContext = JAXBContext.newInstance(targetClass);
-    Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+  private static <T> T unmarshal(Source source, Class<T> targetClass, Schema schema) throws JAXBException {
+    CachedContext cached = getCachedContext(targetClass);
+    Unmarshaller unmarshaller = cached.borrow();
+    try {
+      unmarshaller.setSchema(schema);
+      return targetClass.cast(unmarshaller.unmarshal(source));
+    } finally {
+      // Pooled unmarshallers are shared by all callers, so none keeps the schema of the previous one
+      unmarshaller.setSchema(null);
+      cached.release(unmarshaller);
+    }
+  }
+
+  private static CachedContext getCachedContext(Class<?> targetClass) throws JAXBException {
+    CachedContext cached = CONTEXTS.get(targetClass);
+    if (cached == null) {
+      // Two threads may both create a context on first use, only one of them is kept
+      cached = new CachedContext(JAXBContext.newInstance(targetClass));
+      CachedContext existing = CONTEXTS.putIfAbsent(targetClass, cached);
+      if (existing != null) {
+        cached = existing;
+      }
+      LOGGER.debug("Created JAXB context for {}", targetClass.getName());
+    }
+    return cached;
+  }
+
+  /**
+   * A JAXB context with a bounded pool of idle unmarshallers.
+   */
+  private static class CachedContext {
+    private final JAXBContext context;
+    private final Queue<Unmarshaller> idle = new ConcurrentLinkedQueue<>();
+
+    CachedContext(JAXBContext context) {
+      this.context = context;
+    }
+
+    Unmarshaller borrow() throws JAXBException {
+      Unmarshaller unmarshaller = idle.poll();
+      return unmarshaller != null ? unmarshaller : context.createUnmarshaller();
+    }
 
-    try (StringReader reader = new StringReader(xmlBody)) {
-      return targetClass.cast(unmarshaller.unmarshal(reader));
+    void release(Unmarshaller unmarshaller) {
+      // The size is only a bound against unlimited growth, an occasional extra unmarshaller does no harm
+      if (idle.size() < MAX_POOLED_UNMARSHALLERS) {
+        idle.add(unmarshaller);
+      }
     }
   }
-}
\ No newline at end of file
+}
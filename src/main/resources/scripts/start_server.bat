@@ -1,3 +1,5 @@
 @echo off
-java -jar sql-chat-${project.version}.jar
+rem On the first start, dump the classes loaded during startup into a class data sharing archive, later starts map it
+if not exist sql-chat.jsa if exist sql-chat.classlist java -Xshare:dump -XX:SharedClassListFile=sql-chat.classlist -XX:SharedArchiveFile=sql-chat.jsa -jar sql-chat-${project.version}.jar >nul 2>&1
+java -XX:SharedArchiveFile=sql-chat.jsa -jar sql-chat-${project.version}.jar
 pause
\ No newline at end of file
@@ -0,0 +1,44 @@
+package de.sql.chat.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class ReconnectBackoffTest {
+
+  @Test
+  void testLimitDoublesUpToMaximum() {
+    ReconnectBackoff backoff = new ReconnectBackoff(Duration.ofMillis(100), Duration.ofSeconds(1));
+
+    assertEquals(Duration.ofMillis(100), backoff.getLimit(1));
+    assertEquals(Duration.ofMillis(200), backoff.getLimit(2));
+    assertEquals(Duration.ofMillis(800), backoff.getLimit(4));
+    assertEquals(Duration.ofSeconds(1), backoff.getLimit(5));
+    assertEquals(Duration.ofSeconds(1), backoff.getLimit(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void testDelaysAreSpreadBelowLimit() {
+    ReconnectBackoff backoff = new ReconnectBackoff(Duration.ofMillis(1000), Duration.ofSeconds(30));
+    long min = Long.MAX_VALUE;
+    long max = 0;
+    for (int i = 0; i < 1000; i++) {
+      long delay = backoff.nextDelay(1).toMillis();
+      min = Math.min(min, delay);
+      max = Math.max(max, delay);
+    }
+
+    assertTrue(min >= 0 && max <= 1000);
+    // Full jitter spreads clients over the whole interval instead of sending them together
+    assertTrue(min < 100 && max > 900);
+  }
+
+  @Test
+  void testRejectsInvalidDelays() {
+    assertThrows(IllegalArgumentException.class, () -> new ReconnectBackoff(Duration.ZERO, Duration.ofSeconds(1)));
+    assertThrows(IllegalArgumentException.class, () -> new ReconnectBackoff(Duration.ofMillis(1), Duration.ofMillis(-1)));
+  }
+}
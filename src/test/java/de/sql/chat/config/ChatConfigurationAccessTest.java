@@ -1,15 +1,31 @@
 package de.sql.chat.config;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.when;
 
 import de.sql.chat.exceptions.ChatAppException;
 import de.sql.chat.exceptions.ErrorCode;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
 class ChatConfigurationAccessTest {
@@ -57,4 +73,115 @@ class ChatConfigurationAccessTest {
       mockChatConfigurationAccess.getResourceFilePath();
     }, "Error converting URL to URI: " + ChatConfigurationAccess.CONFIG_FILE_PATH);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testReloadPublishesChangedKeys() throws Exception {
+    ChatConfiguration before = chatConfigurationAccess.getChatConfiguration();
+    List<Set<String>> notifications = new ArrayList<>();
+    ConfigurationListener listener = (configuration, changedKeys) -> notifications.add(changedKeys);
+    chatConfigurationAccess.reload(xml(before.getApplication().getName(), before.getApplication().getLocal()));
+    chatConfigurationAccess.addListener(listener);
+    try {
+      Set<String> changed = chatConfigurationAccess.reload(xml("Renamed Application", before.getApplication().getLocal()));
+
+      assertEquals(Set.of("Application.Name"), changed);
+      assertEquals(List.of(Set.of("Application.Name")), notifications);
+      assertEquals("Renamed Application", chatConfigurationAccess.getChatConfiguration().getApplication().getName());
+
+      // Reloading the same values publishes the new instance but notifies nobody
+      assertTrue(chatConfigurationAccess.reload(xml("Renamed Application", before.getApplication().getLocal())).isEmpty());
+      assertEquals(1, notifications.size());
+    } finally {
+      chatConfigurationAccess.removeListener(listener);
+      chatConfigurationAccess.reload();
+    }
+  }
+
+  @Test
+  void testOverlappingReloadsPublishInOrder() throws Exception {
+    ChatConfiguration before = chatConfigurationAccess.getChatConfiguration();
+    String locale = before.getApplication().getLocal();
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    InputStream slow = new InputStream() {
+      private final InputStream delegate = xml("Older Application", locale);
+
+      @Override
+      public int read() throws IOException {
+        reading.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return delegate.read();
+      }
+    };
+    try {
+      Thread older = new Thread(() -> reloadQuietly(slow));
+      older.start();
+      assertTrue(reading.await(5, TimeUnit.SECONDS));
+      Thread newer = new Thread(() -> reloadQuietly(xml("Newer Application", locale)));
+      newer.start();
+      Thread.sleep(100);
+      release.countDown();
+      older.join(5000);
+      newer.join(5000);
+
+      // The reload that started parsing later publishes last
+      assertEquals("Newer Application", chatConfigurationAccess.getChatConfiguration().getApplication().getName());
+    } finally {
+      release.countDown();
+      chatConfigurationAccess.reload();
+    }
+  }
+
+  @Test
+  void testInvalidConfigurationKeepsCurrent() throws Exception {
+    ChatConfiguration before = chatConfigurationAccess.getChatConfiguration();
+    String missingLocale = "<ChatConfiguration xmlns=\"config.chat.sql.de\"><Application><Name>Broken</Name></Application></ChatConfiguration>";
+
+    ChatAppException e = assertThrows(ChatAppException.class,
+        () -> chatConfigurationAccess.reload(new ByteArrayInputStream(missingLocale.getBytes(UTF_8))));
+
+    assertEquals(ErrorCode.CONFIGURATION_ERROR, e.getErrorCode());
+    assertSame(before, chatConfigurationAccess.getChatConfiguration());
+  }
+
+  @Test
+  void testWatcherReloadsChangedFile(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("configuration-chat.xml");
+    String locale = chatConfigurationAccess.getChatConfiguration().getApplication().getLocal();
+    Files.write(file, xml("Watched Application", locale).readAllBytes());
+    chatConfigurationAccess.reload(xml("Watched Application", locale));
+    BlockingQueue<Set<String>> notifications = new LinkedBlockingQueue<>();
+    ConfigurationListener listener = (configuration, changedKeys) -> notifications.add(changedKeys);
+    chatConfigurationAccess.addListener(listener);
+
+    try (ConfigurationWatcher watcher = chatConfigurationAccess.watch(file)) {
+      Files.write(file, xml("Watched Application", "de").readAllBytes());
+
+      // The JDK falls back to polling on some platforms, which can take several seconds
+      Set<String> changed = notifications.poll(30, TimeUnit.SECONDS);
+      assertEquals(Set.of("Application.Local"), changed);
+      assertEquals("de", chatConfigurationAccess.getChatConfiguration().getApplication().getLocal());
+    } finally {
+      chatConfigurationAccess.removeListener(listener);
+      chatConfigurationAccess.reload();
+    }
+  }
+
+  private static void reloadQuietly(InputStream in) {
+    try {
+      chatConfigurationAccess.reload(in);
+    } catch (ChatAppException e) {
+      fail("Reload failed: " + e.getMessage());
+    }
+  }
+
+  private static InputStream xml(String name, String locale) {
+    String xml = "<ChatConfiguration xmlns=\"config.chat.sql.de\" version=\"3.0\"><Application><Name>" + name
+        + "</Name><Local>" + locale + "</Local></Application></ChatConfiguration>";
+    return new ByteArrayInputStream(xml.getBytes(UTF_8));
+  }
+}
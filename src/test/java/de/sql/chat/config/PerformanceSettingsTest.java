@@ -0,0 +1,105 @@
+package de.sql.chat.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.session.OverflowPolicy;
+import de.sql.chat.util.XmlToObjectUtil;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PerformanceSettingsTest {
+
+  @Test
+  void testDefaultsWithoutPerformanceBlock() throws Exception {
+    ChatConfiguration configuration = parse("");
+    PerformanceSettings settings = PerformanceSettings.from(configuration);
+
+    assertSame(PerformanceSettings.DEFAULTS, settings);
+    assertEquals(0, settings.getListenPort());
+    assertEquals(PerformanceSettings.DEFAULT_BACKLOG, settings.getBacklog());
+    assertTrue(settings.isTcpNoDelay());
+    assertEquals(Runtime.getRuntime().availableProcessors(), settings.getIoThreads());
+    assertEquals(Duration.ofMillis(100), settings.getInputPollInterval());
+    assertEquals(1024 * 1024, settings.getSendQueueBytes());
+    assertEquals(OverflowPolicy.DROP_OLDEST, settings.getSendQueuePolicy());
+    assertEquals(Duration.ofSeconds(10), settings.getConnectTimeout());
+    assertTrue(settings.isTcpKeepAlive());
+    assertEquals(Duration.ofSeconds(15), settings.getHeartbeatInterval());
+    assertEquals(Duration.ofSeconds(45), settings.getReadTimeout());
+    assertEquals(Duration.ofMinutes(30), settings.getIdleTimeout());
+    assertEquals(1024, settings.getCompressionThreshold());
+    assertEquals(6, settings.getCompressionLevel());
+    assertEquals(10, settings.getReconnectAttempts());
+    assertEquals(Duration.ofMillis(500), settings.getReconnectInitialDelay());
+    assertEquals(Duration.ofSeconds(30), settings.getReconnectMaxDelay());
+    assertEquals(1000, settings.getResumeBufferMessages());
+    assertEquals(Duration.ofMinutes(1), settings.getResumeTimeout());
+  }
+
+  @Test
+  void testConfiguredValuesOverrideDefaults() throws Exception {
+    PerformanceSettings settings = PerformanceSettings.from(parse("<Performance><Backlog>7</Backlog><TcpNoDelay>false</TcpNoDelay>"
+        + "<IoThreads>3</IoThreads><SendWindowMicros>250</SendWindowMicros><HistoryCapacity>20</HistoryCapacity>"
+        + "<SendQueueBytes>4096</SendQueueBytes><SendQueuePolicy>BLOCK</SendQueuePolicy>"
+        + "<TcpKeepAlive>false</TcpKeepAlive><HeartbeatMillis>0</HeartbeatMillis><ReadTimeoutMillis>5000</ReadTimeoutMillis>"
+        + "<IdleTimeoutMillis>60000</IdleTimeoutMillis>"
+        + "<CompressionThresholdBytes>0</CompressionThresholdBytes><CompressionLevel>1</CompressionLevel>"
+        + "<ReconnectAttempts>0</ReconnectAttempts><ReconnectInitialDelayMillis>100</ReconnectInitialDelayMillis>"
+        + "<ReconnectMaxDelayMillis>2000</ReconnectMaxDelayMillis><ResumeBufferMessages>0</ResumeBufferMessages>"
+        + "<ResumeTimeoutMillis>5000</ResumeTimeoutMillis></Performance>"));
+
+    assertEquals(7, settings.getBacklog());
+    assertFalse(settings.isTcpNoDelay());
+    assertEquals(3, settings.getIoThreads());
+    assertEquals(Duration.ofMillis(100), settings.getInputPollInterval());
+    assertEquals(Duration.ofNanos(250_000), settings.getSendWindow());
+    assertEquals(20, settings.getHistoryCapacity());
+    assertEquals(PerformanceSettings.DEFAULT_SEND_BATCH_BYTES, settings.getSendBatchBytes());
+    assertEquals(4096, settings.getSendQueueBytes());
+    assertEquals(OverflowPolicy.BLOCK, settings.getSendQueuePolicy());
+    assertFalse(settings.isTcpKeepAlive());
+    assertEquals(Duration.ZERO, settings.getHeartbeatInterval());
+    assertEquals(Duration.ofSeconds(5), settings.getReadTimeout());
+    assertEquals(Duration.ofMinutes(1), settings.getIdleTimeout());
+    assertEquals(0, settings.getCompressionThreshold());
+    assertEquals(1, settings.getCompressionLevel());
+    assertEquals(0, settings.getReconnectAttempts());
+    assertEquals(Duration.ofMillis(100), settings.getReconnectInitialDelay());
+    assertEquals(Duration.ofSeconds(2), settings.getReconnectMaxDelay());
+    assertEquals(0, settings.getResumeBufferMessages());
+    assertEquals(Duration.ofSeconds(5), settings.getResumeTimeout());
+    assertEquals(Duration.ofSeconds(10), settings.getConnectTimeout());
+  }
+
+  @Test
+  void testBindAppliesReceiveBuffer() throws Exception {
+    PerformanceSettings settings = PerformanceSettings.from(parse("<Performance><ReceiveBufferSize>65536</ReceiveBufferSize></Performance>"));
+
+    try (ServerSocket serverSocket = new ServerSocket()) {
+      settings.bind(serverSocket);
+
+      assertTrue(serverSocket.isBound());
+      // The platform may round the size, but never below the requested value on common systems
+      assertTrue(serverSocket.getReceiveBufferSize() >= 65536 / 2);
+    }
+  }
+
+  @Test
+  void testChangedPerformanceKeys() throws Exception {
+    ChatConfiguration before = parse("<Performance><SendWindowMicros>0</SendWindowMicros></Performance>");
+    ChatConfiguration after = parse("<Performance><SendWindowMicros>100</SendWindowMicros></Performance>");
+
+    assertEquals(Set.of("Performance.SendWindowMicros"), ConfigurationKeys.changedKeys(before, after));
+  }
+
+  private static ChatConfiguration parse(String performance) throws Exception {
+    String xml = "<ChatConfiguration xmlns=\"config.chat.sql.de\"><Application><Name>Test</Name><Local>en</Local></Application>"
+        + performance + "</ChatConfiguration>";
+    return new XmlToObjectUtil<>(xml, ChatConfiguration.class).getTargetObject();
+  }
+}
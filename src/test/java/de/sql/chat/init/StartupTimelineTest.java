@@ -0,0 +1,35 @@
+package de.sql.chat.init;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class StartupTimelineTest {
+
+  private final StartupTimeline timeline = StartupTimeline.getInstance();
+
+  @Test
+  void testMarkRecordsPhasesInOrder() {
+    timeline.mark("first test phase");
+    timeline.mark("second test phase");
+
+    int first = timeline.getPhases().indexOf("first test phase");
+    int second = timeline.getPhases().indexOf("second test phase");
+    assertTrue(first >= 0 && second > first);
+    assertTrue(timeline.getElapsed("second test phase").compareTo(timeline.getElapsed("first test phase")) >= 0);
+    assertTrue(timeline.format().contains("second test phase"));
+  }
+
+  @Test
+  void testAwaitCompletionReturnsAfterComplete() throws InterruptedException {
+    Thread completing = new Thread(() -> timeline.complete("completed test phase"));
+    completing.start();
+
+    assertNotNull(timeline.awaitCompletion(Duration.ofSeconds(5)));
+    completing.join();
+    // Servers started by other tests may have completed the startup already, the phase is marked anyway
+    assertNotNull(timeline.getElapsed("completed test phase"));
+  }
+}
@@ -0,0 +1,91 @@
+package de.sql.chat.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChatJournalTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testTailReturnsMostRecentMessagesOfARoom() throws ChatAppException {
+    try (ChatJournal journal = new ChatJournal(directory)) {
+      for (int i = 1; i <= 5; i++) {
+        journal.append("lobby", new ChatMessage(ChatSenderType.CLIENT, "lobby " + i));
+        journal.append("dev", new ChatMessage(ChatSenderType.CLIENT, "dev " + i));
+      }
+      journal.append(ChatJournal.NO_ROOM, new ChatMessage(ChatSenderType.SERVER, "to everyone")).join();
+
+      assertEquals(List.of("Client: lobby 4", "Client: lobby 5", "Server: to everyone"), lines(journal.tail("lobby", 3)));
+      assertEquals(List.of("Client: dev 5", "Server: to everyone"), lines(journal.tail(null, 2)));
+      assertEquals(6, journal.tail("dev", 100).size());
+    }
+  }
+
+  @Test
+  void testRollsSegmentsAndReadsAcrossThem() throws ChatAppException {
+    try (ChatJournal journal = new ChatJournal(directory, 256)) {
+      CompletableFuture<Void> last = null;
+      for (int i = 0; i < 100; i++) {
+        last = journal.append("lobby", new ChatMessage(ChatSenderType.CLIENT, "message " + i));
+      }
+      last.join();
+
+      assertTrue(journal.getSegmentCount() > 1);
+      List<JournalEntry> tail = journal.tail("lobby", 30);
+      assertEquals(30, tail.size());
+      assertEquals("Client: message 70", tail.get(0).toString());
+      assertEquals("Client: message 99", tail.get(29).toString());
+    }
+  }
+
+  @Test
+  void testReopenedJournalReplaysMessagesAndDropsTornRecord() throws ChatAppException, IOException {
+    try (ChatJournal journal = new ChatJournal(directory)) {
+      journal.append("lobby", new ChatMessage(ChatSenderType.CLIENT, "first"));
+      journal.append("lobby", new ChatMessage(ChatSenderType.SERVER, "second\nline")).join();
+    }
+
+    // Simulate a crash in the middle of writing a record
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.findFirst().orElseThrow();
+    }
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3}));
+    }
+
+    try (ChatJournal journal = new ChatJournal(directory)) {
+      List<JournalEntry> entries = new ArrayList<>();
+      journal.replay(entries::add);
+
+      assertEquals(List.of("Client: first", "Server: second\nline"), lines(entries));
+      assertEquals("lobby", entries.get(0).getRoom());
+
+      journal.append("lobby", new ChatMessage(ChatSenderType.CLIENT, "third")).join();
+      assertEquals(List.of("Server: second\nline", "Client: third"), lines(journal.tail("lobby", 2)));
+    }
+  }
+
+  private static List<String> lines(List<JournalEntry> entries) {
+    return entries.stream().map(JournalEntry::toString).collect(Collectors.toList());
+  }
+}
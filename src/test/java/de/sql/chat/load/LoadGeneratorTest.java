@@ -0,0 +1,101 @@
+package de.sql.chat.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.server.NioChatServer;
+import de.sql.chat.session.EmptyUserInputSource;
+import de.sql.chat.session.UserInputSubscriber;
+import de.sql.chat.util.TestUtils;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LoadGeneratorTest {
+
+  @Test
+  void testClientsSendAndReceiveRelayedMessages() throws ChatAppException {
+    NioChatServer chatServer = new NioChatServer(1);
+    chatServer.setMessageListener(message -> { });
+    chatServer.start(new EmptyUserInputSource());
+    try {
+      LoadGenerator loadGenerator = new LoadGenerator(chatServer.getServerIP(), chatServer.getServerPort(), 3);
+      loadGenerator.setMessagesPerClient(50);
+      loadGenerator.setTexts(List.of("first", "second"));
+
+      LoadReport report = loadGenerator.run();
+
+      assertEquals(3, report.getConnectedClients());
+      assertEquals(150, report.getSent());
+      // Every message is relayed to the two other clients of the room
+      assertEquals(300, report.getReceived());
+      assertEquals(300, report.getLatencies().getCount());
+      assertTrue(report.format().contains("p99"));
+    } finally {
+      chatServer.close();
+    }
+  }
+
+  @Test
+  void testRunEndsWhenServerGoesAway() throws Exception {
+    NioChatServer chatServer = new NioChatServer(1);
+    chatServer.setMessageListener(message -> { });
+    chatServer.start(new EmptyUserInputSource());
+    LoadGenerator loadGenerator = new LoadGenerator(chatServer.getServerIP(), chatServer.getServerPort(), 2);
+    // A thousand messages at 50 msg/s would take 20 s
+    loadGenerator.setMessagesPerClient(1000);
+    loadGenerator.setRatePerClient(50);
+    loadGenerator.setReconnectAttempts(0);
+    Thread stopper = new Thread(() -> {
+      TestUtils.sleepForShortDuration(1000);
+      chatServer.close();
+    });
+    stopper.start();
+    long start = System.nanoTime();
+
+    LoadReport report = loadGenerator.run();
+
+    stopper.join();
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(15));
+    assertEquals(2, report.getConnectedClients());
+    assertEquals(2, report.getFailedClients());
+    assertTrue(report.getSent() < 2000);
+    assertTrue(report.format().contains("2 failed"));
+  }
+
+  @Test
+  void testSourceEndsWhenSubscriptionIsCancelled() throws InterruptedException {
+    RateUserInputSource source = new RateUserInputSource(List.of("text"), 1000, 10);
+    UserInputSubscriber subscriber = new UserInputSubscriber(line -> { });
+    source.subscribe(subscriber);
+    assertTrue(source.awaitStart(Duration.ofSeconds(5)));
+
+    subscriber.cancel();
+
+    source.awaitCompletion();
+    assertFalse(source.isFinished());
+  }
+
+  @Test
+  void testSourceKeepsTheRate() {
+    RateUserInputSource source = new RateUserInputSource(List.of("text"), 11, 100);
+    long start = System.nanoTime();
+
+    String message = source.getUserInput();
+    for (int i = 1; i < 11; i++) {
+      source.getUserInput();
+    }
+
+    // The eleventh message is due ten intervals of 10 ms after the first
+    assertTrue(System.nanoTime() - start >= 100_000_000L);
+    assertTrue(message.startsWith(LoadMessage.MARKER + "0 "));
+    assertTrue(LoadMessage.sendNanosOf("Client: " + message) >= start);
+    assertNull(source.getUserInput());
+    assertEquals(11, source.getPublished());
+    assertTrue(source.isFinished());
+  }
+}
@@ -0,0 +1,25 @@
+package de.sql.chat.localization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class LocalizedResourceManagerTest {
+
+  private final LocalizedResourceManager manager = LocalizedResourceManager.getInstance();
+
+  @Test
+  void testMessagesAreFormattedInTheRequestedLocale() {
+    assertEquals("Joined room dev.", manager.getFormattedMessage(Locale.ENGLISH, LocalizationBundle.MESSAGES, "room.joined", "dev"));
+    assertEquals("Raum dev beigetreten.", manager.getFormattedMessage(Locale.GERMAN, LocalizationBundle.MESSAGES, "room.joined", "dev"));
+    assertEquals("Server gestoppt.", manager.getMessage(Locale.GERMAN, LocalizationBundle.MESSAGES, "server.stopped"));
+  }
+
+  @Test
+  void testRequestedLocaleIsResolvedToABundleLocale() {
+    assertEquals(Locale.GERMAN, manager.resolveLocale(Locale.forLanguageTag("de-AT")));
+    assertEquals(Locale.ENGLISH, manager.resolveLocale(Locale.US));
+    assertEquals(manager.getCurrentLocale(), manager.resolveLocale(Locale.forLanguageTag("xx-unknown")));
+  }
+}
@@ -0,0 +1,50 @@
+package de.sql.chat.localization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateTest {
+
+  @Test
+  void testSimplePatternMatchesMessageFormat() {
+    assertFormatsLikeMessageFormat("Joined room {0}.", true, "lobby");
+    assertFormatsLikeMessageFormat("{1} and {0}", true, "first", "second");
+    assertFormatsLikeMessageFormat("No placeholders", true);
+    assertFormatsLikeMessageFormat("{0}{0}", true, (Object) null);
+    assertFormatsLikeMessageFormat("Missing {0} and {2}", true, "one");
+  }
+
+  @Test
+  void testNumbersAreFormattedForTheLocale() {
+    assertFormatsLikeMessageFormat("Server started. Your IP: {0}, Port: {1}", true, "127.0.0.1", 35059);
+    assertEquals("Port: 35.059", MessageTemplate.compile("Port: {0}", Locale.GERMAN).format(35059));
+  }
+
+  @Test
+  void testPatternsWithQuotesOrTypesUseMessageFormat() {
+    assertFormatsLikeMessageFormat("It''s {0}", false, "late");
+    assertFormatsLikeMessageFormat("'{0}' is {0}", false, "quoted");
+    assertFormatsLikeMessageFormat("{0,number,#.##} messages", false, 1.5);
+  }
+
+  @Test
+  void testInvalidPatternIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Unmatched {0", Locale.ENGLISH));
+  }
+
+  private static void assertFormatsLikeMessageFormat(String pattern, boolean simple, Object... args) {
+    MessageTemplate template = MessageTemplate.compile(pattern, Locale.ENGLISH);
+    assertEquals(new MessageFormat(pattern, Locale.ENGLISH).format(args), template.format(args));
+    if (simple) {
+      assertTrue(template.isSimple());
+    } else {
+      assertFalse(template.isSimple());
+    }
+  }
+}
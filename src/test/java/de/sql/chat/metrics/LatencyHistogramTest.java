@@ -0,0 +1,49 @@
+package de.sql.chat.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void testBucketsKeepValuesWithinOneSixteenth() {
+    for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 1000, 123_456, 987_654_321, Long.MAX_VALUE}) {
+      long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value));
+      assertTrue(upperBound >= value, "upper bound of " + value);
+      assertTrue(upperBound - value <= value / 16, "precision of " + value);
+    }
+    assertEquals(959, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+  }
+
+  @Test
+  void testPercentilesOfRecordedLatencies() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 1000; micros++) {
+      histogram.record(micros * 1000);
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    assertEquals(500_500_000, histogram.getSum());
+    assertEquals(500_000, histogram.getPercentile(50), 500_000 / 16.0);
+    assertEquals(990_000, histogram.getPercentile(99), 990_000 / 16.0);
+    assertEquals(1_000_000, histogram.getPercentile(100));
+  }
+
+  @Test
+  void testEmptyAndResetHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(99));
+
+    histogram.record(-5);
+    histogram.record(42);
+    histogram.reset();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+    assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+  }
+}
@@ -0,0 +1,50 @@
+package de.sql.chat.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.exceptions.ChatAppException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+class MetricsEndpointTest {
+
+  private final ChatMetrics metrics = ChatMetrics.getInstance();
+
+  @Test
+  void testServesMetricsAsPlainText() throws ChatAppException, IOException {
+    metrics.connectionAccepted();
+    metrics.getSendToWrite().record(2_000);
+
+    try (MetricsEndpoint endpoint = new MetricsEndpoint(metrics, 0)) {
+      HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + endpoint.getPort() + MetricsEndpoint.PATH).openConnection();
+      String body;
+      try (InputStream in = connection.getInputStream()) {
+        body = new String(in.readAllBytes(), UTF_8);
+      }
+
+      assertEquals(200, connection.getResponseCode());
+      assertTrue(connection.getContentType().startsWith("text/plain"));
+      assertTrue(body.contains("# TYPE chat_connections_accepted_total counter\n"));
+      assertTrue(body.contains("chat_connections_accepted_total " + metrics.getAcceptedConnections() + "\n"));
+      assertTrue(body.contains("chat_send_to_write_seconds{quantile=\"0.99\"} "));
+      assertTrue(body.contains("chat_send_to_write_seconds_count " + metrics.getSendToWrite().getCount() + "\n"));
+    }
+  }
+
+  @Test
+  void testMetricsAreRegisteredWithJmx() throws JMException {
+    metrics.registerMBean();
+    metrics.registerMBean();
+
+    Object accepted = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(ChatMetrics.OBJECT_NAME), "AcceptedConnections");
+    assertEquals(metrics.getAcceptedConnections(), accepted);
+  }
+}
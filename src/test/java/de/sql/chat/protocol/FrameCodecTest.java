@@ -0,0 +1,63 @@
+package de.sql.chat.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class FrameCodecTest {
+
+  @Test
+  void testRoundTrip() throws ProtocolException {
+    ByteBuffer encoded = FrameCodec.encode(FrameType.MESSAGE, 1, "Hello\nw\u00f6rld");
+
+    Frame frame = new FrameCodec().decode(encoded.duplicate());
+
+    assertNotNull(frame);
+    assertEquals(FrameType.MESSAGE, frame.getType());
+    assertEquals(1, frame.getSenderId());
+    assertEquals("Hello\nw\u00f6rld", frame.getText());
+  }
+
+  @Test
+  void testDecodesFramesSplitAcrossReads() throws ProtocolException {
+    ByteBuffer encoded = FrameCodec.encode(FrameType.MESSAGE, 0, "split frame");
+    FrameCodec codec = new FrameCodec();
+
+    // Feed the frame one byte at a time, including the length field
+    Frame frame = null;
+    for (int i = 0; i < encoded.limit(); i++) {
+      assertNull(frame);
+      frame = codec.decode(encoded.slice(i, 1));
+    }
+
+    assertNotNull(frame);
+    assertEquals("split frame", frame.getText());
+    assertEquals(0, codec.getPendingLength());
+  }
+
+  @Test
+  void testDecodesSeveralFramesFromOneBuffer() throws ProtocolException {
+    ByteBuffer first = FrameCodec.encode(FrameType.MESSAGE, 0, "first");
+    ByteBuffer second = FrameCodec.encode(FrameType.MESSAGE, 1, "second");
+    ByteBuffer buffer = ByteBuffer.allocate(first.remaining() + second.remaining()).put(first).put(second).flip();
+    FrameCodec codec = new FrameCodec();
+
+    assertEquals("first", codec.decode(buffer).getText());
+    assertEquals("second", codec.decode(buffer).getText());
+    assertNull(codec.decode(buffer));
+    assertTrue(!buffer.hasRemaining());
+  }
+
+  @Test
+  void testRejectsOversizedFrames() {
+    ByteBuffer encoded = FrameCodec.encode(FrameType.MESSAGE, 0, "too long for this codec");
+
+    assertThrows(ProtocolException.class, () -> new FrameCodec(4).decode(encoded));
+  }
+}
@@ -0,0 +1,104 @@
+package de.sql.chat.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FrameCompressionTest {
+
+  private static final String LOG_LINE = "2026-10-18 10:15:00 INFO  [nio-worker-0] Client connected from 10.0.0.1\n";
+
+  @Test
+  void testLargeMessagesAreDeflated() throws ProtocolException {
+    String text = LOG_LINE.repeat(100);
+    ByteBuffer frame = FrameCodec.encode(FrameType.MESSAGE, 1, text);
+    FrameCompression compression = new FrameCompression(6, 1024);
+
+    ByteBuffer compressed = compression.compress(frame);
+    Frame received = new FrameCodec().decode(compressed.duplicate());
+
+    assertTrue(compressed.remaining() * 10 < frame.remaining());
+    assertTrue(FrameCompression.isDeflated(received));
+    Frame inflated = new FrameCompression(6, 0).inflate(received);
+    assertFalse(FrameCompression.isDeflated(inflated));
+    assertEquals(FrameType.MESSAGE, inflated.getType());
+    assertEquals(1, inflated.getSenderId());
+    assertEquals(text, inflated.getText());
+  }
+
+  @Test
+  void testSmallMessagesAreSentAsTheyAre() {
+    ByteBuffer frame = FrameCodec.encode(FrameType.MESSAGE, 1, "Hello");
+
+    assertSame(frame, new FrameCompression(6, 1024).compress(frame));
+    assertSame(frame, new FrameCompression(6, 0).compress(frame));
+  }
+
+  @Test
+  void testBatchCarriesAllFrames() throws ProtocolException {
+    List<ByteBuffer> frames = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      frames.add(FrameCodec.encode(FrameType.MESSAGE, 0, "message " + i));
+    }
+
+    List<ByteBuffer> batches = new FrameCompression(6, 1024).batch(frames, 0);
+
+    assertEquals(1, batches.size());
+    Frame batch = new FrameCompression(6, 1024).inflate(new FrameCodec().decode(batches.get(0).duplicate()));
+    assertEquals(FrameType.BATCH, batch.getType());
+    FrameCodec codec = new FrameCodec();
+    ByteBuffer payload = batch.getPayload();
+    for (int i = 0; i < 50; i++) {
+      assertEquals("message " + i, codec.decode(payload).getText());
+    }
+    assertFalse(payload.hasRemaining());
+  }
+
+  @Test
+  void testRejectsFramesInflatingBeyondTheMaximum() throws ProtocolException {
+    ByteBuffer compressed = new FrameCompression(6, 1).compress(FrameCodec.encode(FrameType.MESSAGE, 0, LOG_LINE.repeat(10)));
+    Frame frame = new FrameCodec().decode(compressed.duplicate());
+
+    assertThrows(ProtocolException.class, () -> new FrameCompression(6, 1, 100).inflate(frame));
+  }
+
+  @Test
+  void testClosedCompressionSendsPlainFrames() throws ProtocolException {
+    ByteBuffer frame = FrameCodec.encode(FrameType.MESSAGE, 1, LOG_LINE.repeat(100));
+    Frame deflated = new FrameCodec().decode(new FrameCompression(6, 1024).compress(frame).duplicate());
+    FrameCompression compression = new FrameCompression(6, 1024);
+    compression.compress(frame);
+
+    compression.close();
+
+    // Messages delivered after the connection closed do not recreate the deflater
+    assertFalse(compression.isEnabled());
+    assertSame(frame, compression.compress(frame));
+    assertThrows(ProtocolException.class, () -> compression.inflate(deflated));
+  }
+
+  @Test
+  void testClosedCompressionBatchLeavesSharedFramesUntouched() {
+    ByteBuffer frame = FrameCodec.encode(FrameType.MESSAGE, 1, "Hello");
+    int length = frame.remaining();
+    FrameCompression compression = new FrameCompression(6, 1024);
+    compression.close();
+
+    List<ByteBuffer> batches = compression.batch(List.of(frame), 0);
+    // Writing the returned frame must not consume the frame shared with other recipients
+    ByteBuffer written = ByteBuffer.allocate(length);
+    written.put(batches.get(0));
+
+    assertEquals(1, batches.size());
+    assertEquals(length, frame.remaining());
+    assertEquals(frame, written.flip());
+  }
+}
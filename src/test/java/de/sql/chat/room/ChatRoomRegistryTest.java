@@ -0,0 +1,217 @@
+package de.sql.chat.room;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.journal.ChatJournal;
+import de.sql.chat.protocol.FrameCodec;
+import de.sql.chat.protocol.SessionResumption;
+import de.sql.chat.protocol.WireProtocol;
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import java.net.ProtocolException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChatRoomRegistryTest {
+
+  private ChatRoomRegistry registry;
+
+  @BeforeEach
+  public void setup() {
+    registry = new ChatRoomRegistry();
+  }
+
+  @Test
+  void testMessageIsFannedOutToOtherMembersOfTheRoom() {
+    RecordingMember sender = new RecordingMember();
+    RecordingMember first = new RecordingMember();
+    RecordingMember second = new RecordingMember();
+    registry.join(sender, ChatRoomRegistry.DEFAULT_ROOM);
+    registry.join(first, ChatRoomRegistry.DEFAULT_ROOM);
+    registry.join(second, ChatRoomRegistry.DEFAULT_ROOM);
+
+    assertFalse(registry.handleMessage(sender, "Client: Hello room"));
+
+    assertTrue(sender.lines.isEmpty());
+    assertEquals(List.of("Client: Hello room\n"), first.lines);
+    assertEquals(List.of("Client: Hello room\n"), second.lines);
+  }
+
+  @Test
+  void testAllRecipientsShareTheEncodedBytes() {
+    List<ChatMessage> delivered = new ArrayList<>();
+    ChatRoom room = registry.join(delivered::add, "shared");
+    registry.join(delivered::add, "shared");
+
+    room.publish(null, "Server: Hello");
+
+    assertEquals(2, delivered.size());
+    assertSame(delivered.get(0), delivered.get(1));
+    assertTrue(delivered.get(0).encoded(WireProtocol.LINE).isReadOnly());
+    assertSame(delivered.get(0).encoded(WireProtocol.BINARY), delivered.get(1).encoded(WireProtocol.BINARY));
+  }
+
+  @Test
+  void testJoinCommandMovesMemberToAnotherRoom() {
+    RecordingMember member = new RecordingMember();
+    RecordingMember lobbyMember = new RecordingMember();
+    registry.join(member, ChatRoomRegistry.DEFAULT_ROOM);
+    registry.join(lobbyMember, ChatRoomRegistry.DEFAULT_ROOM);
+
+    assertTrue(registry.handleMessage(member, "Client: /join dev"));
+    registry.handleMessage(member, "Client: Only for dev");
+
+    assertEquals("dev", registry.getRoom(member).getName());
+    assertEquals(List.of("Server: Joined room dev.\n"), member.lines);
+    assertTrue(lobbyMember.lines.isEmpty());
+  }
+
+  @Test
+  void testRepliesUseTheLocaleOfTheMember() {
+    List<ChatMessage> delivered = new ArrayList<>();
+    RoomMember member = new RoomMember() {
+      @Override
+      public void deliver(ChatMessage message) {
+        delivered.add(message);
+      }
+
+      @Override
+      public Locale getLocale() {
+        return Locale.GERMAN;
+      }
+    };
+    registry.join(member, ChatRoomRegistry.DEFAULT_ROOM);
+
+    assertTrue(registry.handleMessage(member, "Client: /join dev"));
+
+    assertEquals("Raum dev beigetreten.", delivered.get(0).getText());
+  }
+
+  @Test
+  void testHistoryCommandReturnsRecentMessagesOfTheRoom(@TempDir Path directory) throws ChatAppException {
+    RecordingMember sender = new RecordingMember();
+    RecordingMember reconnected = new RecordingMember();
+    registry.join(sender, ChatRoomRegistry.DEFAULT_ROOM);
+    registry.join(reconnected, ChatRoomRegistry.DEFAULT_ROOM);
+
+    try (ChatJournal journal = new ChatJournal(directory)) {
+      registry.setJournal(journal);
+      registry.handleMessage(sender, "Client: first");
+      registry.handleMessage(sender, "Client: second");
+      registry.handleMessage(sender, "Client: third");
+      // The writer syncs in order, so the earlier messages are durable once this one is
+      journal.append("elsewhere", new ChatMessage(ChatSenderType.CLIENT, "other room")).join();
+      reconnected.lines.clear();
+
+      assertTrue(registry.handleMessage(reconnected, "Client: /history 2"));
+      assertEquals(List.of("Client: second\n", "Client: third\n"), reconnected.lines);
+    }
+  }
+
+  @Test
+  void testEmptyRoomsAreRemovedExceptTheDefaultRoom() {
+    RecordingMember member = new RecordingMember();
+    ChatRoom lobby = registry.join(member, ChatRoomRegistry.DEFAULT_ROOM);
+    registry.join(member, "dev");
+
+    assertSame(lobby, registry.getRoom(ChatRoomRegistry.DEFAULT_ROOM));
+    assertTrue(registry.handleMessage(member, "Client: /leave"));
+    assertNull(registry.getRoom("dev"));
+
+    registry.leave(member);
+    assertNull(registry.getRoom(member));
+    assertEquals(1, registry.getRoomCount());
+  }
+
+  @Test
+  void testResumedSessionReceivesOnlyMissedMessages() throws ProtocolException {
+    registry.setResumption(10, Duration.ofMinutes(1));
+    RecordingConnection first = new RecordingConnection();
+    ResumableMember member = registry.resume(join(first), first, resumption("client", 0, 1));
+    assertTrue(member.accept(first));
+    assertTrue(member.accept(first));
+    registry.broadcast(new ChatMessage(ChatSenderType.SERVER, "before"));
+    // The first connection dropped, which the server has not noticed yet
+    registry.broadcast(new ChatMessage(ChatSenderType.SERVER, "missed"));
+
+    RecordingConnection second = new RecordingConnection();
+    // The new connection is in the room before its request is read and receives the next message directly
+    ResumableMember fresh = join(second);
+    registry.broadcast(new ChatMessage(ChatSenderType.SERVER, "fast"));
+
+    // The client received one message and writes its second message again
+    assertSame(member, registry.resume(fresh, second, resumption("client", 1, 2)));
+
+    assertEquals(List.of("Server: fast\n", "Server: missed\n"), second.lines);
+    assertEquals(List.of(2L), second.acknowledged);
+    assertEquals(1, member.getUnacknowledgedCount());
+    assertFalse(member.accept(second));
+    assertTrue(member.accept(second));
+    assertFalse(member.accept(first));
+    assertTrue(first.disconnected);
+    assertEquals(1, registry.getResumableCount());
+  }
+
+  @Test
+  void testRemovedSessionCannotBeResumed() throws ProtocolException {
+    registry.setResumption(10, Duration.ofMinutes(1));
+    RecordingConnection first = new RecordingConnection();
+    ResumableMember member = registry.resume(join(first), first, resumption("client", 0, 1));
+    registry.remove(member);
+
+    RecordingConnection second = new RecordingConnection();
+    ResumableMember fresh = join(second);
+
+    assertSame(fresh, registry.resume(fresh, second, resumption("client", 0, 1)));
+    assertTrue(fresh.isConnected());
+    assertEquals(1, registry.getResumableCount());
+  }
+
+  private ResumableMember join(RecordingConnection connection) {
+    ResumableMember member = new ResumableMember(connection);
+    registry.join(member, ChatRoomRegistry.DEFAULT_ROOM);
+    return member;
+  }
+
+  private static SessionResumption resumption(String clientId, long received, long nextSequence)
+      throws ProtocolException {
+    return SessionResumption.parseResume(
+        new FrameCodec().decode(SessionResumption.encodeResume(0, clientId, received, nextSequence)));
+  }
+
+  private static class RecordingConnection extends RecordingMember implements ResumableMember.Connection {
+    private final List<Long> acknowledged = new ArrayList<>();
+    private boolean disconnected;
+
+    @Override
+    public void acknowledge(long sequence) {
+      acknowledged.add(sequence);
+    }
+
+    @Override
+    public void disconnect() {
+      disconnected = true;
+    }
+  }
+
+  private static class RecordingMember implements RoomMember {
+    final List<String> lines = new ArrayList<>();
+
+    @Override
+    public void deliver(ChatMessage message) {
+      lines.add(UTF_8.decode(message.encoded(WireProtocol.LINE).duplicate()).toString());
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package de.sql.chat.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.session.ChatMessage;
+import de.sql.chat.session.ChatSenderType;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MessageIndexTest {
+
+  private MessageIndex index;
+
+  @BeforeEach
+  void setup() {
+    index = new MessageIndex();
+    index.add("lobby", new ChatMessage(ChatSenderType.CLIENT, "The deployment failed again"), 1_000);
+    index.add("lobby", new ChatMessage(ChatSenderType.SERVER, "Deployment restarted, please wait"), 2_000);
+    index.add("dev", new ChatMessage(ChatSenderType.CLIENT, "Is the deployment finished?"), 3_000);
+    index.add("", new ChatMessage(ChatSenderType.SERVER, "Maintenance: deployment window tonight"), 4_000);
+  }
+
+  @Test
+  void testTokenizeSplitsOnNonLetters() {
+    assertEquals(List.of("hello", "world", "42"), MessageIndex.tokenize("Hello, WORLD! 42 hello"));
+  }
+
+  @Test
+  void testSearchReturnsNewestMatchesFirst() {
+    assertEquals(List.of("Server: Maintenance: deployment window tonight", "Client: Is the deployment finished?",
+        "Server: Deployment restarted, please wait", "Client: The deployment failed again"), lines(SearchQuery.of("deployment")));
+    assertEquals(List.of("Client: The deployment failed again"), lines(SearchQuery.of("deployment FAILED")));
+    assertTrue(index.search(SearchQuery.of("deployment rollback")).isEmpty());
+  }
+
+  @Test
+  void testSearchAppliesFilters() {
+    assertEquals(List.of("Server: Deployment restarted, please wait"),
+        lines(SearchQuery.of("deployment").withRoom("lobby").withSender(ChatSenderType.SERVER).withTimeRange(0, 3_000)));
+    assertEquals(List.of("Server: Maintenance: deployment window tonight", "Client: Is the deployment finished?"),
+        lines(SearchQuery.of("deployment").withRoom("dev")));
+    assertEquals(1, index.search(SearchQuery.of("deployment").withLimit(1)).size());
+  }
+
+  @Test
+  void testParseReadsFilters() {
+    SearchQuery query = SearchQuery.parse("Deployment from:server since:2h");
+
+    assertEquals(List.of("deployment"), query.getTerms());
+    assertEquals(ChatSenderType.SERVER, query.getSender());
+    assertTrue(query.getFromTimestamp() > System.currentTimeMillis() - 3 * 60 * 60 * 1000);
+    assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("from:nobody deployment"));
+    assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("since:1w"));
+  }
+
+  @Test
+  void testStaysWithinMemoryBudget() {
+    MessageIndex bounded = new MessageIndex(2 * 1024 * 1024);
+    for (int i = 0; i < 200_000; i++) {
+      bounded.add("lobby", new ChatMessage(ChatSenderType.CLIENT, "message number " + i + " about topic" + (i % 100)), i);
+    }
+
+    assertTrue(bounded.getEstimatedMemory() <= bounded.getMemoryBudget());
+    assertTrue(bounded.getMessageCount() < 200_000);
+    // The most recent messages are still searchable
+    assertEquals(List.of("Client: message number 199999 about topic99"), bounded.search(SearchQuery.of("199999")).stream()
+        .map(SearchResult::toString).collect(Collectors.toList()));
+  }
+
+  private List<String> lines(SearchQuery query) {
+    return index.search(query).stream().map(SearchResult::toString).collect(Collectors.toList());
+  }
+}
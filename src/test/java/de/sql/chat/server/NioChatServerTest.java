@@ -0,0 +1,228 @@
+package de.sql.chat.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.sql.chat.client.ChatClient;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.journal.ChatJournal;
+import de.sql.chat.metrics.ChatMetrics;
+import de.sql.chat.session.EmptyUserInputSource;
+import de.sql.chat.util.TestUtils;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class NioChatServerTest {
+
+  private static final int CLIENT_COUNT = 5;
+  private static final Queue<String> serverMessages = new ConcurrentLinkedQueue<>();
+  private static NioChatServer chatServer;
+  private static List<ChatClient> chatClients = new ArrayList<>();
+
+  @BeforeAll
+  public static void setup() throws ChatAppException {
+    // Start the chat server with two I/O threads
+    chatServer = new NioChatServer(2);
+    chatServer.setMessageListener(serverMessages::add);
+    chatServer.start(new EmptyUserInputSource());
+
+    // Start several chat clients
+    for (int i = 0; i < CLIENT_COUNT; i++) {
+      ChatClient chatClient = new ChatClient(chatServer.getServerIP(), chatServer.getServerPort());
+      chatClient.start(new EmptyUserInputSource());
+      chatClients.add(chatClient);
+    }
+    TestUtils.sleepForShortDuration(500);
+  }
+
+  @AfterAll
+  public static void cleanup() throws ChatAppException {
+    chatServer.close();
+    for (ChatClient chatClient : chatClients) {
+      chatClient.close();
+    }
+  }
+
+  @Test
+  void testAcceptsMultipleClients() {
+    assertTrue(chatServer.isRunning());
+    assertEquals(CLIENT_COUNT, chatServer.getConnectionCount());
+  }
+
+  @Test
+  void testReceivesMessagesFromAllClients() {
+    for (ChatClient chatClient : chatClients) {
+      chatClient.sendMessage("Hello from " + chatClient.getClientSocket().getLocalPort());
+    }
+    TestUtils.sleepForShortDuration(500);
+
+    for (ChatClient chatClient : chatClients) {
+      assertTrue(serverMessages.contains("Client: Hello from " + chatClient.getClientSocket().getLocalPort()));
+    }
+  }
+
+  @Test
+  void testBroadcastReachesAllClients() {
+    List<Queue<String>> received = new ArrayList<>();
+    for (ChatClient chatClient : chatClients) {
+      Queue<String> messages = new ConcurrentLinkedQueue<>();
+      chatClient.getClientSession().setMessageListener(messages::add);
+      received.add(messages);
+    }
+
+    chatServer.broadcast("Hello everyone");
+    TestUtils.sleepForShortDuration(500);
+
+    for (Queue<String> messages : received) {
+      assertTrue(messages.contains("Server: Hello everyone"));
+    }
+  }
+
+  @Test
+  void testLargeMessagesAreRelayedDeflated() {
+    String text = "2026-10-18 10:15:00 INFO  [nio-worker-0] Client connected\n".repeat(200);
+    List<Queue<String>> received = new ArrayList<>();
+    for (ChatClient chatClient : chatClients.subList(1, CLIENT_COUNT)) {
+      Queue<String> messages = new ConcurrentLinkedQueue<>();
+      chatClient.getClientSession().setMessageListener(messages::add);
+      received.add(messages);
+    }
+    long compressedBefore = ChatMetrics.getInstance().getCompressionInputBytes();
+
+    chatClients.get(0).sendMessage(text);
+    TestUtils.sleepForShortDuration(500);
+
+    for (Queue<String> messages : received) {
+      assertTrue(messages.contains("Client: " + text));
+    }
+    // Deflated once by the sending client and once by the server for all recipients
+    assertTrue(ChatMetrics.getInstance().getCompressionInputBytes() - compressedBefore >= 2L * text.length());
+    assertTrue(ChatMetrics.getInstance().getCompressionRatio() > 1);
+  }
+
+  @Test
+  void testHistoryIsSentInBatches(@TempDir Path directory) throws ChatAppException {
+    NioChatServer historyServer = new NioChatServer(1);
+    historyServer.setMessageListener(message -> { });
+    Queue<String> history = new ConcurrentLinkedQueue<>();
+    try (ChatJournal journal = new ChatJournal(directory)) {
+      historyServer.setJournal(journal);
+      historyServer.start(new EmptyUserInputSource());
+      ChatClient writer = new ChatClient(historyServer.getServerIP(), historyServer.getServerPort());
+      writer.setMessageListener(message -> { });
+      writer.start(new EmptyUserInputSource());
+      ChatClient reader = new ChatClient(historyServer.getServerIP(), historyServer.getServerPort());
+      reader.setMessageListener(history::add);
+      reader.start(new EmptyUserInputSource());
+      TestUtils.sleepForShortDuration(500);
+      for (int i = 0; i < 30; i++) {
+        writer.sendMessage("message " + i);
+      }
+      TestUtils.sleepForShortDuration(500);
+      history.clear();
+      long compressedBefore = ChatMetrics.getInstance().getCompressionInputBytes();
+
+      reader.sendMessage("/history 30");
+      TestUtils.sleepForShortDuration(500);
+
+      assertEquals(30, history.size());
+      assertEquals("Client: message 0", history.peek());
+      assertTrue(ChatMetrics.getInstance().getCompressionInputBytes() > compressedBefore);
+      writer.close();
+      reader.close();
+    } finally {
+      historyServer.close();
+    }
+  }
+
+  @Test
+  void testClientReconnectsAndResumesSession() throws Exception {
+    NioChatServer resumeServer = new NioChatServer(1);
+    Queue<String> serverReceived = new ConcurrentLinkedQueue<>();
+    resumeServer.setMessageListener(serverReceived::add);
+    resumeServer.start(new EmptyUserInputSource());
+    Queue<String> received = new ConcurrentLinkedQueue<>();
+    Queue<String> otherReceived = new ConcurrentLinkedQueue<>();
+    ChatClient client = new ChatClient(resumeServer.getServerIP(), resumeServer.getServerPort());
+    client.setMessageListener(received::add);
+    ChatClient other = new ChatClient(resumeServer.getServerIP(), resumeServer.getServerPort());
+    other.setMessageListener(otherReceived::add);
+    try {
+      client.start(new EmptyUserInputSource());
+      other.start(new EmptyUserInputSource());
+      TestUtils.sleepForShortDuration(500);
+      other.sendMessage("before");
+      TestUtils.sleepForShortDuration(200);
+      long reconnectsBefore = ChatMetrics.getInstance().getReconnectAttempts();
+      long resumedBefore = ChatMetrics.getInstance().getResumedSessions();
+
+      // The connection drops without an exit command
+      client.getClientSocket().close();
+      TestUtils.sleepForShortDuration(100);
+      other.sendMessage("missed");
+      client.sendMessage("while away");
+      TestUtils.sleepForShortDuration(1500);
+
+      assertTrue(client.isRunning());
+      // Only the message missed while disconnected is sent again, not the earlier ones
+      assertEquals(List.of("Client: before", "Client: missed"), List.copyOf(received));
+      assertEquals(1, serverReceived.stream().filter("Client: while away"::equals).count());
+      assertEquals(1, otherReceived.stream().filter("Client: while away"::equals).count());
+      assertTrue(ChatMetrics.getInstance().getReconnectAttempts() > reconnectsBefore);
+      assertTrue(ChatMetrics.getInstance().getResumedSessions() > resumedBefore);
+      assertEquals(2, resumeServer.getConnectionCount());
+      client.close();
+      other.close();
+    } finally {
+      resumeServer.close();
+    }
+  }
+
+  @Test
+  void testMultiLineMessagesReachLinePeersAsAttributedLines() throws IOException {
+    try (Socket socket = new Socket(chatServer.getServerIP(), chatServer.getServerPort())) {
+      socket.setSoTimeout(5000);
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      TestUtils.sleepForShortDuration(200);
+
+      // The binary frame carries the line break, which must not end the line of the line peer
+      chatClients.get(0).sendMessage("hi\nEXIT");
+
+      String line;
+      while (!(line = in.readLine()).equals("Client: hi")) {
+        assertFalse(line.startsWith("hi"));
+      }
+      assertEquals("Client: EXIT", in.readLine());
+      TestUtils.sleepForShortDuration(200);
+      assertEquals(CLIENT_COUNT + 1, chatServer.getConnectionCount());
+    }
+  }
+
+  @Test
+  void testExitCommandClosesOnlyThatConnection() throws IOException {
+    try (Socket socket = new Socket(chatServer.getServerIP(), chatServer.getServerPort())) {
+      PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      TestUtils.sleepForShortDuration(200);
+      assertEquals(CLIENT_COUNT + 1, chatServer.getConnectionCount());
+
+      out.println("EXIT");
+
+      assertNull(in.readLine());
+      TestUtils.sleepForShortDuration(200);
+      assertEquals(CLIENT_COUNT, chatServer.getConnectionCount());
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package de.sql.chat.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.sql.chat.client.ChatClient;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.session.EmptyUserInputSource;
+import de.sql.chat.util.TestUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadChatServerTest {
+
+  private static final int MAX_CONNECTIONS = 3;
+  private static final Queue<String> serverMessages = new ConcurrentLinkedQueue<>();
+  private static VirtualThreadChatServer chatServer;
+  private static List<ChatClient> chatClients = new ArrayList<>();
+
+  @BeforeAll
+  public static void setup() throws ChatAppException {
+    // Start the chat server with a small connection cap
+    chatServer = new VirtualThreadChatServer(MAX_CONNECTIONS);
+    chatServer.setMessageListener(serverMessages::add);
+    chatServer.start(new EmptyUserInputSource());
+
+    // Start one more client than the server accepts
+    for (int i = 0; i <= MAX_CONNECTIONS; i++) {
+      ChatClient chatClient = new ChatClient(chatServer.getServerIP(), chatServer.getServerPort());
+      chatClient.start(new EmptyUserInputSource());
+      chatClients.add(chatClient);
+    }
+    TestUtils.sleepForShortDuration(500);
+  }
+
+  @AfterAll
+  public static void cleanup() throws ChatAppException {
+    chatServer.close();
+    for (ChatClient chatClient : chatClients) {
+      chatClient.close();
+    }
+  }
+
+  @Test
+  void testConnectionCountIsCapped() {
+    assertTrue(chatServer.isRunning());
+    assertEquals(MAX_CONNECTIONS, chatServer.getMaxConnections());
+    assertEquals(MAX_CONNECTIONS, chatServer.getConnectionCount());
+  }
+
+  @Test
+  void testReceivesMessagesAndBroadcasts() {
+    ChatClient chatClient = chatClients.get(0);
+    Queue<String> clientMessages = new ConcurrentLinkedQueue<>();
+    chatClient.getClientSession().setMessageListener(clientMessages::add);
+
+    chatClient.sendMessage("Hello virtual server");
+    chatServer.broadcast("Hello virtual client");
+    TestUtils.sleepForShortDuration(500);
+
+    assertTrue(serverMessages.contains("Client: Hello virtual server"));
+    assertEquals("Server: Hello virtual client", clientMessages.poll());
+  }
+
+  @Test
+  void testClientResumesSessionAfterReconnect() throws Exception {
+    VirtualThreadChatServer resumeServer = new VirtualThreadChatServer(MAX_CONNECTIONS);
+    Queue<String> serverReceived = new ConcurrentLinkedQueue<>();
+    resumeServer.setMessageListener(serverReceived::add);
+    resumeServer.start(new EmptyUserInputSource());
+    Queue<String> received = new ConcurrentLinkedQueue<>();
+    ChatClient client = new ChatClient(resumeServer.getServerIP(), resumeServer.getServerPort());
+    client.setMessageListener(received::add);
+    try {
+      client.start(new EmptyUserInputSource());
+      TestUtils.sleepForShortDuration(500);
+      resumeServer.broadcast("before");
+      TestUtils.sleepForShortDuration(200);
+
+      // The connection drops without an exit command
+      client.getClientSocket().close();
+      TestUtils.sleepForShortDuration(100);
+      resumeServer.broadcast("missed");
+      client.sendMessage("while away");
+      TestUtils.sleepForShortDuration(1500);
+
+      assertTrue(client.isRunning());
+      assertEquals(List.of("Server: before", "Server: missed"), List.copyOf(received));
+      assertEquals(1, serverReceived.stream().filter("Client: while away"::equals).count());
+      assertEquals(1, resumeServer.getConnectionCount());
+      client.close();
+    } finally {
+      resumeServer.close();
+    }
+  }
+}
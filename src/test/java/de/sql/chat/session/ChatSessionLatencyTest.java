@@ -0,0 +1,107 @@
+package de.sql.chat.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.exceptions.ChatAppException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the delivery latency of the blocking receive path over loopback.
+ */
+public class ChatSessionLatencyTest {
+    private static final int WARMUP_MESSAGES = 2_000;
+    private static final int MEASURED_MESSAGES = 5_000;
+    private static final long ONE_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final BlockingQueue<String> received = new ArrayBlockingQueue<>(16);
+    private static final BlockingQueue<Long> receivedAt = new ArrayBlockingQueue<>(16);
+    private static ServerSocket serverSocket;
+    private static ChatSession senderSession;
+    private static ChatSession receiverSession;
+
+    @BeforeAll
+    public static void setup() throws IOException, ChatAppException {
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Socket senderSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        Socket receiverSocket = serverSocket.accept();
+
+        senderSession = new ChatSession(ChatSenderType.CLIENT, senderSocket, new EmptyUserInputSource());
+        receiverSession = new ChatSession(ChatSenderType.SERVER, receiverSocket, new EmptyUserInputSource());
+        receiverSession.setMessageListener(message -> {
+            receivedAt.add(System.nanoTime());
+            received.add(message);
+        });
+
+        Thread receiverThread = new Thread(() -> {
+            try {
+                receiverSession.start();
+            } catch (ChatAppException e) {
+                e.printStackTrace();
+            }
+        });
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+    }
+
+    @AfterAll
+    public static void cleanup() throws IOException {
+        senderSession.close();
+        receiverSession.close();
+        serverSocket.close();
+    }
+
+    @Test
+    void testReceivedMessageIsHandedToListener() throws InterruptedException {
+        senderSession.sendMessage("Hello listener");
+
+        assertNotNull(receivedAt.poll(1, TimeUnit.SECONDS));
+        assertEquals("Client: Hello listener", received.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLoopbackDeliveryLatencyIsBelowOneMillisecond() throws InterruptedException {
+        measureRoundTrips(WARMUP_MESSAGES);
+        long[] latencies = measureRoundTrips(MEASURED_MESSAGES);
+
+        Arrays.sort(latencies);
+        long p50 = latencies[latencies.length / 2];
+        long p99 = latencies[(int) (latencies.length * 0.99)];
+        System.out.printf("Loopback delivery latency: p50=%d us, p99=%d us%n",
+                TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p99));
+
+        assertTrue(p50 < ONE_MILLISECOND, "p50 latency " + p50 + " ns");
+        assertTrue(p99 < ONE_MILLISECOND, "p99 latency " + p99 + " ns");
+    }
+
+    /**
+     * Sends the given number of messages one at a time and records how long each took to reach the listener.
+     *
+     * @param count the number of messages to send
+     * @return the delivery latency of every message in nanoseconds
+     */
+    private long[] measureRoundTrips(int count) throws InterruptedException {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            long sentAt = System.nanoTime();
+            senderSession.sendMessage("latency probe " + i);
+
+            Long deliveredAt = receivedAt.poll(1, TimeUnit.SECONDS);
+            assertNotNull(deliveredAt, "message " + i + " was not delivered");
+            assertEquals("Client: latency probe " + i, received.poll(1, TimeUnit.SECONDS));
+            latencies[i] = deliveredAt - sentAt;
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,180 @@
+package de.sql.chat.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.localization.LocalizedResourceManager;
+import de.sql.chat.protocol.FrameCodec;
+import de.sql.chat.protocol.FrameType;
+import de.sql.chat.protocol.ProtocolNegotiation;
+import de.sql.chat.protocol.WireProtocol;
+import de.sql.chat.util.TestUtils;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the negotiation between the line protocol and binary frames.
+ */
+public class ChatSessionProtocolTest {
+    private ServerSocket serverSocket;
+    private Socket clientSocket;
+    private Socket acceptedSocket;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        clientSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        acceptedSocket = serverSocket.accept();
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        clientSocket.close();
+        acceptedSocket.close();
+        serverSocket.close();
+    }
+
+    @Test
+    void testPeersSwitchToBinaryFrames() throws ChatAppException, InterruptedException {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        ChatSession client = new ChatSession(ChatSenderType.CLIENT, clientSocket, new EmptyUserInputSource());
+        ChatSession server = new ChatSession(ChatSenderType.SERVER, acceptedSocket, new EmptyUserInputSource());
+        server.setMessageListener(received::add);
+        listen(client);
+        listen(server);
+        TestUtils.sleepForShortDuration(200);
+
+        assertEquals(WireProtocol.BINARY, client.getWriteProtocol());
+        assertEquals(WireProtocol.BINARY, server.getWriteProtocol());
+
+        // Binary frames carry line breaks that the line protocol would split
+        client.sendMessage("first line\nsecond line");
+        assertEquals("Client: first line\nsecond line", received.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testClientAnnouncesItsLocale() throws ChatAppException {
+        ChatSession client = new ChatSession(ChatSenderType.CLIENT, clientSocket, new EmptyUserInputSource());
+        ChatSession server = new ChatSession(ChatSenderType.SERVER, acceptedSocket, new EmptyUserInputSource());
+        listen(client);
+        listen(server);
+        TestUtils.sleepForShortDuration(200);
+
+        LocalizedResourceManager manager = LocalizedResourceManager.getInstance();
+        assertEquals(manager.resolveLocale(manager.getCurrentLocale()), server.getPeerLocale());
+        assertNull(client.getPeerLocale());
+    }
+
+    @Test
+    void testLinePreferenceKeepsLineProtocol() throws ChatAppException, InterruptedException {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        ChatSession client = new ChatSession(ChatSenderType.CLIENT, clientSocket, new EmptyUserInputSource(), WireProtocol.LINE);
+        ChatSession server = new ChatSession(ChatSenderType.SERVER, acceptedSocket, new EmptyUserInputSource());
+        client.setMessageListener(received::add);
+        listen(client);
+        listen(server);
+
+        server.sendMessage("Hello");
+
+        assertEquals("Server: Hello", received.poll(1, TimeUnit.SECONDS));
+        assertEquals(WireProtocol.LINE, client.getWriteProtocol());
+        assertEquals(WireProtocol.LINE, server.getWriteProtocol());
+    }
+
+    @Test
+    void testFallsBackToLinesWithOldPeer() throws ChatAppException, IOException, InterruptedException {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        ChatSession client = new ChatSession(ChatSenderType.CLIENT, clientSocket, new EmptyUserInputSource());
+        client.setMessageListener(received::add);
+        listen(client);
+
+        // A peer that only knows the line protocol sees the hello as an ordinary line and never answers it
+        BufferedReader in = new BufferedReader(new InputStreamReader(acceptedSocket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(acceptedSocket.getOutputStream(), true, StandardCharsets.UTF_8);
+        assertEquals(ProtocolNegotiation.HELLO, in.readLine());
+
+        out.println("Server: Hello");
+        client.sendMessage("Hi");
+
+        assertEquals("Server: Hello", received.poll(1, TimeUnit.SECONDS));
+        assertEquals("Client: Hi", in.readLine());
+        assertEquals(WireProtocol.LINE, client.getWriteProtocol());
+    }
+
+    @Test
+    void testHeartbeatsKeepQuietSessionsOpen() throws ChatAppException, IOException, InterruptedException {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        ChatSession client = new ChatSession(ChatSenderType.CLIENT, clientSocket, new EmptyUserInputSource());
+        ChatSession server = new ChatSession(ChatSenderType.SERVER, acceptedSocket, new EmptyUserInputSource());
+        client.setHeartbeat(Duration.ofMillis(50), Duration.ofMillis(300), Duration.ofSeconds(10));
+        server.setHeartbeat(Duration.ofMillis(50), Duration.ofMillis(300), Duration.ofSeconds(10));
+        server.setMessageListener(received::add);
+        listen(client);
+        listen(server);
+
+        // Both peers stay quiet for longer than the read timeout, only the pings keep the sessions open
+        TestUtils.sleepForShortDuration(800);
+        client.sendMessage("Still here");
+
+        assertEquals("Client: Still here", received.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSilentPeerIsClosed() throws ChatAppException, IOException, InterruptedException {
+        ChatSession server = new ChatSession(ChatSenderType.SERVER, acceptedSocket, new EmptyUserInputSource());
+        server.setHeartbeat(Duration.ofMillis(50), Duration.ofMillis(300), Duration.ofSeconds(10));
+        Thread serverThread = listen(server);
+
+        // The peer negotiates binary frames, proves that it speaks heartbeats and then goes silent
+        OutputStream out = clientSocket.getOutputStream();
+        out.write((ProtocolNegotiation.HELLO + "\n" + ProtocolNegotiation.SWITCH + "\n").getBytes(StandardCharsets.UTF_8));
+        ByteBuffer ping = FrameCodec.encode(FrameType.PING, ChatSenderType.CLIENT.getId(), "");
+        byte[] frame = new byte[ping.remaining()];
+        ping.get(frame);
+        out.write(frame);
+        out.flush();
+
+        serverThread.join(2000);
+
+        assertFalse(serverThread.isAlive());
+        assertTrue(acceptedSocket.isClosed());
+    }
+
+    @Test
+    void testSilentPeerThatNeverAnsweredPingsIsClosed() throws ChatAppException, IOException, InterruptedException {
+        ChatSession server = new ChatSession(ChatSenderType.SERVER, acceptedSocket, new EmptyUserInputSource());
+        server.setHeartbeat(Duration.ofMillis(50), Duration.ofMillis(300), Duration.ofMillis(500));
+        Thread serverThread = listen(server);
+
+        // A line protocol peer that goes away without a word is closed after the idle timeout
+        serverThread.join(2000);
+
+        assertFalse(serverThread.isAlive());
+        assertTrue(acceptedSocket.isClosed());
+    }
+
+    private static Thread listen(ChatSession session) {
+        Thread thread = new Thread(session::listen);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,89 @@
+package de.sql.chat.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class MessageHistoryTest {
+
+  @Test
+  void testKeepsOnlyTheMostRecentMessages() {
+    MessageHistory history = new MessageHistory(3, false);
+    for (int i = 1; i <= 5; i++) {
+      history.add(ChatSenderType.CLIENT, "message " + i);
+    }
+
+    assertEquals(3, history.size());
+    assertEquals(5, history.getTotalCount());
+    assertEquals(List.of("Client: message 3", "Client: message 4", "Client: message 5"), history.snapshot());
+    assertEquals(List.of("Client: message 5"), history.tail(1));
+  }
+
+  @Test
+  void testCompactHistoryReturnsTheSameLines() {
+    MessageHistory history = new MessageHistory(4, true);
+    history.add(ChatSenderType.SERVER, "Gr\u00fc\u00dfe");
+    history.add(null, "raw line");
+
+    assertTrue(history.isCompact());
+    assertEquals(List.of("Server: Gr\u00fc\u00dfe", "raw line"), history.stream().collect(Collectors.toList()));
+  }
+
+  @Test
+  void testSnapshotIsImmutable() {
+    MessageHistory history = new MessageHistory();
+    history.add(ChatSenderType.CLIENT, "Hello");
+
+    List<String> snapshot = history.snapshot();
+    history.clear();
+
+    assertEquals(List.of("Client: Hello"), snapshot);
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.add("Client: Bye"));
+    assertTrue(history.isEmpty());
+  }
+
+  @Test
+  void testCursorFollowsConcurrentAppends() {
+    MessageHistory history = new MessageHistory(2, false);
+    history.add(ChatSenderType.CLIENT, "first");
+    Iterator<String> cursor = history.cursor();
+
+    // The first message is evicted before the cursor reaches it
+    history.add(ChatSenderType.CLIENT, "second");
+    history.add(ChatSenderType.CLIENT, "third");
+
+    List<String> lines = new ArrayList<>();
+    cursor.forEachRemaining(lines::add);
+    assertEquals(List.of("Client: second", "Client: third"), lines);
+    assertFalse(cursor.hasNext());
+
+    history.add(ChatSenderType.CLIENT, "fourth");
+    assertEquals("Client: fourth", cursor.next());
+  }
+
+  @Test
+  void testReadsWhileAnotherThreadAppends() throws InterruptedException {
+    MessageHistory history = new MessageHistory(100, true);
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < 100_000; i++) {
+        history.add(ChatSenderType.CLIENT, "message " + i);
+      }
+    });
+    writer.start();
+    while (writer.isAlive()) {
+      List<String> snapshot = history.snapshot();
+      assertTrue(snapshot.size() <= 100);
+      snapshot.forEach(line -> assertTrue(line.startsWith("Client: message ")));
+    }
+    writer.join();
+
+    assertEquals("Client: message 99999", history.tail(1).get(0));
+  }
+}
@@ -0,0 +1,105 @@
+package de.sql.chat.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MessageLogTest {
+
+  @Test
+  void testNumbersMessagesConsecutively() {
+    MessageLog log = new MessageLog(10, 5);
+
+    assertEquals(5, log.append(message("one")));
+    assertEquals(6, log.append(message("two")));
+    assertEquals(7, log.getNextSequence());
+    assertEquals(2, log.size());
+  }
+
+  @Test
+  void testAcknowledgeRemovesReceivedMessages() {
+    MessageLog log = new MessageLog(10);
+    ChatMessage three = message("three");
+    log.append(message("one"));
+    log.append(message("two"));
+    log.append(three);
+
+    log.acknowledge(2);
+
+    assertEquals(List.of(three), log.after(0));
+    assertEquals(3, log.getFirstSequence());
+    // Acknowledgements of messages that are no longer kept change nothing
+    log.acknowledge(1);
+    assertEquals(1, log.size());
+  }
+
+  @Test
+  void testAfterReturnsOnlyLaterMessages() {
+    MessageLog log = new MessageLog(10);
+    ChatMessage two = message("two");
+    ChatMessage three = message("three");
+    log.append(message("one"));
+    log.append(two);
+    log.append(three);
+
+    assertEquals(List.of(two, three), log.after(1));
+    assertEquals(List.of(), log.after(3));
+    assertEquals(3, log.size());
+  }
+
+  @Test
+  void testDropsOldestMessageWhenFull() {
+    MessageLog log = new MessageLog(2);
+    ChatMessage two = message("two");
+    ChatMessage three = message("three");
+    log.append(message("one"));
+    log.append(two);
+
+    assertEquals(3, log.append(three));
+
+    assertEquals(List.of(two, three), log.after(0));
+    assertEquals(2, log.getFirstSequence());
+    assertEquals(1, log.getDroppedCount());
+  }
+
+  @Test
+  void testClearContinuesNumbering() {
+    MessageLog log = new MessageLog(10);
+    log.append(message("one"));
+    log.append(message("two"));
+
+    log.clear();
+
+    assertEquals(0, log.size());
+    assertEquals(3, log.append(message("three")));
+  }
+
+  @Test
+  void testRejectsInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new MessageLog(0));
+  }
+
+  @Test
+  void testResumeStateKeepsMessagesOnlyForAcknowledgingServers() {
+    ResumeState state = new ResumeState(10);
+    state.add(message("one"));
+    state.connectionLost();
+    assertEquals(List.of(), state.getUnacknowledged());
+    assertEquals(2, state.getFirstUnacknowledged());
+
+    ChatMessage three = message("three");
+    state.add(message("two"));
+    state.add(three);
+    state.acknowledge(2);
+    state.connectionLost();
+
+    assertEquals(List.of(three), state.getUnacknowledged());
+    assertEquals(3, state.getFirstUnacknowledged());
+  }
+
+  private static ChatMessage message(String text) {
+    return new ChatMessage(ChatSenderType.CLIENT, text);
+  }
+}
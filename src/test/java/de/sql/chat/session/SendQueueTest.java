@@ -0,0 +1,240 @@
+package de.sql.chat.session;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.protocol.FrameCodec;
+import de.sql.chat.protocol.FrameType;
+import de.sql.chat.protocol.LineCodec;
+import de.sql.chat.protocol.ProtocolNegotiation;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+
+class SendQueueTest {
+
+  @Test
+  void testWritesImmediatelyWithoutWindow() throws Exception {
+    RecordingChannel channel = new RecordingChannel();
+    SendQueue queue = new SendQueue(channel);
+
+    queue.send(ascii("one\n"));
+    queue.send(ascii("two\n"));
+
+    assertEquals(List.of("one\n", "two\n"), channel.writes);
+  }
+
+  @Test
+  void testCoalescesMessagesWithinWindow() throws Exception {
+    RecordingChannel channel = new RecordingChannel();
+    SendQueue queue = new SendQueue(channel);
+    queue.configure(TimeUnit.SECONDS.toNanos(30), 1024);
+
+    queue.send(ascii("one\n"));
+    queue.send(ascii("two\n"));
+    assertEquals(8, queue.getPendingBytes());
+    assertEquals(List.of(), channel.writes);
+
+    queue.flush();
+    assertEquals(List.of("one\ntwo\n"), channel.writes);
+    assertEquals(0, queue.getPendingBytes());
+  }
+
+  @Test
+  void testWritesOnceBatchLimitIsReached() throws Exception {
+    RecordingChannel channel = new RecordingChannel();
+    SendQueue queue = new SendQueue(channel);
+    queue.configure(TimeUnit.SECONDS.toNanos(30), 8);
+
+    queue.send(ascii("one\n"));
+    queue.send(ascii("two\n"));
+    queue.send(ascii("a line longer than a batch\n"));
+    queue.flush();
+
+    assertEquals(List.of("one\ntwo\n", "a line longer than a batch\n"), channel.writes);
+  }
+
+  @Test
+  void testWindowExpiryFlushes() throws Exception {
+    RecordingChannel channel = new RecordingChannel();
+    SendQueue queue = new SendQueue(channel);
+    queue.configure(TimeUnit.MILLISECONDS.toNanos(10), 1024);
+
+    queue.send(ascii("one\n"));
+    queue.send(ascii("two\n"));
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (channel.size() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(List.of("one\ntwo\n"), channel.snapshot());
+  }
+
+  @Test
+  void testRejectsInvalidConfiguration() {
+    SendQueue queue = new SendQueue(new RecordingChannel());
+
+    assertThrows(IllegalArgumentException.class, () -> queue.configure(-1, 1024));
+    assertThrows(IllegalArgumentException.class, () -> queue.configure(0, 0));
+  }
+
+  @Test
+  void testDropOldestKeepsNewestMessagesForStalledPeer() throws Exception {
+    StalledChannel channel = new StalledChannel();
+    SendQueue queue = new SendQueue(channel);
+    ByteBuffer switchLine = LineCodec.encode(ProtocolNegotiation.SWITCH);
+    ByteBuffer ping = FrameCodec.encode(FrameType.PING, 1, "");
+    int controlBytes = switchLine.remaining() + ping.remaining();
+    String control = US_ASCII.decode(switchLine.duplicate()).toString() + US_ASCII.decode(ping.duplicate());
+    queue.configureOverflow(controlBytes + 4, OverflowPolicy.DROP_OLDEST);
+
+    queue.send(message("aaaa"), true);
+    awaitCondition(() -> channel.size() == 0 && queue.getPendingCount() == 0);
+    // The encoded control output is read-only like the messages, but never droppable
+    queue.send(switchLine);
+    queue.send(message("bbbb"), true);
+    queue.send(ping);
+    queue.send(message("cccc"), true);
+
+    assertTrue(switchLine.isReadOnly() && ping.isReadOnly());
+    assertEquals(1, queue.getDroppedCount());
+    assertEquals(controlBytes + 4, queue.getPendingBytes());
+    channel.release.countDown();
+    awaitCondition(() -> queue.getPendingBytes() == 0 && channel.size() == 2);
+    assertEquals(List.of("aaaa", control + "cccc"), channel.snapshot());
+  }
+
+  @Test
+  void testDisconnectDropsQueuedMessagesOfStalledPeer() throws Exception {
+    StalledChannel channel = new StalledChannel();
+    CountDownLatch disconnected = new CountDownLatch(1);
+    SendQueue queue = new SendQueue(channel, disconnected::countDown);
+    queue.configureOverflow(8, OverflowPolicy.DISCONNECT);
+
+    queue.send(message("aaaa"));
+    awaitCondition(() -> queue.getPendingCount() == 0);
+    queue.send(message("bbbb"));
+    queue.send(message("cccc"));
+    queue.send(message("dddd"));
+
+    assertTrue(disconnected.await(5, TimeUnit.SECONDS));
+    assertEquals(3, queue.getDroppedCount());
+    assertEquals(0, queue.getPendingBytes());
+    queue.send(message("eeee"));
+    assertEquals(4, queue.getDroppedCount());
+    channel.release.countDown();
+  }
+
+  @Test
+  void testBlockPolicyMakesSenderWaitForStalledPeer() throws Exception {
+    StalledChannel channel = new StalledChannel();
+    SendQueue queue = new SendQueue(channel);
+    queue.configureOverflow(8, OverflowPolicy.BLOCK);
+
+    Thread writer = new Thread(() -> sendQuietly(queue, message("aaaa")));
+    writer.start();
+    awaitCondition(() -> queue.getPendingCount() == 0 && writer.getState() == Thread.State.WAITING);
+    queue.send(message("bbbb"));
+    queue.send(message("cccc"));
+    Thread blocked = new Thread(() -> sendQuietly(queue, message("dddd")));
+    blocked.start();
+    awaitCondition(() -> blocked.getState() == Thread.State.WAITING);
+    assertEquals(8, queue.getPendingBytes());
+
+    channel.release.countDown();
+    blocked.join(5000);
+    writer.join(5000);
+    assertFalse(blocked.isAlive());
+    assertEquals(0, queue.getDroppedCount());
+    assertEquals("aaaabbbbccccdddd", String.join("", channel.snapshot()));
+  }
+
+  private static void sendQuietly(SendQueue queue, ByteBuffer buffer) {
+    try {
+      queue.send(buffer);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  /**
+   * Encodes a chat message payload as the read-only buffer a shared {@link ChatMessage} encoding is.
+   */
+  private static ByteBuffer message(String text) {
+    return ascii(text).asReadOnlyBuffer();
+  }
+
+  private static ByteBuffer ascii(String text) {
+    return ByteBuffer.wrap(text.getBytes(US_ASCII));
+  }
+
+  /**
+   * A channel of a peer that stopped reading, every write blocks until the peer is released.
+   */
+  private static class StalledChannel extends RecordingChannel {
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public int write(ByteBuffer src) {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return super.write(src);
+    }
+  }
+
+  /**
+   * A channel that records the bytes of every write call.
+   */
+  private static class RecordingChannel implements WritableByteChannel {
+    private final List<String> writes = new ArrayList<>();
+
+    @Override
+    public synchronized int write(ByteBuffer src) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      int written = src.remaining();
+      while (src.hasRemaining()) {
+        bytes.write(src.get());
+      }
+      writes.add(bytes.toString(US_ASCII));
+      return written;
+    }
+
+    synchronized int size() {
+      return writes.size();
+    }
+
+    synchronized List<String> snapshot() {
+      return new ArrayList<>(writes);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+      // Nothing to release
+    }
+  }
+}
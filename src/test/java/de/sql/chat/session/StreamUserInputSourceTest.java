@@ -0,0 +1,148 @@
+package de.sql.chat.session;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.util.TestUtils;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class StreamUserInputSourceTest {
+
+  @Test
+  void testPublishesEveryLineAndCompletes() throws InterruptedException {
+    StreamUserInputSource source = source(10_000);
+    List<String> lines = new CopyOnWriteArrayList<>();
+    CountDownLatch completed = new CountDownLatch(1);
+
+    source.subscribe(new UserInputSubscriber(lines::add) {
+      @Override
+      public void onComplete() {
+        completed.countDown();
+      }
+    });
+
+    assertTrue(completed.await(5, TimeUnit.SECONDS));
+    assertEquals(10_000, lines.size());
+    assertEquals("line 0", lines.get(0));
+    assertEquals("line 9999", lines.get(9999));
+  }
+
+  @Test
+  void testPublishesOnlyRequestedLines() {
+    StreamUserInputSource source = source(10);
+    List<String> lines = new CopyOnWriteArrayList<>();
+
+    source.subscribe(new Flow.Subscriber<String>() {
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(3);
+      }
+
+      @Override
+      public void onNext(String line) {
+        lines.add(line);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        // Not expected
+      }
+
+      @Override
+      public void onComplete() {
+        // Not expected
+      }
+    });
+    TestUtils.sleepForShortDuration(200);
+
+    assertEquals(List.of("line 0", "line 1", "line 2"), lines);
+  }
+
+  @Test
+  void testInvalidRequestIsSignalledOnInputThread() throws InterruptedException {
+    StreamUserInputSource source = source(10);
+    BlockingQueue<Flow.Subscription> subscriptions = new LinkedBlockingQueue<>();
+    BlockingQueue<String> errorThreads = new LinkedBlockingQueue<>();
+
+    source.subscribe(new Flow.Subscriber<String>() {
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscriptions.add(subscription);
+      }
+
+      @Override
+      public void onNext(String line) {
+        // Not expected
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        errorThreads.add(Thread.currentThread().getName());
+      }
+
+      @Override
+      public void onComplete() {
+        // Not expected
+      }
+    });
+    Flow.Subscription subscription = subscriptions.poll(5, TimeUnit.SECONDS);
+    subscription.request(0);
+
+    // Signalled serially with the other signals, not on the thread that made the request
+    assertEquals("user-input", errorThreads.poll(5, TimeUnit.SECONDS));
+    subscription.request(-1);
+    TestUtils.sleepForShortDuration(100);
+    assertTrue(errorThreads.isEmpty());
+  }
+
+  @Test
+  void testSessionSendsInputWithoutPolling() throws IOException, ChatAppException, InterruptedException {
+    try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Socket clientSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        Socket acceptedSocket = serverSocket.accept()) {
+      BlockingQueue<String> received = new LinkedBlockingQueue<>();
+      ChatSession server = new ChatSession(ChatSenderType.SERVER, acceptedSocket, new EmptyUserInputSource());
+      server.setMessageListener(received::add);
+      Thread listener = new Thread(server::listen);
+      listener.setDaemon(true);
+      listener.start();
+      ChatSession client = new ChatSession(ChatSenderType.CLIENT, clientSocket, source(1000));
+      Thread sender = new Thread(() -> {
+        try {
+          client.start();
+        } catch (ChatAppException e) {
+          // Reported by the assertions below
+        }
+      });
+      sender.setDaemon(true);
+      sender.start();
+
+      // Polling once per line would take 100 seconds
+      for (int i = 0; i < 1000; i++) {
+        assertEquals("Client: line " + i, received.poll(5, TimeUnit.SECONDS));
+      }
+    }
+  }
+
+  private static StreamUserInputSource source(int lineCount) {
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < lineCount; i++) {
+      input.append("line ").append(i).append('\n');
+    }
+    return new StreamUserInputSource(new ByteArrayInputStream(input.toString().getBytes(UTF_8)), UTF_8);
+  }
+}
@@ -0,0 +1,187 @@
+package de.sql.chat.tls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sql.chat.client.ChatClient;
+import de.sql.chat.config.ChatConfiguration;
+import de.sql.chat.config.Tls;
+import de.sql.chat.config.TlsSettings;
+import de.sql.chat.exceptions.ChatAppException;
+import de.sql.chat.server.NioChatServer;
+import de.sql.chat.server.VirtualThreadChatServer;
+import de.sql.chat.session.EmptyUserInputSource;
+import de.sql.chat.session.MessageListener;
+import de.sql.chat.util.TestUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.net.ssl.SSLSocket;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TlsContextTest {
+
+  private static Path keyStore;
+  private static TlsContext tlsContext;
+
+  @BeforeAll
+  static void setup() throws URISyntaxException, ChatAppException {
+    keyStore = Path.of(TlsContextTest.class.getResource("/tls/test-keystore.p12").toURI());
+    Tls tls = new Tls();
+    tls.setEnabled(true);
+    tls.setKeyStore(keyStore.toString());
+    tls.setKeyStorePassword("changeit");
+    // The self-signed test certificate is its own trust anchor
+    tls.setTrustStore(keyStore.toString());
+    tls.setTrustStorePassword("changeit");
+    ChatConfiguration configuration = new ChatConfiguration();
+    configuration.setTls(tls);
+    tlsContext = TlsContext.create(TlsSettings.from(configuration));
+  }
+
+  @Test
+  void testTlsIsDisabledByDefault() throws ChatAppException {
+    assertNull(TlsContext.current());
+  }
+
+  @Test
+  void testNioServerRelaysEncryptedMessages() throws ChatAppException {
+    NioChatServer chatServer = new NioChatServer(1);
+    chatServer.setTlsContext(tlsContext);
+    chatServer.setMessageListener(message -> { });
+    chatServer.start(new EmptyUserInputSource());
+    Queue<String> received = new ConcurrentLinkedQueue<>();
+    ChatClient sender = startClient(chatServer.getServerIP(), chatServer.getServerPort(), message -> { });
+    ChatClient receiver = startClient(chatServer.getServerIP(), chatServer.getServerPort(), received::add);
+    try {
+      TestUtils.sleepForShortDuration(1000);
+      assertInstanceOf(SSLSocket.class, sender.getClientSocket());
+
+      // More than a TLS record, so the server reads it in several records and rounds
+      String longText = "x".repeat(40_000);
+      sender.sendMessage("Hello over TLS");
+      sender.sendMessage(longText);
+      TestUtils.sleepForShortDuration(1000);
+
+      assertTrue(received.contains("Client: Hello over TLS"));
+      assertTrue(received.contains("Client: " + longText));
+    } finally {
+      sender.close();
+      receiver.close();
+      chatServer.close();
+    }
+  }
+
+  @Test
+  void testBlockingServerReceivesEncryptedMessages() throws ChatAppException {
+    VirtualThreadChatServer chatServer = new VirtualThreadChatServer();
+    Queue<String> received = new ConcurrentLinkedQueue<>();
+    chatServer.setTlsContext(tlsContext);
+    chatServer.setMessageListener(received::add);
+    chatServer.start(new EmptyUserInputSource());
+    ChatClient client = startClient(chatServer.getServerIP(), chatServer.getServerPort(), message -> { });
+    try {
+      TestUtils.sleepForShortDuration(1000);
+      client.sendMessage("Hello over TLS");
+      TestUtils.sleepForShortDuration(500);
+
+      assertTrue(received.contains("Client: Hello over TLS"));
+    } finally {
+      client.close();
+      chatServer.close();
+    }
+  }
+
+  @Test
+  void testReconnectResumesSession() throws ChatAppException {
+    NioChatServer chatServer = new NioChatServer(1);
+    chatServer.setTlsContext(tlsContext);
+    chatServer.setMessageListener(message -> { });
+    chatServer.start(new EmptyUserInputSource());
+    try {
+      ChatClient first = startClient(chatServer.getServerIP(), chatServer.getServerPort(), message -> { });
+      TestUtils.sleepForShortDuration(1000);
+      long created = ((SSLSocket) first.getClientSocket()).getSession().getCreationTime();
+      first.close();
+
+      ChatClient second = startClient(chatServer.getServerIP(), chatServer.getServerPort(), message -> { });
+      TestUtils.sleepForShortDuration(1000);
+      // A resumed session keeps the creation time of the session it resumes
+      assertEquals(created, ((SSLSocket) second.getClientSocket()).getSession().getCreationTime());
+      second.close();
+    } finally {
+      chatServer.close();
+    }
+  }
+
+  @Test
+  void testTrustStoreTypeIsDetectedFromFile(@TempDir Path directory)
+      throws ChatAppException, IOException, GeneralSecurityException {
+    // A JKS trust store next to the PKCS12 key store of the server
+    KeyStore certificates = KeyStore.getInstance("PKCS12");
+    try (InputStream in = Files.newInputStream(keyStore)) {
+      certificates.load(in, "changeit".toCharArray());
+    }
+    KeyStore trusted = KeyStore.getInstance("JKS");
+    trusted.load(null, null);
+    String alias = certificates.aliases().nextElement();
+    trusted.setCertificateEntry(alias, certificates.getCertificate(alias));
+    Path trustStore = directory.resolve("truststore.jks");
+    try (OutputStream out = Files.newOutputStream(trustStore)) {
+      trusted.store(out, "changeit".toCharArray());
+    }
+    Tls tls = new Tls();
+    tls.setEnabled(true);
+    tls.setKeyStoreType("PKCS12");
+    tls.setTrustStore(trustStore.toString());
+    tls.setTrustStorePassword("changeit");
+    ChatConfiguration configuration = new ChatConfiguration();
+    configuration.setTls(tls);
+    TlsSettings settings = TlsSettings.from(configuration);
+    assertNull(settings.getTrustStoreType());
+    TlsContext clientContext = TlsContext.create(settings);
+
+    NioChatServer chatServer = new NioChatServer(1);
+    Queue<String> received = new ConcurrentLinkedQueue<>();
+    chatServer.setTlsContext(tlsContext);
+    chatServer.setMessageListener(received::add);
+    chatServer.start(new EmptyUserInputSource());
+    ChatClient client = startClient(chatServer.getServerIP(), chatServer.getServerPort(), message -> { },
+        clientContext);
+    try {
+      TestUtils.sleepForShortDuration(1000);
+      client.sendMessage("Hello over TLS");
+      TestUtils.sleepForShortDuration(500);
+
+      assertTrue(received.contains("Client: Hello over TLS"));
+    } finally {
+      client.close();
+      chatServer.close();
+    }
+  }
+
+  private static ChatClient startClient(String serverIP, int serverPort, MessageListener listener)
+      throws ChatAppException {
+    return startClient(serverIP, serverPort, listener, tlsContext);
+  }
+
+  private static ChatClient startClient(String serverIP, int serverPort, MessageListener listener,
+      TlsContext context) throws ChatAppException {
+    ChatClient client = new ChatClient(serverIP, serverPort);
+    client.setTlsContext(context);
+    client.setMessageListener(listener);
+    client.start(new EmptyUserInputSource());
+    return client;
+  }
+}
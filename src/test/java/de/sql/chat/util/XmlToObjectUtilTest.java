@@ -0,0 +1,44 @@
+package de.sql.chat.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.sql.chat.config.ChatConfiguration;
+import jakarta.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class XmlToObjectUtilTest {
+
+  private static final String XML = "<ChatConfiguration xmlns=\"config.chat.sql.de\" version=\"3.0\">"
+      + "<Application><Name>Test Application</Name><Local>en</Local></Application></ChatConfiguration>";
+
+  @Test
+  void testStringStreamAndFileGiveTheSameResult(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("configuration-chat.xml");
+    Files.writeString(file, XML);
+
+    ChatConfiguration fromString = new XmlToObjectUtil<>(XML, ChatConfiguration.class).getTargetObject();
+    ChatConfiguration fromStream = XmlToObjectUtil.unmarshal(new ByteArrayInputStream(XML.getBytes(UTF_8)), ChatConfiguration.class);
+    ChatConfiguration fromFile = XmlToObjectUtil.unmarshal(file, ChatConfiguration.class);
+
+    assertEquals("Test Application", fromString.getApplication().getName());
+    assertEquals("Test Application", fromStream.getApplication().getName());
+    assertEquals("en", fromFile.getApplication().getLocal());
+  }
+
+  @Test
+  void testContextIsCreatedOncePerClass() throws Exception {
+    assertSame(XmlToObjectUtil.getContext(ChatConfiguration.class), XmlToObjectUtil.getContext(ChatConfiguration.class));
+  }
+
+  @Test
+  void testMalformedXmlIsRejected() {
+    assertThrows(JAXBException.class, () -> new XmlToObjectUtil<>("<ChatConfiguration", ChatConfiguration.class));
+  }
+}